@@ -3,6 +3,8 @@ package it.unibz.inf.ontop.rdf4j.predefined;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.exception.OntopReformulationException;
 import org.eclipse.rdf4j.query.GraphQueryResult;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
 
@@ -46,6 +48,17 @@ public interface OntopRDF4JPredefinedQueryEngine {
 
     GraphQueryResult evaluateGraph(String queryId, ImmutableMap<String, String> bindings) throws QueryEvaluationException;
 
+    ImmutableSet<String> getQueryIds();
+
+    /**
+     * Generates in advance the reference query of a predefined query (warm-up),
+     * so that its first call does not have to wait for its reformulation.
+     *
+     * Returns false if it cannot be generated in advance
+     * (some required parameters are not safe for random generation).
+     */
+    boolean prepare(String queryId) throws OntopReformulationException;
+
     // TODO: add methods for select and ask
 
 }
@@ -33,4 +33,11 @@ public interface PredefinedQuery<Q extends RDF4JInputQuery> {
      * NB: the bindings should have been validated before
      */
     ImmutableMap<String, String> replaceWithReferenceValues(ImmutableMap<String, String> bindings);
+
+    /**
+     * Reference values of the required parameters.
+     *
+     * Empty if one of them is not safe for random generation.
+     */
+    Optional<ImmutableMap<String, String>> getReferenceBindings();
 }
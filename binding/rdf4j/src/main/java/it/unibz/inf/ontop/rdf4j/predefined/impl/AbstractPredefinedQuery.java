@@ -132,6 +132,23 @@ public class AbstractPredefinedQuery<Q extends RDF4JInputQuery> implements Prede
                                 .orElseGet(e::getValue)));
     }
 
+    @Override
+    public Optional<ImmutableMap<String, String>> getReferenceBindings() {
+        ImmutableMap<String, PredefinedQueryConfigEntry.QueryParameter> requiredParameterMap = queryConfig.getParameters().entrySet().stream()
+                .filter(e -> e.getValue().getRequired())
+                .collect(ImmutableCollectors.toMap());
+
+        if (!requiredParameterMap.values().stream().allMatch(PredefinedQueryConfigEntry.QueryParameter::isSafeForRandomGeneration))
+            return Optional.empty();
+
+        return Optional.of(requiredParameterMap.entrySet().stream()
+                .collect(ImmutableCollectors.toMap(
+                        Map.Entry::getKey,
+                        e -> getReferenceValue(e.getKey(), e.getValue())
+                                .orElseThrow(() -> new MinorOntopInternalBugException(
+                                        "A reference value was expected for " + e.getKey())))));
+    }
+
     private Value convertAndValidate(String lexicalValue, PredefinedQueryConfigEntry.QueryParameterType parameterType,
                                      ValueFactory valueFactory) {
         switch (parameterType.getCategory()) {
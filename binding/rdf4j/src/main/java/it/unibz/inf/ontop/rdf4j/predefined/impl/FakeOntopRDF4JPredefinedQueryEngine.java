@@ -3,6 +3,7 @@ package it.unibz.inf.ontop.rdf4j.predefined.impl;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.rdf4j.predefined.OntopRDF4JPredefinedQueryEngine;
 import org.eclipse.rdf4j.query.GraphQueryResult;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
@@ -41,4 +42,14 @@ public class FakeOntopRDF4JPredefinedQueryEngine implements OntopRDF4JPredefined
     public GraphQueryResult evaluateGraph(String queryId, ImmutableMap<String, String> bindings) throws QueryEvaluationException {
         throw new UnsupportedOperationException("Intended to be used by the HTTP endpoint only");
     }
+
+    @Override
+    public ImmutableSet<String> getQueryIds() {
+        return ImmutableSet.of();
+    }
+
+    @Override
+    public boolean prepare(String queryId) {
+        return false;
+    }
 }
@@ -9,11 +9,14 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import com.google.inject.Injector;
 import it.unibz.inf.ontop.answering.OntopQueryEngine;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
 import it.unibz.inf.ontop.answering.connection.OntopStatement;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.metrics.OntopMetrics;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
 import it.unibz.inf.ontop.answering.reformulation.input.ConstructTemplate;
 import it.unibz.inf.ontop.answering.reformulation.input.RDF4JInputQuery;
@@ -21,6 +24,7 @@ import it.unibz.inf.ontop.answering.resultset.GraphResultSet;
 import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
 import it.unibz.inf.ontop.exception.OntopReformulationException;
 import it.unibz.inf.ontop.injection.OntopSystemConfiguration;
+import it.unibz.inf.ontop.injection.OntopSystemSettings;
 import it.unibz.inf.ontop.iq.IQ;
 import it.unibz.inf.ontop.rdf4j.jsonld.EmptyResultException;
 import it.unibz.inf.ontop.rdf4j.jsonld.FramedJSONLDWriterFactory;
@@ -46,6 +50,7 @@ import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -59,7 +64,8 @@ public class OntopRDF4JPredefinedQueryEngineImpl implements OntopRDF4JPredefined
     private final ImmutableMap<String, PredefinedTupleQuery> tupleQueries;
     private final QueryReformulator queryReformulator;
     private final QueryLogger.Factory queryLoggerFactory;
-    private final Cache<ImmutableMap<String, String>, IQ> referenceQueryCache;
+    private final Cache<ReferenceQueryKey, IQ> referenceQueryCache;
+    private final OntopMetrics.Counter referenceQueryHitCounter, referenceQueryMissCounter;
     private final ReferenceValueReplacer valueReplacer;
     private final DocumentLoader documentLoader;
 
@@ -78,8 +84,22 @@ public class OntopRDF4JPredefinedQueryEngineImpl implements OntopRDF4JPredefined
         queryLoggerFactory = injector.getInstance(QueryLogger.Factory.class);
         valueReplacer = injector.getInstance(ReferenceValueReplacer.class);
 
-        // TODO: think about the dimensions
-        referenceQueryCache = CacheBuilder.newBuilder()
+        OntopSystemSettings settings = configuration.getSettings();
+        OntopMetrics metrics = injector.getInstance(OntopMetrics.class);
+        referenceQueryHitCounter = metrics.counter(OntopMetrics.PREDEFINED_QUERY_CACHE_HIT_COUNTER);
+        referenceQueryMissCounter = metrics.counter(OntopMetrics.PREDEFINED_QUERY_CACHE_MISS_COUNTER);
+        OntopMetrics.Counter referenceQueryEvictionCounter = metrics.counter(OntopMetrics.PREDEFINED_QUERY_CACHE_EVICTION_COUNTER);
+
+        CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder()
+                .maximumSize(settings.getPredefinedQueryCacheMaxSize());
+        long ttl = settings.getPredefinedQueryCacheTTL();
+        if (ttl > 0)
+            cacheBuilder.expireAfterWrite(ttl, TimeUnit.MILLISECONDS);
+        referenceQueryCache = cacheBuilder
+                .removalListener(n -> {
+                    if (n.wasEvicted())
+                        referenceQueryEvictionCounter.increment();
+                })
                 .build();
 
         documentLoader = new DocumentLoader();
@@ -278,6 +298,28 @@ public class OntopRDF4JPredefinedQueryEngineImpl implements OntopRDF4JPredefined
         }
     }
 
+    @Override
+    public ImmutableSet<String> getQueryIds() {
+        return Sets.union(graphQueries.keySet(), tupleQueries.keySet()).immutableCopy();
+    }
+
+    @Override
+    public boolean prepare(String queryId) throws OntopReformulationException {
+        PredefinedQuery<?> predefinedQuery = Optional.<PredefinedQuery<?>>ofNullable(graphQueries.get(queryId))
+                .orElseGet(() -> Optional.ofNullable(tupleQueries.get(queryId))
+                        .orElseThrow(() -> new IllegalArgumentException("The query " + queryId + " is not defined")));
+
+        Optional<ImmutableMap<String, String>> referenceBindings = predefinedQuery.getReferenceBindings();
+        if (!referenceBindings.isPresent())
+            return false;
+
+        // Same key as the calls only providing the required parameters
+        ReferenceQueryKey key = new ReferenceQueryKey(queryId, referenceBindings.get());
+        if (referenceQueryCache.getIfPresent(key) == null)
+            referenceQueryCache.put(key, generateReferenceQuery(predefinedQuery, referenceBindings.get()));
+        return true;
+    }
+
     private IQ createExecutableQuery(PredefinedQuery predefinedQuery, ImmutableMap<String, String> bindings,
                                      QueryLogger queryLogger) throws OntopReformulationException, InvalidBindingSetException {
 
@@ -286,13 +328,24 @@ public class OntopRDF4JPredefinedQueryEngineImpl implements OntopRDF4JPredefined
 
         ImmutableMap<String, String> bindingWithReferences = predefinedQuery.replaceWithReferenceValues(bindings);
 
-        IQ existingReferenceIQ = referenceQueryCache.getIfPresent(bindingWithReferences);
+        /*
+         * The values of the parameters that are safe for random generation are all replaced by the same reference
+         * values: a single reference query is kept per query and set of provided parameters.
+         * The values of the other parameters remain part of the key.
+         */
+        ReferenceQueryKey key = new ReferenceQueryKey(predefinedQuery.getId(), bindingWithReferences);
+        IQ existingReferenceIQ = referenceQueryCache.getIfPresent(key);
         // NB: no problem if concurrent reference queries are generated (deterministic results)
-        IQ referenceIQ = existingReferenceIQ == null
-                ? generateReferenceQuery(predefinedQuery, bindingWithReferences)
-                : existingReferenceIQ;
-        if (existingReferenceIQ == null)
-            referenceQueryCache.put(bindingWithReferences, referenceIQ);
+        IQ referenceIQ;
+        if (existingReferenceIQ == null) {
+            referenceQueryMissCounter.increment();
+            referenceIQ = generateReferenceQuery(predefinedQuery, bindingWithReferences);
+            referenceQueryCache.put(key, referenceIQ);
+        }
+        else {
+            referenceQueryHitCounter.increment();
+            referenceIQ = existingReferenceIQ;
+        }
 
         IQ newIQ = valueReplacer.replaceReferenceValues(referenceIQ, bindings, bindingWithReferences);
 
@@ -353,6 +406,32 @@ public class OntopRDF4JPredefinedQueryEngineImpl implements OntopRDF4JPredefined
         }
     }
 
+    /**
+     * Different predefined queries may receive the same bindings
+     */
+    private static class ReferenceQueryKey {
+        private final String queryId;
+        private final ImmutableMap<String, String> bindingWithReferences;
+
+        private ReferenceQueryKey(String queryId, ImmutableMap<String, String> bindingWithReferences) {
+            this.queryId = queryId;
+            this.bindingWithReferences = bindingWithReferences;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ReferenceQueryKey)) return false;
+            ReferenceQueryKey that = (ReferenceQueryKey) o;
+            return queryId.equals(that.queryId) && bindingWithReferences.equals(that.bindingWithReferences);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(queryId, bindingWithReferences);
+        }
+    }
+
     private void evaluateTupleWithHandler(String queryId, ImmutableMap<String, String> bindings, ImmutableList<String> acceptMediaTypes,
                                           ImmutableMultimap<String, String> httpHeaders, BiConsumer<String, String> httpHeaderSetter,
                                           Consumer<Integer> httpStatusSetter, OutputStream outputStream) {
@@ -9,10 +9,7 @@ import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
 import it.unibz.inf.ontop.iq.IQ;
 import it.unibz.inf.ontop.iq.IQTree;
 import it.unibz.inf.ontop.iq.UnaryIQTree;
-import it.unibz.inf.ontop.iq.node.ConstructionNode;
-import it.unibz.inf.ontop.iq.node.EmptyNode;
-import it.unibz.inf.ontop.iq.node.NativeNode;
-import it.unibz.inf.ontop.iq.node.QueryNode;
+import it.unibz.inf.ontop.iq.node.*;
 import it.unibz.inf.ontop.model.term.*;
 import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
 import it.unibz.inf.ontop.substitution.SubstitutionFactory;
@@ -39,7 +36,8 @@ public class ReferenceValueReplacer {
     }
 
     /**
-     * ASSUMPTION: the query is possibly only composed of construction nodes and native nodes
+     * ASSUMPTION: the query is possibly only composed of construction nodes, native nodes
+     * and a union of native nodes (batches)
      */
     public IQ replaceReferenceValues(IQ referenceIq, ImmutableMap<String, String> bindings,
                                      ImmutableMap<String, String> bindingWithReferences) {
@@ -76,11 +74,18 @@ public class ReferenceValueReplacer {
         else if (rootNode instanceof NativeNode) {
             return transformNativeNode((NativeNode) rootNode, referenceToInputMap);
         }
+        else if (rootNode instanceof UnionNode) {
+            return iqFactory.createNaryIQTree(
+                    (UnionNode) rootNode,
+                    tree.getChildren().stream()
+                            .map(c -> transform(c, referenceToInputMap))
+                            .collect(ImmutableCollectors.toList()));
+        }
         else if (rootNode instanceof EmptyNode) {
             return tree;
         }
         else
-            throw new IllegalArgumentException("Was only expecting construction nodes and native nodes");
+            throw new IllegalArgumentException("Was only expecting construction nodes, union nodes and native nodes");
     }
 
     private ConstructionNode transformConstructionNode(ConstructionNode constructionNode,
@@ -140,11 +145,15 @@ public class ReferenceValueReplacer {
 
     private IQTree transformNativeNode(NativeNode nativeNode, ImmutableMap<String, String> referenceToInputMap) {
         String newQueryString = replaceString(nativeNode.getNativeQueryString(), referenceToInputMap);
+        ImmutableList<GroundTerm> newParameters = nativeNode.getParameters().stream()
+                .map(p -> (GroundTerm) transformTerm(p, referenceToInputMap))
+                .collect(ImmutableCollectors.toList());
 
         return iqFactory.createNativeNode(nativeNode.getVariables(),
                 nativeNode.getTypeMap(),
                 nativeNode.getColumnNames(),
                 newQueryString,
-                nativeNode.getVariableNullability());
+                nativeNode.getVariableNullability(),
+                newParameters);
     }
 }
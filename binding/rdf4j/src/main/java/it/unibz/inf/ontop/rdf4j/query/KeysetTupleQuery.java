@@ -0,0 +1,26 @@
+package it.unibz.inf.ontop.rdf4j.query;
+
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.TupleQuery;
+
+import java.util.Optional;
+
+/**
+ * Page of a SELECT query with an ORDER BY on unique variables and a LIMIT.
+ *
+ * The following page is obtained by passing the continuation token of the last row of this page,
+ * which is answered with a keyset predicate on the ORDER BY variables instead of an OFFSET.
+ */
+public interface KeysetTupleQuery extends TupleQuery {
+
+    /**
+     * LIMIT of the query
+     */
+    long getPageSize();
+
+    /**
+     * Empty if the keyset predicate cannot be built from the values of this row
+     * (unbound variables, blank nodes or language-tagged literals)
+     */
+    Optional<String> getContinuationToken(BindingSet lastRow);
+}
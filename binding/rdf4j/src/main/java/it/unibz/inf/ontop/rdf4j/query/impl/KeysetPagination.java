@@ -0,0 +1,227 @@
+package it.unibz.inf.ontop.rdf4j.query.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hashing;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.algebra.*;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
+import org.eclipse.rdf4j.rio.ntriples.NTriplesUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Keyset pagination of SELECT queries of the form [DISTINCT] ... ORDER BY ?k1 ... ?kn LIMIT l [OFFSET o],
+ * where the ORDER BY variables are projected.
+ *
+ * The continuation token contains a hash of the query and the values of the ORDER BY variables in the last row
+ * of the page, so that it is rejected by other queries. The OFFSET is not part of the hash, as it is ignored.
+ * The following page is obtained by removing the OFFSET and filtering the rows that come after these values
+ * in the lexicographic order: (?k1 > v1) || (sameTerm(?k1, v1) && ?k2 > v2) || ...
+ * IRIs are compared on their string.
+ *
+ * Only sound when the ORDER BY variables are unique (not checked here).
+ */
+public class KeysetPagination {
+
+    private static final ValueFactory VALUE_FACTORY = SimpleValueFactory.getInstance();
+    private static final String SEPARATOR = "\n";
+    // Solution modifiers come after the last closing brace (unless a VALUES clause follows them)
+    private static final Pattern OFFSET_PATTERN = Pattern.compile("(?i)\\bOFFSET\\s+\\d+(?=[^}]*$)");
+
+    private final ParsedTupleQuery parsedQuery;
+    private final String queryHash;
+    private final ImmutableList<OrderKey> keys;
+    private final long limit;
+
+    private KeysetPagination(ParsedTupleQuery parsedQuery, String queryHash, ImmutableList<OrderKey> keys,
+                             long limit) {
+        this.parsedQuery = parsedQuery;
+        this.queryHash = queryHash;
+        this.keys = keys;
+        this.limit = limit;
+    }
+
+    /**
+     * Empty if the query does not have the expected structure
+     */
+    public static Optional<KeysetPagination> analyze(String queryString, ParsedQuery parsedQuery) {
+        if (!(parsedQuery instanceof ParsedTupleQuery))
+            return Optional.empty();
+
+        TupleExpr root = parsedQuery.getTupleExpr();
+        if (!(root instanceof Slice) || !((Slice) root).hasLimit())
+            return Optional.empty();
+
+        Optional<Projection> projection = extractProjection(((Slice) root).getArg());
+        if (!projection.isPresent() || !(projection.get().getArg() instanceof Order))
+            return Optional.empty();
+
+        ProjectionElemList projectionElems = projection.get().getProjectionElemList();
+        ImmutableList.Builder<OrderKey> keyBuilder = ImmutableList.builder();
+        for (OrderElem orderElem : ((Order) projection.get().getArg()).getElements()) {
+            if (!(orderElem.getExpr() instanceof Var))
+                return Optional.empty();
+            String variableName = ((Var) orderElem.getExpr()).getName();
+            Optional<String> projectedName = projectionElems.getElements().stream()
+                    .filter(e -> e.getSourceName().equals(variableName))
+                    .map(ProjectionElem::getTargetName)
+                    .findFirst();
+            if (!projectedName.isPresent())
+                return Optional.empty();
+            keyBuilder.add(new OrderKey(variableName, projectedName.get(), orderElem.isAscending()));
+        }
+
+        return Optional.of(new KeysetPagination((ParsedTupleQuery) parsedQuery, hashQuery(queryString),
+                keyBuilder.build(), ((Slice) root).getLimit()));
+    }
+
+    /**
+     * When the OFFSET cannot be located, it is kept in the hash: the token is then only rejected by the same
+     * query with another OFFSET
+     */
+    private static String hashQuery(String queryString) {
+        String queryWithoutOffset = OFFSET_PATTERN.matcher(queryString).replaceAll("");
+        return Hashing.sha256().hashString(queryWithoutOffset, StandardCharsets.UTF_8).toString();
+    }
+
+    private static Optional<Projection> extractProjection(TupleExpr tupleExpr) {
+        if (tupleExpr instanceof Projection)
+            return Optional.of((Projection) tupleExpr);
+        if ((tupleExpr instanceof Distinct) || (tupleExpr instanceof Reduced))
+            return extractProjection(((UnaryTupleOperator) tupleExpr).getArg());
+        return Optional.empty();
+    }
+
+    /**
+     * Projected names of the ORDER BY variables
+     */
+    public ImmutableSet<String> getKeyNames() {
+        return keys.stream()
+                .map(k -> k.projectedName)
+                .collect(ImmutableCollectors.toSet());
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    public Optional<String> createContinuationToken(BindingSet lastRow) {
+        ImmutableList.Builder<String> lineBuilder = ImmutableList.builder();
+        lineBuilder.add(queryHash);
+        for (OrderKey key : keys) {
+            Value value = lastRow.getValue(key.projectedName);
+            if (!(value instanceof IRI || value instanceof Literal)
+                    || (value instanceof Literal && ((Literal) value).getLanguage().isPresent()))
+                return Optional.empty();
+            lineBuilder.add(key.toString());
+            lineBuilder.add(NTriplesUtil.toNTriplesString(value));
+        }
+        String token = String.join(SEPARATOR, lineBuilder.build());
+        return Optional.of(Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Values of the ORDER BY variables contained in the token
+     */
+    public ImmutableList<Value> parseContinuationToken(String token) throws MalformedQueryException {
+        String[] lines;
+        try {
+            lines = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARATOR);
+        }
+        catch (IllegalArgumentException e) {
+            throw new MalformedQueryException("Invalid continuation token");
+        }
+        if (lines.length != 2 * keys.size() + 1 || !lines[0].equals(queryHash))
+            throw new MalformedQueryException("The continuation token was not issued for this query");
+        if (IntStream.range(0, keys.size()).anyMatch(i -> !lines[2 * i + 1].equals(keys.get(i).toString())))
+            throw new MalformedQueryException("The continuation token does not match the ORDER BY of the query");
+
+        try {
+            return IntStream.range(0, keys.size())
+                    .mapToObj(i -> NTriplesUtil.parseValue(lines[2 * i + 2], VALUE_FACTORY))
+                    .collect(ImmutableCollectors.toList());
+        }
+        catch (IllegalArgumentException e) {
+            throw new MalformedQueryException("Invalid continuation token: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the OFFSET by the keyset predicate
+     */
+    public ParsedTupleQuery createNextPageQuery(ImmutableList<Value> lastValues) {
+        Slice slice = (Slice) parsedQuery.getTupleExpr().clone();
+        slice.setOffset(-1);
+
+        Order order = (Order) extractProjection(slice.getArg()).get().getArg();
+        order.setArg(new Filter(order.getArg(), createKeysetCondition(lastValues)));
+
+        ParsedTupleQuery nextPageQuery = new ParsedTupleQuery(parsedQuery.getSourceString(), slice);
+        nextPageQuery.setDataset(parsedQuery.getDataset());
+        return nextPageQuery;
+    }
+
+    /**
+     * Appended to the query string, so that the pages are not confused (e.g. by the query cache)
+     */
+    public String createNextPageQueryString(String queryString, ImmutableList<Value> lastValues) {
+        return queryString + "\n# Keyset: " + lastValues.stream()
+                .map(NTriplesUtil::toNTriplesString)
+                .collect(Collectors.joining(" "));
+    }
+
+    private ValueExpr createKeysetCondition(ImmutableList<Value> lastValues) {
+        ValueExpr condition = null;
+        for (int i = keys.size() - 1; i >= 0; i--) {
+            OrderKey key = keys.get(i);
+            Value value = lastValues.get(i);
+            ValueExpr after = createAfterCondition(key, value);
+            condition = (condition == null)
+                    ? after
+                    : new Or(after, new And(new SameTerm(new Var(key.variableName), new ValueConstant(value)),
+                    condition));
+        }
+        return condition;
+    }
+
+    private static ValueExpr createAfterCondition(OrderKey key, Value value) {
+        Compare.CompareOp operator = key.isAscending ? Compare.CompareOp.GT : Compare.CompareOp.LT;
+        return (value instanceof IRI)
+                ? new Compare(new Str(new Var(key.variableName)),
+                        new ValueConstant(VALUE_FACTORY.createLiteral(value.stringValue())), operator)
+                : new Compare(new Var(key.variableName), new ValueConstant(value), operator);
+    }
+
+
+    private static class OrderKey {
+        private final String variableName;
+        private final String projectedName;
+        private final boolean isAscending;
+
+        private OrderKey(String variableName, String projectedName, boolean isAscending) {
+            this.variableName = variableName;
+            this.projectedName = projectedName;
+            this.isAscending = isAscending;
+        }
+
+        @Override
+        public String toString() {
+            return projectedName + (isAscending ? " ASC" : " DESC");
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package it.unibz.inf.ontop.rdf4j.query.impl;
+
+import com.google.common.collect.ImmutableMultimap;
+import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.reformulation.input.RDF4JInputQueryFactory;
+import it.unibz.inf.ontop.injection.OntopSystemSettings;
+import it.unibz.inf.ontop.rdf4j.query.KeysetTupleQuery;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+
+import java.util.Optional;
+
+
+public class OntopKeysetTupleQuery extends OntopTupleQuery implements KeysetTupleQuery {
+
+	private final KeysetPagination pagination;
+
+	/**
+	 * The parsed query is either the original one (first page) or the one produced by the pagination
+	 */
+	public OntopKeysetTupleQuery(String queryString, ParsedQuery parsedQuery, String baseIRI,
+								 KeysetPagination pagination, OntopConnection conn,
+								 ImmutableMultimap<String, String> httpHeaders, RDF4JInputQueryFactory factory,
+								 OntopSystemSettings settings) {
+		super(queryString, parsedQuery, baseIRI, conn, httpHeaders, factory, settings);
+		this.pagination = pagination;
+	}
+
+	@Override
+	public long getPageSize() {
+		return pagination.getLimit();
+	}
+
+	@Override
+	public Optional<String> getContinuationToken(BindingSet lastRow) {
+		return pagination.createContinuationToken(lastRow);
+	}
+}
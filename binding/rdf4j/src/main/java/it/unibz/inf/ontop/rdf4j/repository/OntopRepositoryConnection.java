@@ -1,9 +1,13 @@
 package it.unibz.inf.ontop.rdf4j.repository;
 
 import com.google.common.collect.ImmutableMultimap;
+import it.unibz.inf.ontop.rdf4j.query.KeysetTupleQuery;
 import org.eclipse.rdf4j.query.*;
 import org.eclipse.rdf4j.repository.RepositoryException;
 
+import javax.annotation.Nullable;
+import java.util.Optional;
+
 public interface OntopRepositoryConnection extends org.eclipse.rdf4j.repository.RepositoryConnection {
 
     Query prepareQuery(QueryLanguage ql, String query, ImmutableMultimap<String, String> httpHeaders)
@@ -17,6 +21,17 @@ public interface OntopRepositoryConnection extends org.eclipse.rdf4j.repository.
                                  ImmutableMultimap<String, String> httpHeaders)
             throws RepositoryException, MalformedQueryException;
 
+    /**
+     * SPARQL SELECT query whose pages are obtained through continuation tokens instead of OFFSET.
+     *
+     * Empty if the query does not have a LIMIT and an ORDER BY on variables that are unique together.
+     * A null continuation token stands for the first page.
+     */
+    Optional<KeysetTupleQuery> prepareKeysetTupleQuery(String queryString, String baseIRI,
+                                                       @Nullable String continuationToken,
+                                                       ImmutableMultimap<String, String> httpHeaders)
+            throws RepositoryException, MalformedQueryException;
+
     GraphQuery prepareGraphQuery(QueryLanguage ql, String queryString,
                                  String baseIRI, ImmutableMultimap<String, String> httpHeaders)
             throws RepositoryException, MalformedQueryException;
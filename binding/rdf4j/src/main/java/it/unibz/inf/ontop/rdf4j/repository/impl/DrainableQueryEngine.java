@@ -0,0 +1,162 @@
+package it.unibz.inf.ontop.rdf4j.repository.impl;
+
+import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
+import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps track of the connections in use, so that a query engine replaced by a reload
+ * is only closed (with its connection pool) once its last connection has been closed.
+ */
+class DrainableQueryEngine implements OntopQueryEngine {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DrainableQueryEngine.class);
+
+    private final OntopQueryEngine engine;
+    /**
+     * Number of connections in use, -1 once the engine has been closed
+     */
+    private final AtomicInteger connectionCount = new AtomicInteger(0);
+    private volatile boolean isRetired = false;
+
+    DrainableQueryEngine(OntopQueryEngine engine) {
+        this.engine = engine;
+    }
+
+    @Override
+    public boolean connect() throws OntopConnectionException {
+        return engine.connect();
+    }
+
+    /**
+     * Immediate
+     */
+    @Override
+    public void close() throws OntopConnectionException {
+        connectionCount.set(-1);
+        engine.close();
+    }
+
+    /**
+     * Fails if the engine has been retired and drained in the meantime
+     */
+    @Override
+    public OntopConnection getConnection() throws OntopConnectionException {
+        int count;
+        do {
+            count = connectionCount.get();
+            if (count < 0)
+                throw new OntopConnectionException("The query engine has been closed after a reload");
+        } while (!connectionCount.compareAndSet(count, count + 1));
+
+        try {
+            return new TrackedConnection(engine.getConnection());
+        }
+        catch (OntopConnectionException | RuntimeException e) {
+            release();
+            throw e;
+        }
+    }
+
+    @Override
+    public QueryReformulator getQueryReformulator() {
+        return engine.getQueryReformulator();
+    }
+
+    /**
+     * Closes the engine once its last connection has been closed
+     */
+    void retire() {
+        isRetired = true;
+        if (connectionCount.compareAndSet(0, -1))
+            closeDrainedEngine();
+    }
+
+    boolean isClosed() {
+        return connectionCount.get() < 0;
+    }
+
+    int getConnectionCount() {
+        return Math.max(0, connectionCount.get());
+    }
+
+    private void release() {
+        if (connectionCount.decrementAndGet() == 0 && isRetired && connectionCount.compareAndSet(0, -1))
+            closeDrainedEngine();
+    }
+
+    private void closeDrainedEngine() {
+        try {
+            engine.close();
+            LOGGER.info("Query engine replaced by a reload closed after its last query");
+        }
+        catch (OntopConnectionException e) {
+            LOGGER.warn("Cannot close the query engine replaced by a reload: {}", e.getMessage());
+        }
+    }
+
+
+    private class TrackedConnection implements OntopConnection {
+
+        private final OntopConnection connection;
+        private final AtomicBoolean isReleased = new AtomicBoolean(false);
+
+        TrackedConnection(OntopConnection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public OntopStatement createStatement() throws OntopConnectionException {
+            return connection.createStatement();
+        }
+
+        @Override
+        public InputQueryFactory getInputQueryFactory() {
+            return connection.getInputQueryFactory();
+        }
+
+        @Override
+        public void close() throws OntopConnectionException {
+            try {
+                connection.close();
+            }
+            finally {
+                if (isReleased.compareAndSet(false, true))
+                    release();
+            }
+        }
+
+        @Override
+        public boolean isClosed() throws OntopConnectionException {
+            return connection.isClosed();
+        }
+
+        @Override
+        public void setAutoCommit(boolean autocommit) throws OntopConnectionException {
+            connection.setAutoCommit(autocommit);
+        }
+
+        @Override
+        public boolean getAutoCommit() throws OntopConnectionException {
+            return connection.getAutoCommit();
+        }
+
+        @Override
+        public void rollBack() throws OntopConnectionException {
+            connection.rollBack();
+        }
+
+        @Override
+        public void commit() throws OntopConnectionException {
+            connection.commit();
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package it.unibz.inf.ontop.rdf4j.repository.impl;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.OntopStatement;
 import it.unibz.inf.ontop.answering.reformulation.input.RDF4JInputQueryFactory;
 import it.unibz.inf.ontop.answering.reformulation.input.SPARQLQuery;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.exception.OntopReformulationException;
 import it.unibz.inf.ontop.injection.OntopSystemSettings;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.rdf4j.query.KeysetTupleQuery;
 import it.unibz.inf.ontop.rdf4j.query.impl.*;
 import it.unibz.inf.ontop.rdf4j.repository.OntopRepository;
 import it.unibz.inf.ontop.rdf4j.repository.OntopRepositoryConnection;
@@ -17,6 +22,7 @@ import org.eclipse.rdf4j.model.*;
 import org.eclipse.rdf4j.model.impl.NamespaceImpl;
 import org.eclipse.rdf4j.model.impl.ValueFactoryImpl;
 import org.eclipse.rdf4j.query.*;
+import org.eclipse.rdf4j.query.impl.MapBindingSet;
 import org.eclipse.rdf4j.query.parser.*;
 import org.eclipse.rdf4j.queryrender.RenderUtils;
 import org.eclipse.rdf4j.repository.Repository;
@@ -26,6 +32,7 @@ import org.eclipse.rdf4j.rio.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -446,6 +453,55 @@ public class OntopRepositoryConnectionImpl implements OntopRepositoryConnection
         return new OntopTupleQuery(queryString, q, safeBaseIRI, ontopConnection, httpHeaders, inputQueryFactory, settings);
     }
 
+    @Override
+    public Optional<KeysetTupleQuery> prepareKeysetTupleQuery(String queryString, String baseIRI,
+                                                              @Nullable String continuationToken,
+                                                              ImmutableMultimap<String, String> httpHeaders)
+            throws RepositoryException, MalformedQueryException {
+        String safeBaseIRI = baseIRI == null
+                ? null
+                : baseIRI.isEmpty() ? null : baseIRI;
+        ParsedQuery q = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, queryString, safeBaseIRI);
+
+        Optional<KeysetPagination> pagination = KeysetPagination.analyze(queryString, q)
+                .filter(p -> hasUniqueKeys(queryString, q, p));
+
+        if (!pagination.isPresent()) {
+            if (continuationToken != null)
+                throw new MalformedQueryException("Continuation tokens require a LIMIT and an ORDER BY " +
+                        "on variables that are unique together");
+            return Optional.empty();
+        }
+
+        if (continuationToken == null)
+            return Optional.of(new OntopKeysetTupleQuery(queryString, q, safeBaseIRI, pagination.get(),
+                    ontopConnection, httpHeaders, inputQueryFactory, settings));
+
+        ImmutableList<Value> lastValues = pagination.get().parseContinuationToken(continuationToken);
+        return Optional.of(new OntopKeysetTupleQuery(
+                pagination.get().createNextPageQueryString(queryString, lastValues),
+                pagination.get().createNextPageQuery(lastValues), safeBaseIRI, pagination.get(),
+                ontopConnection, httpHeaders, inputQueryFactory, settings));
+    }
+
+    /**
+     * Checks that the ORDER BY variables contain a unique constraint of the reformulated query
+     */
+    private boolean hasUniqueKeys(String queryString, ParsedQuery parsedQuery, KeysetPagination pagination)
+            throws RepositoryException {
+        try (OntopStatement statement = ontopConnection.createStatement()) {
+            ImmutableSet<ImmutableSet<Variable>> uniqueConstraints = statement.getUniqueConstraints(
+                    inputQueryFactory.createSelectQuery(queryString, parsedQuery, new MapBindingSet()));
+            ImmutableSet<String> keyNames = pagination.getKeyNames();
+            return uniqueConstraints.stream()
+                    .anyMatch(c -> c.stream()
+                            .map(Variable::getName)
+                            .allMatch(keyNames::contains));
+        } catch (OntopReformulationException | OntopConnectionException e) {
+            throw new RepositoryException(e);
+        }
+    }
+
     @Override
     public Update prepareUpdate(QueryLanguage arg0, String arg1)
             throws RepositoryException, MalformedQueryException {
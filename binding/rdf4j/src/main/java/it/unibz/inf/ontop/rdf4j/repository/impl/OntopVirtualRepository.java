@@ -1,10 +1,14 @@
 package it.unibz.inf.ontop.rdf4j.repository.impl;
 
+import com.google.common.collect.ImmutableList;
 import com.google.inject.Injector;
 import it.unibz.inf.ontop.answering.OntopQueryEngine;
 import it.unibz.inf.ontop.answering.cache.HTTPCacheHeaders;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.metrics.OntopMetrics;
 import it.unibz.inf.ontop.answering.reformulation.input.RDF4JInputQueryFactory;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.injection.OntopSystemConfiguration;
 import it.unibz.inf.ontop.injection.OntopSystemSettings;
 import it.unibz.inf.ontop.rdf4j.repository.OntopRepository;
@@ -18,27 +22,37 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 import java.io.File;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 public class OntopVirtualRepository extends AbstractRepository implements OntopRepository {
 
     private static final Logger logger = LoggerFactory.getLogger(OntopVirtualRepository.class);
-    private final OntopSystemSettings settings;
 
-    // Temporary (dropped after initialization)
-    @Nullable
+    public enum ReloadPhase {
+        LOADING_SPECIFICATION,
+        CONNECTING,
+        WARMING_UP,
+        SWAPPED
+    }
+
+    // Latest configuration (replaced by a reload)
     private OntopSystemConfiguration configuration;
 
-    @Nullable
-    private OntopQueryEngine queryEngine;
-    private final RDF4JInputQueryFactory inputQueryFactory;
-    private final HTTPCacheHeaders cacheHeaders;
+    /**
+     * Replaced atomically by a reload
+     */
+    private volatile Deployment deployment;
+
+    /**
+     * Engines replaced by a reload that still have queries in progress
+     */
+    private final List<DrainableQueryEngine> drainingEngines = new CopyOnWriteArrayList<>();
 
     public OntopVirtualRepository(OntopSystemConfiguration configuration) {
         this.configuration = configuration;
-        Injector injector = configuration.getInjector();
-        inputQueryFactory = injector.getInstance(RDF4JInputQueryFactory.class);
-        cacheHeaders = injector.getInstance(HTTPCacheHeaders.class);
-        settings = configuration.getSettings();
+        this.deployment = new Deployment(configuration, null);
     }
 
     /**
@@ -54,7 +68,19 @@ public class OntopVirtualRepository extends AbstractRepository implements OntopR
         }
 
         try {
-            return new OntopRepositoryConnectionImpl(this, getOntopConnection(), inputQueryFactory, settings);
+            // The deployment may be replaced while getting the connection
+            while (true) {
+                Deployment currentDeployment = deployment;
+                try {
+                    OntopConnection connection = currentDeployment.queryEngine.getConnection();
+                    return new OntopRepositoryConnectionImpl(this, connection, currentDeployment.inputQueryFactory,
+                            currentDeployment.settings);
+                } catch (OntopConnectionException e) {
+                    // Retries only if the engine has been replaced and closed in the meantime
+                    if (!currentDeployment.queryEngine.isClosed() || deployment == currentDeployment)
+                        throw e;
+                }
+            }
         } catch (Exception e) {
             logger.error("Error creating repo connection: " + e.getMessage());
             throw new RepositoryException(e);
@@ -69,8 +95,9 @@ public class OntopVirtualRepository extends AbstractRepository implements OntopR
     @Override
     protected void initializeInternal() throws RepositoryException {
         try {
-            queryEngine = configuration.loadQueryEngine();
+            DrainableQueryEngine queryEngine = new DrainableQueryEngine(configuration.loadQueryEngine());
             queryEngine.connect();
+            deployment = new Deployment(configuration, queryEngine);
             logger.info("Ontop virtual repository initialized successfully!");
         } catch (Exception e) {
             throw new RepositoryException(e);
@@ -78,17 +105,65 @@ public class OntopVirtualRepository extends AbstractRepository implements OntopR
     }
 
     /**
-     * Returns a connection which can be used to run queries over the repository
-     * Before this method can be used, initialize() must be called once.
+     * Builds a query engine from the new configuration and replaces the current one once it is connected
+     * and the warm-up queries have been reformulated, without interrupting the queries in progress.
+     * The replaced engine (and its connection pool) is closed after its last query.
+     *
+     * Synchronous: the current engine keeps answering the queries in the meantime.
+     * In case of failure, the current engine is kept.
      */
-    private OntopConnection getOntopConnection() throws RepositoryException {
+    public synchronized void reload(OntopSystemConfiguration newConfiguration, ImmutableList<String> warmUpQueries,
+                                    Consumer<ReloadPhase> progressListener) throws RepositoryException {
+        if (!isInitialized()) {
+            configuration = newConfiguration;
+            deployment = new Deployment(newConfiguration, null);
+            init();
+            progressListener.accept(ReloadPhase.SWAPPED);
+            return;
+        }
+
+        DrainableQueryEngine newEngine = null;
         try {
-            return queryEngine.getConnection();
+            progressListener.accept(ReloadPhase.LOADING_SPECIFICATION);
+            newEngine = new DrainableQueryEngine(newConfiguration.loadQueryEngine());
+
+            progressListener.accept(ReloadPhase.CONNECTING);
+            newEngine.connect();
+
+            progressListener.accept(ReloadPhase.WARMING_UP);
+            Deployment newDeployment = new Deployment(newConfiguration, newEngine);
+            for (String query : warmUpQueries)
+                newDeployment.reformulate(query);
+
+            Deployment oldDeployment = deployment;
+            deployment = newDeployment;
+            configuration = newConfiguration;
+            progressListener.accept(ReloadPhase.SWAPPED);
+
+            drainingEngines.add(oldDeployment.queryEngine);
+            oldDeployment.queryEngine.retire();
+            drainingEngines.removeIf(DrainableQueryEngine::isClosed);
+            logger.info("Ontop virtual repository reloaded successfully!");
         } catch (Exception e) {
-            throw new RepositoryException(e);
+            if (newEngine != null) {
+                try {
+                    newEngine.close();
+                } catch (OntopConnectionException e1) {
+                    logger.warn("Cannot close the query engine of the failed reload: {}", e1.getMessage());
+                }
+            }
+            throw (e instanceof RepositoryException) ? (RepositoryException) e : new RepositoryException(e);
         }
     }
 
+    /**
+     * Number of engines replaced by a reload that still have queries in progress
+     */
+    public int getDrainingEngineCount() {
+        drainingEngines.removeIf(DrainableQueryEngine::isClosed);
+        return drainingEngines.size();
+    }
+
     @Override
     public boolean isWritable() throws RepositoryException {
         return false;
@@ -97,7 +172,10 @@ public class OntopVirtualRepository extends AbstractRepository implements OntopR
     @Override
     protected void shutDownInternal() throws RepositoryException {
         try {
-            queryEngine.close();
+            for (DrainableQueryEngine drainingEngine : drainingEngines)
+                drainingEngine.close();
+            drainingEngines.clear();
+            deployment.queryEngine.close();
         } catch (Exception e) {
             throw new RepositoryException(e);
         }
@@ -126,16 +204,51 @@ public class OntopVirtualRepository extends AbstractRepository implements OntopR
 
     @Override
     public HTTPCacheHeaders getHttpCacheHeaders() {
-        return cacheHeaders;
+        return deployment.cacheHeaders;
+    }
+
+    /**
+     * Metrics of the current query engine (not carried over by a reload)
+     */
+    public OntopMetrics getMetrics() {
+        return deployment.metrics;
     }
 
     /**
      * Useful for the endpoints: allows to share the same query engine for the SPARQL and the predefined query endpoints
+     *
+     * NB: the engine is replaced by a reload
      */
     public OntopQueryEngine getOntopEngine() {
         if (!isInitialized()) {
             init();
         }
-        return queryEngine;
+        return deployment.queryEngine;
+    }
+
+
+    private static class Deployment {
+        // Null before the initialization
+        private final DrainableQueryEngine queryEngine;
+        private final RDF4JInputQueryFactory inputQueryFactory;
+        private final HTTPCacheHeaders cacheHeaders;
+        private final OntopSystemSettings settings;
+        private final OntopMetrics metrics;
+
+        private Deployment(OntopSystemConfiguration configuration, @Nullable DrainableQueryEngine queryEngine) {
+            this.queryEngine = queryEngine;
+            Injector injector = configuration.getInjector();
+            this.inputQueryFactory = injector.getInstance(RDF4JInputQueryFactory.class);
+            this.cacheHeaders = injector.getInstance(HTTPCacheHeaders.class);
+            this.settings = configuration.getSettings();
+            this.metrics = injector.getInstance(OntopMetrics.class);
+        }
+
+        private void reformulate(String sparqlQuery) throws Exception {
+            try (OntopConnection connection = queryEngine.getConnection();
+                 OntopStatement statement = connection.createStatement()) {
+                statement.getExecutableQuery(connection.getInputQueryFactory().createSPARQLQuery(sparqlQuery));
+            }
+        }
     }
 }
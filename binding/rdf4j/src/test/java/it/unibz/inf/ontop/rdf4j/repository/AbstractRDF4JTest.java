@@ -3,6 +3,7 @@ package it.unibz.inf.ontop.rdf4j.repository;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.inject.Injector;
 import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
 import it.unibz.inf.ontop.rdf4j.repository.impl.OntopVirtualRepository;
 import org.eclipse.rdf4j.model.Statement;
@@ -32,6 +33,7 @@ public class AbstractRDF4JTest {
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractRDF4JTest.class);
     private static Connection SQL_CONNECTION;
     private static OntopRepositoryConnection REPO_CONNECTION;
+    private static OntopSQLOWLAPIConfiguration CONFIGURATION;
 
     protected static void initOBDA(String dbScriptRelativePath, String obdaRelativePath) throws SQLException, IOException {
         initOBDA(dbScriptRelativePath, obdaRelativePath, null);
@@ -95,6 +97,7 @@ public class AbstractRDF4JTest {
 
         OntopSQLOWLAPIConfiguration config = builder.build();
 
+        CONFIGURATION = config;
         OntopVirtualRepository repo = OntopRepository.defaultRepository(config);
         repo.init();
         /*
@@ -150,6 +153,7 @@ public class AbstractRDF4JTest {
 
         OntopSQLOWLAPIConfiguration config = builder.build();
 
+        CONFIGURATION = config;
         OntopVirtualRepository repo = OntopRepository.defaultRepository(config);
         repo.init();
         /*
@@ -158,6 +162,22 @@ public class AbstractRDF4JTest {
         REPO_CONNECTION = repo.getConnection();
     }
 
+    protected static Injector getInjector() {
+        return CONFIGURATION.getInjector();
+    }
+
+    protected static OntopSQLOWLAPIConfiguration getConfiguration() {
+        return CONFIGURATION;
+    }
+
+    protected static OntopRepositoryConnection getRepositoryConnection() {
+        return REPO_CONNECTION;
+    }
+
+    protected static Connection getSQLConnection() {
+        return SQL_CONNECTION;
+    }
+
     protected static void release() throws SQLException {
         REPO_CONNECTION.close();
         SQL_CONNECTION.close();
@@ -0,0 +1,87 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.Assert.*;
+
+/**
+ * A single query is evaluated at a time ("ontop.query.maxConcurrent"): the next one is only admitted
+ * once the result set of the previous one is closed
+ */
+public class AdmissionControlTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/query-template/query-template.obda";
+    private static final String SQL_SCRIPT = "/query-template/query-template.sql";
+    private static final String PROPERTIES_FILE = "/admission/admission.properties";
+
+    private static final String NON_EMPTY_QUERY = "PREFIX : <http://example.org/>\n" +
+            "SELECT ?v WHERE {\n" +
+            " ?v :city \"Bolzano\" \n" +
+            "}";
+    private static final String EMPTY_QUERY = "PREFIX : <http://example.org/>\n" +
+            "SELECT ?v WHERE {\n" +
+            " ?v :city \"Merano\" \n" +
+            "}";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE, null, PROPERTIES_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testReleasedWhenClosed() {
+        testReleasedWhenClosed(NON_EMPTY_QUERY);
+    }
+
+    @Test
+    public void testEmptyResultReleasedWhenClosed() {
+        testReleasedWhenClosed(EMPTY_QUERY);
+    }
+
+    private void testReleasedWhenClosed(String query) {
+        TupleQueryResult result = evaluate(query);
+        try {
+            evaluate(NON_EMPTY_QUERY);
+            fail("The query should not have been admitted before the first result set is closed");
+        }
+        catch (QueryEvaluationException e) {
+            // Expected
+        }
+        finally {
+            result.close();
+        }
+
+        try (TupleQueryResult secondResult = evaluate(NON_EMPTY_QUERY)) {
+            assertTrue(secondResult.hasNext());
+        }
+    }
+
+    /**
+     * The reformulation errors do not hold the permit
+     */
+    @Test
+    public void testReleasedAfterError() {
+        try (TupleQueryResult result = evaluate("SELECT ?v WHERE { SERVICE <http://example.org/sparql> { ?v ?p ?o } }")) {
+            fail("The query should not have been reformulated");
+        }
+        catch (QueryEvaluationException e) {
+            // Expected
+        }
+
+        try (TupleQueryResult result = evaluate(NON_EMPTY_QUERY)) {
+            assertTrue(result.hasNext());
+        }
+    }
+}
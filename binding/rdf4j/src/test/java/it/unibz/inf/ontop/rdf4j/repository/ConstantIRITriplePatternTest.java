@@ -0,0 +1,84 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Triple patterns with a variable predicate and a constant IRI (as produced by DESCRIBE)
+ */
+public class ConstantIRITriplePatternTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/describe/describe.obda";
+    private static final String SQL_SCRIPT = "/describe/describe.sql";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testConstantSubject() {
+        String query = "PREFIX : <http://example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " <http://example.org/person/1> ?p ?v \n" +
+                "}";
+        runQueryAndCompare(query, ImmutableSet.of("http://example.org/Person", "Roger",
+                "http://example.org/country/it"));
+    }
+
+    @Test
+    public void testConstantSubjectWithConstantIRIDefinition() {
+        String query = "PREFIX : <http://example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " <http://example.org/country/it> ?p ?v \n" +
+                "}";
+        runQueryAndCompare(query, ImmutableSet.of("http://example.org/Country", "Italy", "Italia"));
+    }
+
+    @Test
+    public void testConstantSubjectClass() {
+        String query = "PREFIX : <http://example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " <http://example.org/city/1> a ?v \n" +
+                "}";
+        runQueryAndCompare(query, ImmutableSet.of("http://example.org/City"));
+    }
+
+    @Test
+    public void testConstantObject() {
+        String query = "PREFIX : <http://example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " ?v ?p <http://example.org/country/it> \n" +
+                "}";
+        runQueryAndCompare(query, ImmutableSet.of("http://example.org/person/1", "http://example.org/city/1"));
+    }
+
+    @Test
+    public void testConstantClassObject() {
+        String query = "PREFIX : <http://example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " ?v ?p :Country \n" +
+                "}";
+        runQueryAndCompare(query, ImmutableSet.of("http://example.org/country/it", "http://example.org/country/de"));
+    }
+
+    @Test
+    public void testUnknownSubject() {
+        String query = "SELECT ?v WHERE {\n" +
+                " <http://other.org/person/1> ?p ?v \n" +
+                "}";
+        assertEquals(0, runQueryAndCount(query));
+    }
+}
@@ -0,0 +1,163 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMultimap;
+import it.unibz.inf.ontop.rdf4j.query.KeysetTupleQuery;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class KeysetPaginationTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/prof/prof.obda";
+    private static final String SQL_SCRIPT = "/prof/prof.sql";
+
+    private static final String PREFIX = "PREFIX : <http://www.semanticweb.org/user/ontologies/2016/8/untitled-ontology-84#>\n";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testUniqueIRIKey() {
+        String query = PREFIX +
+                "SELECT ?p ?v\n" +
+                "WHERE {\n" +
+                "  ?p a :Professor ; :lastName ?v .\n" +
+                "}\n" +
+                "ORDER BY ?p\n" +
+                "LIMIT 3";
+
+        Page page1 = evaluatePage(query, null);
+        assertEquals(ImmutableList.of("Smith", "Pitt", "Depp"), page1.vValues);
+
+        Page page2 = evaluatePage(query, page1.continuationToken);
+        assertEquals(ImmutableList.of("Jackson", "Gamper", "Helmer"), page2.vValues);
+
+        Page page3 = evaluatePage(query, page2.continuationToken);
+        assertEquals(ImmutableList.of("Dodero", "Poppins"), page3.vValues);
+        assertNull(page3.continuationToken);
+    }
+
+    @Test
+    public void testDescendingCompositeKey() {
+        String query = PREFIX +
+                "SELECT ?p ?v\n" +
+                "WHERE {\n" +
+                "  ?p a :Professor ; :lastName ?v .\n" +
+                "}\n" +
+                "ORDER BY DESC(?v) ?p\n" +
+                "LIMIT 4\n" +
+                "OFFSET 10";
+
+        Page page1 = evaluatePage(query, "");
+        assertEquals(ImmutableList.of(), page1.vValues);
+
+        String firstPageQuery = query.replace("OFFSET 10", "");
+        Page page2 = evaluatePage(firstPageQuery, null);
+        assertEquals(ImmutableList.of("Smith", "Poppins", "Pitt", "Jackson"), page2.vValues);
+
+        // The OFFSET is ignored with a continuation token
+        Page page3 = evaluatePage(query, page2.continuationToken);
+        assertEquals(ImmutableList.of("Helmer", "Gamper", "Dodero", "Depp"), page3.vValues);
+    }
+
+    @Test
+    public void testNonUniqueKey() {
+        String query = PREFIX +
+                "SELECT ?v\n" +
+                "WHERE {\n" +
+                "  ?p a :Professor ; :lastName ?v .\n" +
+                "}\n" +
+                "ORDER BY ?v\n" +
+                "LIMIT 3";
+
+        assertFalse(getRepositoryConnection().prepareKeysetTupleQuery(query, null, null,
+                ImmutableMultimap.of()).isPresent());
+    }
+
+    @Test(expected = MalformedQueryException.class)
+    public void testTokenOfAnotherQuery() {
+        String query1 = PREFIX +
+                "SELECT ?p ?v\n" +
+                "WHERE {\n" +
+                "  ?p a :Professor ; :lastName ?v .\n" +
+                "}\n" +
+                "ORDER BY ?p\n" +
+                "LIMIT 3";
+        String query2 = query1.replace("ORDER BY ?p", "ORDER BY DESC(?p)");
+
+        Page page1 = evaluatePage(query1, null);
+        evaluatePage(query2, page1.continuationToken);
+    }
+
+    /**
+     * Same ORDER BY, but another graph pattern
+     */
+    @Test(expected = MalformedQueryException.class)
+    public void testTokenOfAnotherPattern() {
+        String query1 = PREFIX +
+                "SELECT ?p ?v\n" +
+                "WHERE {\n" +
+                "  ?p a :Professor ; :lastName ?v .\n" +
+                "}\n" +
+                "ORDER BY ?p\n" +
+                "LIMIT 3";
+        String query2 = query1.replace("?v .", "?v . FILTER(?v != \"Pitt\")");
+
+        Page page1 = evaluatePage(query1, null);
+        evaluatePage(query2, page1.continuationToken);
+    }
+
+    /**
+     * The empty token is treated as the absence of token
+     */
+    private Page evaluatePage(String query, @Nullable String continuationToken) {
+        Optional<KeysetTupleQuery> keysetQuery = getRepositoryConnection().prepareKeysetTupleQuery(query, null,
+                (continuationToken == null || continuationToken.isEmpty()) ? null : continuationToken,
+                ImmutableMultimap.of());
+        assertTrue(keysetQuery.isPresent());
+
+        ImmutableList.Builder<String> vValueBuilder = ImmutableList.builder();
+        BindingSet lastRow = null;
+        long rowCount = 0;
+        try (TupleQueryResult result = keysetQuery.get().evaluate()) {
+            while (result.hasNext()) {
+                lastRow = result.next();
+                vValueBuilder.add(lastRow.getValue("v").stringValue());
+                rowCount++;
+            }
+        }
+        String nextToken = (rowCount == keysetQuery.get().getPageSize())
+                ? keysetQuery.get().getContinuationToken(lastRow).orElse(null)
+                : null;
+        return new Page(vValueBuilder.build(), nextToken);
+    }
+
+    private static class Page {
+        private final ImmutableList<String> vValues;
+        @Nullable
+        private final String continuationToken;
+
+        private Page(ImmutableList<String> vValues, @Nullable String continuationToken) {
+            this.vValues = vValues;
+            this.continuationToken = continuationToken;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.rdf4j.repository.impl.OntopVirtualRepository;
+import it.unibz.inf.ontop.spec.OBDASpecInput;
+import it.unibz.inf.ontop.spec.mapping.MappingExtractor;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.apache.commons.rdf.api.IRI;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Starts several times a repository with a meta-mapping expansion cache file,
+ * the expansion queries being run over 2 connections
+ */
+public class MetaMappingExpansionCacheTest {
+
+    private static final String OBDA_FILE = "/meta-mapping-cache/item.obda";
+    private static final String USER = "sa";
+    private static final String PASSWORD = "";
+    private static final String QUERY = "SELECT DISTINCT ?v WHERE { { ?x a ?v } UNION { ?x ?v ?y . FILTER (isLiteral(?y)) } }";
+
+    private String jdbcUrl;
+    private Connection sqlConnection;
+    private Path cacheDirectory;
+    private Path cacheFile;
+
+    @Before
+    public void setUp() throws SQLException, IOException {
+        jdbcUrl = "jdbc:h2:mem:" + UUID.randomUUID();
+        sqlConnection = DriverManager.getConnection(jdbcUrl, USER, PASSWORD);
+        try (Statement st = sqlConnection.createStatement()) {
+            st.execute("CREATE TABLE \"item\" (\"id\" INT PRIMARY KEY, \"cls\" VARCHAR(100) NOT NULL, " +
+                    "\"prop\" VARCHAR(100), \"val\" VARCHAR(100))");
+            st.execute("INSERT INTO \"item\" VALUES (1, 'Book', 'title', 'Dune')");
+            st.execute("INSERT INTO \"item\" VALUES (2, 'Film', 'director', 'Lynch')");
+            st.execute("INSERT INTO \"item\" VALUES (3, 'Book', NULL, NULL)");
+            st.execute("INSERT INTO \"item\" VALUES (5, 'Book', 'author', 'Herbert')");
+        }
+        cacheDirectory = Files.createTempDirectory("ontop-meta-mapping-cache");
+        cacheFile = cacheDirectory.resolve("expansion.json");
+    }
+
+    @After
+    public void tearDown() throws SQLException, IOException {
+        sqlConnection.close();
+        Files.deleteIfExists(cacheFile);
+        Files.deleteIfExists(cacheDirectory);
+    }
+
+    @Test
+    public void testCachedExpansion() throws Exception {
+        ImmutableSet<String> expected = ImmutableSet.of("http://item.example.org/Book",
+                "http://item.example.org/Film", "http://item.example.org/title", "http://item.example.org/director",
+                "http://item.example.org/author");
+
+        assertEquals(expected, start(Optional.empty()));
+        assertTrue(Files.exists(cacheFile));
+
+        insertMagazine();
+        // The new class is not seen, the expansion being taken from the cache
+        assertEquals(expected, start(Optional.empty()));
+    }
+
+    @Test
+    public void testExpiredCache() throws Exception {
+        start(Optional.empty());
+        insertMagazine();
+        Thread.sleep(10);
+
+        assertTrue(start(Optional.of(0L)).contains("http://item.example.org/Magazine"));
+    }
+
+    /**
+     * The class and the property positions share the same source: their values are retrieved by a single query,
+     * projecting both "cls" and "prop"
+     */
+    @Test
+    public void testBatchedExpansion() throws Exception {
+        OntopSQLOWLAPIConfiguration configuration = createConfiguration(Optional.empty());
+        ImmutableMultiset<String> expandedIris = configuration.getInjector().getInstance(MappingExtractor.class)
+                .extract(configuration.loadProvidedPPMapping(), OBDASpecInput.defaultBuilder().build(),
+                        Optional.empty())
+                .getMapping().stream()
+                .filter(a -> a.getProvenance().getProvenanceInfo().contains("MAPID-item-typed-property"))
+                .map(a -> a.getRDFAtomPredicate().getPredicateIRI(a.getTerms()))
+                .map(i -> i.map(IRI::getIRIString).orElse(null))
+                .collect(ImmutableCollectors.toMultiset());
+
+        // Each position is expanded by its own distinct values: Book appears in 3 rows of the query
+        assertEquals(ImmutableMultiset.of("http://item.example.org/Book", "http://item.example.org/Film",
+                "http://item.example.org/title", "http://item.example.org/director",
+                "http://item.example.org/author"), expandedIris);
+
+        // The 4 positions of the 3 meta-mappings share the same source
+        JsonNode queries = new ObjectMapper().readTree(cacheFile.toFile()).path("queries");
+        assertEquals(1, queries.size());
+        // Distinct (cls, prop) pairs, plus Book without property
+        assertEquals(4, queries.get(0).path("rows").size());
+    }
+
+    private void insertMagazine() throws SQLException {
+        try (Statement st = sqlConnection.createStatement()) {
+            st.execute("INSERT INTO \"item\" VALUES (4, 'Magazine', NULL, NULL)");
+        }
+    }
+
+    private ImmutableSet<String> start(Optional<Long> ttl) throws Exception {
+        OntopVirtualRepository repository = OntopRepository.defaultRepository(createConfiguration(ttl));
+        repository.init();
+        try (OntopRepositoryConnection connection = repository.getConnection();
+             TupleQueryResult result = connection.prepareTupleQuery(QueryLanguage.SPARQL, QUERY).evaluate()) {
+            ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+            while (result.hasNext())
+                builder.add(result.next().getValue("v").stringValue());
+            return builder.build();
+        }
+        finally {
+            repository.shutDown();
+        }
+    }
+
+    private OntopSQLOWLAPIConfiguration createConfiguration(Optional<Long> ttl) {
+        Properties properties = new Properties();
+        properties.setProperty(OntopMappingSQLSettings.META_MAPPING_EXPANSION_PARALLELISM, "2");
+        properties.setProperty(OntopMappingSQLSettings.META_MAPPING_EXPANSION_CACHE_FILE, cacheFile.toString());
+        ttl.ifPresent(t -> properties.setProperty(OntopMappingSQLSettings.META_MAPPING_EXPANSION_CACHE_TTL,
+                String.valueOf(t)));
+
+        return OntopSQLOWLAPIConfiguration.defaultBuilder()
+                .nativeOntopMappingFile(MetaMappingExpansionCacheTest.class.getResource(OBDA_FILE).getPath())
+                .jdbcUrl(jdbcUrl)
+                .jdbcUser(USER)
+                .jdbcPassword(PASSWORD)
+                .properties(properties)
+                .enableTestMode()
+                .build();
+    }
+}
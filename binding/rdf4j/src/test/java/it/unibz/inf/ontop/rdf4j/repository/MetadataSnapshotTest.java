@@ -0,0 +1,138 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.rdf4j.repository.impl.OntopVirtualRepository;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * Starts several times a repository with a DB metadata snapshot file
+ */
+public class MetadataSnapshotTest {
+
+    private static final String OBDA_FILE = "/metadata-snapshot/person.obda";
+    private static final String USER = "sa";
+    private static final String PASSWORD = "";
+    private static final String QUERY = "PREFIX : <http://person.example.org/>\n" +
+            "SELECT ?v WHERE { ?x a :Person ; :fullName ?v }";
+
+    private String jdbcUrl;
+    private Connection sqlConnection;
+    private Path snapshotDirectory;
+    private Path snapshotFile;
+
+    @Before
+    public void setUp() throws SQLException, IOException {
+        jdbcUrl = "jdbc:h2:mem:" + UUID.randomUUID();
+        sqlConnection = DriverManager.getConnection(jdbcUrl, USER, PASSWORD);
+        try (Statement st = sqlConnection.createStatement()) {
+            st.execute("CREATE TABLE \"person\" (\"id\" INT PRIMARY KEY, \"fullName\" VARCHAR(100) NOT NULL)");
+            st.execute("CREATE TABLE \"country\" (\"name\" VARCHAR(100) PRIMARY KEY, \"acronym\" VARCHAR(10) NOT NULL UNIQUE)");
+            st.execute("INSERT INTO \"person\" VALUES (1, 'Roger Smith')");
+        }
+        snapshotDirectory = Files.createTempDirectory("ontop-metadata-snapshot");
+        snapshotFile = snapshotDirectory.resolve("metadata.json");
+    }
+
+    @After
+    public void tearDown() throws SQLException, IOException {
+        sqlConnection.close();
+        Files.deleteIfExists(snapshotFile);
+        Files.deleteIfExists(snapshotDirectory);
+    }
+
+    @Test
+    public void testWarmStart() throws Exception {
+        assertEquals(ImmutableList.of("Roger Smith"), start(false));
+        assertTrue(Files.exists(snapshotFile));
+        String snapshot = read();
+        assertTrue(snapshot.contains("\\\"person\\\""));
+        assertTrue(snapshot.contains("\\\"country\\\""));
+
+        assertEquals(ImmutableList.of("Roger Smith"), start(false));
+        assertEquals(snapshot, read());
+    }
+
+    @Test
+    public void testAlteredSnapshotIgnored() throws Exception {
+        start(false);
+        String snapshot = read();
+        Files.write(snapshotFile, snapshot.replace("\\\"fullName\\\"", "\\\"name\\\"").getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(ImmutableList.of("Roger Smith"), start(false));
+        // Replaced by the metadata extracted from the DB
+        assertTrue(read().contains("\\\"fullName\\\""));
+    }
+
+    @Test
+    public void testBackgroundValidation() throws Exception {
+        start(false);
+        String snapshot = read();
+        try (Statement st = sqlConnection.createStatement()) {
+            st.execute("ALTER TABLE \"person\" ADD COLUMN \"nickname\" VARCHAR(100)");
+        }
+
+        // The snapshot is still used for this start
+        assertEquals(ImmutableList.of("Roger Smith"), start(true));
+
+        for (int i = 0; i < 100 && read().equals(snapshot); i++)
+            Thread.sleep(100);
+        assertTrue(read().contains("\\\"nickname\\\""));
+    }
+
+    private String read() throws IOException {
+        return new String(Files.readAllBytes(snapshotFile), StandardCharsets.UTF_8);
+    }
+
+    private ImmutableList<String> start(boolean backgroundValidation) throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty(OntopMappingSQLSettings.METADATA_SNAPSHOT_FILE, snapshotFile.toString());
+        properties.setProperty(OntopMappingSQLSettings.METADATA_SNAPSHOT_BACKGROUND_VALIDATION,
+                String.valueOf(backgroundValidation));
+
+        OntopSQLOWLAPIConfiguration configuration = OntopSQLOWLAPIConfiguration.defaultBuilder()
+                .nativeOntopMappingFile(MetadataSnapshotTest.class.getResource(OBDA_FILE).getPath())
+                .jdbcUrl(jdbcUrl)
+                .jdbcUser(USER)
+                .jdbcPassword(PASSWORD)
+                .properties(properties)
+                .enableTestMode()
+                .build();
+
+        OntopVirtualRepository repository = OntopRepository.defaultRepository(configuration);
+        repository.init();
+        try (OntopRepositoryConnection connection = repository.getConnection();
+             TupleQueryResult result = connection.prepareTupleQuery(QueryLanguage.SPARQL, QUERY).evaluate()) {
+            ImmutableList.Builder<String> builder = ImmutableList.builder();
+            while (result.hasNext()) {
+                BindingSet bindingSet = result.next();
+                Value value = bindingSet.getValue("v");
+                builder.add(value.stringValue());
+            }
+            return builder.build();
+        }
+        finally {
+            repository.shutDown();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.exception.UnknownDatatypeException;
+import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.spec.OBDASpecInput;
+import it.unibz.inf.ontop.spec.mapping.MappingExtractor;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+/**
+ * Mapping assertions transformed by 4 threads (see dest-parallel.properties)
+ */
+public class ParallelMappingProcessingTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/destination/dest.obda";
+    private static final String SQL_SCRIPT = "/destination/schema.sql";
+    private static final String ONTOLOGY_FILE = "/destination/dest.owl";
+    private static final String PROPERTIES_FILE = "/destination/dest-parallel.properties";
+    // 16 assertions whose datatype cannot be inferred
+    private static final String UNKNOWN_DATATYPE_OBDA_FILE = "/destination/dest-unknown-datatype.obda";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE, ONTOLOGY_FILE, PROPERTIES_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testNames() {
+        String query = "PREFIX schema: <http://schema.org/>\n" +
+                "SELECT ?v\n" +
+                "WHERE {\n" +
+                "  ?h schema:name ?v .\n" +
+                "  VALUES ?h {\n" +
+                "    <http://destination.example.org/data/source1/hospitality/aaa>\n" +
+                "    <http://destination.example.org/data/municipality/ESTSTE>\n" +
+                "  }\n" +
+                "}";
+
+        runQueryAndCompare(query, ImmutableSet.of("Hotel 1", "ee", "eee", "eeee"));
+    }
+
+    /**
+     * Same assertions, in the same order, as when they are transformed sequentially
+     */
+    @Test
+    public void testSameAsSequential() throws Exception {
+        ImmutableList<String> sequentialMapping = extractMapping(OBDA_FILE, 1);
+        assertFalse(sequentialMapping.isEmpty());
+        assertEquals(sequentialMapping, extractMapping(OBDA_FILE, 4));
+    }
+
+    /**
+     * The exception of the first failing assertion in the mapping order is rethrown,
+     * whichever assertion fails first
+     */
+    @Test
+    public void testFirstFailureRethrown() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            try {
+                extractMapping(UNKNOWN_DATATYPE_OBDA_FILE, 4);
+                fail("The datatypes should not have been inferred");
+            }
+            catch (UnknownDatatypeException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("Unknown datatype 01"));
+            }
+        }
+    }
+
+    private static ImmutableList<String> extractMapping(String obdaFile, int parallelism) throws Exception {
+        OntopSQLOWLAPIConfiguration configuration = createConfiguration(obdaFile, parallelism);
+        MappingExtractor extractor = configuration.getInjector().getInstance(MappingExtractor.class);
+        return extractor.extract(configuration.loadProvidedPPMapping(), OBDASpecInput.defaultBuilder().build(),
+                        Optional.empty())
+                .getMapping().stream()
+                .map(a -> a.getProvenance().getProvenanceInfo() + "\n" + a.getQuery())
+                .collect(ImmutableCollectors.toList());
+    }
+
+    private static OntopSQLOWLAPIConfiguration createConfiguration(String obdaFile, int parallelism)
+            throws IOException {
+        Properties properties = new Properties();
+        try (InputStream stream = ParallelMappingProcessingTest.class.getResourceAsStream(PROPERTIES_FILE)) {
+            properties.load(stream);
+        }
+        properties.setProperty(OntopMappingSQLSettings.MAPPING_PROCESSING_PARALLELISM, String.valueOf(parallelism));
+
+        return OntopSQLOWLAPIConfiguration.defaultBuilder()
+                .nativeOntopMappingFile(ParallelMappingProcessingTest.class.getResource(obdaFile).getPath())
+                .ontologyFile(ParallelMappingProcessingTest.class.getResource(ONTOLOGY_FILE).getPath())
+                .jdbcUrl(getConfiguration().getSettings().getJdbcUrl())
+                .jdbcUser("sa")
+                .jdbcPassword("")
+                .properties(properties)
+                .enableTestMode()
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.metrics.OntopMetrics;
+import it.unibz.inf.ontop.rdf4j.predefined.OntopRDF4JPredefinedQueryEngine;
+import it.unibz.inf.ontop.rdf4j.predefined.PredefinedQueries;
+import it.unibz.inf.ontop.rdf4j.predefined.impl.OntopRDF4JPredefinedQueryEngineImpl;
+import it.unibz.inf.ontop.rdf4j.predefined.parsing.impl.PredefinedQueryParserImpl;
+import org.eclipse.rdf4j.query.GraphQueryResult;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.FileReader;
+import java.io.Reader;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The size of the reference query cache is bounded by "ontop.cache.predefinedQuery.size" (1 here)
+ */
+public class PredefinedQueryCacheTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/query-template/query-template.obda";
+    private static final String SQL_SCRIPT = "/query-template/query-template.sql";
+    private static final String PROPERTIES_FILE = "/predefined-cache/predefined-cache.properties";
+    private static final String CONFIG_FILE = "/predefined-cache/predefined-cache.json";
+    private static final String QUERY_FILE = "/predefined-cache/predefined-cache.toml";
+    private static final String QUERY_ID = "byCity";
+
+    private static OntopQueryEngine queryEngine;
+    private static OntopRDF4JPredefinedQueryEngine predefinedQueryEngine;
+
+    @BeforeClass
+    public static void before() throws Exception {
+        initOBDA(SQL_SCRIPT, OBDA_FILE, null, PROPERTIES_FILE);
+
+        PredefinedQueries predefinedQueries;
+        try (Reader configReader = new FileReader(PredefinedQueryCacheTest.class.getResource(CONFIG_FILE).getPath());
+             Reader queryReader = new FileReader(PredefinedQueryCacheTest.class.getResource(QUERY_FILE).getPath())) {
+            predefinedQueries = new PredefinedQueryParserImpl(getConfiguration()).parse(configReader, queryReader);
+        }
+        queryEngine = getConfiguration().loadQueryEngine();
+        queryEngine.connect();
+        predefinedQueryEngine = new OntopRDF4JPredefinedQueryEngineImpl(queryEngine, predefinedQueries,
+                getConfiguration());
+    }
+
+    @AfterClass
+    public static void after() throws Exception {
+        queryEngine.close();
+        release();
+    }
+
+    /**
+     * The city is not safe for random generation: each city has its own reference query
+     */
+    @Test
+    public void testEviction() {
+        long hits = getCount(OntopMetrics.PREDEFINED_QUERY_CACHE_HIT_COUNTER);
+        long misses = getCount(OntopMetrics.PREDEFINED_QUERY_CACHE_MISS_COUNTER);
+        long evictions = getCount(OntopMetrics.PREDEFINED_QUERY_CACHE_EVICTION_COUNTER);
+
+        assertEquals(2, evaluateByCity("Bolzano"));
+        assertEquals(misses + 1, getCount(OntopMetrics.PREDEFINED_QUERY_CACHE_MISS_COUNTER));
+
+        assertEquals(2, evaluateByCity("Bolzano"));
+        assertEquals(hits + 1, getCount(OntopMetrics.PREDEFINED_QUERY_CACHE_HIT_COUNTER));
+        assertEquals(evictions, getCount(OntopMetrics.PREDEFINED_QUERY_CACHE_EVICTION_COUNTER));
+
+        // Evicts the reference query for Bolzano
+        assertEquals(1, evaluateByCity("Trento"));
+        assertEquals(misses + 2, getCount(OntopMetrics.PREDEFINED_QUERY_CACHE_MISS_COUNTER));
+        assertEquals(evictions + 1, getCount(OntopMetrics.PREDEFINED_QUERY_CACHE_EVICTION_COUNTER));
+
+        assertEquals(2, evaluateByCity("Bolzano"));
+        assertEquals(misses + 3, getCount(OntopMetrics.PREDEFINED_QUERY_CACHE_MISS_COUNTER));
+        assertEquals(evictions + 2, getCount(OntopMetrics.PREDEFINED_QUERY_CACHE_EVICTION_COUNTER));
+        assertEquals(hits + 1, getCount(OntopMetrics.PREDEFINED_QUERY_CACHE_HIT_COUNTER));
+    }
+
+    private static int evaluateByCity(String city) {
+        try (GraphQueryResult result = predefinedQueryEngine.evaluateGraph(QUERY_ID, ImmutableMap.of("city", city))) {
+            return QueryResults.asList(result).size();
+        }
+    }
+
+    private static long getCount(String name) {
+        // Not registered before being used
+        return Optional.ofNullable(getInjector().getInstance(OntopMetrics.class).getSnapshot().get(name))
+                .map(m -> m.get("count").longValue())
+                .orElse(0L);
+    }
+}
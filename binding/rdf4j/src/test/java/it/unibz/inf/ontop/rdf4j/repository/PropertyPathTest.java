@@ -0,0 +1,189 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.answering.metrics.OntopMetrics;
+import org.h2.engine.Constants;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Arbitrary-length property paths, over a hierarchy with a cycle (x manages y, y manages x)
+ */
+public class PropertyPathTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/property-paths/property-paths.obda";
+    private static final String SQL_SCRIPT = "/property-paths/property-paths.sql";
+    private static final String PROPERTIES_FILE = "/property-paths/property-paths.properties";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE, null, PROPERTIES_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testOneOrMoreFromConstant() {
+        String query = "PREFIX : <http://example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " <http://example.org/person/a> :manages+ ?v \n" +
+                "}";
+        runQueryAndCompare(query, ImmutableSet.of("http://example.org/person/b", "http://example.org/person/c",
+                "http://example.org/person/d", "http://example.org/person/e"));
+    }
+
+    @Test
+    public void testOneOrMoreToConstant() {
+        String query = "PREFIX : <http://example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " ?v :manages+ <http://example.org/person/d> \n" +
+                "}";
+        runQueryAndCompare(query, ImmutableSet.of("http://example.org/person/a", "http://example.org/person/b",
+                "http://example.org/person/c"));
+    }
+
+    @Test
+    public void testInverseOneOrMore() {
+        String query = "PREFIX : <http://example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " <http://example.org/person/c> ^:manages+ ?v \n" +
+                "}";
+        runQueryAndCompare(query, ImmutableSet.of("http://example.org/person/a", "http://example.org/person/b"));
+    }
+
+    @Test
+    public void testOneOrMoreInCycle() {
+        String query = "PREFIX : <http://example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " <http://example.org/person/x> :manages+ ?v \n" +
+                "}";
+        runQueryAndCompare(query, ImmutableSet.of("http://example.org/person/x", "http://example.org/person/y"));
+    }
+
+    @Test
+    public void testOneOrMoreBetweenVariables() {
+        String query = "PREFIX : <http://example.org/>\n" +
+                "SELECT * WHERE {\n" +
+                " ?s :manages+ ?o \n" +
+                "}";
+        // a: 4, b: 3, c: 2, d: 1, x: 2, y: 2
+        assertEquals(14, runQueryAndCount(query));
+    }
+
+    @Test
+    public void testCycles() {
+        String query = "PREFIX : <http://example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " ?v :manages+ ?v \n" +
+                "}";
+        runQueryAndCompare(query, ImmutableSet.of("http://example.org/person/x", "http://example.org/person/y"));
+    }
+
+    @Test
+    public void testSequenceCycles() {
+        String query = "PREFIX : <http://example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " ?v (:manages/:manages)+ ?v \n" +
+                "}";
+        runQueryAndCompare(query, ImmutableSet.of("http://example.org/person/x", "http://example.org/person/y"));
+    }
+
+    @Test
+    public void testAlternativeCycles() {
+        String query = "PREFIX : <http://example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " ?v (:manages|^:manages)+ ?v \n" +
+                "}";
+        // Every node with an edge is on a cycle when the edges are followed in both directions
+        runQueryAndCompare(query, ImmutableSet.of("http://example.org/person/a", "http://example.org/person/b",
+                "http://example.org/person/c", "http://example.org/person/d", "http://example.org/person/e",
+                "http://example.org/person/x", "http://example.org/person/y"));
+    }
+
+    /**
+     * The same property path is translated into the same IQ, which is found in the cache of the translated queries
+     */
+    @Test
+    public void testReproducibleTranslation() {
+        String query = "PREFIX : <http://example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " <http://example.org/person/c> (:manages/:name)* ?v \n" +
+                "}";
+        runQuery(query);
+        long hitCount = getTranslatedQueryCacheHitCount();
+        // Not the same input query
+        runQuery(query + "\n");
+        assertEquals(hitCount + 1, getTranslatedQueryCacheHitCount());
+    }
+
+    @Test
+    public void testZeroOrMoreFromConstant() {
+        String query = "PREFIX : <http://example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " <http://example.org/person/b> :manages* ?v \n" +
+                "}";
+        runQueryAndCompare(query, ImmutableSet.of("http://example.org/person/b", "http://example.org/person/c",
+                "http://example.org/person/d", "http://example.org/person/e"));
+    }
+
+    @Test
+    public void testZeroOrMoreBetweenVariables() {
+        String query = "PREFIX : <http://example.org/>\n" +
+                "SELECT * WHERE {\n" +
+                " ?s :manages* ?o \n" +
+                "}";
+        // 14 + (a, a), (b, b), (c, c), (d, d), (e, e)
+        assertEquals(19, runQueryAndCount(query));
+    }
+
+    @Test
+    public void testSequenceOneOrMore() {
+        String query = "PREFIX : <http://example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " <http://example.org/person/a> (:manages/:manages)+ ?v \n" +
+                "}";
+        runQueryAndCompare(query, ImmutableSet.of("http://example.org/person/c", "http://example.org/person/e"));
+    }
+
+    /**
+     * H2 version 1 does not support joining a recursive query with another relation
+     */
+    @Test
+    public void testOneOrMoreJoin() {
+        assumeTrue(Constants.VERSION_MAJOR >= 2);
+        String query = "PREFIX : <http://example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " <http://example.org/person/b> :manages+ ?p .\n" +
+                " ?p :name ?v \n" +
+                "}";
+        runQueryAndCompare(query, ImmutableSet.of("Carol", "Dave"));
+    }
+
+    @Test
+    public void testZeroOrOne() {
+        String query = "PREFIX : <http://example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " <http://example.org/person/c> :manages? ?v \n" +
+                "}";
+        runQueryAndCompare(query, ImmutableSet.of("http://example.org/person/c", "http://example.org/person/d"));
+    }
+
+    private static long getTranslatedQueryCacheHitCount() {
+        // Not registered before the first hit
+        return Optional.ofNullable(getInjector().getInstance(OntopMetrics.class).getSnapshot()
+                        .get(OntopMetrics.TRANSLATED_QUERY_CACHE_HIT_COUNTER))
+                .map(m -> m.get("count").longValue())
+                .orElse(0L);
+    }
+}
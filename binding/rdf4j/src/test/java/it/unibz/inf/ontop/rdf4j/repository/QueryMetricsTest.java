@@ -0,0 +1,60 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.answering.metrics.OntopMetrics;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class QueryMetricsTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/destination/dest.obda";
+    private static final String SQL_SCRIPT = "/destination/schema.sql";
+    private static final String ONTOLOGY_FILE = "/destination/dest.owl";
+    private static final String PROPERTIES_FILE = "/destination/dest-metrics.properties";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE, ONTOLOGY_FILE, PROPERTIES_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testRepeatedQuery() {
+        String query = "PREFIX schema: <http://schema.org/>\n" +
+                "SELECT ?h ?v\n" +
+                "WHERE {\n" +
+                "  ?h a schema:LodgingBusiness ;\n" +
+                "     schema:name ?v .\n" +
+                "}";
+        int count = runQueryAndCount(query);
+        assertTrue(count > 0);
+        assertEquals(count, runQueryAndCount(query));
+
+        OntopMetrics metrics = getInjector().getInstance(OntopMetrics.class);
+        ImmutableMap<String, ImmutableMap<String, Number>> snapshot = metrics.getSnapshot();
+
+        assertEquals(1L, getCount(snapshot, OntopMetrics.QUERY_CACHE_MISS_COUNTER));
+        assertEquals(1L, getCount(snapshot, OntopMetrics.QUERY_CACHE_HIT_COUNTER));
+        assertEquals(1L, getCount(snapshot, OntopMetrics.UNFOLDING_TIMER));
+        assertEquals(1L, getCount(snapshot, OntopMetrics.NATIVE_QUERY_GENERATION_TIMER));
+        assertEquals(2L, getCount(snapshot, OntopMetrics.JDBC_EXECUTION_TIMER));
+        assertEquals(2L, getCount(snapshot, OntopMetrics.JDBC_FETCHING_TIMER));
+        assertEquals(2L * count, getCount(snapshot, OntopMetrics.JDBC_DECODED_ROW_COUNTER));
+        assertTrue(getCount(snapshot, OntopMetrics.JDBC_CONNECTION_POOL_WAIT_TIMER) > 0);
+    }
+
+    private static long getCount(ImmutableMap<String, ImmutableMap<String, Number>> snapshot, String name) {
+        return snapshot.get(name).get("count").longValue();
+    }
+}
@@ -0,0 +1,163 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.answering.metrics.OntopMetrics;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Queries only differing by some of their literals share the same planned query template
+ */
+public class QueryTemplateCacheTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/query-template/query-template.obda";
+    private static final String SQL_SCRIPT = "/query-template/query-template.sql";
+    private static final String PROPERTIES_FILE = "/query-template/query-template.properties";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE, null, PROPERTIES_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testTriplePatternObject() {
+        long hits = getCount(OntopMetrics.QUERY_TEMPLATE_CACHE_HIT_COUNTER);
+        long misses = getCount(OntopMetrics.QUERY_TEMPLATE_CACHE_MISS_COUNTER);
+        long unfoldings = getCount(OntopMetrics.UNFOLDING_TIMER);
+        long nativeQueryGenerations = getCount(OntopMetrics.NATIVE_QUERY_GENERATION_TIMER);
+
+        runQueryAndCompare(triplePatternQuery("\"Alice\""), ImmutableSet.of("http://example.org/person/a"));
+        runQueryAndCompare(triplePatternQuery("\"Bob\""), ImmutableSet.of("http://example.org/person/b"));
+
+        assertEquals(misses + 1, getCount(OntopMetrics.QUERY_TEMPLATE_CACHE_MISS_COUNTER));
+        assertEquals(hits + 1, getCount(OntopMetrics.QUERY_TEMPLATE_CACHE_HIT_COUNTER));
+        // Reformulated only once
+        assertEquals(unfoldings + 1, getCount(OntopMetrics.UNFOLDING_TIMER));
+        // The native query is generated once and its parameters are bound for each query
+        assertEquals(nativeQueryGenerations + 1, getCount(OntopMetrics.NATIVE_QUERY_GENERATION_TIMER));
+    }
+
+    @Test
+    public void testFilter() {
+        long hits = getCount(OntopMetrics.QUERY_TEMPLATE_CACHE_HIT_COUNTER);
+        long misses = getCount(OntopMetrics.QUERY_TEMPLATE_CACHE_MISS_COUNTER);
+
+        runQueryAndCompare(filterQuery("\"Bolzano\""), ImmutableSet.of("http://example.org/person/a",
+                "http://example.org/person/c"));
+        runQueryAndCompare(filterQuery("\"Trento\""), ImmutableSet.of("http://example.org/person/b"));
+        runQueryAndCompare(filterQuery("\"Paris\""), ImmutableSet.of());
+
+        assertEquals(misses + 1, getCount(OntopMetrics.QUERY_TEMPLATE_CACHE_MISS_COUNTER));
+        assertEquals(hits + 2, getCount(OntopMetrics.QUERY_TEMPLATE_CACHE_HIT_COUNTER));
+    }
+
+    @Test
+    public void testInteger() {
+        long hits = getCount(OntopMetrics.QUERY_TEMPLATE_CACHE_HIT_COUNTER);
+        long misses = getCount(OntopMetrics.QUERY_TEMPLATE_CACHE_MISS_COUNTER);
+
+        String query = "PREFIX : <http://example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " ?v :age %s \n" +
+                "}";
+        runQueryAndCompare(String.format(query, "30"), ImmutableSet.of("http://example.org/person/a"));
+        runQueryAndCompare(String.format(query, "40"), ImmutableSet.of("http://example.org/person/b",
+                "http://example.org/person/c"));
+
+        assertEquals(misses + 1, getCount(OntopMetrics.QUERY_TEMPLATE_CACHE_MISS_COUNTER));
+        assertEquals(hits + 1, getCount(OntopMetrics.QUERY_TEMPLATE_CACHE_HIT_COUNTER));
+    }
+
+    /**
+     * The integer parameter is compared with the integer column, not with its string representation
+     */
+    @Test
+    public void testIntegerParameterType() {
+        String query = "PREFIX : <http://example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " ?v a :Person ; :age 50 \n" +
+                "}";
+        String sql = reformulate(query);
+        assertTrue(sql.contains("? = V1.\"age\"") || sql.contains("V1.\"age\" = ?"));
+        assertTrue(sql.contains("[\"50\"^^BIGINT]"));
+        assertFalse(sql.contains("CAST"));
+    }
+
+    /**
+     * The datatype (here, the language tag) is part of the query template
+     */
+    @Test
+    public void testDifferentDatatypes() {
+        long hits = getCount(OntopMetrics.QUERY_TEMPLATE_CACHE_HIT_COUNTER);
+        long misses = getCount(OntopMetrics.QUERY_TEMPLATE_CACHE_MISS_COUNTER);
+
+        String query = "PREFIX : <http://example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " ?v a :Person ; :name %s \n" +
+                "}";
+        runQueryAndCompare(String.format(query, "\"Carol\"@en"), ImmutableSet.of());
+        runQueryAndCompare(String.format(query, "\"Carol\""), ImmutableSet.of("http://example.org/person/c"));
+
+        assertEquals(misses + 2, getCount(OntopMetrics.QUERY_TEMPLATE_CACHE_MISS_COUNTER));
+        assertEquals(hits, getCount(OntopMetrics.QUERY_TEMPLATE_CACHE_HIT_COUNTER));
+    }
+
+    /**
+     * Equal literals share the same parameter, so the query template differs from the one with different literals
+     */
+    @Test
+    public void testRepeatedLiteral() {
+        long hits = getCount(OntopMetrics.QUERY_TEMPLATE_CACHE_HIT_COUNTER);
+        long misses = getCount(OntopMetrics.QUERY_TEMPLATE_CACHE_MISS_COUNTER);
+
+        String query = "PREFIX : <http://example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " ?v :name ?n ; :city ?c .\n" +
+                " FILTER((?n = %s) || (?c = %s))\n" +
+                "}";
+        runQueryAndCompare(String.format(query, "\"Bob\"", "\"Bob\""), ImmutableSet.of("http://example.org/person/b"));
+        runQueryAndCompare(String.format(query, "\"Bob\"", "\"Bolzano\""), ImmutableSet.of(
+                "http://example.org/person/a", "http://example.org/person/b", "http://example.org/person/c"));
+        runQueryAndCompare(String.format(query, "\"Carol\"", "\"Trento\""), ImmutableSet.of(
+                "http://example.org/person/b", "http://example.org/person/c"));
+
+        assertEquals(misses + 2, getCount(OntopMetrics.QUERY_TEMPLATE_CACHE_MISS_COUNTER));
+        assertEquals(hits + 1, getCount(OntopMetrics.QUERY_TEMPLATE_CACHE_HIT_COUNTER));
+    }
+
+    private static String triplePatternQuery(String name) {
+        return "PREFIX : <http://example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " ?v :name " + name + " \n" +
+                "}";
+    }
+
+    private static String filterQuery(String city) {
+        return "PREFIX : <http://example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " ?v :city ?c .\n" +
+                " FILTER(?c = " + city + ")\n" +
+                "}";
+    }
+
+    private static long getCount(String name) {
+        // Not registered before being used
+        return Optional.ofNullable(getInjector().getInstance(OntopMetrics.class).getSnapshot().get(name))
+                .map(m -> m.get("count").longValue())
+                .orElse(0L);
+    }
+}
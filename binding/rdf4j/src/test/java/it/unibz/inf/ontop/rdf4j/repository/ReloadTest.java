@@ -0,0 +1,150 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.rdf4j.repository.impl.OntopVirtualRepository;
+import it.unibz.inf.ontop.rdf4j.repository.impl.OntopVirtualRepository.ReloadPhase;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ReloadTest {
+
+    private static final String OBDA_FILE = "/destination/dest.obda";
+    private static final String SQL_SCRIPT = "/destination/schema.sql";
+    private static final String ONTOLOGY_FILE = "/destination/dest.owl";
+
+    private static final String QUERY = "SELECT ?h WHERE { ?h a <http://schema.org/LodgingBusiness> }";
+
+    private Connection sqlConnection;
+    private String jdbcUrl;
+    private OntopVirtualRepository repository;
+
+    @Before
+    public void setUp() throws SQLException, IOException {
+        jdbcUrl = "jdbc:h2:mem:" + UUID.randomUUID();
+        sqlConnection = DriverManager.getConnection(jdbcUrl, "sa", "");
+        sqlConnection.createStatement().executeUpdate(new String(
+                Files.readAllBytes(Paths.get(getPath(SQL_SCRIPT))),
+                StandardCharsets.UTF_8));
+        sqlConnection.commit();
+
+        repository = OntopRepository.defaultRepository(createConfiguration(getPath(OBDA_FILE)));
+        repository.init();
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        repository.shutDown();
+        sqlConnection.close();
+    }
+
+    @Test
+    public void testOldEngineDrained() {
+        int count = countResults(repository);
+        assertTrue(count > 0);
+
+        OntopRepositoryConnection oldConnection = repository.getConnection();
+        List<ReloadPhase> phases = new ArrayList<>();
+        repository.reload(createConfiguration(getPath(OBDA_FILE)), ImmutableList.of(QUERY), phases::add);
+
+        assertEquals(ImmutableList.of(ReloadPhase.LOADING_SPECIFICATION, ReloadPhase.CONNECTING,
+                ReloadPhase.WARMING_UP, ReloadPhase.SWAPPED), phases);
+        // Kept open until its last connection is closed
+        assertEquals(1, repository.getDrainingEngineCount());
+        assertEquals(count, countResults(oldConnection));
+        assertEquals(count, countResults(repository));
+
+        oldConnection.close();
+        assertEquals(0, repository.getDrainingEngineCount());
+        assertEquals(count, countResults(repository));
+    }
+
+    @Test
+    public void testFailedReload() {
+        int count = countResults(repository);
+        try {
+            repository.reload(createConfiguration(getPath("/destination") + "/missing.obda"), ImmutableList.of(), p -> { });
+            fail("The reload was expected to fail");
+        }
+        catch (RepositoryException e) {
+            // Expected
+        }
+        assertEquals(0, repository.getDrainingEngineCount());
+        assertEquals(count, countResults(repository));
+    }
+
+    /**
+     * The threads of the retired engines (query execution, statistics, query logging) are released
+     */
+    @Test
+    public void testThreadCountStable() throws InterruptedException {
+        countResults(repository);
+        long initialThreadCount = countOntopThreads();
+
+        for (int i = 0; i < 5; i++) {
+            repository.reload(createConfiguration(getPath(OBDA_FILE)), ImmutableList.of(QUERY), p -> { });
+            countResults(repository);
+        }
+        assertEquals(0, repository.getDrainingEngineCount());
+
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (countOntopThreads() > initialThreadCount && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+        assertTrue(countOntopThreads() <= initialThreadCount);
+    }
+
+    private OntopSQLOWLAPIConfiguration createConfiguration(String obdaPath) {
+        return OntopSQLOWLAPIConfiguration.defaultBuilder()
+                .nativeOntopMappingFile(obdaPath)
+                .ontologyFile(getPath(ONTOLOGY_FILE))
+                .jdbcUrl(jdbcUrl)
+                .jdbcUser("sa")
+                .jdbcPassword("")
+                .enableTestMode()
+                .build();
+    }
+
+    private static String getPath(String resource) {
+        return ReloadTest.class.getResource(resource).getPath();
+    }
+
+    private static long countOntopThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> t.getName().startsWith("ontop-"))
+                .count();
+    }
+
+    private static int countResults(OntopVirtualRepository repository) {
+        try (OntopRepositoryConnection connection = repository.getConnection()) {
+            return countResults(connection);
+        }
+    }
+
+    private static int countResults(OntopRepositoryConnection connection) {
+        int count = 0;
+        try (TupleQueryResult result = connection.prepareTupleQuery(QUERY).evaluate()) {
+            while (result.hasNext()) {
+                result.next();
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,126 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.answering.cache.ResultSetCache;
+import it.unibz.inf.ontop.answering.metrics.OntopMetrics;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Only the results of the queries depending on nothing but the content of the DB are cached
+ */
+public class ResultSetCacheTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/query-template/query-template.obda";
+    private static final String SQL_SCRIPT = "/query-template/query-template.sql";
+    private static final String PROPERTIES_FILE = "/result-cache/result-cache.properties";
+    // As rendered by the RelationNameExtractor
+    private static final String PERSON_RELATION = "\"person\"";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE, null, PROPERTIES_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testDeterministicQuery() {
+        long hits = getCount(OntopMetrics.RESULT_CACHE_HIT_COUNTER);
+        long misses = getCount(OntopMetrics.RESULT_CACHE_MISS_COUNTER);
+
+        String query = "PREFIX : <http://example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " ?v :city \"Trento\" \n" +
+                "}";
+        runQueryAndCompare(query, ImmutableSet.of("http://example.org/person/b"));
+        runQueryAndCompare(query, ImmutableSet.of("http://example.org/person/b"));
+
+        assertEquals(misses + 1, getCount(OntopMetrics.RESULT_CACHE_MISS_COUNTER));
+        assertEquals(hits + 1, getCount(OntopMetrics.RESULT_CACHE_HIT_COUNTER));
+    }
+
+    @Test
+    public void testNow() {
+        testNotCached("PREFIX : <http://example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " ?v :city \"Bolzano\" \n" +
+                " FILTER (NOW() > \"2000-01-01T00:00:00\"^^<http://www.w3.org/2001/XMLSchema#dateTime>)\n" +
+                "}");
+    }
+
+    @Test
+    public void testRand() {
+        testNotCached("PREFIX : <http://example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " ?v :city \"Bolzano\" \n" +
+                " FILTER (RAND() < 2)\n" +
+                "}");
+    }
+
+    private void testNotCached(String query) {
+        long hits = getCount(OntopMetrics.RESULT_CACHE_HIT_COUNTER);
+        long misses = getCount(OntopMetrics.RESULT_CACHE_MISS_COUNTER);
+
+        ImmutableSet<String> expectedValues = ImmutableSet.of("http://example.org/person/a",
+                "http://example.org/person/c");
+        runQueryAndCompare(query, expectedValues);
+        runQueryAndCompare(query, expectedValues);
+
+        // Not even looked up
+        assertEquals(misses, getCount(OntopMetrics.RESULT_CACHE_MISS_COUNTER));
+        assertEquals(hits, getCount(OntopMetrics.RESULT_CACHE_HIT_COUNTER));
+    }
+
+    /**
+     * The cached results are served, even if the DB has changed, until the relation is invalidated
+     */
+    @Test
+    public void testInvalidation() throws SQLException {
+        long hits = getCount(OntopMetrics.RESULT_CACHE_HIT_COUNTER);
+        long invalidations = getCount(OntopMetrics.RESULT_CACHE_INVALIDATION_COUNTER);
+
+        String query = "PREFIX : <http://example.org/>\n" +
+                "SELECT ?v WHERE {\n" +
+                " ?v :age 50 \n" +
+                "}";
+        runQueryAndCompare(query, ImmutableSet.of());
+
+        try (Statement statement = getSQLConnection().createStatement()) {
+            statement.executeUpdate("INSERT INTO \"person\" (\"id\", \"name\", \"city\", \"age\") " +
+                    "VALUES ('d', 'Dave', 'Merano', 50)");
+        }
+        runQueryAndCompare(query, ImmutableSet.of());
+        assertEquals(hits + 1, getCount(OntopMetrics.RESULT_CACHE_HIT_COUNTER));
+
+        ResultSetCache resultSetCache = getInjector().getInstance(ResultSetCache.class);
+        resultSetCache.invalidate("\"other\"");
+        assertEquals(invalidations, getCount(OntopMetrics.RESULT_CACHE_INVALIDATION_COUNTER));
+        runQueryAndCompare(query, ImmutableSet.of());
+        assertEquals(hits + 2, getCount(OntopMetrics.RESULT_CACHE_HIT_COUNTER));
+
+        resultSetCache.invalidate(PERSON_RELATION);
+        assertTrue(getCount(OntopMetrics.RESULT_CACHE_INVALIDATION_COUNTER) > invalidations);
+        runQueryAndCompare(query, ImmutableSet.of("http://example.org/person/d"));
+        assertEquals(hits + 2, getCount(OntopMetrics.RESULT_CACHE_HIT_COUNTER));
+    }
+
+    private static long getCount(String name) {
+        // Not registered before being used
+        return Optional.ofNullable(getInjector().getInstance(OntopMetrics.class).getSnapshot().get(name))
+                .map(m -> m.get("count").longValue())
+                .orElse(0L);
+    }
+}
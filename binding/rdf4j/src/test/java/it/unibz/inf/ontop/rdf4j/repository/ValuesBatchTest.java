@@ -0,0 +1,115 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.answering.metrics.OntopMetrics;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Batch size of 2 (see dest-batch.properties)
+ */
+public class ValuesBatchTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/destination/dest.obda";
+    private static final String SQL_SCRIPT = "/destination/schema.sql";
+    private static final String ONTOLOGY_FILE = "/destination/dest.owl";
+    private static final String PROPERTIES_FILE = "/destination/dest-batch.properties";
+
+    private static final String VALUES_BLOCK = "  VALUES ?h {\n" +
+            "    <http://destination.example.org/data/source1/hospitality/aaa>\n" +
+            "    <http://destination.example.org/data/source1/hospitality/bbb>\n" +
+            "    <http://destination.example.org/data/source1/hospitality/ccc>\n" +
+            "    <http://destination.example.org/data/municipality/ESTSTE>\n" +
+            "    <http://destination.example.org/data/municipality/OTHER>\n" +
+            "  }\n";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE, ONTOLOGY_FILE, PROPERTIES_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testValuesSplitIntoBatches() {
+        String query = "PREFIX schema: <http://schema.org/>\n" +
+                "SELECT ?h ?v\n" +
+                "WHERE {\n" +
+                VALUES_BLOCK +
+                "  OPTIONAL { ?h schema:name ?v }\n" +
+                "}";
+
+        long executionCount = getExecutionCount();
+        assertEquals(9, runQueryAndCount(query));
+        assertTrue(getExecutionCount() - executionCount > 1);
+
+        runQueryAndCompare(query, ImmutableSet.of("Hotel 1", "ee", "eee", "eeee"));
+    }
+
+    @Test
+    public void testOrderByNotSplit() {
+        String query = "PREFIX schema: <http://schema.org/>\n" +
+                "SELECT ?h ?v\n" +
+                "WHERE {\n" +
+                VALUES_BLOCK +
+                "  OPTIONAL { ?h schema:name ?v }\n" +
+                "}\n" +
+                "ORDER BY ?v";
+
+        long executionCount = getExecutionCount();
+        assertEquals(9, runQueryAndCount(query));
+        assertEquals(1L, getExecutionCount() - executionCount);
+    }
+
+    /**
+     * The union of the mapping assertions of schema:name is wider than the batch size
+     */
+    @Test
+    public void testMappingUnionNotSplit() {
+        String query = "PREFIX schema: <http://schema.org/>\n" +
+                "SELECT ?h ?v\n" +
+                "WHERE {\n" +
+                "  ?h schema:name ?v .\n" +
+                "}";
+
+        long executionCount = getExecutionCount();
+        assertEquals(6, runQueryAndCount(query));
+        assertEquals(1L, getExecutionCount() - executionCount);
+    }
+
+    /**
+     * The VALUES block is pushed into the mapping assertions, whose union is not split
+     */
+    @Test
+    public void testPushedDownValuesNotSplit() {
+        String query = "PREFIX schema: <http://schema.org/>\n" +
+                "SELECT ?h ?v\n" +
+                "WHERE {\n" +
+                "  ?h schema:name ?v .\n" +
+                VALUES_BLOCK +
+                "}";
+
+        long executionCount = getExecutionCount();
+        assertEquals(6, runQueryAndCount(query));
+        assertEquals(1L, getExecutionCount() - executionCount);
+    }
+
+    private static long getExecutionCount() {
+        // Not registered before the first execution
+        return Optional.ofNullable(getInjector().getInstance(OntopMetrics.class).getSnapshot()
+                        .get(OntopMetrics.JDBC_EXECUTION_TIMER))
+                .map(m -> m.get("count").longValue())
+                .orElse(0L);
+    }
+}
@@ -0,0 +1,8 @@
+create table "person" ("id" int primary key, "name" varchar(100) NOT NULL, "country" varchar(10) NOT NULL);
+create table "country" ("acronym" varchar(10) primary key, "name" varchar(100) NOT NULL);
+create table "city" ("id" int primary key, "name" varchar(100) NOT NULL, "country" varchar(10) NOT NULL);
+insert into "person" ("id", "name", "country") values (1, 'Roger', 'it');
+insert into "person" ("id", "name", "country") values (2, 'Anna', 'de');
+insert into "country" ("acronym", "name") values ('it', 'Italy');
+insert into "country" ("acronym", "name") values ('de', 'Germany');
+insert into "city" ("id", "name", "country") values (1, 'Bolzano', 'it');
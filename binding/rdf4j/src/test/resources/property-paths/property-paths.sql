@@ -0,0 +1,9 @@
+create table "employee" ("id" varchar(10) primary key, "name" varchar(100) NOT NULL, "manager" varchar(10));
+create table "supervision" ("supervisor" varchar(10) NOT NULL, "supervised" varchar(10) NOT NULL);
+insert into "employee" ("id", "name", "manager") values ('a', 'Alice', NULL);
+insert into "employee" ("id", "name", "manager") values ('b', 'Bob', 'a');
+insert into "employee" ("id", "name", "manager") values ('c', 'Carol', 'b');
+insert into "employee" ("id", "name", "manager") values ('d', 'Dave', 'c');
+insert into "employee" ("id", "name", "manager") values ('x', 'Xavier', 'y');
+insert into "employee" ("id", "name", "manager") values ('y', 'Yvonne', 'x');
+insert into "supervision" ("supervisor", "supervised") values ('d', 'e');
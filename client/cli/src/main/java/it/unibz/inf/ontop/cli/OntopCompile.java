@@ -21,14 +21,166 @@ package it.unibz.inf.ontop.cli;
  */
 
 import com.github.rvesse.airline.annotations.Command;
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.exception.OBDASpecificationException;
+import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.injection.impl.OntopModelConfigurationImpl;
+import it.unibz.inf.ontop.spec.CompiledOBDASpecification;
+import it.unibz.inf.ontop.spec.mapping.serializer.impl.OntopNativeMappingSerializer;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.formats.FunctionalSyntaxDocumentFormat;
+import org.semanticweb.owlapi.io.StringDocumentTarget;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyStorageException;
+import org.semanticweb.owlapi.util.OWLOntologyImportsClosureSetProvider;
+import org.semanticweb.owlapi.util.OWLOntologyMerger;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Loads the OBDA specification once (failing as for the validate command) and records the SQL-PP mapping,
+ * the ontology (imports included) and the DB metadata of the relations used by the mapping into
+ * a compiled specification, to be passed to the endpoint with --compiled-spec.
+ */
 @Command(name = "compile",
-        description = "compile the ontology axioms into  mappings",
-        hidden = true)
-public class OntopCompile implements OntopCommand {
+        description = "Compile the mapping, the ontology and the DB metadata into an artifact from which " +
+                "the endpoint starts without parsing the input files nor querying the DB catalog")
+public class OntopCompile extends OntopReasoningCommandBase {
 
     @Override
     public void run() {
+        if (outputFile == null) {
+            System.err.println("ERROR: an output file is required (--output)");
+            System.exit(1);
+        }
+
+        try {
+            Path snapshotDirectory = Files.createTempDirectory("ontop-compile");
+            Path snapshotFile = snapshotDirectory.resolve("db-metadata.json");
+            Path mappingFile = snapshotDirectory.resolve("mapping.obda");
+            try {
+                long startTime = System.currentTimeMillis();
+                OntopSQLOWLAPIConfiguration configuration = createConfiguration(snapshotFile);
+                configuration.loadSpecification();
+
+                new OntopNativeMappingSerializer().write(mappingFile.toFile(), configuration.loadProvidedPPMapping());
+                String mapping = new String(Files.readAllBytes(mappingFile), StandardCharsets.UTF_8);
+
+                Optional<String> ontology = serializeOntology(configuration);
+
+                try (Reader dbMetadataReader = Files.newBufferedReader(
+                        (dbMetadataFile != null) ? new File(dbMetadataFile).toPath() : snapshotFile,
+                        StandardCharsets.UTF_8)) {
+                    CompiledOBDASpecification.create(getInputFiles(), mapping, ontology, dbMetadataReader)
+                            .write(new File(outputFile));
+                }
+                System.out.format("Specification compiled into %s in %d ms\n", outputFile,
+                        System.currentTimeMillis() - startTime);
+            }
+            finally {
+                Files.deleteIfExists(snapshotFile);
+                Files.deleteIfExists(mappingFile);
+                Files.deleteIfExists(snapshotDirectory);
+            }
+        }
+        catch (OBDASpecificationException e) {
+            System.err.format("ERROR: There is a problem loading the specification: %s\n", e.getMessage());
+            System.exit(1);
+        }
+        catch (IOException | OWLOntologyCreationException | OWLOntologyStorageException e) {
+            System.err.format("ERROR: %s\n", e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * The imported ontologies are merged in, so that the XML catalog is not needed anymore
+     */
+    private static Optional<String> serializeOntology(OntopSQLOWLAPIConfiguration configuration)
+            throws OWLOntologyCreationException, OWLOntologyStorageException {
+        Optional<OWLOntology> inputOntology = configuration.loadInputOntology();
+        if (!inputOntology.isPresent())
+            return Optional.empty();
+
+        OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+        OWLOntology ontology = new OWLOntologyMerger(new OWLOntologyImportsClosureSetProvider(
+                        inputOntology.get().getOWLOntologyManager(), inputOntology.get()))
+                .createMergedOntology(manager, inputOntology.get().getOntologyID().getOntologyIRI().orNull());
+
+        StringDocumentTarget target = new StringDocumentTarget();
+        manager.saveOntology(ontology, new FunctionalSyntaxDocumentFormat(), target);
+        return Optional.of(target.toString());
+    }
+
+    /**
+     * The DB metadata is recorded through the metadata snapshot
+     */
+    private OntopSQLOWLAPIConfiguration createConfiguration(Path snapshotFile) {
+        OntopSQLOWLAPIConfiguration.Builder<? extends OntopSQLOWLAPIConfiguration.Builder> builder =
+                OntopSQLOWLAPIConfiguration.defaultBuilder();
+
+        Properties properties = (propertiesFile != null)
+                ? OntopModelConfigurationImpl.extractProperties(OntopModelConfigurationImpl.extractPropertyFile(propertiesFile))
+                : new Properties();
+        properties.setProperty(OntopMappingSQLSettings.METADATA_SNAPSHOT_FILE, snapshotFile.toString());
+        properties.setProperty(OntopMappingSQLSettings.METADATA_SNAPSHOT_BACKGROUND_VALIDATION, "false");
+        builder.properties(properties);
+
+        if (isR2rmlFile(mappingFile))
+            builder.r2rmlMappingFile(mappingFile);
+        else
+            builder.nativeOntopMappingFile(mappingFile);
+
+        if (owlFile != null)
+            builder.ontologyFile(owlFile);
+
+        if (xmlCatalogFile != null)
+            builder.xmlCatalogFile(xmlCatalogFile);
+
+        if (constraintFile != null)
+            builder.basicImplicitConstraintFile(constraintFile);
+
+        if (dbMetadataFile != null)
+            builder.dbMetadataFile(dbMetadataFile);
+
+        if (ontopViewFile != null)
+            builder.ontopViewFile(ontopViewFile);
+
+        if (dbPassword != null)
+            builder.jdbcPassword(dbPassword);
+
+        if (dbUrl != null)
+            builder.jdbcUrl(dbUrl);
+
+        if (dbUser != null)
+            builder.jdbcUser(dbUser);
+
+        if (dbDriver != null)
+            builder.jdbcDriver(dbDriver);
+
+        return builder.build();
+    }
 
+    private ImmutableMap<String, File> getInputFiles() {
+        Map<String, String> inputPaths = new HashMap<>();
+        inputPaths.put(CompiledOBDASpecification.MAPPING_INPUT, mappingFile);
+        inputPaths.put(CompiledOBDASpecification.ONTOLOGY_INPUT, owlFile);
+        inputPaths.put(CompiledOBDASpecification.PROPERTIES_INPUT, propertiesFile);
+        inputPaths.put(CompiledOBDASpecification.CONSTRAINT_INPUT, constraintFile);
+        inputPaths.put(CompiledOBDASpecification.ONTOP_VIEWS_INPUT, ontopViewFile);
+        inputPaths.put(CompiledOBDASpecification.XML_CATALOG_INPUT, xmlCatalogFile);
+        return CompiledOBDASpecification.toInputFiles(inputPaths);
     }
 }
@@ -61,7 +61,37 @@ public class OntopEndpoint extends OntopReasoningCommandBase {
     @Option(type = OptionType.COMMAND, name = {"--enable-download-ontology"}, title = "allow to download the ontology",
             description = "Allow to download the ontology as a plain text file (/ontology). Default: false")
     private boolean enableDownloadOntology = false;
-    
+
+    @Option(type = OptionType.COMMAND, name = {"--enable-metrics"}, title = "record and expose metrics",
+            description = "Record metrics about query answering and expose them as JSON (/metrics). Default: false")
+    private boolean enableMetrics = false;
+
+    @Option(type = OptionType.COMMAND, name = {"--response-chunk-size"}, title = "response chunk size",
+            description = "Size (in bytes) of the chunks in which the query results are sent to the client. Default: 65536")
+    private int responseChunkSize = 65536;
+
+    @Option(type = OptionType.COMMAND, name = {"--warm-up"}, title = "warm-up",
+            description = "Reformulate the predefined queries and the warm-up queries, and connect to the database " +
+                    "before reporting the endpoint as ready. Default: false")
+    private boolean warmUp = false;
+
+    @Option(type = OptionType.COMMAND, name = {"--warm-up-queries"}, title = "warm-up SPARQL queries",
+            description = "SPARQL query file or directory of SPARQL query files (.rq) to reformulate during the warm-up")
+    @BashCompletion(behaviour = CompletionBehaviour.FILENAMES)
+    String warmUpQueries;
+
+    @Option(type = OptionType.COMMAND, name = {"--compiled-spec"}, title = "compiled specification",
+            description = "Artifact produced by the compile command, from which the mapping, the ontology and " +
+                    "the DB metadata are loaded. Rejected if the input files have changed since. " +
+                    "Cannot be combined with --db-metadata")
+    @BashCompletion(behaviour = CompletionBehaviour.FILENAMES)
+    String compiledSpec;
+
+    @Option(type = OptionType.COMMAND, name = {"--enable-reload"}, title = "enable reload",
+            description = "Allow to reload the mapping, ontology and properties without restarting (POST /ontop/reload). " +
+                    "The queries keep being answered during the reload. Default: false")
+    private boolean enableReload = false;
+
     @Override
     public void run() {
 
@@ -72,7 +102,11 @@ public class OntopEndpoint extends OntopReasoningCommandBase {
                 "--lazy=" + this.lazy,
                 "--dev=" + this.dev,
                 "--disable-portal-page=" + this.disablePortalPage,
-                "--enable-download-ontology=" + this.enableDownloadOntology
+                "--enable-download-ontology=" + this.enableDownloadOntology,
+                "--enable-metrics=" + this.enableMetrics,
+                "--response-chunk-size=" + this.responseChunkSize,
+                "--warm-up=" + this.warmUp,
+                "--enable-reload=" + this.enableReload
                 );
 
         if (this.propertiesFile != null)
@@ -96,6 +130,9 @@ public class OntopEndpoint extends OntopReasoningCommandBase {
         if (this.ontopViewFile != null)
             argList.add("--ontop-views=" + this.ontopViewFile);
 
+        if (this.compiledSpec != null)
+            argList.add("--compiled-spec=" + this.compiledSpec);
+
         if (this.portalFile != null)
             argList.add("--portal=" + this.portalFile);
 
@@ -108,6 +145,9 @@ public class OntopEndpoint extends OntopReasoningCommandBase {
         if (this.contexts != null)
             argList.add("--contexts=" + this.contexts);
 
+        if (this.warmUpQueries != null)
+            argList.add("--warm-up-queries=" + this.warmUpQueries);
+
         if (dbUser != null)
             argList.add("--db-user=" + this.dbUser);
 
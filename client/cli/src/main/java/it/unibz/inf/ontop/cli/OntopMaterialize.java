@@ -96,6 +96,16 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
             description = "All the SQL results of one big query will be stored in memory. Not recommended. Default: false.")
     private boolean noStream = false;
 
+    @Option(type = OptionType.COMMAND, name = {"--threads"}, title = "number of threads",
+            description = "Number of classes/properties materialized concurrently, each one on its own DB connection. " +
+                    "Triples of different classes/properties are then interleaved in the output. Default: 1.")
+    private int threads = 1;
+
+    @Option(type = OptionType.COMMAND, name = {"--partitions"}, title = "number of partitions per class/property",
+            description = "Number of sub-queries into which the query of a class/property is split, according to " +
+                    "the ranges of an integer key of its source table. Only used with --threads. Default: 1.")
+    private int partitions = 1;
+
     public OntopMaterialize() {
     }
 
@@ -124,6 +134,8 @@ public class OntopMaterialize extends OntopReasoningCommandBase {
             materializer = RDF4JMaterializer.defaultMaterializer(
                     configurationBuilder.build(),
                     MaterializationParams.defaultBuilder()
+                            .workerCount(threads)
+                            .partitionCount(partitions)
                             .build()
             );
         } catch (OBDASpecificationException e) {
@@ -0,0 +1,68 @@
+package it.unibz.inf.ontop.cli;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sparql.SPARQLRepository;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.ExternalResource;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The endpoint loads the mapping, the ontology and the DB metadata from the compiled specification
+ */
+public class OntopEndpointCompiledSpecTest {
+
+    @ClassRule
+    public static ExternalResource h2Connection = new H2ExternalResourceForBookExample();
+    private static final String PORT = "29835";
+    private static final String COMPILED_SPEC = "src/test/resources/output/exampleBooks-compiled.json";
+
+    @BeforeClass
+    public static void setupEndpoint() {
+        Ontop.main("compile", "-m", "src/test/resources/books/exampleBooks.obda",
+                "-p", "src/test/resources/books/exampleBooks.properties",
+                "-t", "src/test/resources/books/exampleBooks.owl",
+                "-o", COMPILED_SPEC);
+
+        Ontop.main("endpoint", "-m", "src/test/resources/books/exampleBooks.obda",
+                "-p", "src/test/resources/books/exampleBooks.properties",
+                "-t", "src/test/resources/books/exampleBooks.owl",
+                "--compiled-spec=" + COMPILED_SPEC,
+                "--port=" + PORT);
+    }
+
+    @Test
+    public void testArtifact() throws IOException {
+        JsonNode root = new ObjectMapper().readTree(new File(COMPILED_SPEC));
+        assertTrue(root.path("mapping").asText().contains("[MappingDeclaration]"));
+        assertTrue(root.path("ontology").asText().startsWith("Prefix("));
+        assertTrue(root.path("dbMetadata").path("relations").size() > 0);
+        assertEquals(3, root.path("inputs").size());
+    }
+
+    @Test
+    public void testQuery() {
+        Repository repo = new SPARQLRepository("http://localhost:" + PORT + "/sparql");
+        repo.initialize();
+
+        try (RepositoryConnection conn = repo.getConnection()) {
+            String queryString = "PREFIX : <http://meraka/moss/exampleBooks.owl#>\n" +
+                    "SELECT (COUNT(?x) AS ?count)\n" +
+                    "WHERE { ?x a :Book }";
+            try (TupleQueryResult result = conn.prepareTupleQuery(QueryLanguage.SPARQL, queryString).evaluate()) {
+                assertTrue(Integer.parseInt(result.next().getValue("count").stringValue()) > 0);
+            }
+        }
+    }
+}
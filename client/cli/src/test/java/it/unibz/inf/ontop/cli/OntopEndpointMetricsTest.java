@@ -0,0 +1,63 @@
+package it.unibz.inf.ontop.cli;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.util.EntityUtils;
+import org.eclipse.rdf4j.query.*;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sparql.SPARQLRepository;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.ExternalResource;
+
+import java.io.IOException;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class OntopEndpointMetricsTest {
+
+    @ClassRule
+    public static ExternalResource h2Connection = new H2ExternalResourceForBookExample();
+    private static String PORT = "29834";
+
+    @BeforeClass
+    public static void setupEndpoint() {
+        Ontop.main("endpoint", "-m", "src/test/resources/books/exampleBooks.obda",
+                "-p", "src/test/resources/books/exampleBooks.properties",
+                "-t", "src/test/resources/books/exampleBooks.owl",
+                "-d", "src/test/resources/output/exampleBooks-metadata.json",
+                "--port=" + PORT,
+                "--enable-metrics");
+    }
+
+    @Test
+    public void testMetricsAfterQuery() throws IOException {
+        Repository repo = new SPARQLRepository("http://localhost:" + PORT + "/sparql");
+        repo.initialize();
+
+        try (RepositoryConnection conn = repo.getConnection()) {
+            String queryString = "PREFIX : <http://meraka/moss/exampleBooks.owl#>\n" +
+                    "SELECT ?x ?title\n" +
+                    "WHERE { ?x a :Book; :title ?title }";
+            try (TupleQueryResult result = conn.prepareTupleQuery(QueryLanguage.SPARQL, queryString).evaluate()) {
+                while (result.hasNext())
+                    result.next();
+            }
+        }
+
+        HttpUriRequest request = new HttpGet("http://localhost:" + PORT + "/metrics");
+        HttpResponse httpResponse = HttpClientBuilder.create().build().execute(request);
+
+        assertThat(httpResponse.getStatusLine().getStatusCode(), equalTo(HttpStatus.SC_OK));
+        String body = EntityUtils.toString(httpResponse.getEntity());
+        assertThat(body, containsString("\"ontop.jdbc.execution\""));
+        assertThat(body, containsString("\"ontop.reformulation.unfolding\""));
+    }
+}
@@ -122,6 +122,10 @@ if [ "${ONTOP_ENABLE_DOWNLOAD_ONTOLOGY+x}" ]; then
   args_array+=("--enable-download-ontology")
 fi
 
+if [ "${ONTOP_ENABLE_METRICS+x}" ]; then
+  args_array+=("--enable-metrics")
+fi
+
 if [ -z "${ONTOP_JAVA_ARGS+x}" ]; then
   ONTOP_JAVA_ARGS="-Xmx512m"
 fi
@@ -1,9 +1,13 @@
 package it.unibz.inf.ontop.endpoint;
 
+import it.unibz.inf.ontop.endpoint.processor.SparqlQueryExecutor;
+import it.unibz.inf.ontop.injection.OntopSystemConfiguration;
+import it.unibz.inf.ontop.utils.VirtualThreads;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
 import org.springframework.boot.web.server.WebServerFactoryCustomizer;
 import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
 import org.springframework.context.ConfigurableApplicationContext;
@@ -11,6 +15,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.concurrent.ThreadFactory;
+
 @SpringBootApplication
 public class OntopEndpointApplication {
 
@@ -25,6 +31,20 @@ public class OntopEndpointApplication {
         return server -> server.setPort(port);
     }
 
+    /**
+     * Requests are handled by virtual threads when enabled in the Ontop properties (and supported by the JVM)
+     */
+    @Bean
+    WebServerFactoryCustomizer<TomcatServletWebServerFactory> threadConfig(OntopSystemConfiguration configuration) {
+        return server -> {
+            if (configuration.getSettings().isVirtualThreadEnabled()) {
+                ThreadFactory threadFactory = VirtualThreads.getThreadFactory("ontop-http-", true);
+                server.addProtocolHandlerCustomizers(
+                        handler -> handler.setExecutor(r -> threadFactory.newThread(r).start()));
+            }
+        };
+    }
+
     @Bean
     public WebMvcConfigurer corsConfigurer(@Value("${cors-allowed-origins:#{null}}") String[] allowedOrigins) {
         // System.err.println("Allowed origins: " + Arrays.toString(allowedOrigins));
@@ -35,7 +55,8 @@ public class OntopEndpointApplication {
                 : new WebMvcConfigurer() {
             @Override
             public void addCorsMappings(CorsRegistry registry) {
-                registry.addMapping("/**").allowedOrigins(allowedOrigins);
+                registry.addMapping("/**").allowedOrigins(allowedOrigins)
+                        .exposedHeaders(SparqlQueryExecutor.CONTINUATION_HEADER);
             }
         };
     }
@@ -1,51 +1,115 @@
 package it.unibz.inf.ontop.endpoint.beans;
 
+import it.unibz.inf.ontop.answering.metrics.OntopMetrics;
+import it.unibz.inf.ontop.answering.metrics.impl.InMemoryOntopMetrics;
+import it.unibz.inf.ontop.exception.InvalidOntopConfigurationException;
 import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
 import it.unibz.inf.ontop.injection.OntopSystemConfiguration;
+import it.unibz.inf.ontop.injection.impl.OntopModelConfigurationImpl;
 import it.unibz.inf.ontop.rdf4j.repository.OntopRepository;
 import it.unibz.inf.ontop.rdf4j.repository.impl.OntopVirtualRepository;
+import it.unibz.inf.ontop.spec.CompiledOBDASpecification;
 import org.eclipse.rdf4j.repository.RepositoryException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
 @Component
 public class OntopVirtualRepositoryBean {
 
+    private final String mappings;
+    @Nullable
+    private final String ontology, xmlCatalog, properties, constraint, dbMetadata, ontopViews, compiledSpec;
+    @Nullable
+    private final String dbUser, dbPassword, dbUrl, dbDriver;
+    private final boolean enableMetrics;
+
+    @Autowired
+    public OntopVirtualRepositoryBean(@Value("${mapping}") String mappings,
+                                      @Value("${ontology:#{null}}") String ontology,
+                                      @Value("${xml-catalog:#{null}}") String xmlCatalog,
+                                      @Value("${properties:#{null}}") String properties,
+                                      @Value("${constraint:#{null}}") String constraint,
+                                      @Value("${db-metadata:#{null}}") String dbMetadata,
+                                      @Value("${ontop-views:#{null}}") String ontopViews,
+                                      @Value("${db-user:#{null}}") String dbUser,
+                                      @Value("${db-password:#{null}}") String dbPassword,
+                                      @Value("${db-url:#{null}}") String dbUrl,
+                                      @Value("${db-driver:#{null}}") String dbDriver,
+                                      @Value("${compiled-spec:#{null}}") String compiledSpec,
+                                      @Value("${enable-metrics:false}") boolean enableMetrics) {
+        this.mappings = mappings;
+        this.ontology = ontology;
+        this.xmlCatalog = xmlCatalog;
+        this.properties = properties;
+        this.constraint = constraint;
+        this.dbMetadata = dbMetadata;
+        this.ontopViews = ontopViews;
+        this.dbUser = dbUser;
+        this.dbPassword = dbPassword;
+        this.dbUrl = dbUrl;
+        this.dbDriver = dbDriver;
+        this.compiledSpec = compiledSpec;
+        this.enableMetrics = enableMetrics;
+    }
+
     @Bean
-    private OntopSystemConfiguration setupOntopConfiguration(@Value("${mapping}") String mappings,
-                                                             @Value("${ontology:#{null}}") String ontology,
-                                                             @Value("${xml-catalog:#{null}}") String xmlCatalog,
-                                                             @Value("${properties:#{null}}") String properties,
-                                                             @Value("${constraint:#{null}}") String constraint,
-                                                             @Value("${db-metadata:#{null}}") String dbMetadata,
-                                                             @Value("${ontop-views:#{null}}") String ontopViews,
-                                                             @Value("${db-user:#{null}}") String dbUser,
-                                                             @Value("${db-password:#{null}}") String dbPassword,
-                                                             @Value("${db-url:#{null}}") String dbUrl,
-                                                             @Value("${db-driver:#{null}}") String dbDriver) throws RepositoryException {
+    private OntopSystemConfiguration setupOntopConfiguration() {
+        return createConfiguration();
+    }
+
+    /**
+     * Reads again the input files (e.g. for a reload)
+     */
+    public OntopSQLOWLAPIConfiguration createConfiguration() {
         OntopSQLOWLAPIConfiguration.Builder<? extends OntopSQLOWLAPIConfiguration.Builder> builder = OntopSQLOWLAPIConfiguration.defaultBuilder();
 
-        if (properties != null && !properties.isEmpty())
-            builder.propertyFile(properties);
+        Properties userProperties = (properties != null && !properties.isEmpty())
+                ? OntopModelConfigurationImpl.extractProperties(OntopModelConfigurationImpl.extractPropertyFile(properties))
+                : new Properties();
+
+        if (enableMetrics)
+            userProperties.setProperty(OntopMetrics.class.getCanonicalName(), InMemoryOntopMetrics.class.getCanonicalName());
+
+        builder.properties(userProperties);
+
+        if (compiledSpec != null && !compiledSpec.isEmpty()) {
+            if (dbMetadata != null && !dbMetadata.isEmpty())
+                throw new InvalidOntopConfigurationException(
+                        "A compiled specification already contains the DB metadata: --db-metadata cannot be used");
 
-        if (mappings.endsWith(".obda"))
-            builder.nativeOntopMappingFile(mappings);
-        else
-            builder.r2rmlMappingFile(mappings);
+            CompiledOBDASpecification compiledSpecification = loadCompiledSpecification();
+            builder.nativeOntopMappingReader(compiledSpecification.getMappingReader());
+            compiledSpecification.getOntologyReader().ifPresent(builder::ontologyReader);
+            builder.dbMetadataReader(compiledSpecification.getDBMetadataReader());
+        }
+        else {
+            if (mappings.endsWith(".obda"))
+                builder.nativeOntopMappingFile(mappings);
+            else
+                builder.r2rmlMappingFile(mappings);
+
+            if ((ontology != null) && (!ontology.isEmpty()))
+                builder.ontologyFile(ontology);
 
-        if ((ontology != null) && (!ontology.isEmpty()))
-            builder.ontologyFile(ontology);
+            if ((xmlCatalog != null) && (!xmlCatalog.isEmpty()))
+                builder.xmlCatalogFile(xmlCatalog);
 
-        if ((xmlCatalog != null) && (!xmlCatalog.isEmpty()))
-            builder.xmlCatalogFile(xmlCatalog);
+            if (dbMetadata != null && !dbMetadata.isEmpty())
+                builder.dbMetadataFile(dbMetadata);
+        }
 
         if (constraint != null && !constraint.isEmpty())
             builder.basicImplicitConstraintFile(constraint);
 
-        if (dbMetadata !=null && !dbMetadata.isEmpty())
-            builder.dbMetadataFile(dbMetadata);
-
         if (ontopViews !=null && !ontopViews.isEmpty())
             builder.ontopViewFile(ontopViews);
 
@@ -66,6 +130,29 @@ public class OntopVirtualRepositoryBean {
         return builder.build();
     }
 
+    /**
+     * Rejects the artifacts compiled from other input files
+     */
+    private CompiledOBDASpecification loadCompiledSpecification() {
+        Map<String, String> inputPaths = new HashMap<>();
+        inputPaths.put(CompiledOBDASpecification.MAPPING_INPUT, mappings);
+        inputPaths.put(CompiledOBDASpecification.ONTOLOGY_INPUT, ontology);
+        inputPaths.put(CompiledOBDASpecification.PROPERTIES_INPUT, properties);
+        inputPaths.put(CompiledOBDASpecification.CONSTRAINT_INPUT, constraint);
+        inputPaths.put(CompiledOBDASpecification.ONTOP_VIEWS_INPUT, ontopViews);
+        inputPaths.put(CompiledOBDASpecification.XML_CATALOG_INPUT, xmlCatalog);
+
+        try {
+            CompiledOBDASpecification compiledSpecification = CompiledOBDASpecification.load(new File(compiledSpec));
+            compiledSpecification.checkInputs(CompiledOBDASpecification.toInputFiles(inputPaths));
+            return compiledSpecification;
+        }
+        catch (IOException e) {
+            throw new InvalidOntopConfigurationException("Cannot read the compiled specification "
+                    + compiledSpec + ": " + e.getMessage());
+        }
+    }
+
     @Bean
     private OntopVirtualRepository setupVirtualRepository(@Value("${lazy:false}") boolean lazy,
                                                           OntopSystemConfiguration configuration) throws RepositoryException {
@@ -8,21 +8,40 @@ import it.unibz.inf.ontop.rdf4j.predefined.impl.OntopRDF4JPredefinedQueryEngineI
 import it.unibz.inf.ontop.rdf4j.predefined.parsing.PredefinedQueryParser;
 import it.unibz.inf.ontop.rdf4j.predefined.parsing.impl.PredefinedQueryParserImpl;
 import it.unibz.inf.ontop.rdf4j.repository.impl.OntopVirtualRepository;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.Nullable;
 import java.io.FileReader;
 import java.io.IOException;
 
 @Component
 public class PredefinedQueryComponent {
 
+    @Nullable
+    private final String configFile, queryFile, contextFile;
+
+    @Autowired
+    public PredefinedQueryComponent(@Value("${predefined-config:#{null}}") String configFile,
+                                    @Value("${predefined-queries:#{null}}") String queryFile,
+                                    @Value("${contexts:#{null}}") String contextFile) {
+        this.configFile = configFile;
+        this.queryFile = queryFile;
+        this.contextFile = contextFile;
+    }
+
     @Bean
-    private OntopRDF4JPredefinedQueryEngine setupPredefinedQueryEngine(@Value("${predefined-config:#{null}}") String configFile,
-                                                                       @Value("${predefined-queries:#{null}}") String queryFile,
-                                                                       @Value("${contexts:#{null}}") String contextFile,
-                                                                       OntopVirtualRepository repository,
+    private ReloadablePredefinedQueryEngine setupPredefinedQueryEngine(OntopVirtualRepository repository,
+                                                                       OntopSystemConfiguration configuration) throws IOException {
+        return new ReloadablePredefinedQueryEngine(createPredefinedQueryEngine(repository, configuration));
+    }
+
+    /**
+     * Reads again the predefined query files (e.g. for a reload)
+     */
+    public OntopRDF4JPredefinedQueryEngine createPredefinedQueryEngine(OntopVirtualRepository repository,
                                                                        OntopSystemConfiguration configuration) throws IOException {
         if (configFile != null) {
             if (queryFile == null)
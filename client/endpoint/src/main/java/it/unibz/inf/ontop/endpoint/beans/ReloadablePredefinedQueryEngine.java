@@ -0,0 +1,69 @@
+package it.unibz.inf.ontop.endpoint.beans;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.exception.OntopReformulationException;
+import it.unibz.inf.ontop.rdf4j.predefined.LateEvaluationOrConversionException;
+import it.unibz.inf.ontop.rdf4j.predefined.OntopRDF4JPredefinedQueryEngine;
+import org.eclipse.rdf4j.query.GraphQueryResult;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+
+import java.io.OutputStream;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Delegates to the predefined query engine of the current specification,
+ * which is replaced after a reload of the repository.
+ */
+public class ReloadablePredefinedQueryEngine implements OntopRDF4JPredefinedQueryEngine {
+
+    private volatile OntopRDF4JPredefinedQueryEngine engine;
+
+    ReloadablePredefinedQueryEngine(OntopRDF4JPredefinedQueryEngine engine) {
+        this.engine = engine;
+    }
+
+    void replace(OntopRDF4JPredefinedQueryEngine newEngine) {
+        this.engine = newEngine;
+    }
+
+    @Override
+    public void evaluate(String queryId, ImmutableMap<String, String> bindings, ImmutableList<String> acceptMediaTypes,
+                         ImmutableMultimap<String, String> httpHeaders, Consumer<Integer> httpStatusSetter,
+                         BiConsumer<String, String> httpHeaderSetter, OutputStream outputStream)
+            throws LateEvaluationOrConversionException {
+        engine.evaluate(queryId, bindings, acceptMediaTypes, httpHeaders, httpStatusSetter, httpHeaderSetter,
+                outputStream);
+    }
+
+    @Override
+    public String evaluate(String queryId, ImmutableMap<String, String> bindings, ImmutableList<String> acceptMediaTypes,
+                           ImmutableMultimap<String, String> httpHeaders, Consumer<Integer> httpStatusSetter,
+                           BiConsumer<String, String> httpHeaderSetter) {
+        return engine.evaluate(queryId, bindings, acceptMediaTypes, httpHeaders, httpStatusSetter, httpHeaderSetter);
+    }
+
+    @Override
+    public boolean shouldStream(String queryId) {
+        return engine.shouldStream(queryId);
+    }
+
+    @Override
+    public GraphQueryResult evaluateGraph(String queryId, ImmutableMap<String, String> bindings)
+            throws QueryEvaluationException {
+        return engine.evaluateGraph(queryId, bindings);
+    }
+
+    @Override
+    public ImmutableSet<String> getQueryIds() {
+        return engine.getQueryIds();
+    }
+
+    @Override
+    public boolean prepare(String queryId) throws OntopReformulationException {
+        return engine.prepare(queryId);
+    }
+}
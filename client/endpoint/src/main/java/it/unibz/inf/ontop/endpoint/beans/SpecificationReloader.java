@@ -0,0 +1,139 @@
+package it.unibz.inf.ontop.endpoint.beans;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.injection.OntopSystemConfiguration;
+import it.unibz.inf.ontop.rdf4j.repository.impl.OntopVirtualRepository;
+import it.unibz.inf.ontop.rdf4j.repository.impl.OntopVirtualRepository.ReloadPhase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Nullable;
+import javax.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Blue/green reload of the OBDA specification: the new query engine is built and warmed up in the background
+ * while the current one keeps answering the queries. It is then swapped atomically.
+ * The connection pool of the old engine is closed after its last query.
+ *
+ * If the reload fails, the current engine is kept.
+ */
+@Component
+@ConditionalOnExpression("${dev:false} or ${enable-reload:false}")
+public class SpecificationReloader {
+
+    private static final Logger log = LoggerFactory.getLogger(SpecificationReloader.class);
+
+    public enum State {
+        IDLE,
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+
+    private final OntopVirtualRepository repository;
+    private final OntopVirtualRepositoryBean repositoryBean;
+    private final PredefinedQueryComponent predefinedQueryComponent;
+    private final ReloadablePredefinedQueryEngine predefinedQueryEngine;
+    @Nullable
+    private final String warmUpQueryPath;
+    private final ExecutorService executor;
+
+    // Guarded by this
+    private State state = State.IDLE;
+    @Nullable
+    private ReloadPhase phase;
+    private long startTime, endTime;
+    @Nullable
+    private String error;
+
+    @Autowired
+    public SpecificationReloader(OntopVirtualRepository repository,
+                                 OntopVirtualRepositoryBean repositoryBean,
+                                 PredefinedQueryComponent predefinedQueryComponent,
+                                 ReloadablePredefinedQueryEngine predefinedQueryEngine,
+                                 @Value("${warm-up-queries:#{null}}") String warmUpQueryPath) {
+        this.repository = repository;
+        this.repositoryBean = repositoryBean;
+        this.predefinedQueryComponent = predefinedQueryComponent;
+        this.predefinedQueryEngine = predefinedQueryEngine;
+        this.warmUpQueryPath = warmUpQueryPath;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "ontop-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns false if a reload is already running
+     */
+    public synchronized boolean triggerReload() {
+        if (state == State.RUNNING)
+            return false;
+
+        state = State.RUNNING;
+        phase = null;
+        startTime = System.currentTimeMillis();
+        endTime = 0;
+        error = null;
+        executor.submit(this::reload);
+        return true;
+    }
+
+    private void reload() {
+        log.info("Reloading the OBDA specification");
+        try {
+            OntopSystemConfiguration configuration = repositoryBean.createConfiguration();
+            ImmutableList<String> warmUpQueries = WarmUpComponent.loadWarmUpQueries(warmUpQueryPath);
+
+            repository.reload(configuration, warmUpQueries, this::setPhase);
+            predefinedQueryEngine.replace(
+                    predefinedQueryComponent.createPredefinedQueryEngine(repository, configuration));
+
+            log.info("OBDA specification reloaded in {} ms", System.currentTimeMillis() - startTime);
+            complete(State.SUCCEEDED, null);
+        }
+        catch (Exception e) {
+            log.error("The reload failed, the current specification is kept", e);
+            complete(State.FAILED, e.toString());
+        }
+    }
+
+    private synchronized void setPhase(ReloadPhase phase) {
+        this.phase = phase;
+    }
+
+    private synchronized void complete(State state, @Nullable String error) {
+        this.state = state;
+        this.error = error;
+        this.endTime = System.currentTimeMillis();
+    }
+
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", state);
+        if (phase != null)
+            status.put("phase", phase);
+        if (startTime > 0)
+            status.put("startTime", startTime);
+        if (endTime > 0)
+            status.put("durationMs", endTime - startTime);
+        if (error != null)
+            status.put("error", error);
+        status.put("drainingEngines", repository.getDrainingEngineCount());
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,149 @@
+package it.unibz.inf.ontop.endpoint.beans;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.rdf4j.predefined.OntopRDF4JPredefinedQueryEngine;
+import it.unibz.inf.ontop.rdf4j.repository.OntopRepositoryConnection;
+import it.unibz.inf.ontop.rdf4j.repository.impl.OntopVirtualRepository;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+/**
+ * Reformulates the predefined queries and the warm-up SPARQL queries in parallel, so that their first calls do
+ * not pay for the reformulation. The SPARQL queries are reformulated through their own connections, which also
+ * fills the JDBC connection pool.
+ *
+ * Runs once the application context has been started: the readiness state
+ * (/actuator/health/readiness) only becomes ACCEPTING_TRAFFIC after the warm-up.
+ */
+@Component
+@ConditionalOnExpression("${warm-up:false}")
+public class WarmUpComponent implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmUpComponent.class);
+
+    private final OntopVirtualRepository repository;
+    private final OntopRDF4JPredefinedQueryEngine predefinedQueryEngine;
+    @Nullable
+    private final String warmUpQueryPath;
+
+    @Autowired
+    public WarmUpComponent(OntopVirtualRepository repository,
+                           OntopRDF4JPredefinedQueryEngine predefinedQueryEngine,
+                           @Value("${warm-up-queries:#{null}}") String warmUpQueryPath) {
+        this.repository = repository;
+        this.predefinedQueryEngine = predefinedQueryEngine;
+        this.warmUpQueryPath = warmUpQueryPath;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException, InterruptedException {
+        long startTime = System.currentTimeMillis();
+        // Initializes the repository if lazy
+        repository.getOntopEngine();
+
+        ImmutableList<String> sparqlQueries = loadWarmUpQueries(warmUpQueryPath);
+        ImmutableList<String> predefinedQueryIds = ImmutableList.copyOf(predefinedQueryEngine.getQueryIds());
+
+        int parallelism = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(),
+                sparqlQueries.size() + predefinedQueryIds.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            ImmutableList<Callable<Boolean>> tasks = Stream.concat(
+                    predefinedQueryIds.stream()
+                            .map(id -> (Callable<Boolean>) () -> preparePredefinedQuery(id)),
+                    sparqlQueries.stream()
+                            .map(q -> (Callable<Boolean>) () -> reformulate(q)))
+                    .collect(ImmutableCollectors.toList());
+
+            // At least one connection, even if there is no SPARQL query
+            executor.submit(this::openConnection).get();
+
+            long successCount = 0;
+            for (Future<Boolean> future : executor.invokeAll(tasks)) {
+                if (future.get())
+                    successCount++;
+            }
+            log.info("Warm-up: {} of {} queries reformulated in {} ms", successCount, tasks.size(),
+                    System.currentTimeMillis() - startTime);
+        }
+        catch (ExecutionException e) {
+            log.warn("Warm-up: could not connect to the database", e.getCause());
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    private boolean preparePredefinedQuery(String queryId) {
+        try {
+            boolean isPrepared = predefinedQueryEngine.prepare(queryId);
+            if (!isPrepared)
+                log.debug("Warm-up: the predefined query {} has required parameters that are not safe " +
+                        "for random generation", queryId);
+            return isPrepared;
+        }
+        catch (Exception e) {
+            log.warn("Warm-up: the predefined query {} could not be reformulated: {}", queryId, e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean reformulate(String sparqlQuery) {
+        try (OntopRepositoryConnection connection = repository.getConnection()) {
+            connection.reformulate(sparqlQuery);
+            return true;
+        }
+        catch (Exception e) {
+            log.warn("Warm-up: a query could not be reformulated: {}\n{}", e.getMessage(), sparqlQuery);
+            return false;
+        }
+    }
+
+    private boolean openConnection() {
+        try (OntopRepositoryConnection ignored = repository.getConnection()) {
+            return true;
+        }
+    }
+
+    /**
+     * Either a SPARQL query file or a directory of .rq files
+     */
+    public static ImmutableList<String> loadWarmUpQueries(@Nullable String warmUpQueryPath) throws IOException {
+        if (warmUpQueryPath == null)
+            return ImmutableList.of();
+
+        File file = new File(warmUpQueryPath);
+        if (!file.isDirectory())
+            return ImmutableList.of(readFile(file.toPath()));
+
+        try (Stream<Path> paths = Files.list(file.toPath())) {
+            ImmutableList.Builder<String> queryBuilder = ImmutableList.builder();
+            for (Path path : paths
+                    .filter(p -> p.toString().endsWith(".rq"))
+                    .sorted()
+                    .collect(ImmutableCollectors.toList()))
+                queryBuilder.add(readFile(path));
+            return queryBuilder.build();
+        }
+    }
+
+    private static String readFile(Path path) throws IOException {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+}
@@ -2,6 +2,7 @@ package it.unibz.inf.ontop.endpoint.controllers;
 
 import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.endpoint.OntopEndpointApplication;
+import it.unibz.inf.ontop.endpoint.beans.SpecificationReloader;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,11 +24,18 @@ public class AutoRestartController {
 
     private static final Logger log = LoggerFactory.getLogger(AutoRestartController.class);
 
+    private final SpecificationReloader reloader;
+
+    /**
+     * Changes of the mapping, ontology or properties are hot-reloaded, changes of the portal require a restart
+     */
     @Autowired
     public AutoRestartController(@Value("${mapping}") String mappingFile,
                                  @Value("${properties:#{null}}") String propertiesFile,
                                  @Value("${ontology:#{null}}") String owlFile,
-                                 @Value("${portal:#{null}}") String portalFile) {
+                                 @Value("${portal:#{null}}") String portalFile,
+                                 SpecificationReloader reloader) {
+        this.reloader = reloader;
         registerFileWatcher(mappingFile, owlFile, propertiesFile, portalFile);
     }
 
@@ -63,10 +71,15 @@ public class AutoRestartController {
                         // so we build it in another way...
                         final Path changed = Paths.get(parentDirectoryPath.toString(), localChanged.toString()).toAbsolutePath();
                         System.out.println(changed + " changed detected!");
-                        if (filesToWatch.stream().anyMatch(changed::endsWith)) {
+                        if (portalFile != null && changed.endsWith(new File(portalFile).getAbsolutePath())) {
                             log.info("RESTARTING Ontop!");
                             OntopEndpointApplication.restart();
                         }
+                        else if (filesToWatch.stream().anyMatch(changed::endsWith)) {
+                            log.info("RELOADING Ontop!");
+                            if (!reloader.triggerReload())
+                                log.info("A reload is already running, the change will be ignored");
+                        }
                     }
                     // reset the key
                     boolean valid = wk.reset();
@@ -0,0 +1,45 @@
+package it.unibz.inf.ontop.endpoint.controllers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import it.unibz.inf.ontop.rdf4j.repository.impl.OntopVirtualRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+
+/**
+ * Exposes the metrics recorded since the start of the endpoint (or its last reload)
+ */
+@RestController
+@ConditionalOnExpression("${enable-metrics:false}")
+public class MetricsController {
+
+    private final OntopVirtualRepository repository;
+    private final ObjectMapper objectMapper;
+
+    // The metrics are replaced when the repository is reloaded
+    @Autowired
+    public MetricsController(OntopVirtualRepository repository) {
+        this.repository = repository;
+        this.objectMapper = new ObjectMapper();
+    }
+
+    @RequestMapping(value = "/metrics")
+    @ResponseBody
+    public ResponseEntity<String> metrics() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(CONTENT_TYPE, "application/json; charset=UTF-8");
+        try {
+            return new ResponseEntity<>(objectMapper.writeValueAsString(repository.getMetrics().getSnapshot()), headers, HttpStatus.OK);
+        } catch (JsonProcessingException e) {
+            return new ResponseEntity<>(e.toString(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
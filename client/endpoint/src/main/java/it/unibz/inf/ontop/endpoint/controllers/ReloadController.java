@@ -0,0 +1,57 @@
+package it.unibz.inf.ontop.endpoint.controllers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import it.unibz.inf.ontop.endpoint.beans.SpecificationReloader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+
+/**
+ * POST starts a reload of the OBDA specification in the background (409 if one is already running).
+ * GET reports its progress.
+ */
+@RestController
+@ConditionalOnExpression("${dev:false} or ${enable-reload:false}")
+public class ReloadController {
+
+    private final SpecificationReloader reloader;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ReloadController(SpecificationReloader reloader) {
+        this.reloader = reloader;
+        this.objectMapper = new ObjectMapper();
+    }
+
+    @PostMapping("/ontop/reload")
+    @ResponseBody
+    public ResponseEntity<String> reload() {
+        HttpStatus status = reloader.triggerReload() ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT;
+        return createStatusResponse(status);
+    }
+
+    @GetMapping("/ontop/reload")
+    @ResponseBody
+    public ResponseEntity<String> getStatus() {
+        return createStatusResponse(HttpStatus.OK);
+    }
+
+    private ResponseEntity<String> createStatusResponse(HttpStatus status) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(CONTENT_TYPE, "application/json; charset=UTF-8");
+        try {
+            return new ResponseEntity<>(objectMapper.writeValueAsString(reloader.getStatus()), headers, status);
+        } catch (JsonProcessingException e) {
+            return new ResponseEntity<>(e.toString(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
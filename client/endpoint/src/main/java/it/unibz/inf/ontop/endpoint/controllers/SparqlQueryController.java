@@ -7,6 +7,7 @@ import org.eclipse.rdf4j.repository.RepositoryException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -26,8 +27,9 @@ public class SparqlQueryController {
 
 
     @Autowired
-    public SparqlQueryController(OntopVirtualRepository repository) {
-        this.executor = new SparqlQueryExecutor(repository);
+    public SparqlQueryController(OntopVirtualRepository repository,
+                                 @Value("${response-chunk-size:65536}") int responseChunkSize) {
+        this.executor = new SparqlQueryExecutor(repository, responseChunkSize);
     }
 
     @RequestMapping(value = "/sparql",
@@ -38,8 +40,9 @@ public class SparqlQueryController {
             @RequestParam(value = "query") String query,
             @RequestParam(value = "default-graph-uri", required = false) String[] defaultGraphUri,
             @RequestParam(value = "named-graph-uri", required = false) String[] namedGraphUri,
+            @RequestParam(value = "continuation", required = false) String continuation,
             HttpServletRequest request, HttpServletResponse response) {
-        executor.executeQuery(request, accept, query, defaultGraphUri, namedGraphUri, response);
+        executor.executeQuery(request, accept, query, defaultGraphUri, namedGraphUri, continuation, response);
     }
 
     @RequestMapping(value = "/sparql",
@@ -50,8 +53,9 @@ public class SparqlQueryController {
             @RequestParam(value = "query") String query,
             @RequestParam(value = "default-graph-uri", required = false) String[] defaultGraphUri,
             @RequestParam(value = "named-graph-uri", required = false) String[] namedGraphUri,
+            @RequestParam(value = "continuation", required = false) String continuation,
             HttpServletRequest request, HttpServletResponse response) {
-        executor.executeQuery(request, accept, query, defaultGraphUri, namedGraphUri, response);
+        executor.executeQuery(request, accept, query, defaultGraphUri, namedGraphUri, continuation, response);
     }
 
     @RequestMapping(value = "/sparql",
@@ -62,8 +66,9 @@ public class SparqlQueryController {
             @RequestBody String query,
             @RequestParam(value = "default-graph-uri", required = false) String[] defaultGraphUri,
             @RequestParam(value = "named-graph-uri", required = false) String[] namedGraphUri,
+            @RequestParam(value = "continuation", required = false) String continuation,
             HttpServletRequest request, HttpServletResponse response) {
-        executor.executeQuery(request, accept, query, defaultGraphUri, namedGraphUri, response);
+        executor.executeQuery(request, accept, query, defaultGraphUri, namedGraphUri, continuation, response);
     }
 
     @ExceptionHandler({MalformedQueryException.class})
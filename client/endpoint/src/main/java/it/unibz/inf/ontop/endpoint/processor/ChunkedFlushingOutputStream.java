@@ -0,0 +1,50 @@
+package it.unibz.inf.ontop.endpoint.processor;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Flushes the underlying stream each time a chunk of the given size has been written.
+ *
+ * The results are sent progressively to the client instead of accumulating in the output buffers.
+ * When the client is slow, writing blocks, which pauses the iteration over the results
+ * and therefore the fetching from the DB.
+ */
+public class ChunkedFlushingOutputStream extends FilterOutputStream {
+
+    private final int chunkSize;
+    private int pendingBytes;
+
+    public ChunkedFlushingOutputStream(OutputStream out, int chunkSize) {
+        super(out);
+        if (chunkSize <= 0)
+            throw new IllegalArgumentException("The chunk size must be positive");
+        this.chunkSize = chunkSize;
+        this.pendingBytes = 0;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        if (++pendingBytes >= chunkSize)
+            flush();
+    }
+
+    /**
+     * Not written byte by byte (unlike FilterOutputStream)
+     */
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        pendingBytes += len;
+        if (pendingBytes >= chunkSize)
+            flush();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        pendingBytes = 0;
+        out.flush();
+    }
+}
@@ -1,7 +1,9 @@
 package it.unibz.inf.ontop.endpoint.processor;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.Maps;
+import it.unibz.inf.ontop.rdf4j.query.KeysetTupleQuery;
 import it.unibz.inf.ontop.rdf4j.repository.OntopRepository;
 import it.unibz.inf.ontop.rdf4j.repository.OntopRepositoryConnection;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
@@ -26,22 +28,37 @@ import org.eclipse.rdf4j.rio.nquads.NQuadsWriter;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 
+import javax.annotation.Nullable;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Collections;
+import java.util.Optional;
 
 public class SparqlQueryExecutor {
 
+    public static final String CONTINUATION_HEADER = "Ontop-Continuation";
+
     private final OntopRepository repository;
+    private final int responseChunkSize;
 
-    public SparqlQueryExecutor(OntopRepository repository) {
+    /**
+     * The results are sent to the client in chunks of the given size (in bytes)
+     */
+    public SparqlQueryExecutor(OntopRepository repository, int responseChunkSize) {
         this.repository = repository;
+        this.responseChunkSize = responseChunkSize;
     }
 
+    /**
+     * When the continuation is not null (empty for the first page), SELECT queries with a LIMIT and an ORDER BY
+     * on unique variables are paginated with a keyset predicate instead of an OFFSET.
+     * The continuation of the following page is then returned in the Ontop-Continuation header.
+     */
     public void executeQuery(HttpServletRequest request, String accept, String query,
-                             String[] defaultGraphUri, String[] namedGraphUri, HttpServletResponse response) {
+                             String[] defaultGraphUri, String[] namedGraphUri, @Nullable String continuation,
+                             HttpServletResponse response) {
 
         ImmutableMultimap<String, String> httpHeaders = Collections.list(request.getHeaderNames()).stream()
                 .flatMap(k -> Collections.list(request.getHeaders(k)).stream()
@@ -49,8 +66,11 @@ public class SparqlQueryExecutor {
                 .collect(ImmutableCollectors.toMultimap());
 
         try (OntopRepositoryConnection connection = repository.getConnection()) {
-            Query q = connection.prepareQuery(QueryLanguage.SPARQL, query, httpHeaders);
-            OutputStream bao = response.getOutputStream();
+            Query q = (continuation == null)
+                    ? connection.prepareQuery(QueryLanguage.SPARQL, query, httpHeaders)
+                    : prepareKeysetQuery(connection, query, continuation, httpHeaders);
+            response.setBufferSize(responseChunkSize);
+            OutputStream bao = new ChunkedFlushingOutputStream(response.getOutputStream(), responseChunkSize);
 
             if (q instanceof TupleQuery) {
                 TupleQuery selectQuery = (TupleQuery) q;
@@ -135,11 +155,48 @@ public class SparqlQueryExecutor {
         }
     }
 
+    /**
+     * Falls back to a regular query if the query is not eligible to keyset pagination
+     */
+    private Query prepareKeysetQuery(OntopRepositoryConnection connection, String query, String continuation,
+                                     ImmutableMultimap<String, String> httpHeaders) {
+        Optional<KeysetTupleQuery> keysetQuery = connection.prepareKeysetTupleQuery(query, null,
+                continuation.isEmpty() ? null : continuation, httpHeaders);
+        return keysetQuery.isPresent()
+                ? keysetQuery.get()
+                : connection.prepareQuery(QueryLanguage.SPARQL, query, httpHeaders);
+    }
+
     private void evaluateSelectQuery(TupleQuery selectQuery, TupleQueryResultWriter writer, HttpServletResponse response) {
         addCacheHeaders(response);
-        selectQuery.evaluate(writer);
+        if (selectQuery instanceof KeysetTupleQuery)
+            evaluateKeysetQuery((KeysetTupleQuery) selectQuery, writer, response);
+        else
+            selectQuery.evaluate(writer);
+    }
+
+    /**
+     * The page (bounded by the LIMIT) is buffered, as the header must be set before writing the results
+     */
+    private void evaluateKeysetQuery(KeysetTupleQuery selectQuery, TupleQueryResultWriter writer,
+                                     HttpServletResponse response) {
+        ImmutableList<String> bindingNames;
+        ImmutableList<BindingSet> rows;
+        try (TupleQueryResult result = selectQuery.evaluate()) {
+            bindingNames = ImmutableList.copyOf(result.getBindingNames());
+            rows = ImmutableList.copyOf(result);
+        }
 
+        if ((!rows.isEmpty()) && rows.size() == selectQuery.getPageSize())
+            selectQuery.getContinuationToken(rows.get(rows.size() - 1))
+                    .ifPresent(t -> response.setHeader(CONTINUATION_HEADER, t));
+
+        writer.startQueryResult(bindingNames);
+        for (BindingSet row : rows)
+            writer.handleSolution(row);
+        writer.endQueryResult();
     }
+
     private void evaluateGraphQuery(GraphQuery graphQuery, RDFWriter writer, HttpServletResponse response) {
         addCacheHeaders(response);
         graphQuery.evaluate(writer);
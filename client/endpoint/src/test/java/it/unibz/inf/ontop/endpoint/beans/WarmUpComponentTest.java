@@ -0,0 +1,167 @@
+package it.unibz.inf.ontop.endpoint.beans;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.answering.metrics.OntopMetrics;
+import it.unibz.inf.ontop.exception.OntopReformulationException;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.rdf4j.predefined.OntopRDF4JPredefinedQueryEngine;
+import it.unibz.inf.ontop.rdf4j.repository.OntopRepository;
+import it.unibz.inf.ontop.rdf4j.repository.OntopRepositoryConnection;
+import it.unibz.inf.ontop.rdf4j.repository.impl.OntopVirtualRepository;
+import org.eclipse.rdf4j.query.GraphQueryResult;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class WarmUpComponentTest {
+
+    private static final String URL = "jdbc:h2:mem:warm_up";
+    private static final String USER = "sa";
+    private static final String PASSWORD = "";
+    private static final String QUERY_DIRECTORY = "/warm-up/queries";
+
+    private static Connection sqlConnection;
+    private static OntopVirtualRepository repository;
+
+    @BeforeAll
+    public static void setUp() throws Exception {
+        sqlConnection = DriverManager.getConnection(URL, USER, PASSWORD);
+        try (Statement st = sqlConnection.createStatement()) {
+            st.executeUpdate(new String(Files.readAllBytes(Paths.get(getPath("/warm-up/warm-up.sql"))),
+                    StandardCharsets.UTF_8));
+        }
+
+        OntopSQLOWLAPIConfiguration configuration = OntopSQLOWLAPIConfiguration.defaultBuilder()
+                .nativeOntopMappingFile(getPath("/warm-up/warm-up.obda"))
+                .propertyFile(getPath("/warm-up/warm-up.properties"))
+                .jdbcUrl(URL)
+                .jdbcUser(USER)
+                .jdbcPassword(PASSWORD)
+                .enableTestMode()
+                .build();
+        repository = OntopRepository.defaultRepository(configuration);
+    }
+
+    @AfterAll
+    public static void tearDown() throws Exception {
+        repository.shutDown();
+        try (Statement st = sqlConnection.createStatement()) {
+            st.execute("DROP ALL OBJECTS DELETE FILES");
+        }
+        finally {
+            sqlConnection.close();
+        }
+    }
+
+    /**
+     * The invalid SPARQL query and the predefined query failing to be reformulated do not abort the warm-up
+     */
+    @Test
+    void testWarmUp() throws Exception {
+        TestPredefinedQueryEngine predefinedQueryEngine = new TestPredefinedQueryEngine();
+        WarmUpComponent warmUpComponent = new WarmUpComponent(repository, predefinedQueryEngine,
+                getPath(QUERY_DIRECTORY));
+
+        warmUpComponent.run(null);
+
+        assertEquals(predefinedQueryEngine.getQueryIds(), predefinedQueryEngine.getPreparedQueryIds());
+        // One per valid SPARQL query
+        assertEquals(2, getCount(OntopMetrics.QUERY_CACHE_MISS_COUNTER));
+        assertEquals(0, getCount(OntopMetrics.QUERY_CACHE_HIT_COUNTER));
+
+        String query = WarmUpComponent.loadWarmUpQueries(getPath(QUERY_DIRECTORY + "/1-city.rq")).get(0);
+        try (OntopRepositoryConnection connection = repository.getConnection()) {
+            connection.reformulate(query);
+        }
+        assertEquals(2, getCount(OntopMetrics.QUERY_CACHE_MISS_COUNTER));
+        assertEquals(1, getCount(OntopMetrics.QUERY_CACHE_HIT_COUNTER));
+    }
+
+    private static long getCount(String name) {
+        // Not registered before being used
+        return Optional.ofNullable(repository.getMetrics().getSnapshot().get(name))
+                .map(m -> m.get("count").longValue())
+                .orElse(0L);
+    }
+
+    private static String getPath(String resource) {
+        return WarmUpComponentTest.class.getResource(resource).getPath();
+    }
+
+    /**
+     * Only supports the preparation
+     */
+    private static class TestPredefinedQueryEngine implements OntopRDF4JPredefinedQueryEngine {
+        private static final String PREPARED_QUERY_ID = "prepared";
+        private static final String NOT_PREPARED_QUERY_ID = "not-prepared";
+        private static final String FAILING_QUERY_ID = "failing";
+
+        private final Set<String> preparedQueryIds = Collections.synchronizedSet(new HashSet<>());
+
+        @Override
+        public void evaluate(String queryId, ImmutableMap<String, String> bindings,
+                             ImmutableList<String> acceptMediaTypes, ImmutableMultimap<String, String> httpHeaders,
+                             Consumer<Integer> httpStatusSetter, BiConsumer<String, String> httpHeaderSetter,
+                             OutputStream outputStream) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String evaluate(String queryId, ImmutableMap<String, String> bindings,
+                               ImmutableList<String> acceptMediaTypes, ImmutableMultimap<String, String> httpHeaders,
+                               Consumer<Integer> httpStatusSetter, BiConsumer<String, String> httpHeaderSetter) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean shouldStream(String queryId) {
+            return false;
+        }
+
+        @Override
+        public GraphQueryResult evaluateGraph(String queryId, ImmutableMap<String, String> bindings) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ImmutableSet<String> getQueryIds() {
+            return ImmutableSet.of(PREPARED_QUERY_ID, NOT_PREPARED_QUERY_ID, FAILING_QUERY_ID);
+        }
+
+        @Override
+        public boolean prepare(String queryId) throws OntopReformulationException {
+            preparedQueryIds.add(queryId);
+            switch (queryId) {
+                case PREPARED_QUERY_ID:
+                    return true;
+                case NOT_PREPARED_QUERY_ID:
+                    return false;
+                default:
+                    throw new OntopReformulationException(new IllegalStateException("Cannot be reformulated"));
+            }
+        }
+
+        ImmutableSet<String> getPreparedQueryIds() {
+            return ImmutableSet.copyOf(preparedQueryIds);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+create table "person" ("id" varchar(10) primary key, "name" varchar(100) NOT NULL, "city" varchar(100) NOT NULL, "age" integer NOT NULL);
+insert into "person" ("id", "name", "city", "age") values ('a', 'Alice', 'Bolzano', 30);
+insert into "person" ("id", "name", "city", "age") values ('b', 'Bob', 'Trento', 40);
+insert into "person" ("id", "name", "city", "age") values ('c', 'Carol', 'Bolzano', 40);
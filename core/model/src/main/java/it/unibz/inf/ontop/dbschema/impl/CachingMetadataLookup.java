@@ -2,18 +2,37 @@ package it.unibz.inf.ontop.dbschema.impl;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import it.unibz.inf.ontop.dbschema.*;
 import it.unibz.inf.ontop.exception.InvalidQueryException;
 import it.unibz.inf.ontop.exception.MetadataExtractionException;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class CachingMetadataLookup implements MetadataLookup {
 
     private final MetadataProvider provider;
-    private final Map<RelationID, NamedRelationDefinition> map = new HashMap<>();
+    private final Map<RelationID, NamedRelationDefinition> map = new ConcurrentHashMap<>();
+    private final int parallelism;
 
-    public CachingMetadataLookup(MetadataProvider provider) { this.provider = provider; }
+    public CachingMetadataLookup(MetadataProvider provider) { this(provider, 1); }
+
+    /**
+     * When the parallelism is greater than 1, the integrity constraints of the relations are inserted
+     * concurrently by extractImmutableMetadata(): the provider must then be thread-safe.
+     *
+     * The relations can be retrieved concurrently (e.g. by parsing several mapping assertions in parallel)
+     * when the provider is thread-safe, whatever the parallelism.
+     */
+    public CachingMetadataLookup(MetadataProvider provider, int parallelism) {
+        this.provider = provider;
+        this.parallelism = parallelism;
+    }
 
     @Override
     public NamedRelationDefinition getRelation(RelationID relationId) throws MetadataExtractionException {
@@ -21,11 +40,19 @@ public class CachingMetadataLookup implements MetadataLookup {
         if (relation != null)
             return relation;
 
+        // Outside the lock: the retrieval is the costly part
         NamedRelationDefinition retrievedRelation = provider.getRelation(relationId);
-        for (RelationID retrievedId : retrievedRelation.getAllIDs()) {
-            NamedRelationDefinition prev = map.put(retrievedId, retrievedRelation);
-            if (prev != null)
-                throw new MetadataExtractionException("Clashing relation IDs: " + retrievedId + " and " + relationId);
+        synchronized (map) {
+            // Concurrently retrieved under another of its IDs: only one of the two definitions is kept
+            NamedRelationDefinition concurrentlyRetrievedRelation = map.get(retrievedRelation.getID());
+            if (concurrentlyRetrievedRelation != null)
+                return concurrentlyRetrievedRelation;
+
+            for (RelationID retrievedId : retrievedRelation.getAllIDs()) {
+                NamedRelationDefinition prev = map.put(retrievedId, retrievedRelation);
+                if (prev != null)
+                    throw new MetadataExtractionException("Clashing relation IDs: " + retrievedId + " and " + relationId);
+            }
         }
         return retrievedRelation;
     }
@@ -53,11 +80,55 @@ public class CachingMetadataLookup implements MetadataLookup {
         ImmutableMetadataLookup lookup = extractImmutableMetadataLookup();
         ImmutableList<NamedRelationDefinition> list = lookup.getRelations();
 
-        for (NamedRelationDefinition relation : list)
-            provider.insertIntegrityConstraints(relation, lookup);
+        if (parallelism > 1 && list.size() > 1)
+            insertIntegrityConstraintsConcurrently(list, lookup);
+        else {
+            for (NamedRelationDefinition relation : list)
+                provider.insertIntegrityConstraints(relation, lookup);
+        }
 
         provider.normalizeAndOptimizeRelations(list);
 
         return new ImmutableMetadataImpl(provider.getDBParameters(), list);
     }
+
+    /**
+     * Each relation only receives its own constraints, so the relations can be processed independently
+     */
+    private void insertIntegrityConstraintsConcurrently(ImmutableList<NamedRelationDefinition> relations,
+                                                        ImmutableMetadataLookup lookup) throws MetadataExtractionException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, relations.size()),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("ontop-metadata-extraction-%d")
+                        .setDaemon(true)
+                        .build());
+        try {
+            List<Future<?>> futures = new ArrayList<>(relations.size());
+            for (NamedRelationDefinition relation : relations)
+                futures.add(executor.submit(() -> {
+                    provider.insertIntegrityConstraints(relation, lookup);
+                    return null;
+                }));
+
+            for (Future<?> future : futures)
+                future.get();
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof MetadataExtractionException)
+                throw (MetadataExtractionException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new MetadataExtractionException((Exception) cause);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MetadataExtractionException("Interrupted during the extraction of the integrity constraints");
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
 }
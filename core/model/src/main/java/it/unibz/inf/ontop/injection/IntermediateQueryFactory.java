@@ -51,6 +51,11 @@ public interface IntermediateQueryFactory {
                                   @Assisted("flattenedVariable") Variable flattenedVariable,
                                   Optional<Variable> indexVariable, DBTermType dbTermType);
 
+    TransitiveClosureNode createTransitiveClosureNode(@Assisted("source") VariableOrGroundTerm source,
+                                                      @Assisted("target") VariableOrGroundTerm target,
+                                                      @Assisted("edgeSourceVariable") Variable edgeSourceVariable,
+                                                      @Assisted("edgeTargetVariable") Variable edgeTargetVariable);
+
     IntensionalDataNode createIntensionalDataNode(DataAtom<AtomPredicate> atom);
 
     /**
@@ -73,6 +78,12 @@ public interface IntermediateQueryFactory {
                                 @Assisted("columnNames") ImmutableMap<Variable, QuotedID> columnNames,
                                 String nativeQueryString, VariableNullability variableNullability);
 
+    NativeNode createNativeNode(ImmutableSortedSet<Variable> variables,
+                                @Assisted("variableTypeMap") ImmutableMap<Variable, DBTermType> variableTypeMap,
+                                @Assisted("columnNames") ImmutableMap<Variable, QuotedID> columnNames,
+                                String nativeQueryString, VariableNullability variableNullability,
+                                ImmutableList<GroundTerm> parameters);
+
     TrueNode createTrueNode();
 
     DistinctNode createDistinctNode();
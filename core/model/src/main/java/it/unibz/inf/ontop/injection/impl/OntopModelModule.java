@@ -56,6 +56,7 @@ public class OntopModelModule extends OntopAbstractModule {
         bindFromSettings(ConstructionSubstitutionNormalizer.class);
         bindFromSettings(FilterNormalizer.class);
         bindFromSettings(FlattenNormalizer.class);
+        bindFromSettings(TransitiveClosureNormalizer.class);
         bindFromSettings(InnerJoinNormalizer.class);
         bindFromSettings(LeftJoinNormalizer.class);
         bindFromSettings(OrderByNormalizer.class);
@@ -92,6 +93,7 @@ public class OntopModelModule extends OntopAbstractModule {
                 LeftJoinNode.class,
                 FilterNode.class,
                 FlattenNode.class,
+                TransitiveClosureNode.class,
                 ExtensionalDataNode.class,
                 IntensionalDataNode.class,
                 NativeNode.class,
@@ -93,6 +93,16 @@ public class QueryNodeRenamer implements HomogeneousQueryNodeTransformer {
         );
     }
 
+    @Override
+    public TransitiveClosureNode transform(TransitiveClosureNode transitiveClosureNode) {
+        return iqFactory.createTransitiveClosureNode(
+                renamingSubstitution.applyToTerm(transitiveClosureNode.getSource()),
+                renamingSubstitution.applyToTerm(transitiveClosureNode.getTarget()),
+                renamingSubstitution.applyToVariable(transitiveClosureNode.getEdgeSourceVariable()),
+                renamingSubstitution.applyToVariable(transitiveClosureNode.getEdgeTargetVariable())
+        );
+    }
+
     private ImmutableSet<Variable> renameProjectedVars(ImmutableSet<Variable> projectedVariables) {
         return projectedVariables.stream()
                 .map(renamingSubstitution::applyToVariable)
@@ -1,10 +1,12 @@
 package it.unibz.inf.ontop.iq.node;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedSet;
 import it.unibz.inf.ontop.dbschema.QuotedID;
 import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
 import it.unibz.inf.ontop.iq.LeafIQTree;
+import it.unibz.inf.ontop.model.term.GroundTerm;
 import it.unibz.inf.ontop.model.term.Variable;
 import it.unibz.inf.ontop.model.type.DBTermType;
 
@@ -33,4 +35,14 @@ public interface NativeNode extends LeafIQTree {
     ImmutableMap<Variable, QuotedID> getColumnNames();
 
     String getNativeQueryString();
+
+    /**
+     * Values to bind, in order, to the placeholders of the native query string.
+     *
+     * Constants, or parameters of a query template (see DBParameterFunctionSymbol) that must be replaced
+     * by constants before execution.
+     *
+     * Empty when all the constants are inlined into the native query string.
+     */
+    ImmutableList<GroundTerm> getParameters();
 }
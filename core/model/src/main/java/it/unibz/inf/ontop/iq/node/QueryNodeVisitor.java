@@ -37,4 +37,6 @@ public interface QueryNodeVisitor {
     void visit(OrderByNode orderByNode);
 
     void visit(FlattenNode flattenNode);
+
+    void visit(TransitiveClosureNode transitiveClosureNode);
 }
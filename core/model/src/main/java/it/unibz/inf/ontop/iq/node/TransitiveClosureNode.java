@@ -0,0 +1,52 @@
+package it.unibz.inf.ontop.iq.node;
+
+import it.unibz.inf.ontop.iq.exception.QueryNodeTransformationException;
+import it.unibz.inf.ontop.iq.transform.node.HomogeneousQueryNodeTransformer;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.term.VariableOrGroundTerm;
+
+/**
+ * Transitive closure of the binary relation returned by its child.
+ *
+ * The child returns the edges of a graph, from the "edge source" variable to the "edge target" variable.
+ * The node returns the pairs (source, target) connected by a path of length at least 1.
+ *
+ * E.g. consider the relation E = {
+ *     (a, b),
+ *     (b, c),
+ *     (c, b)
+ * }
+ *
+ * Then the query:
+ *   CLOSURE [X, Y | ES -> ET]
+ *     E(ES,ET)
+ *
+ * evaluated over E yields the relation: {
+ *     (a, b), (a, c),
+ *     (b, c), (b, b),
+ *     (c, b), (c, c)
+ * }
+ *
+ * The edge variables are local to the node: they are not projected.
+ * Only the variables among the source and the target are projected.
+ *
+ * The source and the target may be ground terms: the paths are then restricted to the ones starting (resp. ending)
+ * with them. If the source and the target are the same variable, only the cycles are returned.
+ *
+ * Set semantics: no duplicate is returned. Edges with a null endpoint are ignored.
+ *
+ * Corresponds to the SPARQL property paths of the form p+ (and, with the identity, p*).
+ */
+public interface TransitiveClosureNode extends UnaryOperatorNode, ExplicitVariableProjectionNode {
+
+    @Override
+    TransitiveClosureNode acceptNodeTransformer(HomogeneousQueryNodeTransformer transformer) throws QueryNodeTransformationException;
+
+    VariableOrGroundTerm getSource();
+
+    VariableOrGroundTerm getTarget();
+
+    Variable getEdgeSourceVariable();
+
+    Variable getEdgeTargetVariable();
+}
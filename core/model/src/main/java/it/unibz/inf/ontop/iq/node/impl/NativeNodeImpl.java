@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.iq.node.impl;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
@@ -19,6 +20,7 @@ import it.unibz.inf.ontop.iq.transform.IQTreeExtendedTransformer;
 import it.unibz.inf.ontop.iq.transform.IQTreeVisitingTransformer;
 import it.unibz.inf.ontop.iq.transform.node.HomogeneousQueryNodeTransformer;
 import it.unibz.inf.ontop.iq.visit.IQVisitor;
+import it.unibz.inf.ontop.model.term.GroundTerm;
 import it.unibz.inf.ontop.model.term.Variable;
 import it.unibz.inf.ontop.model.term.VariableOrGroundTerm;
 import it.unibz.inf.ontop.model.type.DBTermType;
@@ -38,6 +40,7 @@ public class NativeNodeImpl extends LeafIQTreeImpl implements NativeNode {
     private final VariableNullability variableNullability;
     private final ImmutableSortedSet<Variable> variables;
     private final ImmutableMap<Variable, QuotedID> columnNames;
+    private final ImmutableList<GroundTerm> parameters;
 
     @AssistedInject
     private NativeNodeImpl(@Assisted ImmutableSortedSet<Variable> variables,
@@ -47,12 +50,26 @@ public class NativeNodeImpl extends LeafIQTreeImpl implements NativeNode {
                            @Assisted VariableNullability variableNullability,
                            IQTreeTools iqTreeTools, IntermediateQueryFactory iqFactory,
                            OntopModelSettings settings) {
+        this(variables, variableTypeMap, columnNames, nativeQueryString, variableNullability, ImmutableList.of(),
+                iqTreeTools, iqFactory, settings);
+    }
+
+    @AssistedInject
+    private NativeNodeImpl(@Assisted ImmutableSortedSet<Variable> variables,
+                           @Assisted("variableTypeMap") ImmutableMap<Variable, DBTermType> variableTypeMap,
+                           @Assisted("columnNames") ImmutableMap<Variable, QuotedID> columnNames,
+                           @Assisted String nativeQueryString,
+                           @Assisted VariableNullability variableNullability,
+                           @Assisted ImmutableList<GroundTerm> parameters,
+                           IQTreeTools iqTreeTools, IntermediateQueryFactory iqFactory,
+                           OntopModelSettings settings) {
         super(iqTreeTools, iqFactory);
         this.variables = variables;
         this.nativeQueryString = nativeQueryString;
         this.variableNullability = variableNullability;
         this.variableTypeMap = variableTypeMap;
         this.columnNames = columnNames;
+        this.parameters = parameters;
 
         if (settings.isTestModeEnabled()) {
             if (!variables.equals(variableTypeMap.keySet()))
@@ -71,6 +88,11 @@ public class NativeNodeImpl extends LeafIQTreeImpl implements NativeNode {
         return nativeQueryString;
     }
 
+    @Override
+    public ImmutableList<GroundTerm> getParameters() {
+        return parameters;
+    }
+
     @Override
     public void acceptVisitor(QueryNodeVisitor visitor) {
         throw new UnsupportedOperationException("Should NativeNode support visitors?");
@@ -101,12 +123,13 @@ public class NativeNodeImpl extends LeafIQTreeImpl implements NativeNode {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         NativeNodeImpl that = (NativeNodeImpl) o;
-        return nativeQueryString.equals(that.nativeQueryString) && variables.equals(that.variables);
+        return nativeQueryString.equals(that.nativeQueryString) && variables.equals(that.variables)
+                && parameters.equals(that.parameters);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(nativeQueryString, variables);
+        return Objects.hash(nativeQueryString, variables, parameters);
     }
 
     @Override
@@ -188,6 +211,7 @@ public class NativeNodeImpl extends LeafIQTreeImpl implements NativeNode {
 
     @Override
     public String toString() {
-        return NATIVE_STRING + variables + "\n" + nativeQueryString;
+        return NATIVE_STRING + variables + (parameters.isEmpty() ? "" : " " + parameters)
+                + "\n" + nativeQueryString;
     }
 }
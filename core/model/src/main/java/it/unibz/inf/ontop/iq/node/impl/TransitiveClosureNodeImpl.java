@@ -0,0 +1,282 @@
+package it.unibz.inf.ontop.iq.node.impl;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.assistedinject.Assisted;
+import com.google.inject.assistedinject.AssistedInject;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.IQTreeCache;
+import it.unibz.inf.ontop.iq.exception.InvalidIntermediateQueryException;
+import it.unibz.inf.ontop.iq.exception.QueryNodeTransformationException;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.iq.node.normalization.TransitiveClosureNormalizer;
+import it.unibz.inf.ontop.iq.transform.IQTreeExtendedTransformer;
+import it.unibz.inf.ontop.iq.transform.IQTreeVisitingTransformer;
+import it.unibz.inf.ontop.iq.transform.node.HomogeneousQueryNodeTransformer;
+import it.unibz.inf.ontop.iq.visit.IQVisitor;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
+import it.unibz.inf.ontop.substitution.InjectiveVar2VarSubstitution;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import it.unibz.inf.ontop.utils.CoreUtilsFactory;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import it.unibz.inf.ontop.utils.VariableGenerator;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public class TransitiveClosureNodeImpl extends CompositeQueryNodeImpl implements TransitiveClosureNode {
+
+    private final VariableOrGroundTerm source;
+    private final VariableOrGroundTerm target;
+    private final Variable edgeSourceVariable;
+    private final Variable edgeTargetVariable;
+    private final ImmutableSet<Variable> projectedVariables;
+    private final CoreUtilsFactory coreUtilsFactory;
+    private final TransitiveClosureNormalizer normalizer;
+
+    @AssistedInject
+    private TransitiveClosureNodeImpl(@Assisted("source") VariableOrGroundTerm source,
+                                      @Assisted("target") VariableOrGroundTerm target,
+                                      @Assisted("edgeSourceVariable") Variable edgeSourceVariable,
+                                      @Assisted("edgeTargetVariable") Variable edgeTargetVariable,
+                                      SubstitutionFactory substitutionFactory,
+                                      IntermediateQueryFactory iqFactory,
+                                      TermFactory termFactory,
+                                      CoreUtilsFactory coreUtilsFactory,
+                                      TransitiveClosureNormalizer normalizer) {
+        super(substitutionFactory, termFactory, iqFactory);
+        this.source = source;
+        this.target = target;
+        this.edgeSourceVariable = edgeSourceVariable;
+        this.edgeTargetVariable = edgeTargetVariable;
+        this.coreUtilsFactory = coreUtilsFactory;
+        this.normalizer = normalizer;
+        this.projectedVariables = Stream.of(source, target)
+                .filter(t -> t instanceof Variable)
+                .map(t -> (Variable) t)
+                .collect(ImmutableCollectors.toSet());
+    }
+
+    @Override
+    public VariableOrGroundTerm getSource() {
+        return source;
+    }
+
+    @Override
+    public VariableOrGroundTerm getTarget() {
+        return target;
+    }
+
+    @Override
+    public Variable getEdgeSourceVariable() {
+        return edgeSourceVariable;
+    }
+
+    @Override
+    public Variable getEdgeTargetVariable() {
+        return edgeTargetVariable;
+    }
+
+    @Override
+    public ImmutableSet<Variable> getVariables() {
+        return projectedVariables;
+    }
+
+    @Override
+    public void acceptVisitor(QueryNodeVisitor visitor) {
+        visitor.visit(this);
+    }
+
+    @Override
+    public ImmutableSet<Variable> getLocalVariables() {
+        return Stream.concat(
+                Stream.of(edgeSourceVariable, edgeTargetVariable),
+                projectedVariables.stream())
+                .collect(ImmutableCollectors.toSet());
+    }
+
+    @Override
+    public ImmutableSet<Variable> getLocallyRequiredVariables() {
+        return ImmutableSet.of(edgeSourceVariable, edgeTargetVariable);
+    }
+
+    @Override
+    public ImmutableSet<Variable> getLocallyDefinedVariables() {
+        return projectedVariables;
+    }
+
+    @Override
+    public String toString() {
+        return "CLOSURE [" + source + ", " + target + " | " + edgeSourceVariable + " -> " + edgeTargetVariable + "]";
+    }
+
+    @Override
+    public IQTree normalizeForOptimization(IQTree child, VariableGenerator variableGenerator, IQTreeCache treeCache) {
+        return normalizer.normalizeForOptimization(this, child, variableGenerator, treeCache);
+    }
+
+    /**
+     * The substitution is only applied to the source and the target: the child is independent of the context.
+     * A ground term restricts the paths to the ones starting (resp. ending) with it.
+     */
+    @Override
+    public IQTree applyDescendingSubstitution(ImmutableSubstitution<? extends VariableOrGroundTerm> descendingSubstitution,
+                                              Optional<ImmutableExpression> constraint, IQTree child,
+                                              VariableGenerator variableGenerator) {
+        return iqFactory.createUnaryIQTree(applySubstitution(descendingSubstitution), child);
+    }
+
+    @Override
+    public IQTree applyDescendingSubstitutionWithoutOptimizing(ImmutableSubstitution<? extends VariableOrGroundTerm> descendingSubstitution,
+                                                               IQTree child, VariableGenerator variableGenerator) {
+        return iqFactory.createUnaryIQTree(applySubstitution(descendingSubstitution), child);
+    }
+
+    @Override
+    public IQTree applyFreshRenaming(InjectiveVar2VarSubstitution renamingSubstitution, IQTree child, IQTreeCache treeCache) {
+        IQTree newChild = child.applyFreshRenaming(renamingSubstitution);
+        IQTreeCache newTreeCache = treeCache.applyFreshRenaming(renamingSubstitution);
+        TransitiveClosureNode newNode = iqFactory.createTransitiveClosureNode(
+                applySubstitution(source, renamingSubstitution),
+                applySubstitution(target, renamingSubstitution),
+                renamingSubstitution.applyToVariable(edgeSourceVariable),
+                renamingSubstitution.applyToVariable(edgeTargetVariable));
+        return iqFactory.createUnaryIQTree(newNode, newChild, newTreeCache);
+    }
+
+    /**
+     * Edges with a null endpoint are ignored
+     */
+    @Override
+    public VariableNullability getVariableNullability(IQTree child) {
+        return coreUtilsFactory.createEmptyVariableNullability(projectedVariables);
+    }
+
+    @Override
+    public boolean isConstructed(Variable variable, IQTree child) {
+        return false;
+    }
+
+    @Override
+    public boolean isDistinct(IQTree tree, IQTree child) {
+        return true;
+    }
+
+    /**
+     * Blocking: the definitions of the child are not projected
+     */
+    @Override
+    public IQTree liftIncompatibleDefinitions(Variable variable, IQTree child, VariableGenerator variableGenerator) {
+        return iqFactory.createUnaryIQTree(this, child);
+    }
+
+    /**
+     * The constraint is not propagated: the child is independent of the context
+     */
+    @Override
+    public IQTree propagateDownConstraint(ImmutableExpression constraint, IQTree child, VariableGenerator variableGenerator) {
+        return iqFactory.createUnaryIQTree(this, child);
+    }
+
+    @Override
+    public IQTree acceptTransformer(IQTree tree, IQTreeVisitingTransformer transformer, IQTree child) {
+        return transformer.transformTransitiveClosure(tree, this, child);
+    }
+
+    @Override
+    public <T> IQTree acceptTransformer(IQTree tree, IQTreeExtendedTransformer<T> transformer, IQTree child, T context) {
+        return transformer.transformTransitiveClosure(tree, this, child, context);
+    }
+
+    @Override
+    public <T> T acceptVisitor(IQVisitor<T> visitor, IQTree child) {
+        return visitor.visitTransitiveClosure(this, child);
+    }
+
+    @Override
+    public TransitiveClosureNode acceptNodeTransformer(HomogeneousQueryNodeTransformer transformer)
+            throws QueryNodeTransformationException {
+        return transformer.transform(this);
+    }
+
+    @Override
+    public void validateNode(IQTree child) throws InvalidIntermediateQueryException {
+        if (edgeSourceVariable.equals(edgeTargetVariable))
+            throw new InvalidIntermediateQueryException("The edge variables of " + this + " must be distinct");
+
+        if (!child.getVariables().equals(ImmutableSet.of(edgeSourceVariable, edgeTargetVariable)))
+            throw new InvalidIntermediateQueryException(String.format(
+                    "The child of %s must project exactly the edge variables, not %s", this, child.getVariables()));
+
+        if (projectedVariables.contains(edgeSourceVariable) || projectedVariables.contains(edgeTargetVariable))
+            throw new InvalidIntermediateQueryException("The edge variables of " + this + " must not be projected");
+    }
+
+    @Override
+    public ImmutableSet<ImmutableSubstitution<NonVariableTerm>> getPossibleVariableDefinitions(IQTree child) {
+        return ImmutableSet.of();
+    }
+
+    /**
+     * Same implementation as FilterNode
+     */
+    @Override
+    public IQTree removeDistincts(IQTree child, IQTreeCache treeCache) {
+        IQTree newChild = child.removeDistincts();
+        IQTreeCache newTreeCache = treeCache.declareDistinctRemoval(newChild.equals(child));
+        return iqFactory.createUnaryIQTree(this, newChild, newTreeCache);
+    }
+
+    @Override
+    public ImmutableSet<ImmutableSet<Variable>> inferUniqueConstraints(IQTree child) {
+        return projectedVariables.isEmpty()
+                ? ImmutableSet.of()
+                : ImmutableSet.of(projectedVariables);
+    }
+
+    @Override
+    public ImmutableSet<Variable> computeNotInternallyRequiredVariables(IQTree child) {
+        return ImmutableSet.of();
+    }
+
+    /**
+     * Ground terms are used for restricting the paths
+     */
+    @Override
+    public boolean wouldKeepDescendingGroundTermInFilterAbove(Variable variable, boolean isConstant) {
+        return false;
+    }
+
+    private TransitiveClosureNode applySubstitution(ImmutableSubstitution<? extends VariableOrGroundTerm> sub) {
+        VariableOrGroundTerm newSource = applySubstitution(source, sub);
+        VariableOrGroundTerm newTarget = applySubstitution(target, sub);
+        return newSource.equals(source) && newTarget.equals(target)
+                ? this
+                : iqFactory.createTransitiveClosureNode(newSource, newTarget, edgeSourceVariable, edgeTargetVariable);
+    }
+
+    private static VariableOrGroundTerm applySubstitution(VariableOrGroundTerm term,
+                                                          ImmutableSubstitution<? extends VariableOrGroundTerm> sub) {
+        return (term instanceof Variable)
+                ? (VariableOrGroundTerm) sub.apply(term)
+                : term;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TransitiveClosureNodeImpl that = (TransitiveClosureNodeImpl) o;
+        return source.equals(that.source)
+                && target.equals(that.target)
+                && edgeSourceVariable.equals(that.edgeSourceVariable)
+                && edgeTargetVariable.equals(that.edgeTargetVariable);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(source, target, edgeSourceVariable, edgeTargetVariable);
+    }
+}
@@ -0,0 +1,16 @@
+package it.unibz.inf.ontop.iq.node.normalization;
+
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.IQTreeCache;
+import it.unibz.inf.ontop.iq.node.TransitiveClosureNode;
+import it.unibz.inf.ontop.utils.VariableGenerator;
+
+public interface TransitiveClosureNormalizer {
+
+    /**
+     * If the child is a construction node building the RDF terms of the edges,
+     * lifts the construction of the RDF terms above the closure (which then operates on their lexical values)
+     */
+    IQTree normalizeForOptimization(TransitiveClosureNode closureNode, IQTree child, VariableGenerator variableGenerator,
+                                    IQTreeCache treeCache);
+}
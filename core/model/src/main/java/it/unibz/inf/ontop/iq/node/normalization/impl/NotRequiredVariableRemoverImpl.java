@@ -186,6 +186,14 @@ public class NotRequiredVariableRemoverImpl implements NotRequiredVariableRemove
                     transform(child));
         }
 
+        /**
+         * The projected variables of a transitive closure are always internally required
+         */
+        @Override
+        public IQTree transformTransitiveClosure(IQTree tree, TransitiveClosureNode rootNode, IQTree child) {
+            return tree;
+        }
+
         @Override
         public IQTree transformDistinct(IQTree tree, DistinctNode rootNode, IQTree child) {
             return iqFactory.createUnaryIQTree(
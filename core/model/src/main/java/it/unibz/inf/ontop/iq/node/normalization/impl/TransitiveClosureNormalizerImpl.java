@@ -0,0 +1,280 @@
+package it.unibz.inf.ontop.iq.node.normalization.impl;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Inject;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.IQTreeCache;
+import it.unibz.inf.ontop.iq.UnaryIQTree;
+import it.unibz.inf.ontop.iq.node.ConstructionNode;
+import it.unibz.inf.ontop.iq.node.TransitiveClosureNode;
+import it.unibz.inf.ontop.iq.node.normalization.ConstructionSubstitutionNormalizer;
+import it.unibz.inf.ontop.iq.node.normalization.ConstructionSubstitutionNormalizer.ConstructionSubstitutionNormalization;
+import it.unibz.inf.ontop.iq.node.normalization.TransitiveClosureNormalizer;
+import it.unibz.inf.ontop.iq.node.VariableNullability;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.FunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.RDFTermFunctionSymbol;
+import it.unibz.inf.ontop.model.type.RDFTermType;
+import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import it.unibz.inf.ontop.utils.VariableGenerator;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * When the RDF terms of the edges are built by a construction node with a constant RDF term type, e.g.
+ *
+ *   CLOSURE [X, Y | ES -> ET]
+ *     CONSTRUCT [ES, ET] {ES/RDF(L1, IRI), ET/RDF(L2, IRI)}
+ *
+ * the RDF terms are built above the closure, which then operates on their lexical values:
+ *
+ *   CONSTRUCT [X, Y] {X/RDF(X', IRI), Y/RDF(Y', IRI)}
+ *     CLOSURE [X', Y' | ES -> ET]
+ *       CONSTRUCT [ES, ET] {ES/L1, ET/L2}
+ *
+ * Ground RDF sources and targets are replaced by their lexical values.
+ * A unary injective function shared by L1 and L2 (e.g. a single-column IRI template) is also lifted.
+ *
+ * If the two RDF term types differ, no path longer than 1 can exist, so the closure is replaced by the edges themselves.
+ *
+ * Limitation: when the RDF term types are not constant (e.g. a property mixing IRIs and blank nodes),
+ * nothing is lifted and the closure cannot be translated into SQL.
+ */
+public class TransitiveClosureNormalizerImpl implements TransitiveClosureNormalizer {
+
+    private final IntermediateQueryFactory iqFactory;
+    private final SubstitutionFactory substitutionFactory;
+    private final TermFactory termFactory;
+    private final ConstructionSubstitutionNormalizer substitutionNormalizer;
+
+    @Inject
+    private TransitiveClosureNormalizerImpl(IntermediateQueryFactory iqFactory, SubstitutionFactory substitutionFactory,
+                                            TermFactory termFactory, ConstructionSubstitutionNormalizer substitutionNormalizer) {
+        this.iqFactory = iqFactory;
+        this.substitutionFactory = substitutionFactory;
+        this.termFactory = termFactory;
+        this.substitutionNormalizer = substitutionNormalizer;
+    }
+
+    @Override
+    public IQTree normalizeForOptimization(TransitiveClosureNode closureNode, IQTree child,
+                                           VariableGenerator variableGenerator, IQTreeCache treeCache) {
+        if (closureNode.getSource().isNull() || closureNode.getTarget().isNull())
+            return iqFactory.createEmptyNode(closureNode.getVariables());
+
+        IQTree normalizedChild = child.normalizeForOptimization(variableGenerator);
+        if (normalizedChild.isDeclaredAsEmpty())
+            return iqFactory.createEmptyNode(closureNode.getVariables());
+
+        if (normalizedChild.getRootNode() instanceof ConstructionNode) {
+            ImmutableSubstitution<ImmutableTerm> substitution = ((ConstructionNode) normalizedChild.getRootNode()).getSubstitution();
+            Optional<RDFDefinition> edgeSourceDefinition = extractRDFDefinition(
+                    substitution.apply(closureNode.getEdgeSourceVariable()));
+            Optional<RDFDefinition> edgeTargetDefinition = extractRDFDefinition(
+                    substitution.apply(closureNode.getEdgeTargetVariable()));
+
+            if (edgeSourceDefinition.isPresent() && edgeTargetDefinition.isPresent()) {
+                IQTree grandChild = ((UnaryIQTree) normalizedChild).getChild();
+
+                if (!edgeSourceDefinition.get().termType.equals(edgeTargetDefinition.get().termType))
+                    return replaceByEdges(closureNode, normalizedChild, variableGenerator);
+
+                Optional<IQTree> liftedTree = liftRDFTermConstruction(closureNode, edgeSourceDefinition.get(),
+                        edgeTargetDefinition.get(), grandChild, variableGenerator);
+                if (liftedTree.isPresent())
+                    return liftedTree.get();
+            }
+        }
+
+        return iqFactory.createUnaryIQTree(closureNode, normalizedChild,
+                treeCache.declareAsNormalizedForOptimizationWithoutEffect());
+    }
+
+    private Optional<RDFDefinition> extractRDFDefinition(ImmutableTerm term) {
+        if (term instanceof RDFConstant) {
+            RDFConstant constant = (RDFConstant) term;
+            return Optional.of(new RDFDefinition(termFactory.getDBStringConstant(constant.getValue()), constant.getType()));
+        }
+        if ((term instanceof ImmutableFunctionalTerm)
+                && (((ImmutableFunctionalTerm) term).getFunctionSymbol() instanceof RDFTermFunctionSymbol)) {
+            ImmutableFunctionalTerm rdfTerm = (ImmutableFunctionalTerm) term;
+            ImmutableTerm typeTerm = rdfTerm.getTerm(1);
+            if (typeTerm instanceof RDFTermTypeConstant)
+                return Optional.of(new RDFDefinition(rdfTerm.getTerm(0), ((RDFTermTypeConstant) typeTerm).getRDFTermType()));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Edges whose endpoints have different RDF term types cannot be chained
+     */
+    private IQTree replaceByEdges(TransitiveClosureNode closureNode, IQTree normalizedChild,
+                                  VariableGenerator variableGenerator) {
+        ImmutableSubstitution<VariableOrGroundTerm> renaming = substitutionFactory.getSubstitution(
+                closureNode.getEdgeSourceVariable(), closureNode.getSource(),
+                closureNode.getEdgeTargetVariable(), closureNode.getTarget());
+
+        return iqFactory.createUnaryIQTree(
+                        iqFactory.createDistinctNode(),
+                        normalizedChild.applyDescendingSubstitution(renaming, Optional.empty(), variableGenerator))
+                .normalizeForOptimization(variableGenerator);
+    }
+
+    /**
+     * Returns empty if a ground source or target cannot be converted into a lexical value.
+     *
+     * When the two lexical terms are built by the same unary injective function (e.g. a single-column IRI template),
+     * the function is also lifted, so that the closure operates on the raw values:
+     *
+     *   CONSTRUCT [X, Y] {X/RDF(f(X'), IRI), Y/RDF(f(Y'), IRI)}
+     *     CLOSURE [X', Y' | ES -> ET]
+     *       CONSTRUCT [ES, ET] {ES/A1, ET/A2}
+     *
+     * Ground sources and targets are then replaced by fresh variables, constrained by a filter above the closure
+     * (e.g. f(X') = 'http://example.org/a'), which is expected to be simplified into a ground term
+     * and pushed back into the closure.
+     */
+    private Optional<IQTree> liftRDFTermConstruction(TransitiveClosureNode closureNode, RDFDefinition edgeSourceDefinition,
+                                                     RDFDefinition edgeTargetDefinition, IQTree grandChild,
+                                                     VariableGenerator variableGenerator) {
+        RDFTermType termType = edgeSourceDefinition.termType;
+        Optional<FunctionSymbol> liftableFunctionSymbol = extractLiftableFunctionSymbol(edgeSourceDefinition.lexicalTerm,
+                edgeTargetDefinition.lexicalTerm, grandChild, variableGenerator);
+
+        Map<Variable, Variable> newVariables = new HashMap<>();
+        List<ImmutableExpression> conditions = new ArrayList<>();
+
+        Optional<Optional<VariableOrGroundTerm>> newSource = convertEndpoint(closureNode.getSource(), termType,
+                liftableFunctionSymbol, newVariables, conditions, variableGenerator);
+        Optional<Optional<VariableOrGroundTerm>> newTarget = convertEndpoint(closureNode.getTarget(), termType,
+                liftableFunctionSymbol, newVariables, conditions, variableGenerator);
+        if (!newSource.isPresent() || !newTarget.isPresent())
+            return Optional.empty();
+
+        // Incompatible RDF constant
+        if (!newSource.get().isPresent() || !newTarget.get().isPresent())
+            return Optional.of(iqFactory.createEmptyNode(closureNode.getVariables()));
+
+        ImmutableSet<Variable> edgeVariables = ImmutableSet.of(closureNode.getEdgeSourceVariable(),
+                closureNode.getEdgeTargetVariable());
+        // The new edge terms may be variables of the grand child, which are then renamed
+        ConstructionSubstitutionNormalization normalization = substitutionNormalizer.normalizeSubstitution(
+                substitutionFactory.getSubstitution(
+                        closureNode.getEdgeSourceVariable(), removeFunction(edgeSourceDefinition.lexicalTerm, liftableFunctionSymbol),
+                        closureNode.getEdgeTargetVariable(), removeFunction(edgeTargetDefinition.lexicalTerm, liftableFunctionSymbol)),
+                edgeVariables);
+        ConstructionNode newChildConstructionNode = iqFactory.createConstructionNode(edgeVariables,
+                normalization.getNormalizedSubstitution());
+        IQTree newGrandChild = normalization.updateChild(grandChild, variableGenerator);
+
+        TransitiveClosureNode newClosureNode = iqFactory.createTransitiveClosureNode(
+                newSource.get().get(), newTarget.get().get(),
+                closureNode.getEdgeSourceVariable(), closureNode.getEdgeTargetVariable());
+
+        IQTree newClosureTree = iqFactory.createUnaryIQTree(
+                newClosureNode,
+                iqFactory.createUnaryIQTree(newChildConstructionNode, newGrandChild));
+
+        IQTree filteredClosureTree = termFactory.getConjunction(conditions.stream())
+                .map(c -> (IQTree) iqFactory.createUnaryIQTree(iqFactory.createFilterNode(c), newClosureTree))
+                .orElse(newClosureTree);
+
+        RDFTermTypeConstant typeConstant = termFactory.getRDFTermTypeConstant(termType);
+        ImmutableMap<Variable, ImmutableTerm> rdfTermDefinitions = newVariables.entrySet().stream()
+                .filter(e -> closureNode.getVariables().contains(e.getKey()))
+                .collect(ImmutableCollectors.toMap(
+                        Map.Entry::getKey,
+                        e -> termFactory.getRDFFunctionalTerm(
+                                applyFunction(e.getValue(), liftableFunctionSymbol), typeConstant)));
+
+        ConstructionNode newParentConstructionNode = iqFactory.createConstructionNode(closureNode.getVariables(),
+                substitutionFactory.getSubstitution(rdfTermDefinitions));
+
+        return Optional.of(iqFactory.createUnaryIQTree(newParentConstructionNode, filteredClosureTree)
+                .normalizeForOptimization(variableGenerator));
+    }
+
+    /**
+     * Unary injective function symbol shared by the two lexical terms
+     */
+    private Optional<FunctionSymbol> extractLiftableFunctionSymbol(ImmutableTerm edgeSourceLexicalTerm,
+                                                                   ImmutableTerm edgeTargetLexicalTerm,
+                                                                   IQTree grandChild, VariableGenerator variableGenerator) {
+        if (!(edgeSourceLexicalTerm instanceof ImmutableFunctionalTerm)
+                || !(edgeTargetLexicalTerm instanceof ImmutableFunctionalTerm))
+            return Optional.empty();
+
+        FunctionSymbol functionSymbol = ((ImmutableFunctionalTerm) edgeSourceLexicalTerm).getFunctionSymbol();
+        if ((functionSymbol.getArity() != 1)
+                || !functionSymbol.equals(((ImmutableFunctionalTerm) edgeTargetLexicalTerm).getFunctionSymbol()))
+            return Optional.empty();
+
+        VariableNullability variableNullability = grandChild.getVariableNullability();
+        return Stream.of(edgeSourceLexicalTerm, edgeTargetLexicalTerm)
+                .map(t -> (ImmutableFunctionalTerm) t)
+                .allMatch(t -> t.analyzeInjectivity(ImmutableSet.of(), variableNullability, variableGenerator)
+                        .filter(d -> d.getLiftableTerm().equals(t) && !d.getSubTermSubstitutionMap().isPresent())
+                        .isPresent())
+                ? Optional.of(functionSymbol)
+                : Optional.empty();
+    }
+
+    private static ImmutableTerm removeFunction(ImmutableTerm lexicalTerm, Optional<FunctionSymbol> liftableFunctionSymbol) {
+        return liftableFunctionSymbol.isPresent()
+                ? ((ImmutableFunctionalTerm) lexicalTerm).getTerm(0)
+                : lexicalTerm;
+    }
+
+    private ImmutableTerm applyFunction(ImmutableTerm term, Optional<FunctionSymbol> liftableFunctionSymbol) {
+        return liftableFunctionSymbol
+                .map(f -> (ImmutableTerm) termFactory.getImmutableFunctionalTerm(f, term))
+                .orElse(term);
+    }
+
+    /**
+     * Returns empty if the term cannot be converted, and an empty optional inside if the RDF constant is incompatible
+     * with the RDF term type.
+     *
+     * Variables are replaced by fresh variables (the same for all their occurrences). When a function is lifted,
+     * ground terms are also replaced by fresh variables, which are constrained by a new condition.
+     */
+    private Optional<Optional<VariableOrGroundTerm>> convertEndpoint(VariableOrGroundTerm term, RDFTermType termType,
+                                                                     Optional<FunctionSymbol> liftableFunctionSymbol,
+                                                                     Map<Variable, Variable> newVariables,
+                                                                     List<ImmutableExpression> conditions,
+                                                                     VariableGenerator variableGenerator) {
+        if (term instanceof Variable)
+            return Optional.of(Optional.of(newVariables.computeIfAbsent((Variable) term,
+                    variableGenerator::generateNewVariableFromVar)));
+
+        if (!(term instanceof RDFConstant))
+            return Optional.empty();
+
+        RDFConstant constant = (RDFConstant) term;
+        if (!constant.getType().equals(termType))
+            return Optional.of(Optional.empty());
+
+        DBConstant lexicalConstant = termFactory.getDBStringConstant(constant.getValue());
+        if (!liftableFunctionSymbol.isPresent())
+            return Optional.of(Optional.of(lexicalConstant));
+
+        Variable newVariable = variableGenerator.generateNewVariable();
+        conditions.add(termFactory.getStrictEquality(applyFunction(newVariable, liftableFunctionSymbol), lexicalConstant));
+        return Optional.of(Optional.of(newVariable));
+    }
+
+    private static class RDFDefinition {
+        private final ImmutableTerm lexicalTerm;
+        private final RDFTermType termType;
+
+        private RDFDefinition(ImmutableTerm lexicalTerm, RDFTermType termType) {
+            this.lexicalTerm = lexicalTerm;
+            this.termType = termType;
+        }
+    }
+}
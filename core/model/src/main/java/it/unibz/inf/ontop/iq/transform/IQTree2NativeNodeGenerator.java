@@ -15,4 +15,14 @@ public interface IQTree2NativeNodeGenerator {
      */
     NativeNode generate(IQTree iqTree, DBParameters dbParameters, boolean tolerateUnknownTypes);
 
+    /**
+     * When parameterizeConstants is true, some constants of the native query are replaced by placeholders
+     * and returned separately (see {@link NativeNode#getParameters()}), so that the native query string
+     * can be reused for different values.
+     *
+     * The DB parameters (see DBParameterFunctionSymbol) are always replaced by placeholders.
+     */
+    NativeNode generate(IQTree iqTree, DBParameters dbParameters, boolean tolerateUnknownTypes,
+                        boolean parameterizeConstants);
+
 }
@@ -23,6 +23,7 @@ public interface IQTreeVisitingTransformer extends IQTreeTransformer {
     IQTree transformConstruction(IQTree tree, ConstructionNode rootNode, IQTree child);
     IQTree transformAggregation(IQTree tree, AggregationNode aggregationNode, IQTree child);
     IQTree transformFlatten(IQTree tree, FlattenNode node, IQTree child);
+    IQTree transformTransitiveClosure(IQTree tree, TransitiveClosureNode rootNode, IQTree child);
     IQTree transformFilter(IQTree tree, FilterNode rootNode, IQTree child);
     IQTree transformDistinct(IQTree tree, DistinctNode rootNode, IQTree child);
     IQTree transformSlice(IQTree tree, SliceNode rootNode, IQTree child);
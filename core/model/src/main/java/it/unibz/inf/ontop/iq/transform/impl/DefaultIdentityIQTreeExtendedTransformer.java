@@ -63,6 +63,11 @@ public class DefaultIdentityIQTreeExtendedTransformer<T> implements IQTreeExtend
         return tree;
     }
 
+    @Override
+    public IQTree transformTransitiveClosure(IQTree tree, TransitiveClosureNode rootNode, IQTree child, T context) {
+        return tree;
+    }
+
     @Override
     public IQTree transformDistinct(IQTree tree, DistinctNode distinctNode, IQTree child, T context) {
         return tree;
@@ -76,6 +76,11 @@ public class DefaultIdentityIQTreeVisitingTransformer implements IQTreeVisitingT
         return tree;
     }
 
+    @Override
+    public IQTree transformTransitiveClosure(IQTree tree, TransitiveClosureNode node, IQTree child) {
+        return tree;
+    }
+
     @Override
     public IQTree transformNonStandardUnaryNode(IQTree tree, UnaryOperatorNode rootNode, IQTree child) {
         return tree;
@@ -76,6 +76,11 @@ public abstract class DefaultNonRecursiveIQTreeTransformer implements IQTreeVisi
         return transformUnaryNode(tree, node, child);
     }
 
+    @Override
+    public IQTree transformTransitiveClosure(IQTree tree, TransitiveClosureNode node, IQTree child) {
+        return transformUnaryNode(tree, node, child);
+    }
+
     @Override
     public IQTree transformNonStandardUnaryNode(IQTree tree, UnaryOperatorNode rootNode, IQTree child) {
         return transformUnaryNode(tree, rootNode, child);
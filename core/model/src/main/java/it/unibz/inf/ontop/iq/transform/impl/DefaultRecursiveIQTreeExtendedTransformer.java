@@ -75,6 +75,11 @@ public abstract class DefaultRecursiveIQTreeExtendedTransformer<T> implements IQ
         return transformUnaryNode(tree, rootNode, child, context);
     }
 
+    @Override
+    public IQTree transformTransitiveClosure(IQTree tree, TransitiveClosureNode rootNode, IQTree child, T context) {
+        return transformUnaryNode(tree, rootNode, child, context);
+    }
+
     @Override
     public IQTree transformDistinct(IQTree tree, DistinctNode rootNode, IQTree child, T context) {
         return transformUnaryNode(tree, rootNode, child, context);
@@ -89,6 +89,11 @@ public abstract class DefaultRecursiveIQTreeVisitingTransformer implements IQTre
         return transformUnaryNode(tree, rootNode, child);
     }
 
+    @Override
+    public IQTree transformTransitiveClosure(IQTree tree, TransitiveClosureNode rootNode, IQTree child) {
+        return transformUnaryNode(tree, rootNode, child);
+    }
+
     @Override
     public IQTree transformNonStandardUnaryNode(IQTree tree, UnaryOperatorNode rootNode, IQTree child) {
         return transformUnaryNode(tree, rootNode, child);
@@ -85,6 +85,11 @@ public class HomogeneousIQTreeVisitingTransformer extends DefaultRecursiveIQTree
         return transformUnaryNode(tree, rootNode.acceptNodeTransformer(nodeTransformer), child);
     }
 
+    @Override
+    public IQTree transformTransitiveClosure(IQTree tree, TransitiveClosureNode rootNode, IQTree child) {
+        return transformUnaryNode(tree, rootNode.acceptNodeTransformer(nodeTransformer), child);
+    }
+
     @Override
     public IQTree transformNonStandardUnaryNode(IQTree tree, UnaryOperatorNode rootNode, IQTree child) {
         return transformUnaryNode(tree, rootNode.acceptNodeTransformer(nodeTransformer), child);
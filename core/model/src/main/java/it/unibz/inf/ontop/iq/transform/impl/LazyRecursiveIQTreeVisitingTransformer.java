@@ -56,6 +56,11 @@ public abstract class LazyRecursiveIQTreeVisitingTransformer implements IQTreeVi
         return transformUnaryNode(tree, node, child);
     }
 
+    @Override
+    public IQTree transformTransitiveClosure(IQTree tree, TransitiveClosureNode node, IQTree child) {
+        return transformUnaryNode(tree, node, child);
+    }
+
     @Override
     public IQTree transformFilter(IQTree tree, FilterNode rootNode, IQTree child) { return transformUnaryNode(tree, rootNode, child); }
 
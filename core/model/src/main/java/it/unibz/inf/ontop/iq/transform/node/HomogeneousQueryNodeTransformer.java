@@ -27,6 +27,8 @@ public interface HomogeneousQueryNodeTransformer<T1 extends QueryNodeTransformat
 
     FlattenNode transform(FlattenNode flattenNode) throws T1, T2;
 
+    TransitiveClosureNode transform(TransitiveClosureNode transitiveClosureNode) throws T1, T2;
+
     EmptyNode transform(EmptyNode emptyNode);
 
     TrueNode transform(TrueNode trueNode);
@@ -142,6 +142,15 @@ public class BasicSingleTermTypeExtractor implements SingleTermTypeExtractor {
             return child.acceptVisitor(this);
         }
 
+        @Override
+        public Optional<TermType> visitTransitiveClosure(TransitiveClosureNode rootNode, IQTree child) {
+            if (variable.equals(rootNode.getSource()))
+                return typeExtractor.extractSingleTermType(rootNode.getEdgeSourceVariable(), child);
+            if (variable.equals(rootNode.getTarget()))
+                return typeExtractor.extractSingleTermType(rootNode.getEdgeTargetVariable(), child);
+            return Optional.empty();
+        }
+
         @Override
         public Optional<TermType> visitDistinct(DistinctNode rootNode, IQTree child) {
             return child.acceptVisitor(this);
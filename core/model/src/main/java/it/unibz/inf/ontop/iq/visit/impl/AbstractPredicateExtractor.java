@@ -73,6 +73,11 @@ public abstract class AbstractPredicateExtractor<T extends LeafIQTree> implement
         return child.acceptVisitor(this);
     }
 
+    @Override
+    public Stream<T> visitTransitiveClosure(TransitiveClosureNode rootNode, IQTree child) {
+        return child.acceptVisitor(this);
+    }
+
     @Override
     public Stream<T> visitNonStandardUnaryNode(UnaryOperatorNode rootNode, IQTree child) {
         return child.acceptVisitor(this);
@@ -0,0 +1,14 @@
+package it.unibz.inf.ontop.model.term.functionsymbol.db;
+
+import it.unibz.inf.ontop.model.type.DBTermType;
+
+/**
+ * Value only provided when the query is executed (e.g. a literal lifted out of a query template).
+ *
+ * Opaque to the optimizer. When the native query is generated, it becomes one of its parameters
+ * (see NativeNode.getParameters()), which must be bound before execution.
+ */
+public interface DBParameterFunctionSymbol extends DBFunctionSymbol {
+
+    DBTermType getTargetType();
+}
@@ -11,6 +11,7 @@ import java.util.regex.Pattern;
 
 /**
  * Can simplify itself in case of strict equalities with a constant
+ * or with another integer cast (possibly from another integer type)
  */
 public class DefaultCastIntegerToStringFunctionSymbol extends DefaultSimpleDBCastFunctionSymbol {
 
@@ -41,4 +42,21 @@ public class DefaultCastIntegerToStringFunctionSymbol extends DefaultSimpleDBCas
 
         return perform2ndStepEvaluationStrictEqWithConstant(terms, otherValue, termFactory, variableNullability);
     }
+
+    /**
+     * The string representation of an integer being canonical, it is injective across the integer types.
+     * Useful when the other integer is only known at execution time (e.g. a parameter of the native query).
+     */
+    @Override
+    protected IncrementalEvaluation evaluateStrictEqWithFunctionalTerm(ImmutableList<? extends ImmutableTerm> terms,
+                                                                       ImmutableFunctionalTerm otherTerm,
+                                                                       TermFactory termFactory,
+                                                                       VariableNullability variableNullability) {
+        if ((otherTerm.getFunctionSymbol() instanceof DefaultCastIntegerToStringFunctionSymbol)
+                && !otherTerm.getFunctionSymbol().equals(this))
+            return termFactory.getStrictEquality(terms.get(0), otherTerm.getTerm(0))
+                    .evaluate(variableNullability, true);
+
+        return super.evaluateStrictEqWithFunctionalTerm(terms, otherTerm, termFactory, variableNullability);
+    }
 }
@@ -26,6 +26,7 @@ import org.apache.commons.rdf.api.RDF;
 
 import javax.annotation.Nullable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 @Singleton
@@ -69,7 +70,7 @@ public class TermFactoryImpl implements TermFactory {
 				.map(v -> new DBConstantImpl(v, dbTypeFactory.getDBDoubleType()))
 				.orElse(null);
 		this.provenanceConstant = new DBConstantImpl("ontop-provenance-constant", dbTypeFactory.getDBStringType());
-		this.termTypeConstantMap = new HashMap<>();
+		this.termTypeConstantMap = new ConcurrentHashMap<>();
 		this.iriTypeConstant = getRDFTermTypeConstant(typeFactory.getIRITermType());
 		this.bnodeTypeConstant = getRDFTermTypeConstant(typeFactory.getBlankNodeType());
 		this.positiveEvaluation = new ImmutableExpressionImpl.ValueEvaluationImpl(
@@ -10,10 +10,25 @@ public interface OntopOBDASettings extends OntopModelSettings {
      */
     boolean allowRetrievingBlackBoxViewMetadataFromDB();
 
+    /**
+     * Number of JDBC connections used concurrently for extracting the integrity constraints
+     * of the relations from the DB metadata. 1 means sequential extraction (single connection).
+     */
+    int getMetadataExtractionParallelism();
+
+    /**
+     * If true, the columns of all the relations of a schema are retrieved by a single call
+     * to the DB metadata, the first time a relation of this schema is looked up.
+     * Otherwise, they are retrieved relation by relation.
+     */
+    boolean isBulkColumnExtractionEnabled();
+
     //--------------------------
     // Keys
     //--------------------------
 
     String  SAME_AS = "ontop.sameAs";
     String ALLOW_RETRIEVING_BLACK_BOX_VIEW_METADATA_FROM_DB = "ontop.allowRetrievingBlackBoxViewMetadataFromDB";
+    String METADATA_EXTRACTION_PARALLELISM = "ontop.metadataExtraction.parallelism";
+    String BULK_COLUMN_EXTRACTION = "ontop.metadataExtraction.bulkColumns";
 }
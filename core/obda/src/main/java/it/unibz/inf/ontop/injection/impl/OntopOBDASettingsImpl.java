@@ -34,4 +34,14 @@ public class OntopOBDASettingsImpl extends OntopModelSettingsImpl implements Ont
     public boolean allowRetrievingBlackBoxViewMetadataFromDB() {
         return getRequiredBoolean(ALLOW_RETRIEVING_BLACK_BOX_VIEW_METADATA_FROM_DB);
     }
+
+    @Override
+    public int getMetadataExtractionParallelism() {
+        return getRequiredInteger(METADATA_EXTRACTION_PARALLELISM);
+    }
+
+    @Override
+    public boolean isBulkColumnExtractionEnabled() {
+        return getRequiredBoolean(BULK_COLUMN_EXTRACTION);
+    }
 }
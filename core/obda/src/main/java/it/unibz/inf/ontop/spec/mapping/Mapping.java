@@ -47,4 +47,25 @@ public interface Mapping {
     ImmutableSet<IRI> getRDFClasses(RDFAtomPredicate rdfAtomPredicate);
 
     ImmutableCollection<IQ> getQueries(RDFAtomPredicate rdfAtomPredicate);
+
+    /**
+     * Subset of getQueries(rdfAtomPredicate) that may produce the given IRI as subject.
+     *
+     * Over-approximation: the IRI still needs to be unified with the definitions.
+     */
+    ImmutableCollection<IQ> getQueriesWithSubject(RDFAtomPredicate rdfAtomPredicate, IRI subject);
+
+    /**
+     * Subset of getQueries(rdfAtomPredicate) that may produce the given IRI as object.
+     *
+     * Over-approximation: the IRI still needs to be unified with the definitions.
+     */
+    ImmutableCollection<IQ> getQueriesWithObject(RDFAtomPredicate rdfAtomPredicate, IRI object);
+
+    /**
+     * Class definitions that may produce the given IRI as subject.
+     *
+     * Over-approximation: the IRI still needs to be unified with the definitions.
+     */
+    ImmutableCollection<IQ> getRDFClassDefinitionsWithSubject(RDFAtomPredicate rdfAtomPredicate, IRI subject);
 }
@@ -0,0 +1,144 @@
+package it.unibz.inf.ontop.spec.mapping.impl;
+
+import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.model.template.Template;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.RDFTermFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.IRIStringTemplateFunctionSymbol;
+import it.unibz.inf.ontop.model.type.ObjectRDFType;
+import it.unibz.inf.ontop.model.type.RDFTermType;
+import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Indexes definitions by the IRIs they may produce in a given position of the RDF atom (subject, object).
+ *
+ * IRI templates are indexed by their prefix (the part before the first placeholder) in a trie,
+ * and constant IRIs by their string. Definitions for which the IRI cannot be determined (variable RDF type,
+ * non-template lexical term, etc.) are compatible with any IRI.
+ *
+ * Over-approximates: the returned definitions still need to be unified with the IRI.
+ * Preserves the order of the definitions.
+ *
+ * Immutable
+ */
+class IRITemplateIndex {
+
+    private final ImmutableList<IQ> definitions;
+    private final Node root;
+    private final Map<String, BitSet> constantIRIs;
+
+    /**
+     * The position extractor returns the term in the indexed position from the arguments of the projection atom
+     */
+    IRITemplateIndex(ImmutableList<IQ> definitions, Function<ImmutableList<Variable>, Variable> positionExtractor) {
+        this.definitions = definitions;
+        this.root = new Node();
+        this.constantIRIs = new HashMap<>();
+
+        for (int i = 0; i < definitions.size(); i++) {
+            IQ definition = definitions.get(i);
+            Variable variable = positionExtractor.apply(definition.getProjectionAtom().getArguments());
+
+            ImmutableSet<ImmutableSubstitution<NonVariableTerm>> possibleDefinitions =
+                    definition.getTree().getPossibleVariableDefinitions();
+            if (possibleDefinitions.isEmpty()) {
+                root.add(i);
+                continue;
+            }
+            for (ImmutableSubstitution<NonVariableTerm> substitution : possibleDefinitions)
+                index(i, substitution.get(variable));
+        }
+    }
+
+    private void index(int definitionIndex, ImmutableTerm term) {
+        if (term instanceof IRIConstant) {
+            constantIRIs.computeIfAbsent(((IRIConstant) term).getIRI().getIRIString(), s -> new BitSet())
+                    .set(definitionIndex);
+            return;
+        }
+        // Literal or blank node: never an IRI
+        if (term instanceof RDFConstant)
+            return;
+
+        if (!(term instanceof ImmutableFunctionalTerm)
+                || !(((ImmutableFunctionalTerm) term).getFunctionSymbol() instanceof RDFTermFunctionSymbol)) {
+            root.add(definitionIndex);
+            return;
+        }
+        ImmutableFunctionalTerm rdfTerm = (ImmutableFunctionalTerm) term;
+        ImmutableTerm lexicalTerm = rdfTerm.getTerm(0);
+        ImmutableTerm typeTerm = rdfTerm.getTerm(1);
+
+        if (!(typeTerm instanceof RDFTermTypeConstant)) {
+            root.add(definitionIndex);
+            return;
+        }
+        RDFTermType termType = ((RDFTermTypeConstant) typeTerm).getRDFTermType();
+        // Literal or blank node: never an IRI
+        if (!(termType instanceof ObjectRDFType) || ((ObjectRDFType) termType).isBlankNode())
+            return;
+
+        if (lexicalTerm instanceof DBConstant) {
+            constantIRIs.computeIfAbsent(((DBConstant) lexicalTerm).getValue(), s -> new BitSet())
+                    .set(definitionIndex);
+        }
+        else if (lexicalTerm instanceof ImmutableFunctionalTerm
+                && ((ImmutableFunctionalTerm) lexicalTerm).getFunctionSymbol() instanceof IRIStringTemplateFunctionSymbol) {
+            ImmutableList<Template.Component> components = ((IRIStringTemplateFunctionSymbol)
+                    ((ImmutableFunctionalTerm) lexicalTerm).getFunctionSymbol()).getTemplateComponents();
+            String prefix = (components.isEmpty() || components.get(0).isColumnNameReference())
+                    ? ""
+                    : components.get(0).getComponent();
+            root.getOrCreate(prefix).add(definitionIndex);
+        }
+        else
+            root.add(definitionIndex);
+    }
+
+    ImmutableCollection<IQ> getCompatibleDefinitions(String iri) {
+        BitSet compatible = new BitSet(definitions.size());
+
+        Node node = root;
+        compatible.or(node.definitionIndexes);
+        for (int i = 0; i < iri.length(); i++) {
+            node = node.children.get(iri.charAt(i));
+            if (node == null)
+                break;
+            compatible.or(node.definitionIndexes);
+        }
+
+        BitSet constantMatches = constantIRIs.get(iri);
+        if (constantMatches != null)
+            compatible.or(constantMatches);
+
+        return compatible.stream()
+                .mapToObj(definitions::get)
+                .collect(ImmutableCollectors.toList());
+    }
+
+    /**
+     * Trie node over the characters of the template prefixes
+     */
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final BitSet definitionIndexes = new BitSet();
+
+        Node getOrCreate(String prefix) {
+            Node node = this;
+            for (int i = 0; i < prefix.length(); i++)
+                node = node.children.computeIfAbsent(prefix.charAt(i), c -> new Node());
+            return node;
+        }
+
+        void add(int definitionIndex) {
+            definitionIndexes.set(definitionIndex);
+        }
+    }
+}
@@ -7,7 +7,9 @@ import it.unibz.inf.ontop.spec.mapping.Mapping;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.apache.commons.rdf.api.IRI;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 
@@ -16,6 +18,13 @@ public class MappingImpl implements Mapping {
     private final ImmutableTable<RDFAtomPredicate, IRI, IQ> propertyDefinitions;
     private final ImmutableTable<RDFAtomPredicate, IRI, IQ> classDefinitions;
 
+    /**
+     * Built lazily, as many intermediate mappings are never used for unfolding
+     */
+    private final Map<RDFAtomPredicate, IRITemplateIndex> subjectIndexes = new ConcurrentHashMap<>();
+    private final Map<RDFAtomPredicate, IRITemplateIndex> objectIndexes = new ConcurrentHashMap<>();
+    private final Map<RDFAtomPredicate, IRITemplateIndex> classSubjectIndexes = new ConcurrentHashMap<>();
+
     public MappingImpl(ImmutableTable<RDFAtomPredicate, IRI, IQ> propertyTable,
                         ImmutableTable<RDFAtomPredicate, IRI, IQ> classTable) {
 
@@ -54,6 +63,27 @@ public class MappingImpl implements Mapping {
                 .collect(ImmutableCollectors.toList());
     }
 
+    @Override
+    public ImmutableCollection<IQ> getQueriesWithSubject(RDFAtomPredicate rdfAtomPredicate, IRI subject) {
+        return subjectIndexes.computeIfAbsent(rdfAtomPredicate,
+                        p -> new IRITemplateIndex(ImmutableList.copyOf(getQueries(p)), p::getSubject))
+                .getCompatibleDefinitions(subject.getIRIString());
+    }
+
+    @Override
+    public ImmutableCollection<IQ> getQueriesWithObject(RDFAtomPredicate rdfAtomPredicate, IRI object) {
+        return objectIndexes.computeIfAbsent(rdfAtomPredicate,
+                        p -> new IRITemplateIndex(ImmutableList.copyOf(getQueries(p)), p::getObject))
+                .getCompatibleDefinitions(object.getIRIString());
+    }
+
+    @Override
+    public ImmutableCollection<IQ> getRDFClassDefinitionsWithSubject(RDFAtomPredicate rdfAtomPredicate, IRI subject) {
+        return classSubjectIndexes.computeIfAbsent(rdfAtomPredicate,
+                        p -> new IRITemplateIndex(ImmutableList.copyOf(classDefinitions.row(p).values()), p::getSubject))
+                .getCompatibleDefinitions(subject.getIRIString());
+    }
+
     @Override
     public ImmutableSet<RDFAtomPredicate> getRDFAtomPredicates() {
         return Sets.union(propertyDefinitions.rowKeySet(), classDefinitions.rowKeySet())
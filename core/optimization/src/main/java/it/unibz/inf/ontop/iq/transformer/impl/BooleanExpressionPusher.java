@@ -101,6 +101,14 @@ public class BooleanExpressionPusher implements IQVisitor<Optional<IQTree>> {
                 visitPassingUnaryNode(rootNode, child);
     }
 
+    /**
+     * The transitive closure blocks
+     */
+    @Override
+    public Optional<IQTree> visitTransitiveClosure(TransitiveClosureNode rootNode, IQTree child) {
+        return Optional.empty();
+    }
+
     @Override
     public Optional<IQTree> visitDistinct(DistinctNode rootNode, IQTree child) {
         return visitPassingUnaryNode(rootNode, child);
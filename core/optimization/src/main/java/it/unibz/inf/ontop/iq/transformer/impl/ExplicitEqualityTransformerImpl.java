@@ -441,7 +441,7 @@ public class ExplicitEqualityTransformerImpl implements ExplicitEqualityTransfor
     /**
      * - Default behavior: for each child, deletes its root if it is a substitution-free construction node (i.e. a simple projection),
      * and lift the projection if needed
-     * - Distinct or slice nodes: does not apply
+     * - Distinct, slice or transitive closure nodes: does not apply
      */
     class CnLifter extends DefaultNonRecursiveIQTreeTransformer {
 
@@ -455,6 +455,14 @@ public class ExplicitEqualityTransformerImpl implements ExplicitEqualityTransfor
             return tree;
         }
 
+        /**
+         * The projection of the edges must be preserved
+         */
+        @Override
+        public IQTree transformTransitiveClosure(IQTree tree, TransitiveClosureNode rootNode, IQTree child) {
+            return tree;
+        }
+
         @Override
         public IQTree transformUnaryNode(IQTree tree, UnaryOperatorNode rootNode, IQTree child) {
             ImmutableList<ConstructionNode> idleCns = getIdleCns(Stream.of(child));
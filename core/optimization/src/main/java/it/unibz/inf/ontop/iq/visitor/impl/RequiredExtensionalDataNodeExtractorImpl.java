@@ -76,6 +76,14 @@ public class RequiredExtensionalDataNodeExtractorImpl implements RequiredExtensi
         return child.acceptVisitor(this);
     }
 
+    /**
+     * The variables of the edges are not projected
+     */
+    @Override
+    public Stream<ExtensionalDataNode> visitTransitiveClosure(TransitiveClosureNode rootNode, IQTree child) {
+        return Stream.empty();
+    }
+
     @Override
     public Stream<ExtensionalDataNode> visitDistinct(DistinctNode rootNode, IQTree child) {
         return child.acceptVisitor(this);
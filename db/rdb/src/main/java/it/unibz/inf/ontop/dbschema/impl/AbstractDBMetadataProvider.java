@@ -28,10 +28,7 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 import java.sql.*;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -49,6 +46,12 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
     private final DBTypeFactory dbTypeFactory;
     private final OntopOBDASettings settings;
 
+    // Bulk column extraction: catalog and schema names, and relations not looked up yet
+    private final Set<List<String>> bulkExtractedSchemas = new HashSet<>();
+    // Indexed by getBulkExtractionKey(...), the values being indexed by the extracted IDs
+    private final Map<RelationID, Map.Entry<RelationID, RelationDefinition.AttributeListBuilder>> bulkExtractedRelations
+            = new HashMap<>();
+
     protected interface QuotedIDFactoryFactory {
         QuotedIDFactory create(DatabaseMetaData m) throws SQLException;
     }
@@ -144,47 +147,114 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
 
     @Override
     public NamedRelationDefinition getRelation(RelationID id0) throws MetadataExtractionException {
-        DBTypeFactory dbTypeFactory = dbParameters.getDBTypeFactory();
         RelationID id = getCanonicalRelationId(id0);
-        try (ResultSet rs = metadata.getColumns(
-                getRelationCatalog(id), // catalog is not escaped
-                escapeRelationIdComponentPattern(getRelationSchema(id)),
-                escapeRelationIdComponentPattern(getRelationName(id)),
-                null)) {
-            Map<RelationID, RelationDefinition.AttributeListBuilder> relations = new HashMap<>();
-
-            while (rs.next()) {
-                RelationID extractedId = getRelationID(rs, "TABLE_CAT", "TABLE_SCHEM","TABLE_NAME");
-                checkSameRelationID(extractedId, id);
+        try {
+            if (isBulkColumnExtractionApplicable(id)) {
+                Map.Entry<RelationID, RelationDefinition.AttributeListBuilder> r = getBulkExtractedAttributes(id);
+                if (r != null)
+                    return new DatabaseTableDefinition(getAllIDs(r.getKey()), r.getValue());
+            }
 
-                RelationDefinition.AttributeListBuilder builder = relations.computeIfAbsent(extractedId,
-                        i -> DatabaseTableDefinition.attributeListBuilder());
+            try (ResultSet rs = metadata.getColumns(
+                    getRelationCatalog(id), // catalog is not escaped
+                    escapeRelationIdComponentPattern(getRelationSchema(id)),
+                    escapeRelationIdComponentPattern(getRelationName(id)),
+                    null)) {
+                Map<RelationID, RelationDefinition.AttributeListBuilder> relations = new HashMap<>();
 
-                QuotedID attributeId = rawIdFactory.createAttributeID(rs.getString("COLUMN_NAME"));
-                // columnNoNulls, columnNullable, columnNullableUnknown
-                boolean isNullable = rs.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls;
-                String typeName = rs.getString("TYPE_NAME");
-                int columnSize = rs.getInt("COLUMN_SIZE");
-                DBTermType termType = dbTypeFactory.getDBTermType(typeName, columnSize);
-
-                String sqlTypeName = extractSQLTypeName(typeName, rs.getInt("DATA_TYPE"), columnSize,
-                        () -> rs.getInt("DECIMAL_DIGITS"));
-                builder.addAttribute(attributeId, termType, sqlTypeName, isNullable);
-            }
+                while (rs.next()) {
+                    RelationID extractedId = addAttribute(rs, relations);
+                    checkSameRelationID(extractedId, id);
+                }
 
-            if (relations.entrySet().size() == 1) {
-                Map.Entry<RelationID, RelationDefinition.AttributeListBuilder> r = relations.entrySet().iterator().next();
-                return new DatabaseTableDefinition(getAllIDs(r.getKey()), r.getValue());
+                if (relations.entrySet().size() == 1) {
+                    Map.Entry<RelationID, RelationDefinition.AttributeListBuilder> r = relations.entrySet().iterator().next();
+                    return new DatabaseTableDefinition(getAllIDs(r.getKey()), r.getValue());
+                }
+                throw relations.isEmpty()
+                        ? new RelationNotFoundInMetadataException(id, getRelationIDs())
+                        : new MetadataExtractionException("Cannot resolve ambiguous relation id: " + id + ": " + relations.keySet());
             }
-            throw relations.isEmpty()
-                    ? new RelationNotFoundInMetadataException(id, getRelationIDs())
-                    : new MetadataExtractionException("Cannot resolve ambiguous relation id: " + id + ": " + relations.keySet());
         }
         catch (SQLException e) {
             throw new MetadataExtractionException(e);
         }
     }
 
+    /**
+     * Reads the column described by the current row of the result set of DatabaseMetaData.getColumns()
+     * and returns the ID of its relation
+     */
+    private RelationID addAttribute(ResultSet rs, Map<RelationID, RelationDefinition.AttributeListBuilder> relations) throws SQLException {
+        DBTypeFactory dbTypeFactory = dbParameters.getDBTypeFactory();
+        RelationID extractedId = getRelationID(rs, "TABLE_CAT", "TABLE_SCHEM","TABLE_NAME");
+
+        RelationDefinition.AttributeListBuilder builder = relations.computeIfAbsent(extractedId,
+                i -> DatabaseTableDefinition.attributeListBuilder());
+
+        QuotedID attributeId = rawIdFactory.createAttributeID(rs.getString("COLUMN_NAME"));
+        // columnNoNulls, columnNullable, columnNullableUnknown
+        boolean isNullable = rs.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls;
+        String typeName = rs.getString("TYPE_NAME");
+        int columnSize = rs.getInt("COLUMN_SIZE");
+        DBTermType termType = dbTypeFactory.getDBTermType(typeName, columnSize);
+
+        String sqlTypeName = extractSQLTypeName(typeName, rs.getInt("DATA_TYPE"), columnSize,
+                () -> rs.getInt("DECIMAL_DIGITS"));
+        builder.addAttribute(attributeId, termType, sqlTypeName, isNullable);
+        return extractedId;
+    }
+
+    /**
+     * Can be overridden by dialects for which retrieving the columns of a whole schema is not reliable
+     */
+    protected boolean supportsBulkColumnExtraction() {
+        return true;
+    }
+
+    private boolean isBulkColumnExtractionApplicable(RelationID id) {
+        return settings.isBulkColumnExtractionEnabled()
+                && supportsBulkColumnExtraction()
+                // otherwise, the columns of the whole DB would be retrieved
+                && getRelationSchema(id) != null;
+    }
+
+    /**
+     * Retrieves the columns of all the relations of the schema of the given relation, on the first lookup
+     * of a relation of this schema.
+     *
+     * Each relation is returned at most once, with its extracted ID. Returns null when the relation has not
+     * been found that way, so that it gets looked up individually (e.g., special relations like DUAL).
+     */
+    @Nullable
+    private synchronized Map.Entry<RelationID, RelationDefinition.AttributeListBuilder> getBulkExtractedAttributes(
+            RelationID id) throws SQLException {
+        String catalog = getRelationCatalog(id);
+        String schema = getRelationSchema(id);
+        if (bulkExtractedSchemas.add(Arrays.asList(catalog, schema))) {
+            Map<RelationID, RelationDefinition.AttributeListBuilder> relations = new HashMap<>();
+            try (ResultSet rs = metadata.getColumns(catalog, escapeRelationIdComponentPattern(schema), null, null)) {
+                while (rs.next())
+                    addAttribute(rs, relations);
+            }
+            for (Map.Entry<RelationID, RelationDefinition.AttributeListBuilder> r : relations.entrySet())
+                bulkExtractedRelations.put(getBulkExtractionKey(r.getKey()), r);
+
+            LOGGER.debug("Columns of {} relations extracted in bulk for the schema {}", relations.size(), schema);
+        }
+        return bulkExtractedRelations.remove(getBulkExtractionKey(id));
+    }
+
+    /**
+     * The IDs extracted from the DB metadata and the IDs given by the callers (e.g., parsed from the mapping)
+     * may differ by their quotation. Both are normalized by the raw QuotedIDFactory, from their canonical form.
+     */
+    private RelationID getBulkExtractionKey(RelationID id) {
+        return rawIdFactory.createRelationID(getCanonicalRelationId(id).getComponents().reverse().stream()
+                .map(QuotedID::getName)
+                .toArray(String[]::new));
+    }
+
     protected String extractSQLTypeName(String typeName, int jdbcType, int columnSize,
                                         PrecisionSupplier precisionSupplier) throws SQLException {
         switch (jdbcType) {
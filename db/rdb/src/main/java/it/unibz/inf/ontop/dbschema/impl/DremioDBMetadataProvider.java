@@ -81,6 +81,14 @@ public class DremioDBMetadataProvider extends AbstractDBMetadataProvider {
         }
     }
 
+    /**
+     * Dremio may not have loaded the metadata of the relations of a schema yet
+     */
+    @Override
+    protected boolean supportsBulkColumnExtraction() {
+        return false;
+    }
+
     @Override
     protected RelationID getRelationID(ResultSet rs, String catalogNameColumn, String schemaNameColumn, String tableNameColumn) throws SQLException {
         return rawIdFactory.createRelationID(rs.getString(schemaNameColumn), rs.getString(tableNameColumn));
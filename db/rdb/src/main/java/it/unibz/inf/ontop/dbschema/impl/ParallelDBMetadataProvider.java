@@ -0,0 +1,109 @@
+package it.unibz.inf.ontop.dbschema.impl;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.exception.InvalidQueryException;
+import it.unibz.inf.ontop.exception.MetadataExtractionException;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Distributes the per-relation lookups over several DB metadata providers,
+ * each of them having its own JDBC connection.
+ *
+ * Each provider is used by at most one thread at a time, so that the number of concurrent lookups
+ * is bounded by the number of providers.
+ *
+ * Thread-safe. The connections are managed by the caller.
+ */
+public class ParallelDBMetadataProvider implements DBMetadataProvider {
+
+    private final DBMetadataProvider mainProvider;
+    private final BlockingQueue<DBMetadataProvider> availableProviders;
+
+    /**
+     * The first provider gives the DB parameters
+     */
+    public ParallelDBMetadataProvider(ImmutableList<DBMetadataProvider> providers) {
+        if (providers.isEmpty())
+            throw new IllegalArgumentException("At least one DB metadata provider is expected");
+
+        this.mainProvider = providers.get(0);
+        this.availableProviders = new ArrayBlockingQueue<>(providers.size(), false, providers);
+    }
+
+    private DBMetadataProvider take() throws MetadataExtractionException {
+        try {
+            return availableProviders.take();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MetadataExtractionException("Interrupted while waiting for a DB metadata connection");
+        }
+    }
+
+    private void release(DBMetadataProvider provider) {
+        availableProviders.add(provider);
+    }
+
+    @Override
+    public NamedRelationDefinition getRelation(RelationID id) throws MetadataExtractionException {
+        DBMetadataProvider provider = take();
+        try {
+            return provider.getRelation(id);
+        }
+        finally {
+            release(provider);
+        }
+    }
+
+    @Override
+    public void insertIntegrityConstraints(NamedRelationDefinition relation, MetadataLookup metadataLookup) throws MetadataExtractionException {
+        DBMetadataProvider provider = take();
+        try {
+            provider.insertIntegrityConstraints(relation, metadataLookup);
+        }
+        finally {
+            release(provider);
+        }
+    }
+
+    @Override
+    public RelationDefinition getBlackBoxView(String query) throws MetadataExtractionException, InvalidQueryException {
+        DBMetadataProvider provider = take();
+        try {
+            return provider.getBlackBoxView(query);
+        }
+        finally {
+            release(provider);
+        }
+    }
+
+    @Override
+    public ImmutableList<RelationID> getRelationIDs() throws MetadataExtractionException {
+        DBMetadataProvider provider = take();
+        try {
+            return provider.getRelationIDs();
+        }
+        finally {
+            release(provider);
+        }
+    }
+
+    @Override
+    public QuotedIDFactory getQuotedIDFactory() {
+        return mainProvider.getQuotedIDFactory();
+    }
+
+    @Override
+    public DBParameters getDBParameters() {
+        return mainProvider.getDBParameters();
+    }
+
+    @Override
+    public void normalizeAndOptimizeRelations(List<NamedRelationDefinition> relationDefinitions) {
+        mainProvider.normalizeAndOptimizeRelations(relationDefinitions);
+    }
+}
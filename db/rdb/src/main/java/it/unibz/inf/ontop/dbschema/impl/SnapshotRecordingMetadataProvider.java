@@ -0,0 +1,47 @@
+package it.unibz.inf.ontop.dbschema.impl;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.dbschema.impl.json.JsonDatabaseTable;
+import it.unibz.inf.ontop.dbschema.impl.json.JsonMetadata;
+import it.unibz.inf.ontop.exception.MetadataExtractionException;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the relations whose integrity constraints have been inserted by the underlying provider,
+ * so that they can be serialized (e.g. for being re-used at the next start).
+ *
+ * Relations are recorded right after the insertion of their integrity constraints by the underlying provider:
+ * constraints added afterwards by wrapping providers (e.g. user-supplied constraints) are not recorded.
+ *
+ * Thread-safe if the underlying provider is.
+ */
+public class SnapshotRecordingMetadataProvider extends DelegatingMetadataProvider {
+
+    private final Map<RelationID, JsonDatabaseTable> recordedRelations = new ConcurrentHashMap<>();
+
+    public SnapshotRecordingMetadataProvider(MetadataProvider provider) {
+        super(provider);
+    }
+
+    @Override
+    public void insertIntegrityConstraints(NamedRelationDefinition relation, MetadataLookup metadataLookup) throws MetadataExtractionException {
+        provider.insertIntegrityConstraints(relation, metadataLookup);
+        recordedRelations.put(relation.getID(), new JsonDatabaseTable(relation));
+    }
+
+    /**
+     * Relations are sorted by name, so that the serialization does not depend on the extraction order
+     */
+    public JsonMetadata getSnapshot() {
+        ImmutableList<JsonDatabaseTable> relations = recordedRelations.values().stream()
+                .sorted(Comparator.comparing(t -> t.name.toString()))
+                .collect(ImmutableCollectors.toList());
+
+        return new JsonMetadata(relations, new JsonMetadata.Parameters(getDBParameters()));
+    }
+}
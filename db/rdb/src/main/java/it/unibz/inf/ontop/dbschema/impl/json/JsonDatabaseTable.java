@@ -80,6 +80,7 @@ public class JsonDatabaseTable extends JsonOpenObject {
                     attribute.datatype != null
                             ? dbTypeFactory.getDBTermType(attribute.datatype)
                             :dbTypeFactory.getAbstractRootDBType(),
+                    attribute.datatype,
                     attribute.isNullable);
 
         ImmutableList<RelationID> allIDs = Stream.concat(Stream.of(name), otherNames.stream())
@@ -1,12 +1,19 @@
 package it.unibz.inf.ontop.generation;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedSet;
 import com.google.inject.Inject;
+import it.unibz.inf.ontop.iq.node.ExtensionalDataNode;
+import it.unibz.inf.ontop.iq.node.FilterNode;
+import it.unibz.inf.ontop.iq.node.InnerJoinNode;
+import it.unibz.inf.ontop.iq.node.LeftJoinNode;
+import it.unibz.inf.ontop.iq.transform.impl.DefaultRecursiveIQTreeVisitingTransformer;
 import it.unibz.inf.ontop.iq.transform.IQTree2NativeNodeGenerator;
 import it.unibz.inf.ontop.generation.algebra.IQTree2SelectFromWhereConverter;
 import it.unibz.inf.ontop.generation.algebra.SelectFromWhereWithModifiers;
 import it.unibz.inf.ontop.generation.serializer.SelectFromWhereSerializer;
+import it.unibz.inf.ontop.generation.serializer.impl.SQLParameterMarkers;
 import it.unibz.inf.ontop.dbschema.DBParameters;
 import it.unibz.inf.ontop.dbschema.QuotedID;
 import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
@@ -14,13 +21,21 @@ import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
 import it.unibz.inf.ontop.iq.IQTree;
 import it.unibz.inf.ontop.iq.node.NativeNode;
 import it.unibz.inf.ontop.iq.type.SingleTermTypeExtractor;
-import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.iq.type.impl.AbstractExpressionTransformer;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.BooleanFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.FunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.DBAndFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.DBNotFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.DBOrFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.DBParameterFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.DBStrictEqFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.impl.SQLParameterFunctionSymbol;
 import it.unibz.inf.ontop.model.type.DBTermType;
 import it.unibz.inf.ontop.model.type.TypeFactory;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
 
 public class DefaultSQLIQTree2NativeNodeGenerator implements IQTree2NativeNodeGenerator {
 
@@ -29,26 +44,44 @@ public class DefaultSQLIQTree2NativeNodeGenerator implements IQTree2NativeNodeGe
     private final IntermediateQueryFactory iqFactory;
     private final SingleTermTypeExtractor uniqueTermTypeExtractor;
     private final DBTermType abstractRootDBType;
+    private final TermFactory termFactory;
 
     @Inject
     private DefaultSQLIQTree2NativeNodeGenerator(SelectFromWhereSerializer serializer,
                                                  IQTree2SelectFromWhereConverter converter,
                                                  IntermediateQueryFactory iqFactory,
                                                  SingleTermTypeExtractor uniqueTermTypeExtractor,
-                                                 TypeFactory typeFactory) {
+                                                 TypeFactory typeFactory, TermFactory termFactory) {
         this.serializer = serializer;
         this.converter = converter;
         this.iqFactory = iqFactory;
         this.uniqueTermTypeExtractor = uniqueTermTypeExtractor;
+        this.termFactory = termFactory;
         abstractRootDBType = typeFactory.getDBTypeFactory().getAbstractRootDBType();
     }
 
 
     @Override
     public NativeNode generate(IQTree iqTree, DBParameters dbParameters, boolean tolerateUnknownTypes) {
+        return generate(iqTree, dbParameters, tolerateUnknownTypes, false);
+    }
+
+    @Override
+    public NativeNode generate(IQTree iqTree, DBParameters dbParameters, boolean tolerateUnknownTypes,
+                               boolean parameterizeConstants) {
         ImmutableSortedSet<Variable> signature = ImmutableSortedSet.copyOf(iqTree.getVariables());
 
-        SelectFromWhereWithModifiers selectFromWhere = converter.convert(iqTree, signature);
+        // Indexed by the SQL parameters
+        List<GroundTerm> parameterValues = new ArrayList<>();
+        // Already generated native queries (e.g. restricted by the materializer) have no DB parameter left
+        IQTree treeWithParameters = containsNativeNode(iqTree)
+                ? iqTree
+                : iqTree.acceptTransformer(new DBParameterReplacer(parameterValues));
+        IQTree treeToSerialize = parameterizeConstants
+                ? treeWithParameters.acceptTransformer(new ConstantParameterizer(parameterValues))
+                : treeWithParameters;
+
+        SelectFromWhereWithModifiers selectFromWhere = converter.convert(treeToSerialize, signature);
         SelectFromWhereSerializer.QuerySerialization serializedQuery = serializer.serialize(selectFromWhere, dbParameters);
 
         ImmutableMap<Variable, DBTermType> variableTypeMap = extractVariableTypeMap(iqTree, tolerateUnknownTypes);
@@ -58,8 +91,18 @@ public class DefaultSQLIQTree2NativeNodeGenerator implements IQTree2NativeNodeGe
                         Map.Entry::getKey,
                         e -> e.getValue().getAttribute()));
 
+        ImmutableList<GroundTerm> parameters = ImmutableList.copyOf(parameterValues);
+        if (parameters.isEmpty())
+            return iqFactory.createNativeNode(signature, variableTypeMap, columnNames,
+                    serializedQuery.getString(), iqTree.getVariableNullability());
+
+        SQLParameterMarkers.PositionalQuery positionalQuery = SQLParameterMarkers.toPositional(
+                serializedQuery.getString());
         return iqFactory.createNativeNode(signature, variableTypeMap, columnNames,
-                serializedQuery.getString(), iqTree.getVariableNullability());
+                positionalQuery.getQueryString(), iqTree.getVariableNullability(),
+                positionalQuery.getParameterIndexes().stream()
+                        .map(parameters::get)
+                        .collect(ImmutableCollectors.toList()));
     }
 
     private ImmutableMap<Variable, DBTermType> extractVariableTypeMap(IQTree tree, boolean tolerateUnknownTypes) {
@@ -80,4 +123,172 @@ public class DefaultSQLIQTree2NativeNodeGenerator implements IQTree2NativeNodeGe
                         "Was expecting a unique and known DB term type to be extracted " +
                                 "for the SQL variable " + v));
     }
+
+    private ImmutableFunctionalTerm createParameter(GroundTerm value, DBTermType type, List<GroundTerm> parameterValues) {
+        ImmutableFunctionalTerm parameter = termFactory.getImmutableFunctionalTerm(
+                new SQLParameterFunctionSymbol(parameterValues.size(), type));
+        parameterValues.add(value);
+        return parameter;
+    }
+
+    private static boolean containsNativeNode(IQTree tree) {
+        return (tree.getRootNode() instanceof NativeNode)
+                || tree.getChildren().stream().anyMatch(DefaultSQLIQTree2NativeNodeGenerator::containsNativeNode);
+    }
+
+    /**
+     * Replaces the DB parameters (e.g. of a query template) by SQL parameters, whose values are these DB parameters.
+     * They are bound when the query template is instantiated.
+     *
+     * Mutable: one instance per native query to generate
+     */
+    private class DBParameterReplacer extends AbstractExpressionTransformer {
+
+        private final List<GroundTerm> parameterValues;
+
+        DBParameterReplacer(List<GroundTerm> parameterValues) {
+            super(DefaultSQLIQTree2NativeNodeGenerator.this.iqFactory,
+                    DefaultSQLIQTree2NativeNodeGenerator.this.uniqueTermTypeExtractor,
+                    DefaultSQLIQTree2NativeNodeGenerator.this.termFactory);
+            this.parameterValues = parameterValues;
+        }
+
+        @Override
+        public IQTree transformExtensionalData(ExtensionalDataNode dataNode) {
+            ImmutableMap<Integer, ? extends VariableOrGroundTerm> argumentMap = dataNode.getArgumentMap();
+            ImmutableMap<Integer, VariableOrGroundTerm> newArgumentMap = argumentMap.entrySet().stream()
+                    .collect(ImmutableCollectors.toMap(
+                            Map.Entry::getKey,
+                            e -> (VariableOrGroundTerm) transformTerm(e.getValue(), dataNode)));
+
+            return newArgumentMap.equals(argumentMap)
+                    ? dataNode
+                    : iqFactory.createExtensionalDataNode(dataNode.getRelationDefinition(), newArgumentMap);
+        }
+
+        @Override
+        protected boolean isFunctionSymbolToReplace(FunctionSymbol functionSymbol) {
+            return functionSymbol instanceof DBParameterFunctionSymbol;
+        }
+
+        @Override
+        protected ImmutableFunctionalTerm replaceFunctionSymbol(FunctionSymbol functionSymbol,
+                                                                ImmutableList<ImmutableTerm> newTerms, IQTree tree) {
+            DBParameterFunctionSymbol parameterSymbol = (DBParameterFunctionSymbol) functionSymbol;
+            ImmutableFunctionalTerm value = termFactory.getImmutableFunctionalTerm(parameterSymbol, newTerms);
+            if (!(value instanceof GroundTerm))
+                throw new MinorOntopInternalBugException("A DB parameter was expected to be ground: " + value);
+            return createParameter((GroundTerm) value, parameterSymbol.getTargetType(), parameterValues);
+        }
+    }
+
+    /**
+     * Replaces the constants compared by strict equality to a column of the same type category
+     * by SQL parameters of the same type, serialized as parameter markers. Only concerns filter and join conditions.
+     *
+     * Mutable: one instance per native query to generate
+     */
+    private class ConstantParameterizer extends DefaultRecursiveIQTreeVisitingTransformer {
+
+        private final List<GroundTerm> parameterValues;
+
+        ConstantParameterizer(List<GroundTerm> parameterValues) {
+            super(DefaultSQLIQTree2NativeNodeGenerator.this.iqFactory);
+            this.parameterValues = parameterValues;
+        }
+
+        @Override
+        public IQTree transformFilter(IQTree tree, FilterNode rootNode, IQTree child) {
+            IQTree newChild = child.acceptTransformer(this);
+            ImmutableExpression newCondition = transformCondition(rootNode.getFilterCondition(), child);
+            return iqFactory.createUnaryIQTree(rootNode.changeFilterCondition(newCondition), newChild);
+        }
+
+        @Override
+        public IQTree transformInnerJoin(IQTree tree, InnerJoinNode rootNode, ImmutableList<IQTree> children) {
+            ImmutableList<IQTree> newChildren = children.stream()
+                    .map(c -> c.acceptTransformer(this))
+                    .collect(ImmutableCollectors.toList());
+
+            InnerJoinNode newRootNode = rootNode.changeOptionalFilterCondition(
+                    rootNode.getOptionalFilterCondition()
+                            .map(c -> transformCondition(c, tree)));
+            return iqFactory.createNaryIQTree(newRootNode, newChildren);
+        }
+
+        @Override
+        public IQTree transformLeftJoin(IQTree tree, LeftJoinNode rootNode, IQTree leftChild, IQTree rightChild) {
+            IQTree newLeftChild = leftChild.acceptTransformer(this);
+            IQTree newRightChild = rightChild.acceptTransformer(this);
+
+            LeftJoinNode newRootNode = rootNode.changeOptionalFilterCondition(
+                    rootNode.getOptionalFilterCondition()
+                            .map(c -> transformCondition(c, tree)));
+            return iqFactory.createBinaryNonCommutativeIQTree(newRootNode, newLeftChild, newRightChild);
+        }
+
+        /**
+         * Only looks inside conjunctions, disjunctions and negations
+         */
+        private ImmutableExpression transformCondition(ImmutableExpression condition, IQTree subTree) {
+            BooleanFunctionSymbol functionSymbol = condition.getFunctionSymbol();
+            ImmutableList<? extends ImmutableTerm> terms = condition.getTerms();
+
+            ImmutableList<ImmutableTerm> newTerms;
+            if (functionSymbol instanceof DBStrictEqFunctionSymbol) {
+                Optional<DBTermType.Category> columnCategory = terms.stream()
+                        .filter(t -> t instanceof Variable)
+                        .map(t -> uniqueTermTypeExtractor.extractSingleTermType(t, subTree))
+                        .filter(Optional::isPresent)
+                        .map(Optional::get)
+                        .filter(t -> t instanceof DBTermType)
+                        .map(t -> ((DBTermType) t).getCategory())
+                        .findFirst();
+                if (!columnCategory.isPresent())
+                    return condition;
+
+                newTerms = terms.stream()
+                        .map(t -> isParameterizable(t, columnCategory.get())
+                                ? createParameter((DBConstant) t)
+                                : t)
+                        .collect(ImmutableCollectors.toList());
+            }
+            else if (functionSymbol instanceof DBAndFunctionSymbol || functionSymbol instanceof DBOrFunctionSymbol
+                    || functionSymbol instanceof DBNotFunctionSymbol) {
+                newTerms = terms.stream()
+                        .map(t -> (t instanceof ImmutableExpression)
+                                ? transformCondition((ImmutableExpression) t, subTree)
+                                : t)
+                        .collect(ImmutableCollectors.toList());
+            }
+            else
+                return condition;
+
+            return newTerms.equals(terms)
+                    ? condition
+                    : termFactory.getImmutableExpression(functionSymbol, newTerms);
+        }
+
+        private boolean isParameterizable(ImmutableTerm term, DBTermType.Category columnCategory) {
+            if (!(term instanceof DBConstant))
+                return false;
+            DBTermType.Category category = ((DBConstant) term).getType().getCategory();
+            if (category != columnCategory)
+                return false;
+
+            switch (category) {
+                case STRING:
+                case INTEGER:
+                case DECIMAL:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private ImmutableFunctionalTerm createParameter(DBConstant constant) {
+            return DefaultSQLIQTree2NativeNodeGenerator.this.createParameter(constant, constant.getType(),
+                    parameterValues);
+        }
+    }
 }
@@ -45,6 +45,12 @@ public interface SQLAlgebraFactory {
                                                     @Assisted Optional<Variable> indexVar,
                                                     @Assisted DBTermType flattenedType);
 
+    SQLTransitiveClosureExpression createSQLTransitiveClosureExpression(@Assisted SelectFromWhereWithModifiers subExpression,
+                                                                        @Assisted("source") VariableOrGroundTerm source,
+                                                                        @Assisted("target") VariableOrGroundTerm target,
+                                                                        @Assisted("edgeSourceVariable") Variable edgeSourceVariable,
+                                                                        @Assisted("edgeTargetVariable") Variable edgeTargetVariable);
+
     SQLOneTupleDummyQueryExpression createSQLOneTupleDummyQueryExpression();
 
     SQLValuesExpression createSQLValues(@Assisted("orderedVariables") ImmutableList<Variable> orderedVariables,
@@ -23,4 +23,6 @@ public interface SQLRelationVisitor<T> {
 
     T visit(SQLFlattenExpression sqlFlattenExpression);
 
+    T visit(SQLTransitiveClosureExpression sqlTransitiveClosureExpression);
+
 }
@@ -0,0 +1,25 @@
+package it.unibz.inf.ontop.generation.algebra;
+
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.term.VariableOrGroundTerm;
+
+/**
+ * Transitive closure of the edges returned by the sub-expression (see TransitiveClosureNode).
+ *
+ * Serialized as a recursive common table expression.
+ */
+public interface SQLTransitiveClosureExpression extends SQLExpression {
+
+    /**
+     * Projects exactly the edge source and target variables
+     */
+    SelectFromWhereWithModifiers getSubExpression();
+
+    VariableOrGroundTerm getSource();
+
+    VariableOrGroundTerm getTarget();
+
+    Variable getEdgeSourceVariable();
+
+    Variable getEdgeTargetVariable();
+}
@@ -11,14 +11,17 @@ import it.unibz.inf.ontop.iq.IQTree;
 import it.unibz.inf.ontop.iq.UnaryIQTree;
 import it.unibz.inf.ontop.iq.node.*;
 import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.DBFunctionSymbol;
 import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
 import it.unibz.inf.ontop.substitution.SubstitutionFactory;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 public class IQTree2SelectFromWhereConverterImpl implements IQTree2SelectFromWhereConverter {
 
@@ -173,6 +176,8 @@ public class IQTree2SelectFromWhereConverterImpl implements IQTree2SelectFromWhe
         QueryNode rootNode = tree.getRootNode();
         if (rootNode instanceof NativeNode) {
             NativeNode nativeNode = (NativeNode) rootNode;
+            if (!nativeNode.getParameters().isEmpty())
+                throw new MinorOntopInternalBugException("Nested native queries are not expected to have parameters");
             String sqlQuery = nativeNode.getNativeQueryString();
             return sqlAlgebraFactory.createSQLSerializedQuery(sqlQuery, nativeNode.getColumnNames());
         }
@@ -244,10 +249,41 @@ public class IQTree2SelectFromWhereConverterImpl implements IQTree2SelectFromWhe
                     flattenNode.getFlattenedType()
             );
         }
+        else if (rootNode instanceof TransitiveClosureNode) {
+            TransitiveClosureNode closureNode = (TransitiveClosureNode) rootNode;
+            IQTree subtree = tree.getChildren().get(0);
+            if (!isOverDBTerms(closureNode, subtree))
+                throw new UnsupportedOperationException("Transitive closures are only supported over RDF terms " +
+                        "of a single type known in advance, with lexical values computed in SQL: " + closureNode);
+
+            return sqlAlgebraFactory.createSQLTransitiveClosureExpression(
+                    convert(subtree, ImmutableSortedSet.copyOf(subtree.getVariables())),
+                    closureNode.getSource(),
+                    closureNode.getTarget(),
+                    closureNode.getEdgeSourceVariable(),
+                    closureNode.getEdgeTargetVariable());
+        }
         else
             throw new RuntimeException("TODO: support arbitrary relations");
     }
 
+    /**
+     * The RDF terms are normally built above the closure (see TransitiveClosureNormalizer).
+     * Not possible when their RDF term types are not constant,
+     * or when their lexical values cannot be computed in SQL (e.g. non-injective post-processed functions).
+     */
+    private boolean isOverDBTerms(TransitiveClosureNode closureNode, IQTree child) {
+        return Stream.of(closureNode.getSource(), closureNode.getTarget())
+                        .allMatch(t -> (t instanceof Variable) || (t instanceof DBConstant))
+                && child.getPossibleVariableDefinitions().stream()
+                        .flatMap(s -> Stream.of(closureNode.getEdgeSourceVariable(), closureNode.getEdgeTargetVariable())
+                                .map(s::get))
+                        .filter(Objects::nonNull)
+                        .allMatch(t -> (t instanceof DBConstant) || (t.isNull())
+                                || ((t instanceof ImmutableFunctionalTerm)
+                                    && (((ImmutableFunctionalTerm) t).getFunctionSymbol() instanceof DBFunctionSymbol)));
+    }
+
     private SQLExpression getSubExpressionOfLeftJoinExpression(IQTree tree){
         if (tree.getRootNode() instanceof InnerJoinNode){
             ImmutableList<IQTree> children = tree.getChildren();
@@ -0,0 +1,61 @@
+package it.unibz.inf.ontop.generation.algebra.impl;
+
+import com.google.inject.assistedinject.Assisted;
+import com.google.inject.assistedinject.AssistedInject;
+import it.unibz.inf.ontop.generation.algebra.SQLRelationVisitor;
+import it.unibz.inf.ontop.generation.algebra.SQLTransitiveClosureExpression;
+import it.unibz.inf.ontop.generation.algebra.SelectFromWhereWithModifiers;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.term.VariableOrGroundTerm;
+
+public class SQLTransitiveClosureExpressionImpl implements SQLTransitiveClosureExpression {
+
+    private final SelectFromWhereWithModifiers subExpression;
+    private final VariableOrGroundTerm source;
+    private final VariableOrGroundTerm target;
+    private final Variable edgeSourceVariable;
+    private final Variable edgeTargetVariable;
+
+    @AssistedInject
+    private SQLTransitiveClosureExpressionImpl(@Assisted SelectFromWhereWithModifiers subExpression,
+                                               @Assisted("source") VariableOrGroundTerm source,
+                                               @Assisted("target") VariableOrGroundTerm target,
+                                               @Assisted("edgeSourceVariable") Variable edgeSourceVariable,
+                                               @Assisted("edgeTargetVariable") Variable edgeTargetVariable) {
+        this.subExpression = subExpression;
+        this.source = source;
+        this.target = target;
+        this.edgeSourceVariable = edgeSourceVariable;
+        this.edgeTargetVariable = edgeTargetVariable;
+    }
+
+    @Override
+    public SelectFromWhereWithModifiers getSubExpression() {
+        return subExpression;
+    }
+
+    @Override
+    public VariableOrGroundTerm getSource() {
+        return source;
+    }
+
+    @Override
+    public VariableOrGroundTerm getTarget() {
+        return target;
+    }
+
+    @Override
+    public Variable getEdgeSourceVariable() {
+        return edgeSourceVariable;
+    }
+
+    @Override
+    public Variable getEdgeTargetVariable() {
+        return edgeTargetVariable;
+    }
+
+    @Override
+    public <T> T acceptVisitor(SQLRelationVisitor<T> visitor) {
+        return visitor.visit(this);
+    }
+}
@@ -33,6 +33,24 @@ public class DB2SelectFromWhereSerializer extends IgnoreNullFirstSelectFromWhere
             protected String serializeOffset(long offset, boolean noSortCondition) {
                 return serializeLimitOffset(8000, offset, noSortCondition);
             }
+
+            /**
+             * No RECURSIVE keyword and only UNION ALL in recursive common table expressions
+             */
+            @Override
+            protected String getRecursiveWithKeyword() {
+                return "WITH";
+            }
+
+            @Override
+            protected boolean isUnionSupportedInRecursiveCTE() {
+                return false;
+            }
+
+            @Override
+            protected String serializeContainsString(String string, String substring) {
+                return String.format("LOCATE(%s, %s) > 0", substring, string);
+            }
         });
     }
 }
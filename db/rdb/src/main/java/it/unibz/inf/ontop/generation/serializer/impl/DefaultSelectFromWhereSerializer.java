@@ -9,15 +9,16 @@ import it.unibz.inf.ontop.generation.serializer.SelectFromWhereSerializer;
 import it.unibz.inf.ontop.dbschema.*;
 import it.unibz.inf.ontop.model.term.*;
 import it.unibz.inf.ontop.model.term.functionsymbol.db.DBFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.impl.SQLParameterFunctionSymbol;
 import it.unibz.inf.ontop.model.type.DBTermType;
 import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Singleton
 public class DefaultSelectFromWhereSerializer implements SelectFromWhereSerializer {
@@ -52,18 +53,34 @@ public class DefaultSelectFromWhereSerializer implements SelectFromWhereSerializ
         private static final String VIEW_PREFIX = "v";
         private static final String SELECT_FROM_WHERE_MODIFIERS_TEMPLATE = "SELECT %s%s\nFROM %s\n%s%s%s%s";
 
+        private static final String CLOSURE_PREFIX = "closure";
+        private static final String CLOSURE_SOURCE_COLUMN = "src";
+        private static final String CLOSURE_TARGET_COLUMN = "dst";
+        private static final String CLOSURE_VISITED_COLUMN = "visited";
+        private static final String VISITED_NODE_SEPARATOR = "'|'";
+
         protected final QuotedIDFactory idFactory;
 
         private final AtomicInteger viewCounter;
+        private final AtomicInteger closureCounter;
+
+        /**
+         * Recursive common table expressions, placed in a WITH clause in front of the top-level query
+         */
+        private final List<String> commonTableExpressions;
+        private int selectFromWhereDepth;
 
         protected DefaultRelationVisitingSerializer(QuotedIDFactory idFactory) {
             this.idFactory = idFactory;
             this.viewCounter = new AtomicInteger(0);
+            this.closureCounter = new AtomicInteger(0);
+            this.commonTableExpressions = new ArrayList<>();
+            this.selectFromWhereDepth = 0;
         }
 
         @Override
         public QuerySerialization visit(SelectFromWhereWithModifiers selectFromWhere) {
-
+            selectFromWhereDepth++;
             QuerySerialization fromQuerySerialization = getSQLSerializationForChild(selectFromWhere.getFromSQLExpression());
 
             ImmutableMap<Variable, QuotedID> variableAliases = createVariableAliases(selectFromWhere.getProjectedVariables());
@@ -90,6 +107,11 @@ public class DefaultSelectFromWhereSerializer implements SelectFromWhereSerializ
             String sql = String.format(SELECT_FROM_WHERE_MODIFIERS_TEMPLATE, distinctString, projectionString,
                     fromString, whereString, groupByString, orderByString, sliceString);
 
+            selectFromWhereDepth--;
+            if (selectFromWhereDepth == 0 && !commonTableExpressions.isEmpty())
+                sql = String.format("%s %s\n%s", getRecursiveWithKeyword(),
+                        String.join(",\n", commonTableExpressions), sql);
+
             // Creates an alias for this SQLExpression and uses it for the projected columns
             RelationID alias = generateFreshViewAlias();
             return new QuerySerializationImpl(sql, attachRelationAlias(alias, variableAliases));
@@ -345,6 +367,193 @@ public class DefaultSelectFromWhereSerializer implements SelectFromWhereSerializ
         public QuerySerialization visit(SQLFlattenExpression sqlFlattenExpression) {
             throw new UnsupportedOperationException("Nested data support unavailable for this DBMS");
         }
+
+        /**
+         * The closure is computed by a recursive common table expression (CTE) and the expression itself selects from it.
+         *
+         * The paths are built from the ground source, or from the ground target when only the latter is ground
+         * (the recursion then goes backward). Otherwise, all the paths of the graph are built.
+         *
+         * E.g. for the closure of the edges E(ES, ET) from the constant 'a':
+         *
+         *   WITH RECURSIVE closure1(src, dst) AS (
+         *     SELECT v2.es, v2.et FROM (...) v2 WHERE v2.es IS NOT NULL AND v2.et IS NOT NULL AND v2.es = 'a'
+         *     UNION
+         *     SELECT v3.src, v5.et FROM closure1 v3 JOIN (...) v5 ON v3.dst = v5.es AND v5.et IS NOT NULL)
+         *   ... (SELECT v6.src, v6.dst FROM closure1 v6) v7 ...
+         *
+         * UNION eliminates the duplicates, so the recursion stops on cycles and each pair is only extended once.
+         * When only UNION ALL is supported in recursive CTEs (see isUnionSupportedInRecursiveCTE()),
+         * the recursion is stopped by the CYCLE clause of the DBMS on the moving column (see serializeCycleClause()).
+         * Otherwise, the nodes reached by each path are tracked in an additional column:
+         * each node is cast into a string in which '%' and '|' are escaped, and the nodes are separated by '|'.
+         *
+         * Without UNION, all the simple paths are enumerated, which can be exponential on large acyclic graphs
+         * (e.g. on a chain of diamonds). The duplicate pairs are then eliminated by the outer SELECT DISTINCT.
+         */
+        @Override
+        public QuerySerialization visit(SQLTransitiveClosureExpression sqlTransitiveClosureExpression) {
+            RelationID cteName = idFactory.createRelationID(CLOSURE_PREFIX + closureCounter.incrementAndGet());
+            QuotedID sourceColumn = idFactory.createAttributeID(CLOSURE_SOURCE_COLUMN);
+            QuotedID targetColumn = idFactory.createAttributeID(CLOSURE_TARGET_COLUMN);
+            QuotedID visitedColumn = idFactory.createAttributeID(CLOSURE_VISITED_COLUMN);
+
+            VariableOrGroundTerm source = sqlTransitiveClosureExpression.getSource();
+            VariableOrGroundTerm target = sqlTransitiveClosureExpression.getTarget();
+            Variable edgeSourceVariable = sqlTransitiveClosureExpression.getEdgeSourceVariable();
+            Variable edgeTargetVariable = sqlTransitiveClosureExpression.getEdgeTargetVariable();
+
+            boolean isBackward = (source instanceof Variable) && !(target instanceof Variable);
+            VariableOrGroundTerm start = isBackward ? target : source;
+            Variable startVariable = isBackward ? edgeTargetVariable : edgeSourceVariable;
+            Variable nextVariable = isBackward ? edgeSourceVariable : edgeTargetVariable;
+
+            boolean isUnionSupported = isUnionSupportedInRecursiveCTE();
+            Optional<String> cycleClause = isUnionSupported
+                    ? Optional.empty()
+                    : serializeCycleClause((isBackward ? sourceColumn : targetColumn).getSQLRendering());
+            boolean trackVisitedNodes = !isUnionSupported && !cycleClause.isPresent();
+
+            // Base case: the edges (from the start when ground)
+            QuerySerialization baseEdges = getSQLSerializationForChild(sqlTransitiveClosureExpression.getSubExpression());
+            ImmutableMap<Variable, QualifiedAttributeID> baseColumnIDs = baseEdges.getColumnIDs();
+            String baseStart = sqlTermSerializer.serialize(startVariable, baseColumnIDs);
+            String baseNext = sqlTermSerializer.serialize(nextVariable, baseColumnIDs);
+            String baseCondition = String.format("%s IS NOT NULL AND %s IS NOT NULL", baseStart, baseNext)
+                    + ((start instanceof Variable)
+                        ? ""
+                        : String.format(" AND %s = %s", baseStart, sqlTermSerializer.serialize(start, ImmutableMap.of())));
+            String baseSQL = String.format("SELECT %s, %s%s\nFROM %s\nWHERE %s",
+                    sqlTermSerializer.serialize(edgeSourceVariable, baseColumnIDs),
+                    sqlTermSerializer.serialize(edgeTargetVariable, baseColumnIDs),
+                    trackVisitedNodes
+                            ? ", " + castVisitedNodes(serializeStringConcatenation(
+                                    ImmutableList.of(VISITED_NODE_SEPARATOR, serializeVisitedNode(baseNext), VISITED_NODE_SEPARATOR)))
+                            : "",
+                    baseEdges.getString(), baseCondition);
+
+            // Recursive step: extends the paths by one edge
+            RelationID pathAlias = generateFreshViewAlias();
+            QuerySerialization stepEdges = getSQLSerializationForChild(sqlTransitiveClosureExpression.getSubExpression());
+            ImmutableMap<Variable, QualifiedAttributeID> stepColumnIDs = stepEdges.getColumnIDs();
+            String pathSource = new QualifiedAttributeID(pathAlias, sourceColumn).getSQLRendering();
+            String pathTarget = new QualifiedAttributeID(pathAlias, targetColumn).getSQLRendering();
+            String pathVisited = new QualifiedAttributeID(pathAlias, visitedColumn).getSQLRendering();
+            String stepStart = sqlTermSerializer.serialize(startVariable, stepColumnIDs);
+            String stepNext = sqlTermSerializer.serialize(nextVariable, stepColumnIDs);
+            String stepVisitedNode = serializeVisitedNode(stepNext);
+            String stepSQL = String.format("SELECT %s, %s%s\nFROM %s %s JOIN %s ON %s = %s AND %s IS NOT NULL%s",
+                    isBackward ? stepNext : pathSource,
+                    isBackward ? pathTarget : stepNext,
+                    trackVisitedNodes
+                            ? ", " + castVisitedNodes(serializeStringConcatenation(
+                                    ImmutableList.of(pathVisited, stepVisitedNode, VISITED_NODE_SEPARATOR)))
+                            : "",
+                    cteName.getSQLRendering(), pathAlias.getSQLRendering(), stepEdges.getString(),
+                    isBackward ? pathSource : pathTarget, stepStart, stepNext,
+                    trackVisitedNodes
+                            ? "\nWHERE NOT " + serializeContainsString(pathVisited, serializeStringConcatenation(
+                                    ImmutableList.of(VISITED_NODE_SEPARATOR, stepVisitedNode, VISITED_NODE_SEPARATOR)))
+                            : "");
+
+            commonTableExpressions.add(String.format("%s(%s) AS (\n%s\n%s\n%s)%s",
+                    cteName.getSQLRendering(),
+                    (trackVisitedNodes
+                            ? Stream.of(sourceColumn, targetColumn, visitedColumn)
+                            : Stream.of(sourceColumn, targetColumn))
+                            .map(QuotedID::getSQLRendering)
+                            .collect(Collectors.joining(", ")),
+                    baseSQL,
+                    isUnionSupported ? "UNION" : "UNION ALL",
+                    stepSQL,
+                    cycleClause.map(c -> "\n" + c).orElse("")));
+
+            // Selects the pairs from the CTE
+            RelationID closureAlias = generateFreshViewAlias();
+            String closureSource = new QualifiedAttributeID(closureAlias, sourceColumn).getSQLRendering();
+            String closureTarget = new QualifiedAttributeID(closureAlias, targetColumn).getSQLRendering();
+            ImmutableList<String> conditions = Stream.of(
+                    Optional.of(target)
+                            .filter(t -> !isBackward && !(t instanceof Variable))
+                            .map(t -> String.format("%s = %s", closureTarget, sqlTermSerializer.serialize(t, ImmutableMap.of()))),
+                    Optional.of(source)
+                            .filter(s -> (s instanceof Variable) && s.equals(target))
+                            .map(s -> String.format("%s = %s", closureSource, closureTarget)))
+                    .filter(Optional::isPresent)
+                    .map(Optional::get)
+                    .collect(ImmutableCollectors.toList());
+
+            RelationID alias = generateFreshViewAlias();
+            String sql = String.format("(SELECT %s%s, %s\nFROM %s %s%s) %s",
+                    isUnionSupported ? "" : "DISTINCT ",
+                    closureSource, closureTarget,
+                    cteName.getSQLRendering(), closureAlias.getSQLRendering(),
+                    conditions.isEmpty() ? "" : "\nWHERE " + String.join(" AND ", conditions),
+                    alias.getSQLRendering());
+
+            Map<Variable, QualifiedAttributeID> columnIDs = new HashMap<>();
+            if (source instanceof Variable)
+                columnIDs.put((Variable) source, new QualifiedAttributeID(alias, sourceColumn));
+            if (target instanceof Variable)
+                columnIDs.putIfAbsent((Variable) target, new QualifiedAttributeID(alias, targetColumn));
+
+            return new QuerySerializationImpl(sql, ImmutableMap.copyOf(columnIDs));
+        }
+
+        /**
+         * Keyword introducing recursive common table expressions
+         */
+        protected String getRecursiveWithKeyword() {
+            return "WITH RECURSIVE";
+        }
+
+        /**
+         * When true, the DB engine eliminates the duplicates produced by the recursive part of the CTE,
+         * which guarantees termination on cyclic graphs
+         */
+        protected boolean isUnionSupportedInRecursiveCTE() {
+            return true;
+        }
+
+        /**
+         * Clause placed after a recursive CTE that stops the recursion when the value of the given column
+         * has already been reached by the path. Only used when UNION is not supported in recursive CTEs.
+         *
+         * When empty, the reached nodes are tracked in a string column (see castVisitedNodes()).
+         */
+        protected Optional<String> serializeCycleClause(String cycleColumn) {
+            return Optional.empty();
+        }
+
+        protected String serializeStringConcatenation(ImmutableList<String> strings) {
+            return String.join(" || ", strings);
+        }
+
+        protected String serializeContainsString(String string, String substring) {
+            return String.format("POSITION(%s IN %s) > 0", substring, string);
+        }
+
+        /**
+         * Escapes '%' and the separator so that the separated nodes of a path cannot be confused
+         */
+        private String serializeVisitedNode(String node) {
+            return String.format("REPLACE(REPLACE(%s, '%%', '%%25'), %s, '%%7C')",
+                    castNodeToString(node), VISITED_NODE_SEPARATOR);
+        }
+
+        /**
+         * The nodes are not necessarily strings
+         */
+        protected String castNodeToString(String node) {
+            return String.format("CAST(%s AS VARCHAR(4000))", node);
+        }
+
+        /**
+         * The type of the column of the visited nodes must be wide enough for the longest path
+         */
+        protected String castVisitedNodes(String string) {
+            return String.format("CAST(%s AS CLOB)", string);
+        }
     }
 
     protected static class QuerySerializationImpl implements QuerySerialization {
@@ -389,6 +598,11 @@ public class DefaultSelectFromWhereSerializer implements SelectFromWhereSerializ
                         .orElseThrow(() -> new SQLSerializationException(String.format(
                                 "The variable %s does not appear in the columnIDs", term)));
             }
+            else if ((term instanceof ImmutableFunctionalTerm)
+                    && (((ImmutableFunctionalTerm) term).getFunctionSymbol() instanceof SQLParameterFunctionSymbol)) {
+                return serializeParameterMarker(
+                        ((SQLParameterFunctionSymbol) ((ImmutableFunctionalTerm) term).getFunctionSymbol()).getIndex());
+            }
             /*
              * ImmutableFunctionalTerm with a DBFunctionSymbol
              */
@@ -406,6 +620,13 @@ public class DefaultSelectFromWhereSerializer implements SelectFromWhereSerializ
             }
         }
 
+        /**
+         * Indexed marker, replaced by a JDBC placeholder once the query string is complete
+         */
+        protected String serializeParameterMarker(int index) {
+            return SQLParameterMarkers.serialize(index);
+        }
+
         private String serializeConstant(Constant constant) {
             if (constant.isNull())
                 return constant.getValue();
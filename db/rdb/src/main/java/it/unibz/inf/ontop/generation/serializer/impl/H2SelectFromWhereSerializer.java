@@ -5,6 +5,9 @@ import com.google.common.collect.ImmutableMap;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.generation.algebra.BinaryJoinExpression;
+import it.unibz.inf.ontop.generation.algebra.SQLNaryJoinExpression;
+import it.unibz.inf.ontop.generation.algebra.SQLTransitiveClosureExpression;
 import it.unibz.inf.ontop.generation.algebra.SQLValuesExpression;
 import it.unibz.inf.ontop.generation.algebra.SelectFromWhereWithModifiers;
 import it.unibz.inf.ontop.generation.serializer.SelectFromWhereSerializer;
@@ -54,6 +57,76 @@ public class H2SelectFromWhereSerializer extends DefaultSelectFromWhereSerialize
                         return String.format("OFFSET %d ROWS", offset);
                     }
 
+                    /**
+                     * Only UNION ALL is allowed in recursive CTEs
+                     */
+                    @Override
+                    protected boolean isUnionSupportedInRecursiveCTE() {
+                        return false;
+                    }
+
+                    @Override
+                    protected String serializeContainsString(String string, String substring) {
+                        return String.format("LOCATE(%s, %s) > 0", substring, string);
+                    }
+
+                    @Override
+                    protected String castNodeToString(String node) {
+                        return String.format("CAST(%s AS VARCHAR)", node);
+                    }
+
+                    @Override
+                    protected String castVisitedNodes(String string) {
+                        return String.format("CAST(%s AS VARCHAR)", string);
+                    }
+
+                    /**
+                     * Number of joins the expression being serialized is an operand of
+                     */
+                    private int joinDepth = 0;
+                    private boolean isClosureSerialized = false;
+
+                    @Override
+                    public QuerySerialization visit(SQLNaryJoinExpression sqlNaryJoinExpression) {
+                        joinDepth++;
+                        try {
+                            return super.visit(sqlNaryJoinExpression);
+                        }
+                        finally {
+                            joinDepth--;
+                        }
+                    }
+
+                    @Override
+                    protected QuerySerialization visit(BinaryJoinExpression binaryJoinExpression, String operatorString) {
+                        joinDepth++;
+                        try {
+                            return super.visit(binaryJoinExpression, operatorString);
+                        }
+                        finally {
+                            joinDepth--;
+                        }
+                    }
+
+                    /**
+                     * H2 version 1 supports a single recursive CTE per query and does not terminate
+                     * when a derived table selecting from it is joined with another relation.
+                     * The closure itself may contain joins (e.g. sequence paths).
+                     */
+                    @Override
+                    public QuerySerialization visit(SQLTransitiveClosureExpression sqlTransitiveClosureExpression) {
+                        if (dbParameters.getDbmsVersion().startsWith("1")) {
+                            if (isClosureSerialized)
+                                throw new UnsupportedOperationException(
+                                        "H2 version 1 does not support several recursive queries in the same query");
+                            if (joinDepth > 0)
+                                throw new UnsupportedOperationException(
+                                        "H2 version 1 does not support joining a recursive query with another relation");
+                            isClosureSerialized = true;
+                        }
+                        return super.visit(sqlTransitiveClosureExpression);
+                    }
+
                     @Override
                     public QuerySerialization visit(SQLValuesExpression sqlValuesExpression) {
 
@@ -10,6 +10,8 @@ import it.unibz.inf.ontop.model.term.DBConstant;
 import it.unibz.inf.ontop.model.term.TermFactory;
 import it.unibz.inf.ontop.model.type.DBTermType;
 
+import java.util.Optional;
+
 @Singleton
 public class OracleSelectFromWhereSerializer extends DefaultSelectFromWhereSerializer {
 
@@ -66,6 +68,27 @@ public class OracleSelectFromWhereSerializer extends DefaultSelectFromWhereSeria
                 return String.format("OFFSET %d ROWS\nFETCH NEXT 99999999 ROWS ONLY", offset);
             }
 
+            /**
+             * Recursive subquery factoring (11.2 and later): no RECURSIVE keyword, only UNION ALL
+             */
+            @Override
+            protected String getRecursiveWithKeyword() {
+                return "WITH";
+            }
+
+            @Override
+            protected boolean isUnionSupportedInRecursiveCTE() {
+                return false;
+            }
+
+            /**
+             * The cycle mark column is added to the CTE but never selected
+             */
+            @Override
+            protected Optional<String> serializeCycleClause(String cycleColumn) {
+                return Optional.of(String.format("CYCLE %s SET IS_CYCLE TO '1' DEFAULT '0'", cycleColumn));
+            }
+
         });
     }
 }
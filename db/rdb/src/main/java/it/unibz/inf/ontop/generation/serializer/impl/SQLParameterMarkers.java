@@ -0,0 +1,101 @@
+package it.unibz.inf.ontop.generation.serializer.impl;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
+
+/**
+ * Indexed parameter markers emitted by the SQLTermSerializer ("?" followed by a comment holding the index),
+ * and their conversion into positional JDBC placeholders.
+ *
+ * The index is needed because the clauses of a query are not serialized in the order of the query string
+ * (e.g. the FROM clause before the projection).
+ */
+public final class SQLParameterMarkers {
+
+    private static final String PREFIX = "?/*";
+    private static final String SUFFIX = "*/";
+
+    private SQLParameterMarkers() {
+    }
+
+    public static String serialize(int index) {
+        return PREFIX + index + SUFFIX;
+    }
+
+    /**
+     * Replaces the indexed markers by "?" and returns the indexes in the order of the query string.
+     *
+     * String literals and quoted identifiers are skipped, so that their content is never taken for a marker.
+     */
+    public static PositionalQuery toPositional(String queryString) {
+        StringBuilder sb = new StringBuilder(queryString.length());
+        ImmutableList.Builder<Integer> indexBuilder = ImmutableList.builder();
+
+        int length = queryString.length();
+        int i = 0;
+        while (i < length) {
+            char c = queryString.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                int end = findClosingQuote(queryString, i, c);
+                sb.append(queryString, i, end);
+                i = end;
+            }
+            else if (queryString.startsWith(PREFIX, i)) {
+                int end = queryString.indexOf(SUFFIX, i + PREFIX.length());
+                if (end < 0)
+                    throw new MinorOntopInternalBugException("Unterminated parameter marker in " + queryString);
+                indexBuilder.add(Integer.parseInt(queryString.substring(i + PREFIX.length(), end)));
+                sb.append('?');
+                i = end + SUFFIX.length();
+            }
+            else {
+                sb.append(c);
+                i++;
+            }
+        }
+        return new PositionalQuery(sb.toString(), indexBuilder.build());
+    }
+
+    /**
+     * Quotes inside a quoted string are doubled. Returns the position after the closing quote.
+     */
+    private static int findClosingQuote(String queryString, int start, char quote) {
+        int i = start + 1;
+        while (i < queryString.length()) {
+            if (queryString.charAt(i) == quote) {
+                if (i + 1 < queryString.length() && queryString.charAt(i + 1) == quote)
+                    i += 2;
+                else
+                    return i + 1;
+            }
+            else
+                i++;
+        }
+        throw new MinorOntopInternalBugException("Unterminated quoted string in " + queryString);
+    }
+
+
+    public static class PositionalQuery {
+        private final String queryString;
+        private final ImmutableList<Integer> parameterIndexes;
+
+        private PositionalQuery(String queryString, ImmutableList<Integer> parameterIndexes) {
+            this.queryString = queryString;
+            this.parameterIndexes = parameterIndexes;
+        }
+
+        /**
+         * With "?" as placeholders
+         */
+        public String getQueryString() {
+            return queryString;
+        }
+
+        /**
+         * Index of the parameter of each placeholder, in order
+         */
+        public ImmutableList<Integer> getParameterIndexes() {
+            return parameterIndexes;
+        }
+    }
+}
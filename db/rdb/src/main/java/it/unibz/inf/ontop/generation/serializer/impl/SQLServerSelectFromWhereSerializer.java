@@ -68,6 +68,47 @@ public class SQLServerSelectFromWhereSerializer extends IgnoreNullFirstSelectFro
                         : String.format("OFFSET %d ROWS", offset);
             }
 
+            /**
+             * https://docs.microsoft.com/en-us/sql/t-sql/queries/with-common-table-expression-transact-sql
+             *
+             * No RECURSIVE keyword and only UNION ALL between the anchor and the recursive members
+             */
+            @Override
+            protected String getRecursiveWithKeyword() {
+                return "WITH";
+            }
+
+            @Override
+            protected boolean isUnionSupportedInRecursiveCTE() {
+                return false;
+            }
+
+            @Override
+            protected String serializeStringConcatenation(ImmutableList<String> strings) {
+                return String.join(" + ", strings);
+            }
+
+            @Override
+            protected String serializeContainsString(String string, String substring) {
+                return String.format("CHARINDEX(%s, %s) > 0", substring, string);
+            }
+
+            /**
+             * Non-string values cannot be concatenated with +
+             */
+            @Override
+            protected String castNodeToString(String node) {
+                return String.format("CAST(%s AS NVARCHAR(MAX))", node);
+            }
+
+            /**
+             * The anchor and recursive members must have exactly the same column types
+             */
+            @Override
+            protected String castVisitedNodes(String string) {
+                return String.format("CAST(%s AS NVARCHAR(MAX))", string);
+            }
+
             @Override
             public QuerySerialization visit(SQLOneTupleDummyQueryExpression sqlOneTupleDummyQueryExpression) {
                 String fromString = serializeDummyTable();
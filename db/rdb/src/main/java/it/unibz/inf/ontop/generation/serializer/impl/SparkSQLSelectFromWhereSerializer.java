@@ -11,6 +11,7 @@ import it.unibz.inf.ontop.dbschema.QuotedID;
 import it.unibz.inf.ontop.dbschema.RelationID;
 import it.unibz.inf.ontop.generation.algebra.SQLExpression;
 import it.unibz.inf.ontop.generation.algebra.SQLOrderComparator;
+import it.unibz.inf.ontop.generation.algebra.SQLTransitiveClosureExpression;
 import it.unibz.inf.ontop.generation.algebra.SelectFromWhereWithModifiers;
 import it.unibz.inf.ontop.generation.serializer.SQLSerializationException;
 import it.unibz.inf.ontop.generation.serializer.SelectFromWhereSerializer;
@@ -100,6 +101,14 @@ public class SparkSQLSelectFromWhereSerializer extends DefaultSelectFromWhereSer
                                 e -> new QualifiedAttributeID(alias, e.getValue())));
             }
 
+            /**
+             * Recursive common table expressions are not supported by Spark SQL
+             */
+            @Override
+            public QuerySerialization visit(SQLTransitiveClosureExpression sqlTransitiveClosureExpression) {
+                throw new UnsupportedOperationException("Recursive queries are not supported by Spark SQL");
+            }
+
             @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
             private String serializeSlice(Optional<Long> limit, Optional<Long> offset) {
                 if (!limit.isPresent() && !offset.isPresent())
@@ -41,6 +41,7 @@ public class OntopSQLCoreModule extends OntopAbstractModule {
                         SQLNaryJoinExpression.class,
                         SQLUnionExpression.class,
                         SQLFlattenExpression.class,
+                        SQLTransitiveClosureExpression.class,
                         SQLOneTupleDummyQueryExpression.class,
                         SQLValuesExpression.class,
                         SQLOrderComparator.class
@@ -0,0 +1,47 @@
+package it.unibz.inf.ontop.model.term.functionsymbol.db.impl;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
+import it.unibz.inf.ontop.model.term.ImmutableTerm;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.type.DBTermType;
+
+import java.util.function.Function;
+
+/**
+ * Parameter of a parameterized SQL query, whose value is bound when the query is executed.
+ *
+ * Typed with the DB type of the value, so that the surrounding expressions are serialized
+ * as for the value itself. Serialized by the SQLTermSerializer as a parameter marker
+ * (see it.unibz.inf.ontop.generation.serializer.impl.SQLParameterMarkers).
+ */
+public class SQLParameterFunctionSymbol extends AbstractTypedDBFunctionSymbol {
+
+    private final int index;
+
+    public SQLParameterFunctionSymbol(int index, DBTermType dbType) {
+        super("sqlParameter" + index + dbType.getName(), ImmutableList.of(), dbType);
+        this.index = index;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    protected boolean isAlwaysInjectiveInTheAbsenceOfNonInjectiveFunctionalTerms() {
+        return true;
+    }
+
+    @Override
+    public boolean canBePostProcessed(ImmutableList<? extends ImmutableTerm> arguments) {
+        return false;
+    }
+
+    @Override
+    public String getNativeDBString(ImmutableList<? extends ImmutableTerm> terms,
+                                    Function<ImmutableTerm, String> termConverter, TermFactory termFactory) {
+        throw new MinorOntopInternalBugException("The SQL parameter " + index
+                + " is expected to be serialized by the SQLTermSerializer");
+    }
+}
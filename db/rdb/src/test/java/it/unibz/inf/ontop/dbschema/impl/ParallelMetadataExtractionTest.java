@@ -0,0 +1,198 @@
+package it.unibz.inf.ontop.dbschema.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.injection.OntopOBDASettings;
+import it.unibz.inf.ontop.injection.OntopSQLCoreConfiguration;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Compares the metadata extracted relation by relation on a single connection
+ * with the metadata extracted with bulk column retrieval and several connections.
+ */
+public class ParallelMetadataExtractionTest {
+
+    private static final String URL = "jdbc:h2:mem:parallel_metadata";
+    private static final String USER = "sa";
+    private static final String PASSWORD = "";
+    private static final int TABLE_COUNT = 20;
+
+    private static Connection sqlConnection;
+
+    @BeforeClass
+    public static void setUp() throws SQLException {
+        sqlConnection = DriverManager.getConnection(URL, USER, PASSWORD);
+        try (Statement st = sqlConnection.createStatement()) {
+            for (int i = 0; i < TABLE_COUNT; i++) {
+                st.execute("CREATE TABLE t" + i + " (id INT PRIMARY KEY, code VARCHAR(10) NOT NULL UNIQUE, " +
+                        "amount DECIMAL(10, 2), parent INT"
+                        + ((i > 0) ? ", FOREIGN KEY (parent) REFERENCES t" + (i - 1) + "(id))" : ")"));
+            }
+        }
+    }
+
+    @AfterClass
+    public static void tearDown() throws SQLException {
+        try (Statement st = sqlConnection.createStatement()) {
+            st.execute("DROP ALL OBJECTS DELETE FILES");
+        }
+        finally {
+            sqlConnection.close();
+        }
+    }
+
+    @Test
+    public void testSameMetadata() throws Exception {
+        ImmutableMap<RelationID, String> expected = extract(1, false);
+        assertEquals(TABLE_COUNT, expected.size());
+
+        assertEquals(expected, extract(1, true));
+        assertEquals(expected, extract(4, false));
+        assertEquals(expected, extract(4, true));
+    }
+
+    /**
+     * The relations are looked up with IDs parsed as in the mapping (unquoted, lower case, without schema),
+     * while the DB metadata gives them upper case and with their schema
+     */
+    @Test
+    public void testBulkColumnExtractionUsed() throws Exception {
+        AtomicInteger getColumnsCount = new AtomicInteger(0);
+        try (Connection connection = DriverManager.getConnection(URL, USER, PASSWORD)) {
+            DBMetadataProvider provider = createMetadataProviderFactory(true)
+                    .getMetadataProvider(countGetColumnsCalls(connection, getColumnsCount));
+            QuotedIDFactory idFactory = provider.getQuotedIDFactory();
+
+            for (int i = 0; i < TABLE_COUNT; i++)
+                assertEquals(4, provider.getRelation(idFactory.createRelationID("t" + i)).getAttributes().size());
+        }
+        // All the relations of the schema at once
+        assertEquals(1, getColumnsCount.get());
+    }
+
+    /**
+     * The same relations are looked up concurrently, with and without their schema
+     */
+    @Test
+    public void testConcurrentLookups() throws Exception {
+        List<Connection> connections = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            JDBCMetadataProviderFactory metadataProviderFactory = createMetadataProviderFactory(false);
+            ImmutableList.Builder<DBMetadataProvider> builder = ImmutableList.builder();
+            for (int i = 0; i < 4; i++) {
+                Connection connection = DriverManager.getConnection(URL, USER, PASSWORD);
+                connections.add(connection);
+                builder.add(metadataProviderFactory.getMetadataProvider(connection));
+            }
+            ParallelDBMetadataProvider provider = new ParallelDBMetadataProvider(builder.build());
+            QuotedIDFactory idFactory = provider.getQuotedIDFactory();
+            CachingMetadataLookup lookup = new CachingMetadataLookup(provider, 4);
+
+            List<Future<NamedRelationDefinition>> futures = new ArrayList<>();
+            for (int i = 0; i < TABLE_COUNT; i++) {
+                RelationID tableId = idFactory.createRelationID("t" + i);
+                RelationID schemaTableId = idFactory.createRelationID("public", "t" + i);
+                futures.add(executor.submit(() -> lookup.getRelation(tableId)));
+                futures.add(executor.submit(() -> lookup.getRelation(schemaTableId)));
+            }
+            for (int i = 0; i < TABLE_COUNT; i++)
+                assertSame(futures.get(2 * i).get(), futures.get(2 * i + 1).get());
+
+            assertEquals(TABLE_COUNT, lookup.extractImmutableMetadata().getAllRelations().size());
+        }
+        finally {
+            executor.shutdownNow();
+            for (Connection connection : connections)
+                connection.close();
+        }
+    }
+
+    private static JDBCMetadataProviderFactory createMetadataProviderFactory(boolean bulkColumns) {
+        Properties properties = new Properties();
+        properties.setProperty(OntopOBDASettings.BULK_COLUMN_EXTRACTION, String.valueOf(bulkColumns));
+        return OntopSQLCoreConfiguration.defaultBuilder()
+                .jdbcUrl(URL)
+                .jdbcDriver("org.h2.Driver")
+                .properties(properties)
+                .build()
+                .getInjector()
+                .getInstance(JDBCMetadataProviderFactory.class);
+    }
+
+    private static Connection countGetColumnsCalls(Connection connection, AtomicInteger count) throws SQLException {
+        DatabaseMetaData metadata = connection.getMetaData();
+        DatabaseMetaData countingMetadata = (DatabaseMetaData) Proxy.newProxyInstance(
+                DatabaseMetaData.class.getClassLoader(), new Class<?>[] { DatabaseMetaData.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getColumns"))
+                        count.incrementAndGet();
+                    return invoke(metadata, method, args);
+                });
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> method.getName().equals("getMetaData")
+                        ? countingMetadata
+                        : invoke(connection, method, args));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        }
+        catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static ImmutableMap<RelationID, String> extract(int parallelism, boolean bulkColumns) throws Exception {
+        JDBCMetadataProviderFactory metadataProviderFactory = createMetadataProviderFactory(bulkColumns);
+
+        List<Connection> connections = new ArrayList<>();
+        try {
+            ImmutableList.Builder<DBMetadataProvider> builder = ImmutableList.builder();
+            for (int i = 0; i < parallelism; i++) {
+                Connection connection = DriverManager.getConnection(URL, USER, PASSWORD);
+                connections.add(connection);
+                builder.add(metadataProviderFactory.getMetadataProvider(connection));
+            }
+            ParallelDBMetadataProvider provider = new ParallelDBMetadataProvider(builder.build());
+
+            CachingMetadataLookup lookup = new CachingMetadataLookup(provider, parallelism);
+            for (RelationID id : provider.getRelationIDs())
+                lookup.getRelation(id);
+
+            return lookup.extractImmutableMetadata().getAllRelations().stream()
+                    .collect(ImmutableCollectors.toMap(
+                            NamedRelationDefinition::getID,
+                            r -> r.getAttributes() + " " + r.getUniqueConstraints() + " " + r.getForeignKeys()));
+        }
+        finally {
+            for (Connection connection : connections)
+                connection.close();
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package it.unibz.inf.ontop.generation;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Injector;
+import it.unibz.inf.ontop.dbschema.DBParameters;
+import it.unibz.inf.ontop.dbschema.NamedRelationDefinition;
+import it.unibz.inf.ontop.dbschema.QuotedIDFactory;
+import it.unibz.inf.ontop.dbschema.impl.OfflineMetadataProviderBuilder;
+import it.unibz.inf.ontop.dbschema.impl.SQLStandardQuotedIDFactory;
+import it.unibz.inf.ontop.injection.CoreSingletons;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.injection.OntopSQLCoreConfiguration;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.NativeNode;
+import it.unibz.inf.ontop.iq.transform.IQTree2NativeNodeGenerator;
+import it.unibz.inf.ontop.model.term.DBConstant;
+import it.unibz.inf.ontop.model.term.GroundTerm;
+import it.unibz.inf.ontop.model.term.ImmutableExpression;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.model.type.DBTypeFactory;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Replacement of the constants by JDBC placeholders when the native query is parameterized
+ */
+public class DefaultSQLIQTree2NativeNodeGeneratorTest {
+
+    private static final String URL = "jdbc:h2:mem:parameterized_native_query";
+
+    private static Connection sqlConnection;
+    private static IQTree2NativeNodeGenerator generator;
+    private static IntermediateQueryFactory iqFactory;
+    private static TermFactory termFactory;
+    private static SubstitutionFactory substitutionFactory;
+    private static DBParameters dbParameters;
+    private static NamedRelationDefinition person;
+    private static DBTermType stringType, integerType;
+    private static Variable id, name, city, label;
+
+    @BeforeClass
+    public static void setUp() throws SQLException {
+        sqlConnection = DriverManager.getConnection(URL, "sa", "");
+        try (Statement st = sqlConnection.createStatement()) {
+            st.execute("CREATE TABLE PERSON (ID INT PRIMARY KEY, NAME VARCHAR(50), CITY VARCHAR(50));" +
+                    "INSERT INTO PERSON VALUES (1, 'Alice', 'Bolzano'), (2, 'it''s ?', 'Bolzano'), " +
+                    "(3, 'it''s ?', 'Trento'), (4, 'Bolzano', 'Bolzano')");
+        }
+
+        Injector injector = OntopSQLCoreConfiguration.defaultBuilder()
+                .jdbcUrl(URL)
+                .jdbcDriver("org.h2.Driver")
+                .enableTestMode()
+                .build()
+                .getInjector();
+        generator = injector.getInstance(IQTree2NativeNodeGenerator.class);
+        iqFactory = injector.getInstance(IntermediateQueryFactory.class);
+        termFactory = injector.getInstance(TermFactory.class);
+        substitutionFactory = injector.getInstance(SubstitutionFactory.class);
+        CoreSingletons coreSingletons = injector.getInstance(CoreSingletons.class);
+
+        OfflineMetadataProviderBuilder builder = new OfflineMetadataProviderBuilder(coreSingletons);
+        stringType = builder.getDBTypeFactory().getDBStringType();
+        integerType = builder.getDBTypeFactory().getDBLargeIntegerType();
+        person = builder.createDatabaseRelation("PERSON",
+                "ID", integerType, false,
+                "NAME", stringType, true,
+                "CITY", stringType, true);
+        dbParameters = new TestDBParameters(builder.getDBTypeFactory(), coreSingletons);
+
+        id = termFactory.getVariable("id");
+        name = termFactory.getVariable("name");
+        city = termFactory.getVariable("city");
+        label = termFactory.getVariable("label");
+    }
+
+    @AfterClass
+    public static void tearDown() throws SQLException {
+        try (Statement st = sqlConnection.createStatement()) {
+            st.execute("DROP ALL OBJECTS DELETE FILES");
+        }
+        finally {
+            sqlConnection.close();
+        }
+    }
+
+    @Test
+    public void testNotParameterized() throws SQLException {
+        IQTree tree = createTree(termFactory.getStrictEquality(city, stringConstant("Bolzano")));
+        NativeNode nativeNode = generator.generate(tree, dbParameters, false);
+
+        assertTrue(nativeNode.getParameters().isEmpty());
+        assertTrue(nativeNode.getNativeQueryString().contains("'Bolzano'"));
+        assertEquals(ImmutableSet.of(1, 2, 4), execute(nativeNode));
+    }
+
+    /**
+     * The parameter values and the other string literals (here with a "?" and the value of a parameter)
+     * are left untouched
+     */
+    @Test
+    public void testPlaceholderReplacement() throws SQLException {
+        IQTree tree = createTree(termFactory.getConjunction(
+                termFactory.getStrictEquality(city, stringConstant("Bolzano")),
+                termFactory.getStrictEquality(name, stringConstant("it's ?"))));
+        NativeNode nativeNode = generator.generate(tree, dbParameters, false, true);
+
+        String sql = nativeNode.getNativeQueryString();
+        assertEquals(ImmutableList.of(stringConstant("Bolzano"), stringConstant("it's ?")),
+                nativeNode.getParameters());
+        assertFalse(sql.contains("ontop"));
+        assertFalse(sql.contains("it''s"));
+        // Only in the projected label
+        assertEquals(sql.indexOf("'Bolzano ?'") + 1, sql.indexOf("Bolzano"));
+        assertEquals(ImmutableSet.of(2), execute(nativeNode));
+    }
+
+    /**
+     * The parameters follow the positions of the "?" in the query string
+     */
+    @Test
+    public void testParameterOrder() throws SQLException {
+        DBConstant nameValue = stringConstant("it's ?");
+        DBConstant idValue = termFactory.getDBConstant("3", integerType);
+        DBConstant cityValue = stringConstant("Trento");
+        IQTree tree = createTree(termFactory.getConjunction(
+                termFactory.getStrictEquality(name, nameValue),
+                termFactory.getStrictEquality(id, idValue),
+                termFactory.getStrictEquality(city, cityValue)));
+        NativeNode nativeNode = generator.generate(tree, dbParameters, false, true);
+
+        String sql = nativeNode.getNativeQueryString();
+        ImmutableMap<DBConstant, Integer> positions = ImmutableMap.of(
+                nameValue, sql.indexOf(".NAME = ?"),
+                idValue, sql.indexOf(".ID = ?"),
+                cityValue, sql.indexOf(".CITY = ?"));
+        assertFalse(positions.containsValue(-1));
+
+        ImmutableList<DBConstant> expectedParameters = positions.keySet().stream()
+                .sorted(Comparator.comparing(positions::get))
+                .collect(ImmutableCollectors.toList());
+        assertEquals(expectedParameters, nativeNode.getParameters());
+        assertEquals(ImmutableSet.of(3), execute(nativeNode));
+    }
+
+    /**
+     * Equal constants are bound separately, once per occurrence
+     */
+    @Test
+    public void testRepeatedConstant() throws SQLException {
+        IQTree tree = createTree(termFactory.getDisjunction(
+                termFactory.getStrictEquality(name, stringConstant("Bolzano")),
+                termFactory.getStrictEquality(city, stringConstant("Bolzano"))));
+        NativeNode nativeNode = generator.generate(tree, dbParameters, false, true);
+
+        assertEquals(ImmutableList.of(stringConstant("Bolzano"), stringConstant("Bolzano")),
+                nativeNode.getParameters());
+        assertEquals(ImmutableSet.of(1, 2, 4), execute(nativeNode));
+    }
+
+    /**
+     * The parameter markers emitted by the serializer are not confused with the content of string literals
+     */
+    @Test
+    public void testMarkerInStringLiteral() throws SQLException {
+        IQTree tree = createTree(termFactory.getStrictEquality(city, stringConstant("Trento")),
+                "?/*0*/ '?/*1*/'");
+        NativeNode nativeNode = generator.generate(tree, dbParameters, false, true);
+
+        assertEquals(ImmutableList.of(stringConstant("Trento")), nativeNode.getParameters());
+        assertTrue(nativeNode.getNativeQueryString().contains("'?/*0*/ ''?/*1*/'''"));
+        assertEquals(ImmutableSet.of(3), execute(nativeNode, "?/*0*/ '?/*1*/'"));
+    }
+
+    private IQTree createTree(ImmutableExpression condition) {
+        return createTree(condition, "Bolzano ?");
+    }
+
+    private IQTree createTree(ImmutableExpression condition, String labelValue) {
+        return iqFactory.createUnaryIQTree(
+                iqFactory.createConstructionNode(ImmutableSet.of(id, name, city, label),
+                        substitutionFactory.getSubstitution(label, stringConstant(labelValue))),
+                iqFactory.createUnaryIQTree(
+                        iqFactory.createFilterNode(condition),
+                        iqFactory.createExtensionalDataNode(person, ImmutableMap.of(0, id, 1, name, 2, city))));
+    }
+
+    private DBConstant stringConstant(String value) {
+        return termFactory.getDBConstant(value, stringType);
+    }
+
+    /**
+     * Returns the IDs, after checking the label
+     */
+    private static Set<Integer> execute(NativeNode nativeNode) throws SQLException {
+        return execute(nativeNode, "Bolzano ?");
+    }
+
+    private static Set<Integer> execute(NativeNode nativeNode, String expectedLabel) throws SQLException {
+        Set<Integer> ids = new HashSet<>();
+        try (PreparedStatement statement = sqlConnection.prepareStatement(nativeNode.getNativeQueryString())) {
+            ImmutableList<GroundTerm> parameters = nativeNode.getParameters();
+            for (int i = 0; i < parameters.size(); i++)
+                statement.setObject(i + 1, ((DBConstant) parameters.get(i)).getValue());
+
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(nativeNode.getColumnNames().get(id).getName()));
+                    assertEquals(expectedLabel, rs.getString(nativeNode.getColumnNames().get(label).getName()));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static class TestDBParameters implements DBParameters {
+        private final QuotedIDFactory idFactory = new SQLStandardQuotedIDFactory();
+        private final DBTypeFactory dbTypeFactory;
+        private final CoreSingletons coreSingletons;
+
+        TestDBParameters(DBTypeFactory dbTypeFactory, CoreSingletons coreSingletons) {
+            this.dbTypeFactory = dbTypeFactory;
+            this.coreSingletons = coreSingletons;
+        }
+
+        @Override
+        public QuotedIDFactory getQuotedIDFactory() {
+            return idFactory;
+        }
+
+        @Override
+        public DBTypeFactory getDBTypeFactory() {
+            return dbTypeFactory;
+        }
+
+        @Override
+        public CoreSingletons getCoreSingletons() {
+            return coreSingletons;
+        }
+
+        @Override
+        public String getDriverName() {
+            return null;
+        }
+
+        @Override
+        public String getDriverVersion() {
+            return null;
+        }
+
+        @Override
+        public String getDbmsProductName() {
+            return null;
+        }
+
+        @Override
+        public String getDbmsVersion() {
+            return "1.4.196";
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package it.unibz.inf.ontop.generation.serializer.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.inject.Injector;
+import it.unibz.inf.ontop.dbschema.DBParameters;
+import it.unibz.inf.ontop.dbschema.NamedRelationDefinition;
+import it.unibz.inf.ontop.dbschema.QuotedIDFactory;
+import it.unibz.inf.ontop.dbschema.impl.OfflineMetadataProviderBuilder;
+import it.unibz.inf.ontop.dbschema.impl.SQLStandardQuotedIDFactory;
+import it.unibz.inf.ontop.generation.algebra.SQLAlgebraFactory;
+import it.unibz.inf.ontop.generation.algebra.SQLTransitiveClosureExpression;
+import it.unibz.inf.ontop.generation.algebra.SelectFromWhereWithModifiers;
+import it.unibz.inf.ontop.generation.serializer.SelectFromWhereSerializer;
+import it.unibz.inf.ontop.injection.CoreSingletons;
+import it.unibz.inf.ontop.injection.OntopSQLCoreConfiguration;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.term.VariableOrGroundTerm;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.model.type.DBTypeFactory;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+/**
+ * How the transitive closures (property paths) are serialized in the different SQL dialects
+ */
+public class TransitiveClosureSerializerTest {
+
+    private static final String H2_DRIVER = "org.h2.Driver";
+    private static final String POSTGRES_DRIVER = "org.postgresql.Driver";
+    private static final String ORACLE_DRIVER = "oracle.jdbc.OracleDriver";
+    private static final String SQL_SERVER_DRIVER = "com.microsoft.sqlserver.jdbc.SQLServerDriver";
+    private static final String H2_VERSION_1 = "1.4.196 (2017-06-10)";
+
+    @Test
+    public void testUnion() {
+        String sql = serializeFromConstant(POSTGRES_DRIVER, "14.1");
+        assertTrue(sql.startsWith("WITH RECURSIVE "));
+        assertTrue(sql.contains("\nUNION\n"));
+        assertFalse(sql.contains("UNION ALL"));
+        assertFalse(sql.contains("VISITED"));
+    }
+
+    @Test
+    public void testOracleCycleClause() {
+        String sql = serializeFromConstant(ORACLE_DRIVER, "19.0");
+        assertTrue(sql.contains("\nUNION ALL\n"));
+        assertTrue(sql.contains("CYCLE DST SET IS_CYCLE TO '1' DEFAULT '0'"));
+        assertTrue(sql.contains("SELECT DISTINCT "));
+        assertFalse(sql.contains("VISITED"));
+        assertFalse(sql.contains("4000"));
+    }
+
+    @Test
+    public void testOracleCycleClauseBackward() {
+        String sql = serialize(ORACLE_DRIVER, "19.0", false, false);
+        assertTrue(sql.contains("CYCLE SRC SET IS_CYCLE TO '1' DEFAULT '0'"));
+    }
+
+    @Test
+    public void testSQLServerCastVisitedNodes() {
+        String sql = serializeFromConstant(SQL_SERVER_DRIVER, "15.0");
+        assertTrue(sql.contains("\nUNION ALL\n"));
+        assertTrue(sql.contains("'|' + REPLACE(REPLACE(CAST(V3.\"et\" AS NVARCHAR(MAX)), '%', '%25'), '|', '%7C') + '|'"));
+        assertTrue(sql.contains("SELECT DISTINCT "));
+    }
+
+    /**
+     * Executed by the H2 engine of the tests (version 1)
+     */
+    @Test
+    public void testH2Version1() throws Exception {
+        String sql = serializeFromConstant(H2_DRIVER, H2_VERSION_1);
+        assertTrue(sql.contains("\nUNION ALL\n"));
+        assertEquals(ImmutableSet.of("a", "b", "s"),
+                executeOnH2(sql, "('s', 'a'), ('a', 'b'), ('b', 's'), ('c', 'd')"));
+    }
+
+    @Test
+    public void testH2Version1Backward() throws Exception {
+        String sql = serialize(H2_DRIVER, H2_VERSION_1, false, false);
+        assertEquals(ImmutableSet.of("a", "b", "c", "s"),
+                executeOnH2(sql, "('s', 'a'), ('a', 'b'), ('b', 's'), ('c', 's'), ('s', 'd')"));
+    }
+
+    /**
+     * Does not terminate on H2 version 1
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testH2Version1Join() {
+        serialize(H2_DRIVER, H2_VERSION_1, true, true);
+    }
+
+    /**
+     * A node containing the separator must not be confused with the sequence of the nodes it contains
+     */
+    @Test
+    public void testH2EscapedVisitedNodes() throws Exception {
+        String sql = serializeFromConstant(H2_DRIVER, H2_VERSION_1);
+        assertEquals(ImmutableSet.of("a|b", "a", "100%", "s"),
+                executeOnH2(sql, "('s', 'a|b'), ('a|b', 'a'), ('a', '100%'), ('100%', 's')"));
+    }
+
+    /**
+     * Returns the values of the first column
+     */
+    private static ImmutableSet<String> executeOnH2(String sql, String edges) throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:closure");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE EDGE (ES VARCHAR(10) NOT NULL, ET VARCHAR(10) NOT NULL)");
+            statement.execute("INSERT INTO EDGE VALUES " + edges);
+
+            ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+            try (ResultSet rs = statement.executeQuery(sql)) {
+                while (rs.next())
+                    builder.add(rs.getString(1));
+            }
+            return builder.build();
+        }
+    }
+
+    private static String serializeFromConstant(String jdbcDriver, String dbmsVersion) {
+        return serialize(jdbcDriver, dbmsVersion, true, false);
+    }
+
+    /**
+     * Closure of EDGE(ES, ET) from the constant 's' (forward) or to it (backward).
+     *
+     * When joined, the reached nodes are joined with the sources of the edges.
+     */
+    private static String serialize(String jdbcDriver, String dbmsVersion, boolean isForward, boolean isJoined) {
+        Injector injector = OntopSQLCoreConfiguration.defaultBuilder()
+                .jdbcUrl("jdbc:h2:mem:something")
+                .jdbcDriver(jdbcDriver)
+                .enableTestMode()
+                .build()
+                .getInjector();
+
+        SQLAlgebraFactory sqlAlgebraFactory = injector.getInstance(SQLAlgebraFactory.class);
+        SubstitutionFactory substitutionFactory = injector.getInstance(SubstitutionFactory.class);
+        TermFactory termFactory = injector.getInstance(TermFactory.class);
+        CoreSingletons coreSingletons = injector.getInstance(CoreSingletons.class);
+
+        OfflineMetadataProviderBuilder builder = new OfflineMetadataProviderBuilder(coreSingletons);
+        DBTermType stringType = builder.getDBTypeFactory().getDBStringType();
+        NamedRelationDefinition edge = builder.createDatabaseRelation("EDGE",
+                "ES", stringType, false,
+                "ET", stringType, false);
+
+        Variable es = termFactory.getVariable("es");
+        Variable et = termFactory.getVariable("et");
+        Variable v = termFactory.getVariable("v");
+        Variable w = termFactory.getVariable("w");
+        VariableOrGroundTerm node = termFactory.getDBConstant("s", stringType);
+
+        SelectFromWhereWithModifiers edges = sqlAlgebraFactory.createSelectFromWhere(ImmutableSortedSet.of(es, et),
+                substitutionFactory.getSubstitution(),
+                sqlAlgebraFactory.createSQLTable(edge, ImmutableMap.of(0, es, 1, et)),
+                Optional.empty(), ImmutableSet.of(), false, Optional.empty(), Optional.empty(), ImmutableList.of());
+
+        SQLTransitiveClosureExpression closure = sqlAlgebraFactory.createSQLTransitiveClosureExpression(edges,
+                isForward ? node : v, isForward ? v : node, es, et);
+
+        SelectFromWhereWithModifiers query = sqlAlgebraFactory.createSelectFromWhere(ImmutableSortedSet.of(v),
+                substitutionFactory.getSubstitution(),
+                isJoined
+                        ? sqlAlgebraFactory.createSQLNaryJoinExpression(ImmutableList.of(closure,
+                                sqlAlgebraFactory.createSQLTable(edge, ImmutableMap.of(0, v, 1, w))))
+                        : closure,
+                Optional.empty(), ImmutableSet.of(), false, Optional.empty(), Optional.empty(), ImmutableList.of());
+
+        SelectFromWhereSerializer serializer = injector.getInstance(SelectFromWhereSerializer.class);
+        return serializer.serialize(query, new TestDBParameters(builder.getDBTypeFactory(), coreSingletons, dbmsVersion))
+                .getString();
+    }
+
+    private static class TestDBParameters implements DBParameters {
+        private final QuotedIDFactory idFactory = new SQLStandardQuotedIDFactory();
+        private final DBTypeFactory dbTypeFactory;
+        private final CoreSingletons coreSingletons;
+        private final String dbmsVersion;
+
+        TestDBParameters(DBTypeFactory dbTypeFactory, CoreSingletons coreSingletons, String dbmsVersion) {
+            this.dbTypeFactory = dbTypeFactory;
+            this.coreSingletons = coreSingletons;
+            this.dbmsVersion = dbmsVersion;
+        }
+
+        @Override
+        public QuotedIDFactory getQuotedIDFactory() {
+            return idFactory;
+        }
+
+        @Override
+        public DBTypeFactory getDBTypeFactory() {
+            return dbTypeFactory;
+        }
+
+        @Override
+        public CoreSingletons getCoreSingletons() {
+            return coreSingletons;
+        }
+
+        @Override
+        public String getDriverName() {
+            return null;
+        }
+
+        @Override
+        public String getDriverVersion() {
+            return null;
+        }
+
+        @Override
+        public String getDbmsProductName() {
+            return null;
+        }
+
+        @Override
+        public String getDbmsVersion() {
+            return dbmsVersion;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package it.unibz.inf.ontop.answering.logging;
+
+import com.google.common.collect.ImmutableList;
+
+import java.io.IOException;
+
+/**
+ * Writes serialized query log messages (one per line) to their final destination.
+ *
+ * Must be thread-safe.
+ */
+public interface QueryLogAppender extends AutoCloseable {
+
+    /**
+     * Writes and flushes a batch of messages
+     */
+    void append(ImmutableList<String> messages) throws IOException;
+
+    /**
+     * By default, nothing to release
+     */
+    @Override
+    default void close() throws IOException {
+    }
+}
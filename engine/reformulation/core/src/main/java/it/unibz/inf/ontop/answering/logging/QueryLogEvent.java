@@ -0,0 +1,17 @@
+package it.unibz.inf.ontop.answering.logging;
+
+import javax.annotation.Nullable;
+
+/**
+ * Immutable message of a query logger.
+ *
+ * Created on the query thread, serialized by the QueryLogSink (possibly by another thread).
+ */
+public interface QueryLogEvent {
+
+    /**
+     * Returns null if the message could not be serialized
+     */
+    @Nullable
+    String serialize();
+}
@@ -0,0 +1,28 @@
+package it.unibz.inf.ontop.answering.logging;
+
+/**
+ * Receives the messages of all the query loggers and forwards them to a QueryLogAppender.
+ *
+ * Shared by the query loggers (singleton).
+ */
+public interface QueryLogSink extends AutoCloseable {
+
+    /**
+     * The event is serialized at most once, possibly by another thread.
+     */
+    void submit(QueryLogEvent event);
+
+    /**
+     * Number of messages that have been dropped since the creation of the sink
+     * (e.g. because its buffer was full or because of an I/O exception).
+     */
+    long getDroppedMessageCount();
+
+    /**
+     * Writes the pending messages and releases the resources (threads, files).
+     *
+     * Called when the query engine is closed.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,199 @@
+package it.unibz.inf.ontop.answering.logging.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.answering.logging.QueryLogAppender;
+import it.unibz.inf.ontop.answering.logging.QueryLogEvent;
+import it.unibz.inf.ontop.answering.logging.QueryLogSink;
+import it.unibz.inf.ontop.injection.OntopReformulationSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Query threads only enqueue the (immutable) events into a bounded buffer.
+ * A background thread serializes the events and writes them in batches.
+ *
+ * When the buffer is full, the message is dropped, unless the setting
+ * ontop.queryLogging.blockWhenBufferFull is enabled (the query thread then waits).
+ *
+ * The background thread is only started when the first message is submitted.
+ * Pending messages are written when the sink is closed (i.e. when the query engine is closed),
+ * but not if the JVM exits before.
+ */
+@Singleton
+public class AsyncQueryLogSink implements QueryLogSink {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncQueryLogSink.class);
+    private static final int MAX_BATCH_SIZE = 256;
+    // Enqueued by close(): the background thread stops after having written the messages before it
+    private static final QueryLogEvent END_OF_STREAM = () -> null;
+
+    private final QueryLogAppender appender;
+    private final BlockingQueue<QueryLogEvent> buffer;
+    private final boolean blockWhenFull;
+    private final AtomicLong droppedMessageCount;
+    private final AtomicBoolean started;
+    private final AtomicBoolean closed;
+
+    // LAZY
+    @Nullable
+    private volatile Thread writerThread;
+
+    @Inject
+    protected AsyncQueryLogSink(QueryLogAppender appender, OntopReformulationSettings settings) {
+        this(appender, settings.getQueryLogBufferSize(), settings.isQueryLoggingBlockingWhenBufferFull());
+    }
+
+    AsyncQueryLogSink(QueryLogAppender appender, int bufferSize, boolean blockWhenFull) {
+        this.appender = appender;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.blockWhenFull = blockWhenFull;
+        this.droppedMessageCount = new AtomicLong();
+        this.started = new AtomicBoolean(false);
+        this.closed = new AtomicBoolean(false);
+    }
+
+    @Override
+    public void submit(QueryLogEvent event) {
+        if (closed.get()) {
+            droppedMessageCount.incrementAndGet();
+            return;
+        }
+
+        if (!started.get() && started.compareAndSet(false, true))
+            start();
+
+        if (blockWhenFull) {
+            try {
+                buffer.put(event);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                droppedMessageCount.incrementAndGet();
+            }
+        }
+        else if (!buffer.offer(event)) {
+            if (droppedMessageCount.incrementAndGet() == 1)
+                LOGGER.warn("The query log buffer is full: messages are being dropped");
+        }
+    }
+
+    private synchronized void start() {
+        if (closed.get())
+            return;
+        Thread thread = new Thread(this::run, "ontop-query-logger");
+        thread.setDaemon(true);
+        thread.start();
+        writerThread = thread;
+    }
+
+    private void run() {
+        List<QueryLogEvent> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (true) {
+            try {
+                batch.add(buffer.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            buffer.drainTo(batch, MAX_BATCH_SIZE - 1);
+
+            int endIndex = batch.indexOf(END_OF_STREAM);
+            if (endIndex >= 0) {
+                write(batch.subList(0, endIndex));
+                return;
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Stops the background thread once it has written the pending messages, and then closes the appender.
+     *
+     * The messages submitted afterwards are dropped.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true))
+            return;
+
+        try {
+            Thread thread;
+            synchronized (this) {
+                thread = writerThread;
+            }
+            if (thread != null) {
+                buffer.put(END_OF_STREAM);
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Submitted concurrently with the closing
+        flush();
+
+        try {
+            appender.close();
+        } catch (IOException e) {
+            LOGGER.error("Problem while closing the query log appender: " + e);
+        }
+    }
+
+    /**
+     * Writes the messages remaining in the buffer
+     */
+    private void flush() {
+        List<QueryLogEvent> batch = new ArrayList<>();
+        buffer.drainTo(batch);
+        batch.remove(END_OF_STREAM);
+        if (!batch.isEmpty())
+            write(batch);
+    }
+
+    private void write(List<QueryLogEvent> batch) {
+        ImmutableList.Builder<String> messageBuilder = ImmutableList.builder();
+        for (QueryLogEvent event : batch) {
+            String message = serialize(event);
+            if (message == null)
+                droppedMessageCount.incrementAndGet();
+            else
+                messageBuilder.add(message);
+        }
+        ImmutableList<String> messages = messageBuilder.build();
+        if (messages.isEmpty())
+            return;
+
+        try {
+            appender.append(messages);
+        } catch (IOException e) {
+            droppedMessageCount.addAndGet(messages.size());
+            LOGGER.error("Problem with the query log appender: " + e);
+        }
+    }
+
+    @Nullable
+    private String serialize(QueryLogEvent event) {
+        try {
+            return event.serialize();
+        } catch (RuntimeException e) {
+            // Must not stop the background thread
+            LOGGER.error("Problem while serializing a query log message: " + e);
+            return null;
+        }
+    }
+
+    @Override
+    public long getDroppedMessageCount() {
+        return droppedMessageCount.get();
+    }
+}
@@ -0,0 +1,288 @@
+package it.unibz.inf.ontop.answering.logging.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hashing;
+import it.unibz.inf.ontop.answering.logging.QueryLogEvent;
+import it.unibz.inf.ontop.answering.logging.impl.QueryTemplateExtractor.QueryTemplateExtraction;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.model.term.GroundTerm;
+import it.unibz.inf.ontop.model.term.Variable;
+import org.apache.commons.rdf.api.IRI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+import static it.unibz.inf.ontop.answering.logging.impl.QueryLoggerImpl.*;
+
+/**
+ * Message of QueryLoggerImpl, serialized in JSON (one line).
+ *
+ * Only holds values that are not modified after its creation (e.g. the reformulated query):
+ * their serialization is left to the sink.
+ */
+public class JsonQueryLogEvent implements QueryLogEvent {
+
+    // Thread-safe (unlike SimpleDateFormat)
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX")
+            .withZone(ZoneId.systemDefault());
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final Logger REGULAR_LOGGER = LoggerFactory.getLogger(JsonQueryLogEvent.class);
+
+    private final String message;
+    private final long time;
+    private final String applicationName;
+    private final UUID queryId;
+    private final ImmutableList<Payload> payloads;
+
+    JsonQueryLogEvent(String message, long time, String applicationName, UUID queryId, Payload... payloads) {
+        this.message = message;
+        this.time = time;
+        this.applicationName = applicationName;
+        this.queryId = queryId;
+        this.payloads = ImmutableList.copyOf(payloads);
+    }
+
+    @Nullable
+    @Override
+    public String serialize() {
+        StringWriter stringWriter = new StringWriter();
+        try (JsonGenerator js = JSON_FACTORY.createGenerator(stringWriter)) {
+            js.writeStartObject();
+            js.writeStringField(TIMESTAMP_KEY, DATE_FORMAT.format(Instant.ofEpochMilli(time)));
+            js.writeStringField(MESSAGE_KEY, message);
+            js.writeStringField(APPLICATION_KEY, applicationName);
+            js.writeObjectFieldStart(PAYLOAD_KEY);
+            js.writeStringField(QUERY_ID_KEY, queryId.toString());
+            for (Payload payload : payloads)
+                payload.write(js);
+            js.writeEndObject();
+            js.writeEndObject();
+        } catch (IOException e) {
+            REGULAR_LOGGER.error(OUTPUT_STREAM_JSON_ERROR + e);
+            return null;
+        }
+        return stringWriter.toString();
+    }
+
+    /**
+     * Fields of the payload, immutable
+     */
+    interface Payload {
+        void write(JsonGenerator js) throws IOException;
+    }
+
+
+    static class ReformulationPayload implements Payload {
+        @Nullable
+        private final ImmutableSet<IRI> classes, properties;
+        @Nullable
+        private final ImmutableSet<String> relationNames;
+        private final long reformulationDuration;
+        private final boolean wasCached;
+        private final ImmutableMultimap<String, String> httpHeaders;
+        private final ImmutableSet<String> httpHeaderNamesToLog;
+        @Nullable
+        private final QueryTemplateExtraction queryTemplate;
+        @Nullable
+        private final String predefinedQueryId;
+        @Nullable
+        private final ImmutableMap<String, String> bindings;
+        @Nullable
+        private final String sparqlQuery;
+        @Nullable
+        private final IQ reformulatedQuery;
+
+        ReformulationPayload(@Nullable ImmutableSet<IRI> classes, @Nullable ImmutableSet<IRI> properties,
+                             @Nullable ImmutableSet<String> relationNames, long reformulationDuration,
+                             boolean wasCached, ImmutableMultimap<String, String> httpHeaders,
+                             ImmutableSet<String> httpHeaderNamesToLog,
+                             @Nullable QueryTemplateExtraction queryTemplate,
+                             @Nullable String predefinedQueryId, @Nullable ImmutableMap<String, String> bindings,
+                             @Nullable String sparqlQuery, @Nullable IQ reformulatedQuery) {
+            this.classes = classes;
+            this.properties = properties;
+            this.relationNames = relationNames;
+            this.reformulationDuration = reformulationDuration;
+            this.wasCached = wasCached;
+            this.httpHeaders = httpHeaders;
+            this.httpHeaderNamesToLog = httpHeaderNamesToLog;
+            this.queryTemplate = queryTemplate;
+            this.predefinedQueryId = predefinedQueryId;
+            this.bindings = bindings;
+            this.sparqlQuery = sparqlQuery;
+            this.reformulatedQuery = reformulatedQuery;
+        }
+
+        @Override
+        public void write(JsonGenerator js) throws IOException {
+            // Classes
+            if (classes != null) {
+                js.writeArrayFieldStart(CLASSES_KEY);
+                for (IRI klass : classes)
+                    js.writeString(klass.getIRIString());
+                js.writeEndArray();
+            }
+            // Properties
+            if (properties != null) {
+                js.writeArrayFieldStart(PROPERTIES_KEY);
+                for (IRI p : properties)
+                    js.writeString(p.getIRIString());
+                js.writeEndArray();
+            }
+            // Relations
+            if (relationNames != null) {
+                js.writeArrayFieldStart(TABLES_KEY);
+                for (String n : relationNames)
+                    js.writeString(n);
+                js.writeEndArray();
+            }
+            js.writeNumberField(REFORMULATION_DURATION_KEY, reformulationDuration);
+            js.writeBooleanField(REFORMULATION_CACHE_HIT_KEY, wasCached);
+
+            writeHttpHeaders(js);
+            writeQueryTemplateExtraction(js);
+            writePredefinedQueryInfo(js);
+
+            if (sparqlQuery != null)
+                js.writeStringField(SPARQL_QUERY_KEY, sparqlQuery);
+            if (reformulatedQuery != null)
+                js.writeStringField(REFORMULATED_QUERY_KEY, reformulatedQuery.toString());
+        }
+
+        private void writeHttpHeaders(JsonGenerator js) throws IOException {
+            js.writeObjectFieldStart(HTTP_HEADERS_KEY);
+
+            for (Map.Entry<String, Collection<String>> e : httpHeaders.asMap().entrySet()) {
+                String normalizedKey = e.getKey().toLowerCase();
+                if (httpHeaderNamesToLog.contains(normalizedKey)) {
+                    // We only consider the first value
+                    js.writeStringField(normalizedKey, e.getValue().iterator().next());
+                }
+            }
+            js.writeEndObject();
+        }
+
+        private void writeQueryTemplateExtraction(JsonGenerator js) throws IOException {
+            if (queryTemplate == null)
+                return;
+            js.writeObjectFieldStart(QUERY_TEMPLATE_KEY);
+
+            // TODO: update Guava
+            @SuppressWarnings("UnstableApiUsage")
+            String iqHash = Hashing.sha256()
+                    .hashString(queryTemplate.getIq().toString(), StandardCharsets.UTF_8)
+                    .toString();
+            js.writeStringField(HASH_KEY, iqHash);
+
+            js.writeObjectFieldStart(PARAMETERS_KEY);
+            for (Map.Entry<GroundTerm, Variable> e : queryTemplate.getParameterMap().entrySet()) {
+                js.writeStringField(e.getValue().toString(), e.getKey().toString());
+            }
+            js.writeEndObject();
+            js.writeEndObject();
+        }
+
+        private void writePredefinedQueryInfo(JsonGenerator js) throws IOException {
+            if (predefinedQueryId == null || bindings == null)
+                return;
+            js.writeObjectFieldStart(PREDEFINED_KEY);
+
+            js.writeStringField(PREDEFINED_QUERY_KEY, predefinedQueryId);
+
+            js.writeObjectFieldStart(BINDINGS_KEY);
+            for (Map.Entry<String, String> e : bindings.entrySet()) {
+                js.writeStringField(e.getKey(), e.getValue());
+            }
+            js.writeEndObject();
+            js.writeEndObject();
+        }
+    }
+
+
+    static class ResultSetUnblockedPayload implements Payload {
+        private final long reformulationTime;
+        private final long unblockedResultSetTime;
+
+        /**
+         * reformulationTime is -1 when not provided (e.g. for DESCRIBE)
+         */
+        ResultSetUnblockedPayload(long reformulationTime, long unblockedResultSetTime) {
+            this.reformulationTime = reformulationTime;
+            this.unblockedResultSetTime = unblockedResultSetTime;
+        }
+
+        @Override
+        public void write(JsonGenerator js) throws IOException {
+            if (reformulationTime != -1)
+                js.writeNumberField(EXECUTION_BEFORE_UNBLOCKING_DURATION_KEY, unblockedResultSetTime - reformulationTime);
+        }
+    }
+
+
+    static class LastResultFetchedPayload implements Payload {
+        private final long creationTime;
+        private final long reformulationTime;
+        private final long lastResultFetchedTime;
+        private final long resultCount;
+
+        /**
+         * reformulationTime is -1 when not provided (e.g. for DESCRIBE)
+         */
+        LastResultFetchedPayload(long creationTime, long reformulationTime, long lastResultFetchedTime,
+                                 long resultCount) {
+            this.creationTime = creationTime;
+            this.reformulationTime = reformulationTime;
+            this.lastResultFetchedTime = lastResultFetchedTime;
+            this.resultCount = resultCount;
+        }
+
+        @Override
+        public void write(JsonGenerator js) throws IOException {
+            if (reformulationTime != -1)
+                js.writeNumberField(EXECUTION_AND_FETCHING_DURATION_KEY, lastResultFetchedTime - reformulationTime);
+            js.writeNumberField(TOTAL_DURATION_KEY, lastResultFetchedTime - creationTime);
+            js.writeNumberField(RESULT_COUNT_KEY, resultCount);
+        }
+    }
+
+
+    static class ExceptionPayload implements Payload {
+        @Nullable
+        private final String exceptionMessage;
+        @Nullable
+        private final String sparqlQuery;
+        @Nullable
+        private final IQ reformulatedQuery;
+
+        ExceptionPayload(@Nullable String exceptionMessage, @Nullable String sparqlQuery,
+                         @Nullable IQ reformulatedQuery) {
+            this.exceptionMessage = exceptionMessage;
+            this.sparqlQuery = sparqlQuery;
+            this.reformulatedQuery = reformulatedQuery;
+        }
+
+        @Override
+        public void write(JsonGenerator js) throws IOException {
+            js.writeStringField(EXCEPTION_KEY, exceptionMessage);
+            if (sparqlQuery != null)
+                js.writeStringField(SPARQL_QUERY_KEY, sparqlQuery);
+            if (reformulatedQuery != null)
+                js.writeStringField(REFORMULATED_QUERY_KEY, reformulatedQuery.toString());
+        }
+    }
+}
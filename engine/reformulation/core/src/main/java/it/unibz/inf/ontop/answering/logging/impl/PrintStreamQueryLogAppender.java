@@ -0,0 +1,33 @@
+package it.unibz.inf.ontop.answering.logging.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.answering.logging.QueryLogAppender;
+
+import java.io.PrintStream;
+
+/**
+ * By default, writes to the standard output
+ */
+@Singleton
+public class PrintStreamQueryLogAppender implements QueryLogAppender {
+
+    private final PrintStream outputStream;
+
+    @Inject
+    protected PrintStreamQueryLogAppender() {
+        this(System.out);
+    }
+
+    public PrintStreamQueryLogAppender(PrintStream outputStream) {
+        this.outputStream = outputStream;
+    }
+
+    @Override
+    public synchronized void append(ImmutableList<String> messages) {
+        for (String message : messages)
+            outputStream.println(message);
+        outputStream.flush();
+    }
+}
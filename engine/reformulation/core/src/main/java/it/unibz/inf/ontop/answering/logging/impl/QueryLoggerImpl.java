@@ -1,36 +1,23 @@
 package it.unibz.inf.ontop.answering.logging.impl;
 
-import com.fasterxml.jackson.core.JsonFactory;
-import com.fasterxml.jackson.core.JsonGenerator;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.hash.Hashing;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
+import it.unibz.inf.ontop.answering.logging.QueryLogSink;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
 import it.unibz.inf.ontop.answering.logging.impl.ClassAndPropertyExtractor.ClassesAndProperties;
+import it.unibz.inf.ontop.answering.logging.impl.JsonQueryLogEvent.*;
 import it.unibz.inf.ontop.answering.logging.impl.QueryTemplateExtractor.QueryTemplateExtraction;
 import it.unibz.inf.ontop.exception.OntopReformulationException;
 import it.unibz.inf.ontop.injection.OntopReformulationSettings;
 import it.unibz.inf.ontop.iq.IQ;
-import it.unibz.inf.ontop.model.term.GroundTerm;
-import it.unibz.inf.ontop.model.term.Variable;
 import it.unibz.inf.ontop.spec.ontology.InconsistentOntologyException;
 import org.apache.commons.rdf.api.IRI;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
-import java.io.IOException;
 import java.io.PrintStream;
-import java.io.StringWriter;
-import java.nio.charset.StandardCharsets;
-import java.sql.Timestamp;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Collection;
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -74,19 +61,14 @@ public class QueryLoggerImpl implements QueryLogger {
     protected static final String PREDEFINED_QUERY_KEY = "queryId";
     protected static final String BINDINGS_KEY = "bindings";
 
-    private static final DateFormat  DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
-    private static final Logger REGULAR_LOGGER = LoggerFactory.getLogger(QueryLoggerImpl.class);
-    ;
-
 
     private final UUID queryId;
     private final long creationTime;
-    private final PrintStream outputStream;
+    private final QueryLogSink sink;
     private final ImmutableMultimap<String, String> httpHeaders;
     private final OntopReformulationSettings settings;
     private final boolean disabled;
     private final String applicationName;
-    private final JsonFactory jsonFactory;
     private final boolean isDecompositionEnabled;
     private final boolean isMergingEnabled;
     private long reformulationTime;
@@ -122,15 +104,27 @@ public class QueryLoggerImpl implements QueryLogger {
                               OntopReformulationSettings settings,
                               ClassAndPropertyExtractor classAndPropertyExtractor,
                               RelationNameExtractor relationNameExtractor,
-                              QueryTemplateExtractor queryTemplateExtractor) {
-        this(System.out, httpHeaders, settings, classAndPropertyExtractor, relationNameExtractor, queryTemplateExtractor);
+                              QueryTemplateExtractor queryTemplateExtractor,
+                              QueryLogSink sink) {
+        this(sink, httpHeaders, settings, classAndPropertyExtractor, relationNameExtractor, queryTemplateExtractor);
     }
 
+    /**
+     * Writes synchronously to the output stream
+     */
     protected QueryLoggerImpl(PrintStream outputStream, ImmutableMultimap<String, String> httpHeaders,
                               OntopReformulationSettings settings,
                               ClassAndPropertyExtractor classAndPropertyExtractor,
                               RelationNameExtractor relationNameExtractor, QueryTemplateExtractor queryTemplateExtractor) {
-        this.outputStream = outputStream;
+        this(new SynchronousQueryLogSink(new PrintStreamQueryLogAppender(outputStream)), httpHeaders, settings,
+                classAndPropertyExtractor, relationNameExtractor, queryTemplateExtractor);
+    }
+
+    protected QueryLoggerImpl(QueryLogSink sink, ImmutableMultimap<String, String> httpHeaders,
+                              OntopReformulationSettings settings,
+                              ClassAndPropertyExtractor classAndPropertyExtractor,
+                              RelationNameExtractor relationNameExtractor, QueryTemplateExtractor queryTemplateExtractor) {
+        this.sink = sink;
         this.httpHeaders = httpHeaders;
         this.settings = settings;
         this.classAndPropertyExtractor = classAndPropertyExtractor;
@@ -141,7 +135,6 @@ public class QueryLoggerImpl implements QueryLogger {
         applicationName = settings.getApplicationName();
         reformulationTime = -1;
         unblockedResulSetTime = -1;
-        jsonFactory = new JsonFactory();
 
         this.disabled = !settings.isQueryLoggingEnabled();
         this.isDecompositionEnabled = settings.isQueryLoggingDecompositionEnabled();
@@ -155,23 +148,9 @@ public class QueryLoggerImpl implements QueryLogger {
 
         reformulationTime = System.currentTimeMillis();
 
-        if (isDecompositionEnabled) {
-            StringWriter stringWriter = new StringWriter();
-            try (JsonGenerator js = jsonFactory.createGenerator(stringWriter)) {
-                js.writeStartObject();
-                js.writeStringField(TIMESTAMP_KEY, serializeTimestamp(System.currentTimeMillis()));
-                js.writeStringField(MESSAGE_KEY, QUERY_REFORMULATED);
-                js.writeStringField(APPLICATION_KEY, applicationName);
-                js.writeObjectFieldStart(PAYLOAD_KEY);
-                js.writeStringField(QUERY_ID_KEY, queryId.toString());
-                writeReformulationSpecificFields(reformulatedQuery, wasCached, js);
-                js.writeEndObject();
-                js.writeEndObject();
-            } catch (IOException ex) {
-                REGULAR_LOGGER.error(OUTPUT_STREAM_JSON_ERROR + ex);
-            }
-            outputStream.println(stringWriter.toString());
-        }
+        if (isDecompositionEnabled)
+            submitEvent(QUERY_REFORMULATED, reformulationTime,
+                    createReformulationPayload(reformulatedQuery, wasCached));
 
         if (isMergingEnabled) {
             this.reformulatedQuery = reformulatedQuery;
@@ -180,89 +159,14 @@ public class QueryLoggerImpl implements QueryLogger {
 
     }
 
-    protected void writeReformulationSpecificFields(IQ reformulatedQuery, boolean wasCached, JsonGenerator js) throws IOException {
-        // Classes
-        if (classes != null) {
-            js.writeArrayFieldStart(CLASSES_KEY);
-            for (IRI klass : classes)
-                js.writeString(klass.getIRIString());
-            js.writeEndArray();
-        }
-        // Properties
-        if (properties != null) {
-            js.writeArrayFieldStart(PROPERTIES_KEY);
-            for (IRI p : properties)
-                js.writeString(p.getIRIString());
-            js.writeEndArray();
-        }
-        // Relations
-        if (relationNames != null) {
-            js.writeArrayFieldStart(TABLES_KEY);
-            for (String n : relationNames)
-                js.writeString(n);
-            js.writeEndArray();
-        }
-        js.writeNumberField(REFORMULATION_DURATION_KEY, reformulationTime - creationTime);
-        js.writeBooleanField(REFORMULATION_CACHE_HIT_KEY, wasCached);
-
-        writeHttpHeaders(js);
-        writeQueryTemplateExtraction(js);
-        writePredefinedQueryInfo(js);
-
-        if (sparqlQueryString != null)
-            js.writeStringField(SPARQL_QUERY_KEY, sparqlQueryString);
-        if (settings.isReformulatedQueryIncludedIntoQueryLog())
-            js.writeStringField(REFORMULATED_QUERY_KEY, reformulatedQuery.toString());
-    }
-
-    private void writeHttpHeaders(JsonGenerator js) throws IOException {
-        js.writeObjectFieldStart(HTTP_HEADERS_KEY);
-        ImmutableSet<String> namesToLog = settings.getHttpHeaderNamesToLog();
-
-        for (Map.Entry<String, Collection<String>> e : httpHeaders.asMap().entrySet()) {
-            String normalizedKey = e.getKey().toLowerCase();
-            if (namesToLog.contains(normalizedKey)) {
-                // We only consider the first value
-                js.writeStringField(normalizedKey, e.getValue().iterator().next());
-            }
-        }
-        js.writeEndObject();
-    }
-
-    private void writeQueryTemplateExtraction(JsonGenerator js) throws IOException {
-        if (queryTemplate == null)
-            return;
-        js.writeObjectFieldStart(QUERY_TEMPLATE_KEY);
-
-        // TODO: update Guava
-        @SuppressWarnings("UnstableApiUsage")
-        String iqHash = Hashing.sha256()
-                .hashString(queryTemplate.getIq().toString(), StandardCharsets.UTF_8)
-                .toString();
-        js.writeStringField(HASH_KEY, iqHash);
-
-        js.writeObjectFieldStart(PARAMETERS_KEY);
-        for (Map.Entry<GroundTerm, Variable> e : queryTemplate.getParameterMap().entrySet()) {
-            js.writeStringField(e.getValue().toString(), e.getKey().toString());
-        }
-        js.writeEndObject();
-        js.writeEndObject();
-    }
-
-    private void writePredefinedQueryInfo(JsonGenerator js) throws IOException {
-        if (predefinedQueryId == null || bindings == null)
-            return;
-        js.writeObjectFieldStart(PREDEFINED_KEY);
-
-        js.writeStringField(PREDEFINED_QUERY_KEY, predefinedQueryId);
-
-        js.writeObjectFieldStart(BINDINGS_KEY);
-        for (Map.Entry<String, String> e : bindings.entrySet()) {
-            js.writeStringField(e.getKey(), e.getValue());
-        }
-        js.writeEndObject();
-        js.writeEndObject();
-
+    /**
+     * Snapshot of the current state of the logger
+     */
+    protected ReformulationPayload createReformulationPayload(IQ reformulatedQuery, boolean wasCached) {
+        return new ReformulationPayload(classes, properties, relationNames, reformulationTime - creationTime,
+                wasCached, httpHeaders, settings.getHttpHeaderNamesToLog(), queryTemplate, predefinedQueryId,
+                bindings, sparqlQueryString,
+                settings.isReformulatedQueryIncludedIntoQueryLog() ? reformulatedQuery : null);
     }
 
     @Override
@@ -271,31 +175,9 @@ public class QueryLoggerImpl implements QueryLogger {
             return;
         unblockedResulSetTime = System.currentTimeMillis();
 
-        if (isDecompositionEnabled) {
-
-            StringWriter stringWriter = new StringWriter();
-            try (JsonGenerator js = jsonFactory.createGenerator(stringWriter)) {
-                js.writeStartObject();
-                js.writeStringField(TIMESTAMP_KEY, serializeTimestamp(unblockedResulSetTime));
-                js.writeStringField(MESSAGE_KEY, QUERY_RESULT_SET_UNBLOCKED);
-                js.writeStringField(APPLICATION_KEY, applicationName);
-                js.writeObjectFieldStart(PAYLOAD_KEY);
-                js.writeStringField(QUERY_ID_KEY, queryId.toString());
-                writeResultSetUnblockedSpecificFields(js);
-                js.writeEndObject();
-                js.writeEndObject();
-            } catch (IOException e) {
-                REGULAR_LOGGER.error(OUTPUT_STREAM_JSON_ERROR + e);
-                return;
-            }
-            outputStream.println(stringWriter.toString());
-        }
-    }
-
-    protected void writeResultSetUnblockedSpecificFields(JsonGenerator js) throws IOException {
-        // For DESCRIBE, reformulation time is not provided
-        if (reformulationTime != -1)
-            js.writeNumberField(EXECUTION_BEFORE_UNBLOCKING_DURATION_KEY, unblockedResulSetTime - reformulationTime);
+        if (isDecompositionEnabled)
+            submitEvent(QUERY_RESULT_SET_UNBLOCKED, unblockedResulSetTime,
+                    new ResultSetUnblockedPayload(reformulationTime, unblockedResulSetTime));
     }
 
     @Override
@@ -307,38 +189,15 @@ public class QueryLoggerImpl implements QueryLogger {
         if (unblockedResulSetTime == -1)
             throw new IllegalStateException("Result set should have been declared as unblocked");
 
-        if (isDecompositionEnabled) {
-
-            StringWriter stringWriter = new StringWriter();
-            try (JsonGenerator js = jsonFactory.createGenerator(stringWriter)) {
-                js.writeStartObject();
-                js.writeStringField(TIMESTAMP_KEY, serializeTimestamp(lastResultFetchedTime));
-                js.writeStringField(MESSAGE_KEY, QUERY_LAST_RESULT_FETCHED);
-                js.writeStringField(APPLICATION_KEY, applicationName);
-                js.writeObjectFieldStart(PAYLOAD_KEY);
-                js.writeStringField(QUERY_ID_KEY, queryId.toString());
-                writeLastResultRetrievedSpecificFields(js, lastResultFetchedTime, resultCount);
-                js.writeEndObject();
-                js.writeEndObject();
-            } catch (IOException e) {
-                REGULAR_LOGGER.error(OUTPUT_STREAM_JSON_ERROR + e);
-            }
-            outputStream.println(stringWriter.toString());
-        }
+        if (isDecompositionEnabled)
+            submitEvent(QUERY_LAST_RESULT_FETCHED, lastResultFetchedTime,
+                    new LastResultFetchedPayload(creationTime, reformulationTime, lastResultFetchedTime, resultCount));
 
         if (isMergingEnabled) {
             serializeMergedMessage(lastResultFetchedTime, resultCount);
         }
     }
 
-    protected void writeLastResultRetrievedSpecificFields(JsonGenerator js, long lastResultFetchedTime, long resultCount) throws IOException {
-        // For DESCRIBE, reformulation time is not provided
-        if (reformulationTime != -1)
-            js.writeNumberField(EXECUTION_AND_FETCHING_DURATION_KEY, lastResultFetchedTime - reformulationTime);
-        js.writeNumberField(TOTAL_DURATION_KEY, lastResultFetchedTime - creationTime);
-        js.writeNumberField(RESULT_COUNT_KEY, resultCount);
-    }
-
     @Override
     public void declareReformulationException(OntopReformulationException e) {
         declareException(e, REFORMATION_EXC_MSG);
@@ -409,53 +268,31 @@ public class QueryLoggerImpl implements QueryLogger {
         if (disabled)
             return;
 
-        StringWriter stringWriter = new StringWriter();
-        try (JsonGenerator js = jsonFactory.createGenerator(stringWriter)) {
-            js.writeStartObject();
-            js.writeStringField(TIMESTAMP_KEY, serializeTimestamp(System.currentTimeMillis()));
-            js.writeStringField(MESSAGE_KEY, exceptionType);
-            js.writeStringField(APPLICATION_KEY, applicationName);
-            js.writeObjectFieldStart(PAYLOAD_KEY);
-            js.writeStringField(QUERY_ID_KEY, queryId.toString());
-            js.writeStringField(EXCEPTION_KEY, e.getMessage());
-            if (sparqlQueryString != null)
-                js.writeStringField(SPARQL_QUERY_KEY, sparqlQueryString);
-            if (reformulatedQuery != null)
-                js.writeStringField(REFORMULATED_QUERY_KEY, reformulatedQuery.toString());
-            js.writeEndObject();
-            js.writeEndObject();
-        } catch (IOException ex) {
-            REGULAR_LOGGER.error(OUTPUT_STREAM_JSON_ERROR + ex);
-        }
-        outputStream.println(stringWriter.toString());
+        submitEvent(exceptionType, System.currentTimeMillis(),
+                new ExceptionPayload(e.getMessage(), sparqlQueryString, reformulatedQuery));
     }
 
-    protected String serializeTimestamp(long time) {
-        return DATE_FORMAT.format(new Timestamp(time));
+    /**
+     * The event is serialized later, possibly by another thread
+     */
+    protected void submitEvent(String message, long time, Payload... payloads) {
+        sink.submit(new JsonQueryLogEvent(message, time, applicationName, queryId, payloads));
     }
 
     /**
      * Optional summary message
      */
     protected void serializeMergedMessage(long lastResultFetchedTime, long resultCount) {
-        StringWriter stringWriter = new StringWriter();
-        try (JsonGenerator js = jsonFactory.createGenerator(stringWriter)) {
-            js.writeStartObject();
-            js.writeStringField(TIMESTAMP_KEY, serializeTimestamp(lastResultFetchedTime));
-            js.writeStringField(MESSAGE_KEY, MERGED_MSG);
-            js.writeStringField(APPLICATION_KEY, applicationName);
-            js.writeObjectFieldStart(PAYLOAD_KEY);
-            js.writeStringField(QUERY_ID_KEY, queryId.toString());
-            if (reformulatedQuery != null)
-                //noinspection ConstantConditions
-                writeReformulationSpecificFields(reformulatedQuery, wasReformulationCached, js);
-            writeResultSetUnblockedSpecificFields(js);
-            writeLastResultRetrievedSpecificFields(js, lastResultFetchedTime, resultCount);
-            js.writeEndObject();
-            js.writeEndObject();
-        } catch (IOException e) {
-            REGULAR_LOGGER.error(OUTPUT_STREAM_JSON_ERROR + e);
-        }
-        outputStream.println(stringWriter.toString());
+        ResultSetUnblockedPayload unblockedPayload = new ResultSetUnblockedPayload(reformulationTime, unblockedResulSetTime);
+        LastResultFetchedPayload lastResultPayload = new LastResultFetchedPayload(creationTime, reformulationTime,
+                lastResultFetchedTime, resultCount);
+
+        if (reformulatedQuery != null)
+            //noinspection ConstantConditions
+            submitEvent(MERGED_MSG, lastResultFetchedTime,
+                    createReformulationPayload(reformulatedQuery, wasReformulationCached),
+                    unblockedPayload, lastResultPayload);
+        else
+            submitEvent(MERGED_MSG, lastResultFetchedTime, unblockedPayload, lastResultPayload);
     }
 }
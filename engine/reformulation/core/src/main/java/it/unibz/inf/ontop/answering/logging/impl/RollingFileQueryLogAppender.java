@@ -0,0 +1,105 @@
+package it.unibz.inf.ontop.answering.logging.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.answering.logging.QueryLogAppender;
+import it.unibz.inf.ontop.exception.InvalidOntopConfigurationException;
+import it.unibz.inf.ontop.injection.OntopReformulationSettings;
+
+import javax.annotation.Nullable;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends the messages to the file given by the setting ontop.queryLogging.file.
+ *
+ * When the file exceeds its maximum size, it is renamed into file.1 (file.1 into file.2, etc.)
+ * and a new file is started. The oldest backup is deleted once the maximum number of backups is reached.
+ */
+@Singleton
+public class RollingFileQueryLogAppender implements QueryLogAppender {
+
+    private final Path file;
+    private final long maxSize;
+    private final int maxBackups;
+
+    // LAZY
+    @Nullable
+    private BufferedWriter writer;
+    private long currentSize;
+
+    @Inject
+    protected RollingFileQueryLogAppender(OntopReformulationSettings settings) {
+        this.file = settings.getQueryLogFile()
+                .map(Paths::get)
+                .orElseThrow(() -> new InvalidOntopConfigurationException(
+                        OntopReformulationSettings.QUERY_LOG_FILE + " is required by " + getClass().getSimpleName()));
+        this.maxSize = settings.getQueryLogFileMaxSize();
+        this.maxBackups = settings.getQueryLogFileMaxBackups();
+    }
+
+    @Override
+    public synchronized void append(ImmutableList<String> messages) throws IOException {
+        if (writer == null)
+            open();
+
+        for (String message : messages) {
+            writer.write(message);
+            writer.newLine();
+            // Approximation for non-ASCII characters
+            currentSize += message.length() + 1;
+        }
+        writer.flush();
+
+        if (currentSize >= maxSize)
+            roll();
+    }
+
+    /**
+     * The file is opened again by the next append
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private void open() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null)
+            Files.createDirectories(parent);
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        currentSize = Files.size(file);
+    }
+
+    private void roll() throws IOException {
+        writer.close();
+        writer = null;
+
+        if (maxBackups <= 0)
+            Files.delete(file);
+        else {
+            Files.deleteIfExists(getBackup(maxBackups));
+            for (int i = maxBackups - 1; i > 0; i--) {
+                Path backup = getBackup(i);
+                if (Files.exists(backup))
+                    Files.move(backup, getBackup(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(file, getBackup(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private Path getBackup(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+}
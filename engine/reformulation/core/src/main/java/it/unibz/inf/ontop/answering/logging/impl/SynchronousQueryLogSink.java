@@ -0,0 +1,60 @@
+package it.unibz.inf.ontop.answering.logging.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.answering.logging.QueryLogAppender;
+import it.unibz.inf.ontop.answering.logging.QueryLogEvent;
+import it.unibz.inf.ontop.answering.logging.QueryLogSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serializes and writes the messages on the query thread
+ */
+@Singleton
+public class SynchronousQueryLogSink implements QueryLogSink {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SynchronousQueryLogSink.class);
+
+    private final QueryLogAppender appender;
+    private final AtomicLong droppedMessageCount;
+
+    @Inject
+    protected SynchronousQueryLogSink(QueryLogAppender appender) {
+        this.appender = appender;
+        this.droppedMessageCount = new AtomicLong();
+    }
+
+    @Override
+    public void submit(QueryLogEvent event) {
+        String message = event.serialize();
+        if (message == null) {
+            droppedMessageCount.incrementAndGet();
+            return;
+        }
+        try {
+            appender.append(ImmutableList.of(message));
+        } catch (IOException e) {
+            droppedMessageCount.incrementAndGet();
+            LOGGER.error("Problem with the query log appender: " + e);
+        }
+    }
+
+    @Override
+    public long getDroppedMessageCount() {
+        return droppedMessageCount.get();
+    }
+
+    @Override
+    public void close() {
+        try {
+            appender.close();
+        } catch (IOException e) {
+            LOGGER.error("Problem while closing the query log appender: " + e);
+        }
+    }
+}
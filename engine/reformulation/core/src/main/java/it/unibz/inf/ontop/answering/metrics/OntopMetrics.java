@@ -0,0 +1,107 @@
+package it.unibz.inf.ontop.answering.metrics;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Facade for recording metrics about query answering.
+ *
+ * Meters are identified by their name and are created on their first use.
+ * They are expected to be looked up once (e.g. at construction time) and then re-used.
+ *
+ * The default implementation does not record anything.
+ *
+ * Thread-safe.
+ */
+public interface OntopMetrics {
+
+    Counter counter(String name);
+
+    Timer timer(String name);
+
+    DistributionSummary summary(String name);
+
+    /**
+     * Current values of the meters, indexed by their names.
+     *
+     * Durations are given in milliseconds.
+     */
+    ImmutableSortedMap<String, ImmutableMap<String, Number>> getSnapshot();
+
+
+    interface Counter {
+        void increment(long amount);
+
+        default void increment() {
+            increment(1);
+        }
+    }
+
+    interface Timer {
+        void record(long duration, TimeUnit unit);
+    }
+
+    /**
+     * Distribution of non-negative values that are not durations
+     */
+    interface DistributionSummary {
+        void record(long amount);
+    }
+
+
+    //--------------------------
+    // Meter names
+    //--------------------------
+
+    // Phases of the reformulation
+    String TRANSLATION_TIMER = "ontop.reformulation.translation";
+    String REWRITING_TIMER = "ontop.reformulation.rewriting";
+    String UNFOLDING_TIMER = "ontop.reformulation.unfolding";
+    String OPTIMIZATION_TIMER = "ontop.reformulation.optimization";
+    String PLANNING_TIMER = "ontop.reformulation.planning";
+    String NATIVE_QUERY_GENERATION_TIMER = "ontop.reformulation.nativeQueryGeneration";
+
+    // Query cache (indexed by the input query)
+    String QUERY_CACHE_HIT_COUNTER = "ontop.cache.query.hits";
+    String QUERY_CACHE_MISS_COUNTER = "ontop.cache.query.misses";
+    String QUERY_CACHE_EVICTION_COUNTER = "ontop.cache.query.evictions";
+    // Query cache (indexed by the translated IQ)
+    String TRANSLATED_QUERY_CACHE_HIT_COUNTER = "ontop.cache.translatedQuery.hits";
+    String TRANSLATED_QUERY_CACHE_MISS_COUNTER = "ontop.cache.translatedQuery.misses";
+    String TRANSLATED_QUERY_CACHE_EVICTION_COUNTER = "ontop.cache.translatedQuery.evictions";
+    // Planned queries (indexed by the query template obtained by lifting the literals)
+    String QUERY_TEMPLATE_CACHE_HIT_COUNTER = "ontop.cache.queryTemplate.hits";
+    String QUERY_TEMPLATE_CACHE_MISS_COUNTER = "ontop.cache.queryTemplate.misses";
+    String QUERY_TEMPLATE_CACHE_EVICTION_COUNTER = "ontop.cache.queryTemplate.evictions";
+    // Reference queries of the predefined queries
+    String PREDEFINED_QUERY_CACHE_HIT_COUNTER = "ontop.cache.predefinedQuery.hits";
+    String PREDEFINED_QUERY_CACHE_MISS_COUNTER = "ontop.cache.predefinedQuery.misses";
+    String PREDEFINED_QUERY_CACHE_EVICTION_COUNTER = "ontop.cache.predefinedQuery.evictions";
+    // Result set cache
+    String RESULT_CACHE_HIT_COUNTER = "ontop.cache.result.hits";
+    String RESULT_CACHE_MISS_COUNTER = "ontop.cache.result.misses";
+    String RESULT_CACHE_EVICTION_COUNTER = "ontop.cache.result.evictions";
+    String RESULT_CACHE_INVALIDATION_COUNTER = "ontop.cache.result.invalidations";
+
+    // Until the result set is returned by the JDBC driver
+    String JDBC_EXECUTION_TIMER = "ontop.jdbc.execution";
+    // Total time spent moving the cursor, per result set
+    String JDBC_FETCHING_TIMER = "ontop.jdbc.fetching";
+    String JDBC_DECODED_ROW_COUNTER = "ontop.jdbc.decodedRows";
+    // Per result set
+    String JDBC_DECODED_ROWS_PER_SECOND_SUMMARY = "ontop.jdbc.decodedRowsPerSecond";
+    // Waiting for a connection from the pool
+    String JDBC_CONNECTION_POOL_WAIT_TIMER = "ontop.jdbc.connectionPoolWait";
+
+    // Admission control of the query executions
+    String QUERY_ADMISSION_ACCEPTED_COUNTER = "ontop.admission.accepted";
+    // Queue full
+    String QUERY_ADMISSION_REJECTED_COUNTER = "ontop.admission.rejected";
+    String QUERY_ADMISSION_TIMEOUT_COUNTER = "ontop.admission.timeouts";
+    String QUERY_ADMISSION_WAIT_TIMER = "ontop.admission.wait";
+    // Sampled when a query arrives
+    String QUERY_ADMISSION_QUEUE_LENGTH_SUMMARY = "ontop.admission.queueLength";
+    String QUERY_ADMISSION_RUNNING_SUMMARY = "ontop.admission.running";
+}
@@ -0,0 +1,163 @@
+package it.unibz.inf.ontop.answering.metrics.impl;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.answering.metrics.OntopMetrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the meters in memory, since the creation of the injector.
+ *
+ * Distributions are approximated by power-of-two buckets: the reported percentiles are upper bounds
+ * (at most twice the exact value).
+ */
+@Singleton
+public class InMemoryOntopMetrics implements OntopMetrics {
+
+    private final ConcurrentMap<String, Meter> meters;
+
+    @Inject
+    protected InMemoryOntopMetrics() {
+        this.meters = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Counter counter(String name) {
+        return getMeter(name, InMemoryCounter.class, InMemoryCounter::new);
+    }
+
+    @Override
+    public Timer timer(String name) {
+        return getMeter(name, InMemoryTimer.class, InMemoryTimer::new);
+    }
+
+    @Override
+    public DistributionSummary summary(String name) {
+        return getMeter(name, InMemoryDistributionSummary.class, InMemoryDistributionSummary::new);
+    }
+
+    private <M extends Meter> M getMeter(String name, Class<M> meterClass, Supplier<M> constructor) {
+        Meter meter = meters.computeIfAbsent(name, n -> constructor.get());
+        if (!meterClass.isInstance(meter))
+            throw new IllegalArgumentException(name + " is already registered as a " + meter.getClass().getSimpleName());
+        return meterClass.cast(meter);
+    }
+
+    @Override
+    public ImmutableSortedMap<String, ImmutableMap<String, Number>> getSnapshot() {
+        ImmutableSortedMap.Builder<String, ImmutableMap<String, Number>> builder = ImmutableSortedMap.naturalOrder();
+        for (Map.Entry<String, Meter> e : meters.entrySet())
+            builder.put(e.getKey(), e.getValue().getSnapshot());
+        return builder.build();
+    }
+
+
+    private interface Meter {
+        ImmutableMap<String, Number> getSnapshot();
+    }
+
+    private static class InMemoryCounter implements Counter, Meter {
+        private final LongAdder count = new LongAdder();
+
+        @Override
+        public void increment(long amount) {
+            count.add(amount);
+        }
+
+        @Override
+        public ImmutableMap<String, Number> getSnapshot() {
+            return ImmutableMap.of("count", count.sum());
+        }
+    }
+
+    private static class InMemoryTimer implements Timer, Meter {
+        // In microseconds
+        private final Histogram histogram = new Histogram();
+
+        @Override
+        public void record(long duration, TimeUnit unit) {
+            histogram.record(unit.toMicros(duration));
+        }
+
+        @Override
+        public ImmutableMap<String, Number> getSnapshot() {
+            return histogram.getSnapshot(1000.0);
+        }
+    }
+
+    private static class InMemoryDistributionSummary implements DistributionSummary, Meter {
+        private final Histogram histogram = new Histogram();
+
+        @Override
+        public void record(long amount) {
+            histogram.record(amount);
+        }
+
+        @Override
+        public ImmutableMap<String, Number> getSnapshot() {
+            return histogram.getSnapshot(1.0);
+        }
+    }
+
+    /**
+     * Bucket 0 counts the values lower than 1.
+     * Bucket i > 0 counts the values v such that 2^(i-1) <= v < 2^i.
+     */
+    private static class Histogram {
+        private static final double[] PERCENTILES = { 0.5, 0.95, 0.99 };
+        private static final String[] PERCENTILE_KEYS = { "p50", "p95", "p99" };
+
+        private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+        void record(long value) {
+            int bucket = value < 1 ? 0 : Long.SIZE - Long.numberOfLeadingZeros(value);
+            buckets.incrementAndGet(bucket);
+            count.increment();
+            total.add(value);
+            max.accumulate(value);
+        }
+
+        /**
+         * Values are divided by the scale
+         */
+        ImmutableMap<String, Number> getSnapshot(double scale) {
+            long currentCount = count.sum();
+            long currentMax = max.get();
+
+            ImmutableMap.Builder<String, Number> builder = ImmutableMap.<String, Number>builder()
+                    .put("count", currentCount)
+                    .put("total", total.sum() / scale)
+                    .put("mean", currentCount == 0 ? 0.0 : total.sum() / scale / currentCount)
+                    .put("max", currentMax / scale);
+
+            for (int i = 0; i < PERCENTILES.length; i++)
+                builder.put(PERCENTILE_KEYS[i], Math.min(computeUpperBound(PERCENTILES[i], currentCount), currentMax) / scale);
+
+            return builder.build();
+        }
+
+        private long computeUpperBound(double percentile, long currentCount) {
+            long rank = (long) Math.ceil(percentile * currentCount);
+            long cumulativeCount = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                cumulativeCount += buckets.get(i);
+                if (cumulativeCount >= rank)
+                    return i == 0 ? 0 : (1L << i) - 1;
+            }
+            return Long.MAX_VALUE;
+        }
+    }
+}
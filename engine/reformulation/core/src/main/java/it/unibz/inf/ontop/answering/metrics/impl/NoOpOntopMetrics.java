@@ -0,0 +1,42 @@
+package it.unibz.inf.ontop.answering.metrics.impl;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.answering.metrics.OntopMetrics;
+
+/**
+ * Does not record anything
+ */
+@Singleton
+public class NoOpOntopMetrics implements OntopMetrics {
+
+    private static final Counter COUNTER = amount -> { };
+    private static final Timer TIMER = (duration, unit) -> { };
+    private static final DistributionSummary SUMMARY = amount -> { };
+
+    @Inject
+    protected NoOpOntopMetrics() {
+    }
+
+    @Override
+    public Counter counter(String name) {
+        return COUNTER;
+    }
+
+    @Override
+    public Timer timer(String name) {
+        return TIMER;
+    }
+
+    @Override
+    public DistributionSummary summary(String name) {
+        return SUMMARY;
+    }
+
+    @Override
+    public ImmutableSortedMap<String, ImmutableMap<String, Number>> getSnapshot() {
+        return ImmutableSortedMap.of();
+    }
+}
@@ -14,5 +14,25 @@ public interface QueryCache {
 
     void put(InputQuery inputQuery, IQ executableQuery);
 
+    /**
+     * Second level, keyed on the IQ obtained by translating the input query.
+     *
+     * Shared by input queries that only differ syntactically (prefixes, whitespace, comments, etc.)
+     * and therefore translate into the same IQ.
+     */
+    IQ getByTranslatedIQ(IQ translatedIQ);
+
+    void putByTranslatedIQ(IQ translatedIQ, IQ executableQuery);
+
+    /**
+     * Third level, keyed on the query template obtained by lifting some literals of the translated IQ
+     * into parameters.
+     *
+     * Returns the executable query (with its native query), whose parameters still have to be bound.
+     */
+    IQ getExecutableQueryTemplate(IQ queryTemplate);
+
+    void putExecutableQueryTemplate(IQ queryTemplate, IQ executableQueryTemplate);
+
     void clear();
 }
@@ -1,11 +1,15 @@
 package it.unibz.inf.ontop.answering.reformulation;
 
+import com.google.common.collect.ImmutableSet;
 
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
 import it.unibz.inf.ontop.exception.OntopReformulationException;
 import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.model.term.Variable;
+
+import java.util.Optional;
 
 /**
  * See ReformulationFactory for creating a new instance.
@@ -14,6 +18,22 @@ public interface QueryReformulator {
 
     IQ reformulateIntoNativeQuery(InputQuery inputQuery, QueryLogger queryLogger) throws OntopReformulationException;
 
+    /**
+     * Names of the relations the results of an executable query depend on.
+     *
+     * Empty if the results cannot be reproduced (non-deterministic or time-dependent functions)
+     * or if the executable query has not been produced by this reformulator.
+     */
+    Optional<ImmutableSet<String>> getResultDependencies(IQ executableQuery);
+
+    /**
+     * Sets of answer variables known to be unique in the results of an executable query
+     * (see IQTree.inferUniqueConstraints()).
+     *
+     * Empty if none is known or if the executable query has not been produced by this reformulator.
+     */
+    ImmutableSet<ImmutableSet<Variable>> getUniqueConstraints(IQ executableQuery);
+
     /**
      * For analysis purposes
      */
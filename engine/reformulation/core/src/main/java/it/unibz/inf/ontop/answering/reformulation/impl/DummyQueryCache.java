@@ -18,6 +18,24 @@ public class DummyQueryCache implements QueryCache {
     public void put(InputQuery inputQuery, IQ executableQuery) {
     }
 
+    @Override
+    public IQ getByTranslatedIQ(IQ translatedIQ) {
+        return null;
+    }
+
+    @Override
+    public void putByTranslatedIQ(IQ translatedIQ, IQ executableQuery) {
+    }
+
+    @Override
+    public IQ getExecutableQueryTemplate(IQ queryTemplate) {
+        return null;
+    }
+
+    @Override
+    public void putExecutableQueryTemplate(IQ queryTemplate, IQ executableQueryTemplate) {
+    }
+
     @Override
     public void clear() {
     }
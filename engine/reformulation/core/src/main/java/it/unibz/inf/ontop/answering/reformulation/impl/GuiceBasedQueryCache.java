@@ -2,7 +2,9 @@ package it.unibz.inf.ontop.answering.reformulation.impl;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
 import com.google.inject.Inject;
+import it.unibz.inf.ontop.answering.metrics.OntopMetrics;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
 import it.unibz.inf.ontop.answering.reformulation.QueryCache;
 import it.unibz.inf.ontop.injection.OntopReformulationSettings;
@@ -15,18 +17,59 @@ public class GuiceBasedQueryCache implements QueryCache {
     // NB: still present in more recent versions of Guava
     @SuppressWarnings("UnstableApiUsage")
     private final Cache<InputQuery, IQ> cache;
+    @SuppressWarnings("UnstableApiUsage")
+    private final Cache<IQ, IQ> translatedIQCache;
+    @SuppressWarnings("UnstableApiUsage")
+    private final Cache<IQ, IQ> queryTemplateCache;
+
+    private final OntopMetrics.Counter hitCounter, missCounter;
+    private final OntopMetrics.Counter translatedIQHitCounter, translatedIQMissCounter;
+    private final OntopMetrics.Counter queryTemplateHitCounter, queryTemplateMissCounter;
 
     @Inject
-    private GuiceBasedQueryCache(OntopReformulationSettings settings) {
+    private GuiceBasedQueryCache(OntopReformulationSettings settings, OntopMetrics metrics) {
+        OntopMetrics.Counter evictionCounter = metrics.counter(OntopMetrics.QUERY_CACHE_EVICTION_COUNTER);
         cache = CacheBuilder.newBuilder()
                 .maximumSize(settings.getQueryCacheMaxSize())
+                .removalListener(n -> countEviction(n, evictionCounter))
+                .build();
+        OntopMetrics.Counter translatedIQEvictionCounter = metrics.counter(OntopMetrics.TRANSLATED_QUERY_CACHE_EVICTION_COUNTER);
+        translatedIQCache = CacheBuilder.newBuilder()
+                .maximumSize(settings.getQueryCacheMaxSize())
+                .removalListener(n -> countEviction(n, translatedIQEvictionCounter))
+                .build();
+        OntopMetrics.Counter queryTemplateEvictionCounter = metrics.counter(OntopMetrics.QUERY_TEMPLATE_CACHE_EVICTION_COUNTER);
+        queryTemplateCache = CacheBuilder.newBuilder()
+                .maximumSize(settings.getQueryCacheMaxSize())
+                .removalListener(n -> countEviction(n, queryTemplateEvictionCounter))
                 .build();
+
+        hitCounter = metrics.counter(OntopMetrics.QUERY_CACHE_HIT_COUNTER);
+        missCounter = metrics.counter(OntopMetrics.QUERY_CACHE_MISS_COUNTER);
+        translatedIQHitCounter = metrics.counter(OntopMetrics.TRANSLATED_QUERY_CACHE_HIT_COUNTER);
+        translatedIQMissCounter = metrics.counter(OntopMetrics.TRANSLATED_QUERY_CACHE_MISS_COUNTER);
+        queryTemplateHitCounter = metrics.counter(OntopMetrics.QUERY_TEMPLATE_CACHE_HIT_COUNTER);
+        queryTemplateMissCounter = metrics.counter(OntopMetrics.QUERY_TEMPLATE_CACHE_MISS_COUNTER);
+    }
+
+    private static void countEviction(RemovalNotification<?, ?> notification, OntopMetrics.Counter evictionCounter) {
+        if (notification.wasEvicted())
+            evictionCounter.increment();
     }
 
     @Nullable
     @Override
     public IQ get(InputQuery inputQuery) {
-        return cache.getIfPresent(inputQuery);
+        return count(cache.getIfPresent(inputQuery), hitCounter, missCounter);
+    }
+
+    @Nullable
+    private static IQ count(@Nullable IQ cachedQuery, OntopMetrics.Counter hitCounter, OntopMetrics.Counter missCounter) {
+        if (cachedQuery == null)
+            missCounter.increment();
+        else
+            hitCounter.increment();
+        return cachedQuery;
     }
 
     @Override
@@ -34,8 +77,32 @@ public class GuiceBasedQueryCache implements QueryCache {
         cache.put(inputQuery, executableQuery);
     }
 
+    @Nullable
+    @Override
+    public IQ getByTranslatedIQ(IQ translatedIQ) {
+        return count(translatedIQCache.getIfPresent(translatedIQ), translatedIQHitCounter, translatedIQMissCounter);
+    }
+
+    @Override
+    public void putByTranslatedIQ(IQ translatedIQ, IQ executableQuery) {
+        translatedIQCache.put(translatedIQ, executableQuery);
+    }
+
+    @Nullable
+    @Override
+    public IQ getExecutableQueryTemplate(IQ queryTemplate) {
+        return count(queryTemplateCache.getIfPresent(queryTemplate), queryTemplateHitCounter, queryTemplateMissCounter);
+    }
+
+    @Override
+    public void putExecutableQueryTemplate(IQ queryTemplate, IQ executableQueryTemplate) {
+        queryTemplateCache.put(queryTemplate, executableQueryTemplate);
+    }
+
     @Override
     public void clear() {
         cache.invalidateAll();
+        translatedIQCache.invalidateAll();
+        queryTemplateCache.invalidateAll();
     }
 }
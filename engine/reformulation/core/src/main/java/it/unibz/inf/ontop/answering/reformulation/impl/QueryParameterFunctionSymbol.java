@@ -0,0 +1,49 @@
+package it.unibz.inf.ontop.answering.reformulation.impl;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
+import it.unibz.inf.ontop.model.term.ImmutableTerm;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.DBParameterFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.impl.AbstractTypedDBFunctionSymbol;
+import it.unibz.inf.ontop.model.type.DBTermType;
+
+import java.util.function.Function;
+
+/**
+ * DB value of a literal lifted out of a query template (see QueryTemplateParameterizer),
+ * typed with the DB type closest to the datatype of the literal.
+ *
+ * Opaque: its value is unknown to the optimizer, so that the planned query template is valid for all the values.
+ * Becomes a parameter of the native query, bound before execution.
+ */
+public class QueryParameterFunctionSymbol extends AbstractTypedDBFunctionSymbol implements DBParameterFunctionSymbol {
+
+    private final int index;
+
+    protected QueryParameterFunctionSymbol(int index, DBTermType dbType) {
+        super("ontopQueryParameter" + index + dbType.getName(), ImmutableList.of(), dbType);
+        this.index = index;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    protected boolean isAlwaysInjectiveInTheAbsenceOfNonInjectiveFunctionalTerms() {
+        return true;
+    }
+
+    @Override
+    public boolean canBePostProcessed(ImmutableList<? extends ImmutableTerm> arguments) {
+        return false;
+    }
+
+    @Override
+    public String getNativeDBString(ImmutableList<? extends ImmutableTerm> terms,
+                                    Function<ImmutableTerm, String> termConverter, TermFactory termFactory) {
+        throw new MinorOntopInternalBugException("The query parameter " + index
+                + " should have been turned into a parameter of the native query");
+    }
+}
@@ -0,0 +1,310 @@
+package it.unibz.inf.ontop.answering.reformulation.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
+import it.unibz.inf.ontop.injection.CoreSingletons;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.UnaryIQTree;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.iq.transform.impl.DefaultRecursiveIQTreeVisitingTransformer;
+import it.unibz.inf.ontop.model.atom.AtomFactory;
+import it.unibz.inf.ontop.model.atom.AtomPredicate;
+import it.unibz.inf.ontop.model.atom.DataAtom;
+import it.unibz.inf.ontop.model.atom.RDFAtomPredicate;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.FunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.FunctionSymbolFactory;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.model.type.DBTypeFactory;
+import it.unibz.inf.ontop.model.type.RDFDatatype;
+import it.unibz.inf.ontop.model.vocabulary.SPARQL;
+import it.unibz.inf.ontop.model.vocabulary.XSD;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import it.unibz.inf.ontop.utils.VariableGenerator;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Lifts the literals of the translated IQ into opaque parameters (see QueryParameterFunctionSymbol),
+ * so that queries only differing by these literals share the same query template, and binds them
+ * to the parameters of the native query generated from the planned query template.
+ *
+ * Soundness: the optimizer cannot evaluate the parameters, so the planned query template is valid for all the values.
+ * Only literals whose lexical value has no influence on the reformulation beyond their datatype are lifted
+ * (the datatype and the language tag remain in the template):
+ *   - objects of triple patterns,
+ *   - arguments of SPARQL comparisons in the filter and join conditions,
+ * and only if they are strings or canonical integers. IRIs are never lifted as they drive the unfolding.
+ *
+ * The parameters are typed with the DB type closest to the datatype of the literal (e.g. a large integer
+ * for xsd:integer), so that comparisons with DB columns are not turned into comparisons of strings.
+ */
+@Singleton
+public class QueryTemplateParameterizer {
+
+    // Canonical lexical form of xsd:integer, which the DB produces when casting an integer column into a string
+    private static final Pattern CANONICAL_INTEGER = Pattern.compile("-?(0|[1-9][0-9]*)");
+
+    private final CoreSingletons coreSingletons;
+    private final IntermediateQueryFactory iqFactory;
+    private final TermFactory termFactory;
+    private final DBTypeFactory dbTypeFactory;
+    private final DBTermType dbStringType;
+    private final ImmutableSet<FunctionSymbol> comparisonFunctionSymbols;
+
+    @Inject
+    protected QueryTemplateParameterizer(CoreSingletons coreSingletons) {
+        this.coreSingletons = coreSingletons;
+        this.iqFactory = coreSingletons.getIQFactory();
+        this.termFactory = coreSingletons.getTermFactory();
+        this.dbTypeFactory = coreSingletons.getTypeFactory().getDBTypeFactory();
+        this.dbStringType = dbTypeFactory.getDBStringType();
+        FunctionSymbolFactory functionSymbolFactory = coreSingletons.getFunctionSymbolFactory();
+        this.comparisonFunctionSymbols = ImmutableSet.of(
+                functionSymbolFactory.getRequiredSPARQLFunctionSymbol(SPARQL.EQ, 2),
+                functionSymbolFactory.getRequiredSPARQLFunctionSymbol(SPARQL.LESS_THAN, 2),
+                functionSymbolFactory.getRequiredSPARQLFunctionSymbol(SPARQL.GREATER_THAN, 2));
+    }
+
+    /**
+     * Returns empty if no literal can be lifted
+     */
+    public Optional<QueryTemplate> parameterize(IQ translatedIQ) {
+        IQTree initialTree = translatedIQ.getTree();
+        LiteralLiftingTransformer transformer = new LiteralLiftingTransformer(initialTree.getKnownVariables());
+        IQTree newTree = initialTree.acceptTransformer(transformer);
+
+        ImmutableList<String> values = transformer.getValues();
+        if (values.isEmpty())
+            return Optional.empty();
+
+        return Optional.of(new QueryTemplate(iqFactory.createIQ(translatedIQ.getProjectionAtom(), newTree), values));
+    }
+
+    /**
+     * Replaces the parameters of the executable query template (generated from the planned query template)
+     * by the values of the given query template. The native query strings are left untouched:
+     * the values are bound to their placeholders.
+     */
+    public IQ bind(IQ executableQueryTemplate, QueryTemplate queryTemplate) {
+        IQTree newTree = bindTree(executableQueryTemplate.getTree(), queryTemplate.getValues());
+        return iqFactory.createIQ(executableQueryTemplate.getProjectionAtom(), newTree);
+    }
+
+    private boolean isLiftable(RDFLiteralConstant literal) {
+        RDFDatatype datatype = literal.getType();
+        if (datatype.getLanguageTag().isPresent() || datatype.getIRI().equals(XSD.STRING))
+            return true;
+        return datatype.getIRI().equals(XSD.INTEGER)
+                && CANONICAL_INTEGER.matcher(literal.getValue()).matches();
+    }
+
+
+    /**
+     * Specific to an IQ
+     */
+    private class LiteralLiftingTransformer extends DefaultRecursiveIQTreeVisitingTransformer {
+
+        private final VariableGenerator variableGenerator;
+        private final AtomFactory atomFactory;
+
+        // Mutable: equal literals share the same parameter
+        private final Map<RDFLiteralConstant, ImmutableFunctionalTerm> parameterMap = Maps.newLinkedHashMap();
+
+        LiteralLiftingTransformer(ImmutableSet<Variable> knownVariables) {
+            super(coreSingletons);
+            this.variableGenerator = coreSingletons.getCoreUtilsFactory().createVariableGenerator(knownVariables);
+            this.atomFactory = coreSingletons.getAtomFactory();
+        }
+
+        ImmutableList<String> getValues() {
+            return parameterMap.keySet().stream()
+                    .map(RDFLiteralConstant::getValue)
+                    .collect(ImmutableCollectors.toList());
+        }
+
+        /**
+         * The object is replaced by a fresh variable, filtered by a strict equality with the parameterized literal
+         */
+        @Override
+        public IQTree transformIntensionalData(IntensionalDataNode dataNode) {
+            DataAtom<AtomPredicate> atom = dataNode.getProjectionAtom();
+            if (!(atom.getPredicate() instanceof RDFAtomPredicate))
+                return dataNode;
+
+            ImmutableList<? extends VariableOrGroundTerm> arguments = atom.getArguments();
+            VariableOrGroundTerm object = arguments.get(2);
+            if (!(object instanceof RDFLiteralConstant) || !isLiftable((RDFLiteralConstant) object))
+                return dataNode;
+
+            Variable objectVariable = variableGenerator.generateNewVariable();
+            ImmutableList<VariableOrGroundTerm> newArguments = IntStream.range(0, arguments.size())
+                    .mapToObj(i -> i == 2 ? objectVariable : arguments.get(i))
+                    .collect(ImmutableCollectors.toList());
+
+            IntensionalDataNode newDataNode = iqFactory.createIntensionalDataNode(
+                    atomFactory.getDataAtom(atom.getPredicate(), newArguments));
+            FilterNode filterNode = iqFactory.createFilterNode(
+                    termFactory.getStrictEquality(objectVariable, getParameter((RDFLiteralConstant) object)));
+
+            return iqFactory.createUnaryIQTree(
+                    iqFactory.createConstructionNode(dataNode.getVariables()),
+                    iqFactory.createUnaryIQTree(filterNode, newDataNode));
+        }
+
+        @Override
+        public IQTree transformFilter(IQTree tree, FilterNode rootNode, IQTree child) {
+            return transformUnaryNode(tree,
+                    rootNode.changeFilterCondition(transformExpression(rootNode.getFilterCondition())),
+                    child);
+        }
+
+        @Override
+        public IQTree transformLeftJoin(IQTree tree, LeftJoinNode rootNode, IQTree leftChild, IQTree rightChild) {
+            return transformBinaryNonCommutativeNode(tree,
+                    rootNode.changeOptionalFilterCondition(rootNode.getOptionalFilterCondition()
+                            .map(this::transformExpression)),
+                    leftChild, rightChild);
+        }
+
+        @Override
+        public IQTree transformInnerJoin(IQTree tree, InnerJoinNode rootNode, ImmutableList<IQTree> children) {
+            return transformNaryCommutativeNode(tree,
+                    rootNode.changeOptionalFilterCondition(rootNode.getOptionalFilterCondition()
+                            .map(this::transformExpression)),
+                    children);
+        }
+
+        private ImmutableExpression transformExpression(ImmutableExpression expression) {
+            return (ImmutableExpression) transformTerm(expression);
+        }
+
+        private ImmutableTerm transformTerm(ImmutableTerm term) {
+            if (!(term instanceof ImmutableFunctionalTerm))
+                return term;
+
+            ImmutableFunctionalTerm functionalTerm = (ImmutableFunctionalTerm) term;
+            boolean isComparison = comparisonFunctionSymbols.contains(functionalTerm.getFunctionSymbol());
+
+            ImmutableList<? extends ImmutableTerm> terms = functionalTerm.getTerms();
+            ImmutableList<ImmutableTerm> newTerms = terms.stream()
+                    .map(t -> isComparison && (t instanceof RDFLiteralConstant) && isLiftable((RDFLiteralConstant) t)
+                            ? getParameter((RDFLiteralConstant) t)
+                            : transformTerm(t))
+                    .collect(ImmutableCollectors.toList());
+
+            if (newTerms.equals(terms))
+                return term;
+
+            return (term instanceof ImmutableExpression)
+                    ? termFactory.getImmutableExpression(((ImmutableExpression) term).getFunctionSymbol(), newTerms)
+                    : termFactory.getImmutableFunctionalTerm(functionalTerm.getFunctionSymbol(), newTerms);
+        }
+
+        /**
+         * RDF term whose lexical value is derived from a parameter of the DB type closest to the datatype
+         * of the literal, and whose type is the one of the literal
+         */
+        private ImmutableFunctionalTerm getParameter(RDFLiteralConstant literal) {
+            return parameterMap.computeIfAbsent(literal, l -> {
+                RDFDatatype datatype = l.getType();
+                DBTermType dbType = datatype.getClosestDBType(dbTypeFactory);
+                ImmutableFunctionalTerm parameter = termFactory.getImmutableFunctionalTerm(
+                        new QueryParameterFunctionSymbol(parameterMap.size(), dbType));
+                ImmutableTerm lexicalTerm = dbType.equals(dbStringType)
+                        ? parameter
+                        : termFactory.getConversion2RDFLexical(dbType, parameter, datatype);
+                return termFactory.getRDFFunctionalTerm(lexicalTerm, termFactory.getRDFTermTypeConstant(datatype));
+            });
+        }
+    }
+
+
+    /**
+     * ASSUMPTION: the executable query is only composed of construction nodes, native nodes and unions of native
+     * nodes (batches), or is declared as empty
+     */
+    private IQTree bindTree(IQTree tree, ImmutableList<String> values) {
+        QueryNode rootNode = tree.getRootNode();
+        if (rootNode instanceof NativeNode) {
+            NativeNode nativeNode = (NativeNode) rootNode;
+            return iqFactory.createNativeNode(nativeNode.getVariables(), nativeNode.getTypeMap(),
+                    nativeNode.getColumnNames(), nativeNode.getNativeQueryString(),
+                    nativeNode.getVariableNullability(),
+                    nativeNode.getParameters().stream()
+                            .map(p -> (GroundTerm) bindTerm(p, values))
+                            .collect(ImmutableCollectors.toList()));
+        }
+        if (rootNode instanceof ConstructionNode) {
+            ConstructionNode constructionNode = (ConstructionNode) rootNode;
+            return iqFactory.createUnaryIQTree(
+                    iqFactory.createConstructionNode(constructionNode.getVariables(),
+                            constructionNode.getSubstitution().transform(t -> bindTerm(t, values))),
+                    bindTree(((UnaryIQTree) tree).getChild(), values));
+        }
+        if (rootNode instanceof UnionNode)
+            return iqFactory.createNaryIQTree((UnionNode) rootNode,
+                    tree.getChildren().stream()
+                            .map(c -> bindTree(c, values))
+                            .collect(ImmutableCollectors.toList()));
+        if (tree.isDeclaredAsEmpty())
+            return tree;
+
+        throw new MinorOntopInternalBugException("Unexpected node in an executable query: " + rootNode);
+    }
+
+    private ImmutableTerm bindTerm(ImmutableTerm term, ImmutableList<String> values) {
+        if (!(term instanceof ImmutableFunctionalTerm))
+            return term;
+
+        ImmutableFunctionalTerm functionalTerm = (ImmutableFunctionalTerm) term;
+        FunctionSymbol functionSymbol = functionalTerm.getFunctionSymbol();
+        if (functionSymbol instanceof QueryParameterFunctionSymbol) {
+            QueryParameterFunctionSymbol parameterSymbol = (QueryParameterFunctionSymbol) functionSymbol;
+            return termFactory.getDBConstant(values.get(parameterSymbol.getIndex()),
+                    parameterSymbol.getTargetType());
+        }
+
+        ImmutableList<? extends ImmutableTerm> terms = functionalTerm.getTerms();
+        ImmutableList<ImmutableTerm> newTerms = terms.stream()
+                .map(t -> bindTerm(t, values))
+                .collect(ImmutableCollectors.toList());
+
+        if (newTerms.equals(terms))
+            return term;
+
+        return (term instanceof ImmutableExpression)
+                ? termFactory.getImmutableExpression(((ImmutableExpression) term).getFunctionSymbol(), newTerms)
+                : termFactory.getImmutableFunctionalTerm(functionSymbol, newTerms);
+    }
+
+
+    public static class QueryTemplate {
+
+        private final IQ iq;
+        // Lexical values of the parameters, indexed by their position
+        private final ImmutableList<String> values;
+
+        QueryTemplate(IQ iq, ImmutableList<String> values) {
+            this.iq = iq;
+            this.values = values;
+        }
+
+        public IQ getIQ() {
+            return iq;
+        }
+
+        public ImmutableList<String> getValues() {
+            return values;
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package it.unibz.inf.ontop.answering.reformulation.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.metrics.OntopMetrics;
 import it.unibz.inf.ontop.answering.reformulation.QueryCache;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
 import it.unibz.inf.ontop.answering.reformulation.generation.NativeQueryGenerator;
@@ -12,15 +16,20 @@ import it.unibz.inf.ontop.answering.reformulation.input.translation.InputQueryTr
 import it.unibz.inf.ontop.answering.reformulation.rewriting.QueryRewriter;
 import it.unibz.inf.ontop.answering.reformulation.unfolding.QueryUnfolder;
 import it.unibz.inf.ontop.exception.OntopReformulationException;
+import it.unibz.inf.ontop.injection.OntopReformulationSettings;
 import it.unibz.inf.ontop.injection.TranslationFactory;
 import it.unibz.inf.ontop.iq.IQ;
 import it.unibz.inf.ontop.iq.exception.EmptyQueryException;
 import it.unibz.inf.ontop.iq.optimizer.*;
 import it.unibz.inf.ontop.iq.planner.QueryPlanner;
+import it.unibz.inf.ontop.model.term.Variable;
 import it.unibz.inf.ontop.spec.OBDASpecification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
 /**
  * TODO: rename it QueryTranslatorImpl ?
  *
@@ -42,6 +51,17 @@ public class QuestQueryProcessor implements QueryReformulator {
 	private final GeneralStructuralAndSemanticIQOptimizer generalOptimizer;
 	private final QueryPlanner queryPlanner;
 	private final QueryLogger.Factory queryLoggerFactory;
+	private final ResultDependencyExtractor resultDependencyExtractor;
+	private final QueryTemplateParameterizer queryTemplateParameterizer;
+	private final boolean isQueryTemplateCacheEnabled;
+	// Weak keys (compared by identity): kept as long as the executable query is (e.g. by the query cache)
+	@SuppressWarnings("UnstableApiUsage")
+	private final Cache<IQ, Optional<ImmutableSet<String>>> resultDependencies;
+	@SuppressWarnings("UnstableApiUsage")
+	private final Cache<IQ, ImmutableSet<ImmutableSet<Variable>>> uniqueConstraints;
+
+	private final OntopMetrics.Timer translationTimer, rewritingTimer, unfoldingTimer, optimizationTimer,
+			planningTimer, nativeQueryGenerationTimer;
 
 	@AssistedInject
 	private QuestQueryProcessor(@Assisted OBDASpecification obdaSpecification,
@@ -52,12 +72,25 @@ public class QuestQueryProcessor implements QueryReformulator {
 								InputQueryTranslator inputQueryTranslator,
 								GeneralStructuralAndSemanticIQOptimizer generalOptimizer,
 								QueryPlanner queryPlanner,
-								QueryLogger.Factory queryLoggerFactory) {
+								QueryLogger.Factory queryLoggerFactory,
+								ResultDependencyExtractor resultDependencyExtractor,
+								QueryTemplateParameterizer queryTemplateParameterizer,
+								OntopReformulationSettings settings,
+								OntopMetrics metrics) {
 		this.inputQueryFactory = inputQueryFactory;
 		this.rewriter = queryRewriter;
 		this.generalOptimizer = generalOptimizer;
 		this.queryPlanner = queryPlanner;
 		this.queryLoggerFactory = queryLoggerFactory;
+		this.resultDependencyExtractor = resultDependencyExtractor;
+		this.queryTemplateParameterizer = queryTemplateParameterizer;
+		this.isQueryTemplateCacheEnabled = settings.isQueryTemplateCacheEnabled();
+		this.resultDependencies = CacheBuilder.newBuilder()
+				.weakKeys()
+				.build();
+		this.uniqueConstraints = CacheBuilder.newBuilder()
+				.weakKeys()
+				.build();
 
 		this.rewriter.setTBox(obdaSpecification.getSaturatedTBox());
 		this.queryUnfolder = translationFactory.create(obdaSpecification.getSaturatedMapping());
@@ -66,6 +99,13 @@ public class QuestQueryProcessor implements QueryReformulator {
 		this.inputQueryTranslator = inputQueryTranslator;
 		this.queryCache = queryCache;
 
+		this.translationTimer = metrics.timer(OntopMetrics.TRANSLATION_TIMER);
+		this.rewritingTimer = metrics.timer(OntopMetrics.REWRITING_TIMER);
+		this.unfoldingTimer = metrics.timer(OntopMetrics.UNFOLDING_TIMER);
+		this.optimizationTimer = metrics.timer(OntopMetrics.OPTIMIZATION_TIMER);
+		this.planningTimer = metrics.timer(OntopMetrics.PLANNING_TIMER);
+		this.nativeQueryGenerationTimer = metrics.timer(OntopMetrics.NATIVE_QUERY_GENERATION_TIMER);
+
 		LOGGER.info("Ontop has completed the setup and it is ready for query answering!");
 	}
 
@@ -83,35 +123,53 @@ public class QuestQueryProcessor implements QueryReformulator {
 
 		try {
 			LOGGER.debug("SPARQL query:\n{}\n", inputQuery.getInputString());
+			long time = System.nanoTime();
 			IQ convertedIQ = inputQuery.translate(inputQueryTranslator);
+			time = record(translationTimer, time);
 			LOGGER.debug("Parsed query converted into IQ (after normalization):\n{}\n", convertedIQ);
 
 			queryLogger.setSparqlIQ(convertedIQ);
 
-            try {
-                LOGGER.debug("Start the rewriting process...");
+			IQ cachedTranslatedQuery = queryCache.getByTranslatedIQ(convertedIQ);
+			if (cachedTranslatedQuery != null) {
+				queryCache.put(inputQuery, cachedTranslatedQuery);
+				queryLogger.declareReformulationFinishedAndSerialize(cachedTranslatedQuery, true);
+				LOGGER.debug("Reformulation time: {} ms\n", System.currentTimeMillis() - beginning);
+				return cachedTranslatedQuery;
+			}
 
-                IQ rewrittenIQ = rewriter.rewrite(convertedIQ);
-                LOGGER.debug("Rewritten IQ:\n{}\n", rewrittenIQ);
+            try {
+				Optional<QueryTemplateParameterizer.QueryTemplate> queryTemplate = isQueryTemplateCacheEnabled
+						? queryTemplateParameterizer.parameterize(convertedIQ)
+						: Optional.empty();
 
-                LOGGER.debug("Start the unfolding...");
-                IQ unfoldedIQ = queryUnfolder.optimize(rewrittenIQ);
-                if (unfoldedIQ.getTree().isDeclaredAsEmpty()) {
-					queryLogger.declareReformulationFinishedAndSerialize(unfoldedIQ, false);
-                	LOGGER.debug("Reformulation time: {} ms\n", System.currentTimeMillis() - beginning);
-					return unfoldedIQ;
+				IQ executableQuery;
+				if (queryTemplate.isPresent()) {
+					IQ queryTemplateIQ = queryTemplate.get().getIQ();
+					LOGGER.debug("Query template:\n{}\n", queryTemplateIQ);
+					IQ executableQueryTemplate = queryCache.getExecutableQueryTemplate(queryTemplateIQ);
+					if (executableQueryTemplate == null) {
+						executableQueryTemplate = planAndGenerateExecutableQuery(queryTemplateIQ, queryLogger);
+						queryCache.putExecutableQueryTemplate(queryTemplateIQ, executableQueryTemplate);
+					}
+					executableQuery = queryTemplateParameterizer.bind(executableQueryTemplate, queryTemplate.get());
+					// Independent of the values of the parameters
+					Optional.ofNullable(resultDependencies.getIfPresent(executableQueryTemplate))
+							.ifPresent(d -> resultDependencies.put(executableQuery, d));
+					Optional.ofNullable(uniqueConstraints.getIfPresent(executableQueryTemplate))
+							.ifPresent(c -> uniqueConstraints.put(executableQuery, c));
 				}
+				else
+					executableQuery = planAndGenerateExecutableQuery(convertedIQ, queryLogger);
 
-				LOGGER.debug("Unfolded query:\n{}\n", unfoldedIQ);
-
-                IQ optimizedQuery = generalOptimizer.optimize(unfoldedIQ);
-				IQ plannedQuery = queryPlanner.optimize(optimizedQuery);
-				LOGGER.debug("Planned query:\n{}\n", plannedQuery);
-
-				queryLogger.setPlannedQuery(plannedQuery);
+				if (executableQuery.getTree().isDeclaredAsEmpty()) {
+					queryLogger.declareReformulationFinishedAndSerialize(executableQuery, false);
+					LOGGER.debug("Reformulation time: {} ms\n", System.currentTimeMillis() - beginning);
+					return executableQuery;
+				}
 
-				IQ executableQuery = generateExecutableQuery(plannedQuery);
 				queryCache.put(inputQuery, executableQuery);
+				queryCache.putByTranslatedIQ(convertedIQ, executableQuery);
 				queryLogger.declareReformulationFinishedAndSerialize(executableQuery, false);
 				LOGGER.debug("Reformulation time: {} ms\n", System.currentTimeMillis() - beginning);
 				return executableQuery;
@@ -133,6 +191,78 @@ public class QuestQueryProcessor implements QueryReformulator {
 		}
 	}
 
+	@Override
+	public Optional<ImmutableSet<String>> getResultDependencies(IQ executableQuery) {
+		return Optional.ofNullable(resultDependencies.getIfPresent(executableQuery))
+				.flatMap(d -> d);
+	}
+
+	@Override
+	public ImmutableSet<ImmutableSet<Variable>> getUniqueConstraints(IQ executableQuery) {
+		return Optional.ofNullable(uniqueConstraints.getIfPresent(executableQuery))
+				.orElseGet(ImmutableSet::of);
+	}
+
+	/**
+	 * Rewrites, unfolds, optimizes and plans the translated query (or query template).
+	 *
+	 * Returns the unfolded query if it is declared as empty.
+	 */
+	private IQ plan(IQ translatedIQ) throws OntopReformulationException, EmptyQueryException {
+		long time = System.nanoTime();
+		LOGGER.debug("Start the rewriting process...");
+
+		IQ rewrittenIQ = rewriter.rewrite(translatedIQ);
+		time = record(rewritingTimer, time);
+		LOGGER.debug("Rewritten IQ:\n{}\n", rewrittenIQ);
+
+		LOGGER.debug("Start the unfolding...");
+		IQ unfoldedIQ = queryUnfolder.optimize(rewrittenIQ);
+		time = record(unfoldingTimer, time);
+		if (unfoldedIQ.getTree().isDeclaredAsEmpty())
+			return unfoldedIQ;
+
+		LOGGER.debug("Unfolded query:\n{}\n", unfoldedIQ);
+
+		IQ optimizedQuery = generalOptimizer.optimize(unfoldedIQ);
+		time = record(optimizationTimer, time);
+		IQ plannedQuery = queryPlanner.optimize(optimizedQuery);
+		record(planningTimer, time);
+		return plannedQuery;
+	}
+
+	/**
+	 * Plans the translated query (or query template) and generates its executable query.
+	 *
+	 * Returns the planned query if it is declared as empty.
+	 */
+	private IQ planAndGenerateExecutableQuery(IQ translatedIQ, QueryLogger queryLogger)
+			throws OntopReformulationException, EmptyQueryException {
+		IQ plannedQuery = plan(translatedIQ);
+		if (plannedQuery.getTree().isDeclaredAsEmpty())
+			return plannedQuery;
+
+		LOGGER.debug("Planned query:\n{}\n", plannedQuery);
+		queryLogger.setPlannedQuery(plannedQuery);
+
+		long time = System.nanoTime();
+		IQ executableQuery = generateExecutableQuery(plannedQuery);
+		record(nativeQueryGenerationTimer, time);
+		resultDependencies.put(executableQuery, resultDependencyExtractor.extract(plannedQuery));
+		// Not inferable anymore from the executable query (native node)
+		uniqueConstraints.put(executableQuery, plannedQuery.getTree().inferUniqueConstraints());
+		return executableQuery;
+	}
+
+	/**
+	 * Returns the current time (in nanoseconds)
+	 */
+	private static long record(OntopMetrics.Timer timer, long startTime) {
+		long currentTime = System.nanoTime();
+		timer.record(currentTime - startTime, TimeUnit.NANOSECONDS);
+		return currentTime;
+	}
+
 	private IQ generateExecutableQuery(IQ iq) {
 		LOGGER.debug("Producing the native query string...");
 
@@ -0,0 +1,77 @@
+package it.unibz.inf.ontop.answering.reformulation.impl;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.answering.logging.impl.RelationNameExtractor;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.model.term.ImmutableFunctionalTerm;
+import it.unibz.inf.ontop.model.term.ImmutableTerm;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.term.functionsymbol.FunctionSymbol;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Determines whether the results of a query only depend on the content of the DB,
+ * and, if so, on which relations.
+ *
+ * Queries using non-deterministic (e.g. RAND, UUID) or time-dependent (NOW) functions are excluded.
+ */
+@Singleton
+public class ResultDependencyExtractor {
+
+    private final RelationNameExtractor relationNameExtractor;
+    private final FunctionSymbol nowFunctionSymbol;
+
+    @Inject
+    protected ResultDependencyExtractor(RelationNameExtractor relationNameExtractor, TermFactory termFactory) {
+        this.relationNameExtractor = relationNameExtractor;
+        this.nowFunctionSymbol = termFactory.getDBNow().getFunctionSymbol();
+    }
+
+    /**
+     * Returns the names of the relations (see RelationNameExtractor),
+     * or empty if the results do not only depend on the DB.
+     */
+    public Optional<ImmutableSet<String>> extract(IQ query) {
+        return extractTerms(query.getTree()).allMatch(this::isReproducible)
+                ? Optional.of(relationNameExtractor.extractRelationNames(query))
+                : Optional.empty();
+    }
+
+    private boolean isReproducible(ImmutableTerm term) {
+        if (!(term instanceof ImmutableFunctionalTerm))
+            return true;
+        ImmutableFunctionalTerm functionalTerm = (ImmutableFunctionalTerm) term;
+        FunctionSymbol functionSymbol = functionalTerm.getFunctionSymbol();
+        return functionSymbol.isDeterministic()
+                && !functionSymbol.equals(nowFunctionSymbol)
+                && functionalTerm.getTerms().stream().allMatch(this::isReproducible);
+    }
+
+    private static Stream<ImmutableTerm> extractTerms(IQTree tree) {
+        QueryNode node = tree.getRootNode();
+        Stream<? extends ImmutableTerm> localTerms;
+        if (node instanceof ExtendedProjectionNode)
+            localTerms = ((ExtendedProjectionNode) node).getSubstitution().getImmutableMap().values().stream();
+        else if (node instanceof JoinOrFilterNode)
+            localTerms = ((JoinOrFilterNode) node).getOptionalFilterCondition()
+                    .map(Stream::of)
+                    .orElseGet(Stream::empty);
+        else if (node instanceof OrderByNode)
+            localTerms = ((OrderByNode) node).getComparators().stream()
+                    .map(OrderByNode.OrderComparator::getTerm);
+        else if (node instanceof ExtensionalDataNode)
+            localTerms = ((ExtensionalDataNode) node).getArgumentMap().values().stream();
+        else
+            localTerms = Stream.empty();
+
+        return Stream.concat(localTerms,
+                tree.getChildren().stream()
+                        .flatMap(ResultDependencyExtractor::extractTerms));
+    }
+}
@@ -41,6 +41,7 @@ import org.eclipse.rdf4j.query.Binding;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.algebra.*;
 import org.eclipse.rdf4j.query.algebra.Count;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractQueryModelVisitor;
 import org.eclipse.rdf4j.query.parser.ParsedQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -61,6 +62,7 @@ public class RDF4JInputQueryTranslatorImpl implements RDF4JInputQueryTranslator
     private final FunctionSymbolFactory functionSymbolFactory;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RDF4JInputQueryTranslatorImpl.class);
+    private static final String PATH_VARIABLE_PREFIX = "_path_";
     private static final boolean IS_DEBUG_ENABLED = LOGGER.isDebugEnabled();
 
     @Inject
@@ -202,6 +204,12 @@ public class RDF4JInputQueryTranslatorImpl implements RDF4JInputQueryTranslator
         if (node instanceof Order)
             return translateOrder((Order) node, externalBindings);
 
+        if (node instanceof ArbitraryLengthPath)
+            return translateArbitraryLengthPath((ArbitraryLengthPath) node, externalBindings);
+
+        if (node instanceof ZeroLengthPath)
+            return translateZeroLengthPath((ZeroLengthPath) node, externalBindings);
+
         throw new Sparql2IqConversionException("Unexpected SPARQL operator : " + node.toString());
     }
 
@@ -901,6 +909,226 @@ public class RDF4JInputQueryTranslatorImpl implements RDF4JInputQueryTranslator
         return createTranslationResult(iqTree, ImmutableSet.of());
     }
 
+    /**
+     * Property paths of the form p+ and p*.
+     *
+     * The path expression is translated into the edges of a transitive closure. For p*, the zero-length paths are added:
+     * the ground endpoint if any, otherwise the nodes appearing in the edges (the nodes of the graph not appearing
+     * in the path expression are thus not returned).
+     */
+    private TranslationResult translateArbitraryLengthPath(ArbitraryLengthPath path, ImmutableMap<Variable, GroundTerm> externalBindings)
+            throws OntopInvalidInputQueryException, OntopUnsupportedInputQueryException {
+        if (path.getScope().equals(StatementPattern.Scope.NAMED_CONTEXTS) || path.getContextVar() != null)
+            throw new OntopUnsupportedInputQueryException("Property paths in named graphs are not supported yet: " + path);
+        if (path.getMinLength() > 1)
+            throw new OntopUnsupportedInputQueryException("Unexpected minimum length of the property path: " + path);
+
+        VariableOrGroundTerm source = translateRDF4JVar(path.getSubjectVar(), ImmutableSet.of(), true, externalBindings);
+        VariableOrGroundTerm target = translateRDF4JVar(path.getObjectVar(), ImmutableSet.of(), true, externalBindings);
+
+        // Fresh with respect to the path. Conflicts with the rest of the query are handled by the renaming
+        // of the non-projected variables (the edge variables are not projected by the closure)
+        VariableGenerator variableGenerator = coreUtilsFactory.createVariableGenerator(
+                Sets.union(getPathVariables(path), externalBindings.keySet()));
+
+        Variable edgeSourceVariable = generateFreshPathVariable(variableGenerator);
+        Variable edgeTargetVariable = generateFreshPathVariable(variableGenerator);
+        IQTree closureTree = iqFactory.createUnaryIQTree(
+                iqFactory.createTransitiveClosureNode(source, target, edgeSourceVariable, edgeTargetVariable),
+                translatePathEdges(path, edgeSourceVariable, edgeTargetVariable, variableGenerator, externalBindings));
+
+        IQTree tree = path.getMinLength() == 0
+                ? addZeroLengthPaths(path, closureTree, source, target, variableGenerator, externalBindings)
+                : closureTree;
+
+        if (externalBindings.isEmpty())
+            return createTranslationResult(tree, ImmutableSet.of());
+
+        Sets.SetView<Variable> externallyBoundedVariables = Sets.intersection(tree.getVariables(), externalBindings.keySet());
+        return createTranslationResult(
+                applyExternalBindingFilter(tree, externalBindings, externallyBoundedVariables),
+                ImmutableSet.of());
+    }
+
+    private IQTree addZeroLengthPaths(ArbitraryLengthPath path, IQTree closureTree, VariableOrGroundTerm source,
+                                      VariableOrGroundTerm target, VariableGenerator variableGenerator,
+                                      ImmutableMap<Variable, GroundTerm> externalBindings)
+            throws OntopInvalidInputQueryException, OntopUnsupportedInputQueryException {
+        if (!(source instanceof Variable) && !(target instanceof Variable))
+            return source.equals(target)
+                    ? iqFactory.createTrueNode()
+                    : closureTree;
+
+        ImmutableSet<Variable> projectedVariables = closureTree.getVariables();
+        ImmutableList<IQTree> zeroLengthPaths;
+        if ((source instanceof Variable) && (target instanceof Variable)) {
+            // The nodes appearing in the edges, either as source or as target
+            ImmutableList.Builder<IQTree> builder = ImmutableList.builder();
+            for (boolean isSource : ImmutableList.of(true, false)) {
+                Variable otherVariable = generateFreshPathVariable(variableGenerator);
+                IQTree edges = translatePathEdges(path,
+                        isSource ? (Variable) source : otherVariable,
+                        isSource ? otherVariable : (Variable) source,
+                        variableGenerator, externalBindings);
+                builder.add(iqFactory.createUnaryIQTree(
+                        iqFactory.createConstructionNode(projectedVariables,
+                                substitutionFactory.getSubstitution((Variable) target, source)),
+                        edges));
+            }
+            zeroLengthPaths = builder.build();
+        }
+        else {
+            Variable variable = (Variable) ((source instanceof Variable) ? source : target);
+            GroundTerm groundTerm = (GroundTerm) ((source instanceof Variable) ? target : source);
+            zeroLengthPaths = ImmutableList.of(iqFactory.createUnaryIQTree(
+                    iqFactory.createConstructionNode(projectedVariables,
+                            substitutionFactory.getSubstitution(variable, groundTerm)),
+                    iqFactory.createTrueNode()));
+        }
+
+        return iqFactory.createUnaryIQTree(
+                iqFactory.createDistinctNode(),
+                iqFactory.createNaryIQTree(
+                        iqFactory.createUnionNode(projectedVariables),
+                        Stream.concat(Stream.of(closureTree), zeroLengthPaths.stream())
+                                .collect(ImmutableCollectors.toList())));
+    }
+
+    /**
+     * Translates a copy of the path expression where the endpoints are replaced by the given variables
+     * and the other variables by fresh ones, so that the path expression can be translated several times.
+     *
+     * Only the edge variables are projected.
+     */
+    private IQTree translatePathEdges(ArbitraryLengthPath path, Variable edgeSourceVariable, Variable edgeTargetVariable,
+                                      VariableGenerator variableGenerator, ImmutableMap<Variable, GroundTerm> externalBindings)
+            throws OntopInvalidInputQueryException, OntopUnsupportedInputQueryException {
+        String subjectName = path.getSubjectVar().getName();
+        String objectName = path.getObjectVar().getName();
+        if (subjectName.equals(objectName))
+            throw new OntopUnsupportedInputQueryException("The endpoints of the property path cannot be distinguished: " + path);
+
+        QueryRoot root = new QueryRoot(path.getPathExpression().clone());
+        ImmutableSet<String> endNames = removeEndpointFilters(root, subjectName);
+
+        Map<String, String> renaming = new HashMap<>();
+        root.visit(new AbstractQueryModelVisitor<RuntimeException>() {
+            @Override
+            public void meet(Var var) {
+                if (var.getName().equals(subjectName))
+                    renameIntoVariable(var, edgeSourceVariable.getName());
+                else if (var.getName().equals(objectName) || endNames.contains(var.getName()))
+                    renameIntoVariable(var, edgeTargetVariable.getName());
+                else if (!var.hasValue())
+                    var.setName(renaming.computeIfAbsent(var.getName(),
+                            n -> variableGenerator.generateNewVariable().getName()));
+            }
+        });
+
+        ImmutableSet<Variable> edgeVariables = ImmutableSet.of(edgeSourceVariable, edgeTargetVariable);
+        IQTree edges = translate(root.getArg(), ImmutableMap.of()).iqTree;
+        if (!edges.getVariables().containsAll(edgeVariables))
+            throw new OntopUnsupportedInputQueryException("Unsupported property path: " + path);
+
+        return iqFactory.createUnaryIQTree(iqFactory.createConstructionNode(edgeVariables), edges);
+    }
+
+    /**
+     * When the path goes from a variable back to itself (e.g. ?v (p/q)+ ?v), the RDF4J parser ends the path
+     * expression on fresh variables constrained by sameTerm to be the subject. These constraints apply to the whole
+     * path (they are repeated outside the path), not to the edges: they are removed and the fresh variables
+     * are the ends of the edges.
+     *
+     * Returns the names of these fresh variables.
+     */
+    private static ImmutableSet<String> removeEndpointFilters(QueryRoot root, String subjectName) {
+        ImmutableSet.Builder<String> endNames = ImmutableSet.builder();
+        root.visit(new AbstractQueryModelVisitor<RuntimeException>() {
+            @Override
+            public void meet(Filter filter) {
+                if (filter.getCondition() instanceof SameTerm) {
+                    SameTerm sameTerm = (SameTerm) filter.getCondition();
+                    if ((sameTerm.getLeftArg() instanceof Var) && (sameTerm.getRightArg() instanceof Var)) {
+                        Var left = (Var) sameTerm.getLeftArg();
+                        Var right = (Var) sameTerm.getRightArg();
+                        Optional<Var> end = left.getName().equals(subjectName)
+                                ? Optional.of(right)
+                                : right.getName().equals(subjectName) ? Optional.of(left) : Optional.empty();
+                        if (end.isPresent() && end.get().isAnonymous() && !end.get().hasValue()) {
+                            endNames.add(end.get().getName());
+                            TupleExpr arg = filter.getArg();
+                            filter.replaceWith(arg);
+                            arg.visit(this);
+                            return;
+                        }
+                    }
+                }
+                super.meet(filter);
+            }
+        });
+        return endNames.build();
+    }
+
+    private ImmutableSet<Variable> getPathVariables(ArbitraryLengthPath path) {
+        ImmutableSet.Builder<Variable> builder = ImmutableSet.builder();
+        path.visit(new AbstractQueryModelVisitor<RuntimeException>() {
+            @Override
+            public void meet(Var var) {
+                builder.add(termFactory.getVariable(var.getName()));
+            }
+        });
+        return builder.build();
+    }
+
+    private static void renameIntoVariable(Var var, String name) {
+        var.setName(name);
+        var.setValue(null);
+        var.setConstant(false);
+        var.setAnonymous(false);
+    }
+
+    private Variable generateFreshPathVariable(VariableGenerator variableGenerator) {
+        return variableGenerator.generateNewVariableFromVar(termFactory.getVariable(PATH_VARIABLE_PREFIX));
+    }
+
+    /**
+     * Appears in property paths of the form p? and p*.
+     *
+     * The zero-length paths between two variables would require all the nodes of the graph: not supported.
+     */
+    private TranslationResult translateZeroLengthPath(ZeroLengthPath path, ImmutableMap<Variable, GroundTerm> externalBindings)
+            throws OntopUnsupportedInputQueryException {
+        if (path.getScope().equals(StatementPattern.Scope.NAMED_CONTEXTS) || path.getContextVar() != null)
+            throw new OntopUnsupportedInputQueryException("Property paths in named graphs are not supported yet: " + path);
+
+        VariableOrGroundTerm subject = translateRDF4JVar(path.getSubjectVar(), ImmutableSet.of(), true, externalBindings);
+        VariableOrGroundTerm object = translateRDF4JVar(path.getObjectVar(), ImmutableSet.of(), true, externalBindings);
+
+        if ((subject instanceof Variable) && (object instanceof Variable))
+            throw new OntopUnsupportedInputQueryException(
+                    "Zero-length paths between two variables are not supported: " + path);
+
+        if (!(subject instanceof Variable) && !(object instanceof Variable))
+            return createTranslationResult(
+                    subject.equals(object)
+                            ? iqFactory.createTrueNode()
+                            : iqFactory.createEmptyNode(ImmutableSet.of()),
+                    ImmutableSet.of());
+
+        Variable variable = (Variable) ((subject instanceof Variable) ? subject : object);
+        GroundTerm groundTerm = (GroundTerm) ((subject instanceof Variable) ? object : subject);
+        IQTree tree = iqFactory.createUnaryIQTree(
+                iqFactory.createConstructionNode(ImmutableSet.of(variable),
+                        substitutionFactory.getSubstitution(variable, groundTerm)),
+                iqFactory.createTrueNode());
+
+        return createTranslationResult(
+                externalBindings.containsKey(variable)
+                        ? applyExternalBindingFilter(tree, externalBindings, ImmutableSet.of(variable))
+                        : tree,
+                ImmutableSet.of());
+    }
+
     private TranslationResult translateExtension(Extension node, ImmutableMap<Variable, GroundTerm> externalBindings) throws OntopInvalidInputQueryException, OntopUnsupportedInputQueryException {
         TranslationResult childTranslation = translate(node.getArg(), externalBindings);
         IQTree childQuery = childTranslation.iqTree;
@@ -85,17 +85,27 @@ public class BasicQueryUnfolder extends AbstractIntensionalQueryMerger implement
                     .map(i -> i.equals(RDF.TYPE)
                             ? getRDFClassDefinition(predicate, arguments)
                             : mapping.getRDFPropertyDefinition(predicate, i))
-                    .orElseGet(() -> getStarDefinition(predicate));
+                    .orElseGet(() -> getStarDefinition(predicate, arguments));
         }
 
         private Optional<IQ> getRDFClassDefinition(RDFAtomPredicate predicate,
                                                    ImmutableList<? extends VariableOrGroundTerm> arguments) {
             return predicate.getClassIRI(arguments)
                     .map(i -> mapping.getRDFClassDefinition(predicate, i))
-                    .orElseGet(() -> getStarClassDefinition(predicate));
+                    .orElseGet(() -> getStarClassDefinition(predicate, arguments));
         }
 
-        private Optional<IQ> getStarClassDefinition(RDFAtomPredicate predicate) {
+        /**
+         * When the subject is a constant IRI, only the class definitions whose IRI templates are compatible
+         * with it are merged
+         */
+        private Optional<IQ> getStarClassDefinition(RDFAtomPredicate predicate,
+                                                    ImmutableList<? extends VariableOrGroundTerm> arguments) {
+            VariableOrGroundTerm subject = predicate.getSubject(arguments);
+            if (subject instanceof IRIConstant)
+                return queryMerger.mergeDefinitions(
+                        mapping.getRDFClassDefinitionsWithSubject(predicate, ((IRIConstant) subject).getIRI()));
+
             return queryMerger.mergeDefinitions(mapping.getRDFClasses(predicate).stream()
                     .flatMap(i -> mapping.getRDFClassDefinition(predicate, i)
                             .map(Stream::of)
@@ -103,7 +113,22 @@ public class BasicQueryUnfolder extends AbstractIntensionalQueryMerger implement
                     .collect(ImmutableCollectors.toList()));
         }
 
-        private Optional<IQ> getStarDefinition(RDFAtomPredicate predicate) {
+        /**
+         * When the subject or the object is a constant IRI (e.g. DESCRIBE), only the definitions
+         * whose IRI templates are compatible with it are merged
+         */
+        private Optional<IQ> getStarDefinition(RDFAtomPredicate predicate,
+                                               ImmutableList<? extends VariableOrGroundTerm> arguments) {
+            VariableOrGroundTerm subject = predicate.getSubject(arguments);
+            if (subject instanceof IRIConstant)
+                return queryMerger.mergeDefinitions(
+                        mapping.getQueriesWithSubject(predicate, ((IRIConstant) subject).getIRI()));
+
+            VariableOrGroundTerm object = predicate.getObject(arguments);
+            if (object instanceof IRIConstant)
+                return queryMerger.mergeDefinitions(
+                        mapping.getQueriesWithObject(predicate, ((IRIConstant) object).getIRI()));
+
             return queryMerger.mergeDefinitions(mapping.getQueries(predicate));
         }
 
@@ -3,6 +3,8 @@ package it.unibz.inf.ontop.injection;
 
 import com.google.common.collect.ImmutableSet;
 
+import java.util.Optional;
+
 public interface OntopReformulationSettings extends OntopOBDASettings, OntopOptimizationSettings {
 
     boolean isExistentialReasoningEnabled();
@@ -23,6 +25,24 @@ public interface OntopReformulationSettings extends OntopOBDASettings, OntopOpti
     boolean isQueryLoggingDecompositionEnabled();
     boolean areQueryLoggingDecompositionAndMergingMutuallyExclusive();
 
+    /**
+     * Maximum number of query log messages waiting to be written (asynchronous sink)
+     */
+    int getQueryLogBufferSize();
+
+    /**
+     * If false, query log messages are dropped when the buffer is full.
+     * If true, the query thread waits.
+     */
+    boolean isQueryLoggingBlockingWhenBufferFull();
+
+    /**
+     * Used by the rolling file appender
+     */
+    Optional<String> getQueryLogFile();
+    long getQueryLogFileMaxSize();
+    int getQueryLogFileMaxBackups();
+
     /**
      * Returns true if the pattern "?s ?p <describedIRI>" should also be
      * considered while answering a DESCRIBE query.
@@ -34,6 +54,12 @@ public interface OntopReformulationSettings extends OntopOBDASettings, OntopOpti
 
     long getQueryCacheMaxSize();
 
+    /**
+     * Returns true if queries only differing by some of their literals should share the same
+     * reformulation (parameterized by these literals).
+     */
+    boolean isQueryTemplateCacheEnabled();
+
     String getApplicationName();
 
 
@@ -45,6 +71,7 @@ public interface OntopReformulationSettings extends OntopOBDASettings, OntopOpti
     String AVOID_POST_PROCESSING = "ontop.avoidPostProcessing";
     String EXCLUDE_INVALID_TRIPLES_FROM_RESULT_SET = "ontop.excludeInvalidTriplesFromResultSet";
     String QUERY_CACHE_MAX_SIZE = "ontop.cache.query.size";
+    String QUERY_TEMPLATE_CACHE = "ontop.cache.queryTemplate";
     String QUERY_LOGGING = "ontop.queryLogging";
     // Needed for logging
     String APPLICATION_NAME = "ontop.applicationName";
@@ -60,6 +87,11 @@ public interface OntopReformulationSettings extends OntopOBDASettings, OntopOpti
     String QUERY_TEMPLATE_EXTRACTION = "ontop.queryLogging.extractQueryTemplate";
     String QUERY_LOGGING_DECOMPOSITION = "ontop.queryLogging.decomposition";
     String QUERY_LOGGING_DECOMPOSITION_AND_MERGING_EXCLUSIVE = "ontop.queryLogging.decompositionAndMergingMutuallyExclusive";
+    String QUERY_LOG_BUFFER_SIZE = "ontop.queryLogging.bufferSize";
+    String QUERY_LOGGING_BLOCK_WHEN_BUFFER_FULL = "ontop.queryLogging.blockWhenBufferFull";
+    String QUERY_LOG_FILE = "ontop.queryLogging.file";
+    String QUERY_LOG_FILE_MAX_SIZE = "ontop.queryLogging.file.maxSize";
+    String QUERY_LOG_FILE_MAX_BACKUPS = "ontop.queryLogging.file.maxBackups";
 
     String INCLUDE_FIXED_OBJECT_POSITION_IN_DESCRIBE = "ontop.includeFixedObjectPositionInDescribe";
 }
@@ -8,6 +8,7 @@ import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
 import javax.annotation.Nullable;
 import java.util.Collections;
+import java.util.Optional;
 import java.util.Properties;
 
 public class OntopReformulationSettingsImpl extends OntopOBDASettingsImpl implements OntopReformulationSettings {
@@ -90,6 +91,31 @@ public class OntopReformulationSettingsImpl extends OntopOBDASettingsImpl implem
         return getRequiredBoolean(QUERY_LOGGING_DECOMPOSITION_AND_MERGING_EXCLUSIVE);
     }
 
+    @Override
+    public int getQueryLogBufferSize() {
+        return getRequiredInteger(QUERY_LOG_BUFFER_SIZE);
+    }
+
+    @Override
+    public boolean isQueryLoggingBlockingWhenBufferFull() {
+        return getRequiredBoolean(QUERY_LOGGING_BLOCK_WHEN_BUFFER_FULL);
+    }
+
+    @Override
+    public Optional<String> getQueryLogFile() {
+        return getProperty(QUERY_LOG_FILE);
+    }
+
+    @Override
+    public long getQueryLogFileMaxSize() {
+        return getRequiredLong(QUERY_LOG_FILE_MAX_SIZE);
+    }
+
+    @Override
+    public int getQueryLogFileMaxBackups() {
+        return getRequiredInteger(QUERY_LOG_FILE_MAX_BACKUPS);
+    }
+
     @Override
     public boolean isFixedObjectIncludedInDescribe() {
         return getRequiredBoolean(INCLUDE_FIXED_OBJECT_POSITION_IN_DESCRIBE);
@@ -100,6 +126,11 @@ public class OntopReformulationSettingsImpl extends OntopOBDASettingsImpl implem
         return getRequiredLong(QUERY_CACHE_MAX_SIZE);
     }
 
+    @Override
+    public boolean isQueryTemplateCacheEnabled() {
+        return getRequiredBoolean(QUERY_TEMPLATE_CACHE);
+    }
+
     @Override
     public String getApplicationName() {
         return getRequiredProperty(APPLICATION_NAME);
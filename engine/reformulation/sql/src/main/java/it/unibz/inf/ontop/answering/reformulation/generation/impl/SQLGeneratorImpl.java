@@ -1,6 +1,8 @@
 package it.unibz.inf.ontop.answering.reformulation.generation.impl;
 
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.injection.OntopReformulationSQLSettings;
@@ -15,15 +17,21 @@ import it.unibz.inf.ontop.injection.OptimizerFactory;
 import it.unibz.inf.ontop.iq.IQ;
 import it.unibz.inf.ontop.iq.IQTree;
 import it.unibz.inf.ontop.iq.UnaryIQTree;
+import it.unibz.inf.ontop.iq.BinaryNonCommutativeIQTree;
 import it.unibz.inf.ontop.iq.node.*;
 import it.unibz.inf.ontop.iq.optimizer.PostProcessableFunctionLifter;
 import it.unibz.inf.ontop.iq.optimizer.TermTypeTermLifter;
 import it.unibz.inf.ontop.iq.transformer.BooleanExpressionPushDownTransformer;
 import it.unibz.inf.ontop.iq.transformer.EmptyRowsValuesNodeTransformer;
+import it.unibz.inf.ontop.model.term.Constant;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import it.unibz.inf.ontop.utils.VariableGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Optional;
+import java.util.stream.IntStream;
+
 /**
  * TODO: explain
  *
@@ -74,7 +82,8 @@ public class SQLGeneratorImpl implements NativeQueryGenerator {
 
     @Override
     public IQ generateSourceQuery(IQ query) {
-        return generateSourceQuery(query, settings.isPostProcessingAvoided());
+        return generateSourceQuery(query, settings.isPostProcessingAvoided(), false,
+                settings.isQueryParameterizationEnabled(), settings.getValuesBatchSize());
     }
 
     @Override
@@ -84,6 +93,15 @@ public class SQLGeneratorImpl implements NativeQueryGenerator {
 
     @Override
     public IQ generateSourceQuery(IQ query, boolean avoidPostProcessing, boolean tolerateUnknownTypes) {
+        return generateSourceQuery(query, avoidPostProcessing, tolerateUnknownTypes, false, 0);
+    }
+
+    /**
+     * When batchSize is positive, a VALUES block with more rows than batchSize is split into batches,
+     * one native node per batch. The batches are then put under a union node, to be executed one after the other.
+     */
+    private IQ generateSourceQuery(IQ query, boolean avoidPostProcessing, boolean tolerateUnknownTypes,
+                                   boolean parameterizeConstants, int batchSize) {
         if (query.getTree().isDeclaredAsEmpty())
             return query;
 
@@ -101,9 +119,24 @@ public class SQLGeneratorImpl implements NativeQueryGenerator {
             return iqFactory.createIQ(query.getProjectionAtom(),
                     iqFactory.createEmptyNode(query.getProjectionAtom().getVariables()));
 
-        NativeNode nativeNode = generateNativeNode(normalizedSubTree, tolerateUnknownTypes);
+        Optional<ImmutableList<IQTree>> batches = batchSize > 0
+                ? splitIntoBatches(normalizedSubTree, batchSize)
+                : Optional.empty();
+
+        IQTree nativeTree;
+        if (batches.isPresent()) {
+            LOGGER.debug("Split into {} batches", batches.get().size());
+            nativeTree = iqFactory.createNaryIQTree(
+                    iqFactory.createUnionNode(normalizedSubTree.getVariables()),
+                    batches.get().stream()
+                            // A variable may only be null in the branches of a batch: its type is then unknown
+                            .map(b -> generateNativeNode(b, true, parameterizeConstants))
+                            .collect(ImmutableCollectors.toList()));
+        }
+        else
+            nativeTree = generateNativeNode(normalizedSubTree, tolerateUnknownTypes, parameterizeConstants);
 
-        UnaryIQTree newTree = iqFactory.createUnaryIQTree(split.getPostProcessingConstructionNode(), nativeNode);
+        UnaryIQTree newTree = iqFactory.createUnaryIQTree(split.getPostProcessingConstructionNode(), nativeTree);
 
         return iqFactory.createIQ(query.getProjectionAtom(), newTree);
     }
@@ -199,7 +232,95 @@ public class SQLGeneratorImpl implements NativeQueryGenerator {
         }
     }
 
-    private NativeNode generateNativeNode(IQTree normalizedSubTree, boolean tolerateUnknownTypes) {
-        return defaultIQTree2NativeNodeGenerator.generate(normalizedSubTree, dbParameters, tolerateUnknownTypes);
+    /**
+     * Looks for a VALUES node with more than batchSize rows, or a union of more than batchSize rows of a VALUES block
+     * (see isBuiltFromValues()), only going through operators that distribute over the union (construction, filter,
+     * inner join and the left child of a left join). DISTINCT, ORDER BY, LIMIT and aggregations block the splitting,
+     * as they must see all the rows at once. The other unions (e.g. of mapping assertions) are not split.
+     *
+     * Returns the trees of the batches, or empty if no such node has been found.
+     */
+    private Optional<ImmutableList<IQTree>> splitIntoBatches(IQTree tree, int batchSize) {
+        QueryNode rootNode = tree.getRootNode();
+
+        if (rootNode instanceof ValuesNode) {
+            ValuesNode valuesNode = (ValuesNode) rootNode;
+            ImmutableList<ImmutableList<Constant>> values = valuesNode.getValues();
+            if (values.size() <= batchSize)
+                return Optional.empty();
+
+            return Optional.of(Lists.partition(values, batchSize).stream()
+                    .map(b -> (IQTree) iqFactory.createValuesNode(valuesNode.getOrderedVariables(),
+                            ImmutableList.copyOf(b)))
+                    .collect(ImmutableCollectors.toList()));
+        }
+        if (rootNode instanceof UnionNode) {
+            ImmutableList<IQTree> children = tree.getChildren();
+            if (children.size() <= batchSize || !children.stream().allMatch(this::isBuiltFromValues))
+                return Optional.empty();
+
+            return Optional.of(Lists.partition(children, batchSize).stream()
+                    .map(b -> b.size() == 1
+                            ? b.get(0)
+                            : iqFactory.createNaryIQTree((UnionNode) rootNode, ImmutableList.copyOf(b)))
+                    .collect(ImmutableCollectors.toList()));
+        }
+        if ((rootNode instanceof ConstructionNode) || (rootNode instanceof FilterNode)) {
+            return splitIntoBatches(((UnaryIQTree) tree).getChild(), batchSize)
+                    .map(bs -> bs.stream()
+                            .map(b -> (IQTree) iqFactory.createUnaryIQTree((UnaryOperatorNode) rootNode, b))
+                            .collect(ImmutableCollectors.toList()));
+        }
+        if (rootNode instanceof InnerJoinNode) {
+            ImmutableList<IQTree> children = tree.getChildren();
+            return IntStream.range(0, children.size())
+                    .mapToObj(i -> splitIntoBatches(children.get(i), batchSize)
+                            .map(bs -> bs.stream()
+                                    .map(b -> (IQTree) iqFactory.createNaryIQTree((InnerJoinNode) rootNode,
+                                            replaceChild(children, i, b)))
+                                    .collect(ImmutableCollectors.toList())))
+                    .filter(Optional::isPresent)
+                    .map(Optional::get)
+                    .findFirst();
+        }
+        if (rootNode instanceof LeftJoinNode) {
+            BinaryNonCommutativeIQTree leftJoinTree = (BinaryNonCommutativeIQTree) tree;
+            return splitIntoBatches(leftJoinTree.getLeftChild(), batchSize)
+                    .map(bs -> bs.stream()
+                            .map(b -> (IQTree) iqFactory.createBinaryNonCommutativeIQTree((LeftJoinNode) rootNode,
+                                    b, leftJoinTree.getRightChild()))
+                            .collect(ImmutableCollectors.toList()));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * A VALUES node, possibly reduced to a single row (true node), under construction and filter nodes
+     * and left joins (as left child).
+     *
+     * For instance, a row of a VALUES block followed by an OPTIONAL. Unions of mapping assertions
+     * (even after a VALUES block has been pushed into them) are not built from VALUES.
+     */
+    private boolean isBuiltFromValues(IQTree tree) {
+        QueryNode rootNode = tree.getRootNode();
+        if ((rootNode instanceof ValuesNode) || (rootNode instanceof TrueNode))
+            return true;
+        if ((rootNode instanceof ConstructionNode) || (rootNode instanceof FilterNode))
+            return isBuiltFromValues(((UnaryIQTree) tree).getChild());
+        if (rootNode instanceof LeftJoinNode)
+            return isBuiltFromValues(((BinaryNonCommutativeIQTree) tree).getLeftChild());
+        return false;
+    }
+
+    private static ImmutableList<IQTree> replaceChild(ImmutableList<IQTree> children, int index, IQTree newChild) {
+        return IntStream.range(0, children.size())
+                .mapToObj(i -> i == index ? newChild : children.get(i))
+                .collect(ImmutableCollectors.toList());
+    }
+
+    private NativeNode generateNativeNode(IQTree normalizedSubTree, boolean tolerateUnknownTypes,
+                                          boolean parameterizeConstants) {
+        return defaultIQTree2NativeNodeGenerator.generate(normalizedSubTree, dbParameters, tolerateUnknownTypes,
+                parameterizeConstants);
     }
 }
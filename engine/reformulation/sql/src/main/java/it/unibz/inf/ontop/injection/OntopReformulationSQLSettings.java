@@ -3,4 +3,24 @@ package it.unibz.inf.ontop.injection;
 
 public interface OntopReformulationSQLSettings extends OntopReformulationSettings, OntopSQLCoreSettings {
 
+    /**
+     * If true, the constants compared to columns in the generated SQL queries are replaced by
+     * JDBC placeholders, so that the queries can be executed as prepared statements.
+     */
+    boolean isQueryParameterizationEnabled();
+
+    /**
+     * Maximum number of rows of a VALUES block (or of branches of a top-level UNION) sent to the DB
+     * in one SQL query. Larger blocks are split into batches executed one after the other.
+     *
+     * 0 means no batching. The default value depends on the JDBC driver.
+     */
+    int getValuesBatchSize();
+
+    //--------------------------
+    // Keys
+    //--------------------------
+
+    String QUERY_PARAMETERIZATION = "ontop.sql.queryParameterization";
+    String VALUES_BATCH_SIZE = "ontop.sql.valuesBatchSize";
 }
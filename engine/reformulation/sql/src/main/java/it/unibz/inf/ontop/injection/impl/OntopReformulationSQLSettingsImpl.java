@@ -3,12 +3,14 @@ package it.unibz.inf.ontop.injection.impl;
 import it.unibz.inf.ontop.injection.OntopReformulationSQLSettings;
 import it.unibz.inf.ontop.injection.OntopSQLCoreSettings;
 
+import java.util.Optional;
 import java.util.Properties;
 
 public class OntopReformulationSQLSettingsImpl extends OntopReformulationSettingsImpl
         implements OntopReformulationSQLSettings {
 
     private static final String DEFAULT_FILE = "reformulation-sql-default.properties";
+    private static final String VALUES_BATCH_SIZE_SUFFIX = "-valuesBatchSize";
 
     private final OntopSQLCoreSettings sqlSettings;
 
@@ -20,6 +22,16 @@ public class OntopReformulationSQLSettingsImpl extends OntopReformulationSetting
     private static Properties loadProperties(Properties userProperties) {
         Properties properties = loadDefaultQASQLProperties();
         properties.putAll(userProperties);
+
+        /*
+         * Batch size of the VALUES blocks
+         */
+        String jdbcDriver = OntopSQLCoreSettingsImpl.extractJdbcDriver(userProperties);
+        Optional.ofNullable(properties.getProperty(jdbcDriver + VALUES_BATCH_SIZE_SUFFIX))
+                // Must NOT override user properties
+                .filter(v -> !userProperties.containsKey(VALUES_BATCH_SIZE))
+                .ifPresent(v -> properties.setProperty(VALUES_BATCH_SIZE, v));
+
         return OntopSQLCoreSettingsImpl.loadSQLCoreProperties(properties);
     }
 
@@ -27,6 +39,16 @@ public class OntopReformulationSQLSettingsImpl extends OntopReformulationSetting
         return loadDefaultPropertiesFromFile(OntopReformulationSQLSettings.class, DEFAULT_FILE);
     }
 
+    @Override
+    public boolean isQueryParameterizationEnabled() {
+        return getRequiredBoolean(QUERY_PARAMETERIZATION);
+    }
+
+    @Override
+    public int getValuesBatchSize() {
+        return getRequiredInteger(VALUES_BATCH_SIZE);
+    }
+
     @Override
     public String getJdbcUrl() {
         return sqlSettings.getJdbcUrl();
@@ -0,0 +1,43 @@
+package it.unibz.inf.ontop.answering.cache;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.iq.IQ;
+
+import java.util.Optional;
+
+/**
+ * Results of deterministic SELECT queries, indexed by their executable query
+ * (native query, parameters and construction of the RDF terms).
+ *
+ * Entries expire after a TTL and can be invalidated by the name of a relation they depend on
+ * (as rendered by the RelationNameExtractor), e.g. after a DB update.
+ *
+ * Guice-enabled interface. Shared (singleton).
+ *
+ * Thread-safe.
+ */
+public interface ResultSetCache {
+
+    /**
+     * If false, get() always returns empty and put() has no effect
+     */
+    boolean isEnabled();
+
+    Optional<ImmutableList<OntopBindingSet>> get(IQ executableQuery);
+
+    /**
+     * Ignored if there are more rows than getMaxRowsPerQuery()
+     */
+    void put(IQ executableQuery, ImmutableSet<String> relationNames, ImmutableList<OntopBindingSet> rows);
+
+    int getMaxRowsPerQuery();
+
+    /**
+     * Removes the results depending on the relation
+     */
+    void invalidate(String relationName);
+
+    void invalidateAll();
+}
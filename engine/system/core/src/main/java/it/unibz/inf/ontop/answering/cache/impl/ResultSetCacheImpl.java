@@ -0,0 +1,116 @@
+package it.unibz.inf.ontop.answering.cache.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.answering.cache.ResultSetCache;
+import it.unibz.inf.ontop.answering.metrics.OntopMetrics;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.injection.OntopSystemSettings;
+import it.unibz.inf.ontop.iq.IQ;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The size of the cache is bounded by the total number of rows.
+ * Least recently used entries are evicted first.
+ */
+@Singleton
+public class ResultSetCacheImpl implements ResultSetCache {
+
+    private final boolean isEnabled;
+    private final int maxRowsPerQuery;
+    private final Cache<IQ, Entry> cache;
+
+    private final OntopMetrics.Counter hitCounter;
+    private final OntopMetrics.Counter missCounter;
+    private final OntopMetrics.Counter evictionCounter;
+    private final OntopMetrics.Counter invalidationCounter;
+
+    @Inject
+    private ResultSetCacheImpl(OntopSystemSettings settings, OntopMetrics metrics) {
+        this(settings.isResultCacheEnabled(), settings.getResultCacheMaxRows(),
+                settings.getResultCacheMaxRowsPerQuery(), settings.getResultCacheTTL(), metrics);
+    }
+
+    ResultSetCacheImpl(boolean isEnabled, long maxRows, int maxRowsPerQuery, long ttl, OntopMetrics metrics) {
+        this.isEnabled = isEnabled;
+        this.maxRowsPerQuery = maxRowsPerQuery;
+        this.hitCounter = metrics.counter(OntopMetrics.RESULT_CACHE_HIT_COUNTER);
+        this.missCounter = metrics.counter(OntopMetrics.RESULT_CACHE_MISS_COUNTER);
+        this.evictionCounter = metrics.counter(OntopMetrics.RESULT_CACHE_EVICTION_COUNTER);
+        this.invalidationCounter = metrics.counter(OntopMetrics.RESULT_CACHE_INVALIDATION_COUNTER);
+
+        this.cache = CacheBuilder.newBuilder()
+                // Empty results still occupy an entry
+                .<IQ, Entry>weigher((k, v) -> Math.max(1, v.rows.size()))
+                .maximumWeight(maxRows)
+                .expireAfterWrite(ttl, TimeUnit.MILLISECONDS)
+                .removalListener(n -> {
+                    if (n.wasEvicted())
+                        evictionCounter.increment();
+                })
+                .build();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    @Override
+    public Optional<ImmutableList<OntopBindingSet>> get(IQ executableQuery) {
+        if (!isEnabled)
+            return Optional.empty();
+
+        Optional<ImmutableList<OntopBindingSet>> rows = Optional.ofNullable(cache.getIfPresent(executableQuery))
+                .map(e -> e.rows);
+        if (rows.isPresent())
+            hitCounter.increment();
+        else
+            missCounter.increment();
+        return rows;
+    }
+
+    @Override
+    public void put(IQ executableQuery, ImmutableSet<String> relationNames, ImmutableList<OntopBindingSet> rows) {
+        if (isEnabled && rows.size() <= maxRowsPerQuery)
+            cache.put(executableQuery, new Entry(relationNames, rows));
+    }
+
+    @Override
+    public int getMaxRowsPerQuery() {
+        return maxRowsPerQuery;
+    }
+
+    @Override
+    public void invalidate(String relationName) {
+        // Linear scan: invalidations are expected to be much less frequent than look-ups
+        cache.asMap().entrySet().removeIf(e -> {
+            boolean toBeRemoved = e.getValue().relationNames.contains(relationName);
+            if (toBeRemoved)
+                invalidationCounter.increment();
+            return toBeRemoved;
+        });
+    }
+
+    @Override
+    public void invalidateAll() {
+        invalidationCounter.increment(cache.size());
+        cache.invalidateAll();
+    }
+
+    private static class Entry {
+        private final ImmutableSet<String> relationNames;
+        private final ImmutableList<OntopBindingSet> rows;
+
+        private Entry(ImmutableSet<String> relationNames, ImmutableList<OntopBindingSet> rows) {
+            this.relationNames = relationNames;
+            this.rows = rows;
+        }
+    }
+}
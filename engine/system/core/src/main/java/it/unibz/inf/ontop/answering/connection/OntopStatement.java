@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.answering.connection;
 
+import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
 import it.unibz.inf.ontop.answering.reformulation.input.ConstructTemplate;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQuery;
@@ -9,6 +10,7 @@ import it.unibz.inf.ontop.answering.resultset.OBDAResultSet;
 import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
 import it.unibz.inf.ontop.exception.*;
 import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.model.term.Variable;
 
 /**
  * OBDAStatement specific to Ontop.
@@ -27,6 +29,13 @@ public interface OntopStatement extends OBDAStatement {
 
     <R extends OBDAResultSet> IQ getExecutableQuery(InputQuery<R> inputQuery) throws OntopReformulationException;
 
+    /**
+     * Sets of answer variables known to be unique in the results of the query
+     * (e.g. for paginating them by keyset)
+     */
+    <R extends OBDAResultSet> ImmutableSet<ImmutableSet<Variable>> getUniqueConstraints(InputQuery<R> inputQuery)
+            throws OntopReformulationException;
+
     TupleResultSet executeSelectQuery(IQ executableQuery, QueryLogger queryLogger)
             throws OntopQueryEvaluationException;
 
@@ -0,0 +1,44 @@
+package it.unibz.inf.ontop.answering.connection;
+
+import it.unibz.inf.ontop.exception.OntopQueryEvaluationException;
+
+/**
+ * Executes the queries of all the statements, with admission control.
+ *
+ * At most a fixed number of queries are evaluated concurrently (see OntopSystemSettings).
+ * The other ones wait in a bounded queue.
+ *
+ * Guice-enabled interface. Shared (singleton).
+ *
+ * Thread-safe.
+ */
+public interface QueryExecutionScheduler extends AutoCloseable {
+
+    /**
+     * Waits (in the calling thread) until the task is admitted, and then executes it asynchronously.
+     *
+     * The returned admission must be released once the query does not use the DB anymore,
+     * that is when its result set is closed. Otherwise, the query keeps counting as being evaluated.
+     *
+     * Throws an OntopQueryEvaluationException if the queue is full, if the task could not be admitted
+     * before the queue timeout, or if the calling thread is interrupted while waiting.
+     */
+    Admission submit(Runnable task) throws OntopQueryEvaluationException;
+
+    /**
+     * Rejects the tasks submitted afterwards and releases the threads once the running tasks are completed.
+     *
+     * Called when the query engine is closed.
+     */
+    @Override
+    void close();
+
+
+    interface Admission {
+
+        /**
+         * Lets the next waiting query be admitted. Only the first call has an effect.
+         */
+        void release();
+    }
+}
@@ -0,0 +1,204 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import it.unibz.inf.ontop.answering.connection.QueryExecutionScheduler;
+import it.unibz.inf.ontop.answering.metrics.OntopMetrics;
+import it.unibz.inf.ontop.exception.OntopQueryEvaluationException;
+import it.unibz.inf.ontop.injection.OntopSystemSettings;
+import it.unibz.inf.ontop.utils.VirtualThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Platform threads are pooled (at most one per concurrent query, or the maximum number of query threads
+ * when the concurrent queries are not limited), whereas a new virtual thread is created for each query.
+ *
+ * The admission is controlled by a fair semaphore, so the queries are admitted in their order of arrival.
+ * The permit is held until the admission is released, that is until the result set is closed (see QuestStatement):
+ * the results of a query are fetched from the DB while it is being consumed.
+ */
+@Singleton
+public class QueryExecutionSchedulerImpl implements QueryExecutionScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryExecutionSchedulerImpl.class);
+    private static final String THREAD_NAME_PREFIX = "ontop-query-";
+    private static final long KEEP_ALIVE_SECONDS = 60;
+    private static final Admission UNLIMITED_ADMISSION = () -> { };
+
+    private final int maxConcurrentQueries;
+    private final int maxQueuedQueries;
+    private final long queueTimeout;
+    // Empty if the number of concurrent queries is not limited
+    private final Optional<Semaphore> permits;
+    private final AtomicInteger queueLength;
+    private final Executor executor;
+
+    private final OntopMetrics.Counter acceptedCounter;
+    private final OntopMetrics.Counter rejectedCounter;
+    private final OntopMetrics.Counter timeoutCounter;
+    private final OntopMetrics.Timer waitTimer;
+    private final OntopMetrics.DistributionSummary queueLengthSummary;
+    private final OntopMetrics.DistributionSummary runningSummary;
+
+    @Inject
+    private QueryExecutionSchedulerImpl(OntopSystemSettings settings, OntopMetrics metrics) {
+        this(settings.getMaxConcurrentQueries(), settings.getMaxQueuedQueries(), settings.getQueueTimeout(),
+                settings.getMaxQueryThreads(), settings.isVirtualThreadEnabled(), metrics);
+    }
+
+    QueryExecutionSchedulerImpl(int maxConcurrentQueries, int maxQueuedQueries, long queueTimeout,
+                                int maxQueryThreads, boolean virtualThreads, OntopMetrics metrics) {
+        this.maxConcurrentQueries = maxConcurrentQueries;
+        this.maxQueuedQueries = maxQueuedQueries;
+        this.queueTimeout = queueTimeout;
+        this.permits = maxConcurrentQueries > 0
+                ? Optional.of(new Semaphore(maxConcurrentQueries, true))
+                : Optional.empty();
+        this.queueLength = new AtomicInteger(0);
+        this.executor = createExecutor(maxConcurrentQueries, maxQueryThreads, virtualThreads);
+
+        this.acceptedCounter = metrics.counter(OntopMetrics.QUERY_ADMISSION_ACCEPTED_COUNTER);
+        this.rejectedCounter = metrics.counter(OntopMetrics.QUERY_ADMISSION_REJECTED_COUNTER);
+        this.timeoutCounter = metrics.counter(OntopMetrics.QUERY_ADMISSION_TIMEOUT_COUNTER);
+        this.waitTimer = metrics.timer(OntopMetrics.QUERY_ADMISSION_WAIT_TIMER);
+        this.queueLengthSummary = metrics.summary(OntopMetrics.QUERY_ADMISSION_QUEUE_LENGTH_SUMMARY);
+        this.runningSummary = metrics.summary(OntopMetrics.QUERY_ADMISSION_RUNNING_SUMMARY);
+    }
+
+    @Override
+    public Admission submit(Runnable task) throws OntopQueryEvaluationException {
+        if (!permits.isPresent()) {
+            acceptedCounter.increment();
+            execute(task);
+            return UNLIMITED_ADMISSION;
+        }
+
+        Semaphore semaphore = permits.get();
+        runningSummary.record(maxConcurrentQueries - semaphore.availablePermits());
+        queueLengthSummary.record(queueLength.get());
+
+        // Unlike tryAcquire(), respects the fairness: does not overtake the waiting queries
+        boolean admitted;
+        try {
+            admitted = semaphore.tryAcquire(0, TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OntopQueryEvaluationException("Interrupted while waiting for the query to be admitted", e);
+        }
+        if (!admitted)
+            waitForAdmission(semaphore);
+
+        acceptedCounter.increment();
+        Admission admission = new PermitAdmission(semaphore);
+        try {
+            execute(task);
+        }
+        catch (OntopQueryEvaluationException e) {
+            admission.release();
+            throw e;
+        }
+        return admission;
+    }
+
+    private void waitForAdmission(Semaphore semaphore) throws OntopQueryEvaluationException {
+        try {
+            if (queueLength.incrementAndGet() > maxQueuedQueries) {
+                rejectedCounter.increment();
+                throw new OntopQueryEvaluationException(String.format(
+                        "Too many queries: %d queries are already being evaluated and %d are waiting",
+                        maxConcurrentQueries, maxQueuedQueries));
+            }
+
+            long startTime = System.nanoTime();
+            boolean admitted;
+            try {
+                admitted = semaphore.tryAcquire(queueTimeout, TimeUnit.MILLISECONDS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OntopQueryEvaluationException("Interrupted while waiting for the query to be admitted", e);
+            }
+            finally {
+                waitTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            }
+
+            if (!admitted) {
+                timeoutCounter.increment();
+                throw new OntopQueryEvaluationException(String.format(
+                        "The query could not be admitted within %d ms: %d queries are already being evaluated",
+                        queueTimeout, maxConcurrentQueries));
+            }
+        }
+        finally {
+            queueLength.decrementAndGet();
+        }
+    }
+
+    /**
+     * Virtual threads are not pooled, so there is nothing to release for them
+     */
+    @Override
+    public void close() {
+        if (executor instanceof ExecutorService)
+            ((ExecutorService) executor).shutdown();
+    }
+
+    private void execute(Runnable task) throws OntopQueryEvaluationException {
+        try {
+            executor.execute(task);
+        }
+        catch (RejectedExecutionException e) {
+            throw new OntopQueryEvaluationException(e);
+        }
+    }
+
+    private static Executor createExecutor(int maxConcurrentQueries, int maxQueryThreads, boolean virtualThreads) {
+        if (virtualThreads) {
+            Optional<ThreadFactory> virtualThreadFactory = VirtualThreads.getThreadFactory(THREAD_NAME_PREFIX);
+            if (virtualThreadFactory.isPresent()) {
+                ThreadFactory threadFactory = virtualThreadFactory.get();
+                return r -> threadFactory.newThread(r).start();
+            }
+            LOGGER.warn("Virtual threads are not supported by this JVM (Java 21+ required): a thread pool is used instead");
+        }
+
+        AtomicInteger threadCounter = new AtomicInteger(0);
+        ThreadFactory threadFactory = r -> {
+            Thread thread = new Thread(r, THREAD_NAME_PREFIX + threadCounter.getAndIncrement());
+            // Idle threads must not prevent the JVM from exiting
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        // The admission control (if any) already limits the number of queued tasks
+        int threadCount = (maxConcurrentQueries > 0) ? maxConcurrentQueries : Math.max(1, maxQueryThreads);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threadCount, threadCount,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+
+    private static class PermitAdmission implements Admission {
+        private final Semaphore semaphore;
+        private final AtomicBoolean isReleased;
+
+        private PermitAdmission(Semaphore semaphore) {
+            this.semaphore = semaphore;
+            this.isReleased = new AtomicBoolean(false);
+        }
+
+        @Override
+        public void release() {
+            if (isReleased.compareAndSet(false, true))
+                semaphore.release();
+        }
+    }
+}
@@ -1,17 +1,27 @@
 package it.unibz.inf.ontop.answering.connection.impl;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.answering.cache.ResultSetCache;
 import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.connection.QueryExecutionScheduler;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
 import it.unibz.inf.ontop.answering.reformulation.input.*;
 import it.unibz.inf.ontop.answering.resultset.*;
+import it.unibz.inf.ontop.answering.resultset.impl.CachedTupleResultSet;
+import it.unibz.inf.ontop.answering.resultset.impl.CachingTupleResultSet;
 import it.unibz.inf.ontop.answering.resultset.impl.DefaultDescribeGraphResultSet;
 import it.unibz.inf.ontop.exception.*;
 import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
 
 
@@ -23,23 +33,33 @@ public abstract class QuestStatement implements OntopStatement {
 
 	private final QueryReformulator engine;
 	private final QueryLogger.Factory queryLoggerFactory;
+	private final QueryExecutionScheduler scheduler;
+	private final ResultSetCache resultSetCache;
 
 	private QueryExecutionThread executionThread;
-	private boolean canceled = false;
+	private volatile boolean canceled = false;
+	// Admission of the last query, held until its result set is closed
+	@Nullable
+	private volatile QueryExecutionScheduler.Admission admission;
 
 
 	private static final Logger log = LoggerFactory.getLogger(QuestStatement.class);
 
 
-	public QuestStatement(QueryReformulator queryProcessor) {
+	public QuestStatement(QueryReformulator queryProcessor, QueryExecutionScheduler scheduler,
+						  ResultSetCache resultSetCache) {
 		this.engine = queryProcessor;
 		this.queryLoggerFactory = queryProcessor.getQueryLoggerFactory();
+		this.scheduler = scheduler;
+		this.resultSetCache = resultSetCache;
 	}
 
 	/**
-	 * Execution thread
+	 * Execution thread.
+	 *
+	 * Runnable so that it can be executed by the shared scheduler.
 	 */
-	private class QueryExecutionThread<R extends OBDAResultSet, Q extends InputQuery<R>> extends Thread {
+	private class QueryExecutionThread<R extends OBDAResultSet, Q extends InputQuery<R>> implements Runnable {
 
 		private final Q inputQuery;
 		private final QueryLogger queryLogger;
@@ -48,7 +68,7 @@ public abstract class QuestStatement implements OntopStatement {
 
 		private R resultSet;	  // only for SELECT and ASK queries
 		private Exception exception;
-		private boolean executingTargetQuery;
+		private volatile boolean executingTargetQuery;
 
 		QueryExecutionThread(Q inputQuery, QueryLogger queryLogger, Evaluator<R,Q> evaluator,
 						CountDownLatch monitor) {
@@ -72,11 +92,12 @@ public abstract class QuestStatement implements OntopStatement {
 			return resultSet;
 		}
 
+		/**
+		 * If the execution has not started yet, the query is not evaluated (see run())
+		 */
 		public void cancel() throws OntopQueryEvaluationException {
 			canceled = true;
-			if (!executingTargetQuery) {
-				this.stop();
-			} else {
+			if (executingTargetQuery) {
 				cancelExecution();
 			}
 		}
@@ -90,6 +111,8 @@ public abstract class QuestStatement implements OntopStatement {
 //				e.printStackTrace();
 //			}
 			try {
+				if (canceled)
+					return;
 				/*
 				 * Executes the target query.
 				 */
@@ -118,8 +141,32 @@ public abstract class QuestStatement implements OntopStatement {
 											  boolean shouldAlsoCloseStatement)
 			throws OntopQueryEvaluationException, OntopReformulationException {
 		IQ executableQuery = engine.reformulateIntoNativeQuery(inputQuery, queryLogger);
+
+		// Only the results of deterministic queries are cached
+		Optional<ImmutableSet<String>> resultDependencies = resultSetCache.isEnabled()
+				? engine.getResultDependencies(executableQuery)
+				: Optional.empty();
+		if (!resultDependencies.isPresent()) {
+			logExecutionStartingMessage();
+			return executeSelectQuery(executableQuery, queryLogger, shouldAlsoCloseStatement);
+		}
+
+		Optional<ImmutableList<OntopBindingSet>> cachedRows = resultSetCache.get(executableQuery);
+		if (cachedRows.isPresent()) {
+			log.debug("Results retrieved from the cache");
+			queryLogger.declareResultSetUnblockedAndSerialize();
+			ImmutableList<String> signature = executableQuery.getProjectionAtom().getArguments().stream()
+					.map(Variable::getName)
+					.collect(ImmutableCollectors.toList());
+			return new CachedTupleResultSet(signature, cachedRows.get(), queryLogger,
+					shouldAlsoCloseStatement ? this::close : null);
+		}
+
 		logExecutionStartingMessage();
-		return executeSelectQuery(executableQuery, queryLogger, shouldAlsoCloseStatement);
+		return new CachingTupleResultSet(
+				executeSelectQuery(executableQuery, queryLogger, shouldAlsoCloseStatement),
+				resultSetCache.getMaxRowsPerQuery(),
+				rows -> resultSetCache.put(executableQuery, resultDependencies.get(), rows));
 	}
 
 	@Override
@@ -212,7 +259,11 @@ public abstract class QuestStatement implements OntopStatement {
 
 	/**
 	 * Internal method to start a new query execution thread type defines the
-	 * query type SELECT, ASK, CONSTRUCT, or DESCRIBE
+	 * query type SELECT, ASK, CONSTRUCT, or DESCRIBE.
+	 *
+	 * Waits for the query to be admitted by the scheduler (a cancellation during this period
+	 * takes effect once admitted). The admission is given back when the result set is closed,
+	 * when the next query is executed or when the evaluation fails.
 	 */
 	private <R extends OBDAResultSet, Q extends InputQuery<R>> R executeInThread(Q inputQuery, ImmutableMultimap<String, String> httpHeaders,
 			Evaluator<R, Q> evaluator)
@@ -227,13 +278,22 @@ public abstract class QuestStatement implements OntopStatement {
 				monitor);
 
 		this.executionThread = executionthread;
-		executionthread.start();
+		// The result set of the previous query is not consumed anymore
+		releaseAdmission();
+		try {
+			admission = scheduler.submit(executionthread);
+		}
+		catch (OntopQueryEvaluationException e) {
+			queryLogger.declareEvaluationException(e);
+			throw e;
+		}
 		try {
 			monitor.await();
 		} catch (InterruptedException e) {
 			e.printStackTrace();
 		}
 		if (executionthread.errorStatus()) {
+			releaseAdmission();
 			Exception ex = executionthread.getException();
 			if (ex instanceof OntopReformulationException) {
 				throw (OntopReformulationException) ex;
@@ -250,11 +310,24 @@ public abstract class QuestStatement implements OntopStatement {
 
 		if (canceled) {
 			canceled = false;
+			releaseAdmission();
 			throw new OntopQueryEvaluationException("Query execution was cancelled");
 		}
 		return executionthread.getResultSet();
 	}
 
+	/**
+	 * Called when the statement is closed, and when the empty and predefined result sets are closed
+	 * (they leave the statement open)
+	 */
+	protected void releaseAdmission() {
+		QueryExecutionScheduler.Admission currentAdmission = admission;
+		if (currentAdmission != null) {
+			admission = null;
+			currentAdmission.release();
+		}
+	}
+
 
 	@Override
 	public void cancel() throws OntopConnectionException {
@@ -283,4 +356,10 @@ public abstract class QuestStatement implements OntopStatement {
 		return engine.reformulateIntoNativeQuery(inputQuery, queryLoggerFactory.create(ImmutableMultimap.of()));
 	}
 
+	@Override
+	public <R extends OBDAResultSet> ImmutableSet<ImmutableSet<Variable>> getUniqueConstraints(InputQuery<R> inputQuery)
+			throws OntopReformulationException {
+		return engine.getUniqueConstraints(getExecutableQuery(inputQuery));
+	}
+
 }
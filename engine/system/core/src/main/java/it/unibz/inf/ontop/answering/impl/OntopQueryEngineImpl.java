@@ -4,6 +4,7 @@ package it.unibz.inf.ontop.answering.impl;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.logging.QueryLogSink;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.injection.OntopSystemFactory;
@@ -16,13 +17,16 @@ public class OntopQueryEngineImpl implements OntopQueryEngine {
 
     private final DBConnector dbConnector;
     private final QueryReformulator queryReformulator;
+    private final QueryLogSink queryLogSink;
 
     @AssistedInject
     private OntopQueryEngineImpl(@Assisted OBDASpecification obdaSpecification,
                                  ReformulationFactory translationFactory,
-                                 OntopSystemFactory systemFactory) {
+                                 OntopSystemFactory systemFactory,
+                                 QueryLogSink queryLogSink) {
         queryReformulator = translationFactory.create(obdaSpecification);
         dbConnector = systemFactory.create(queryReformulator);
+        this.queryLogSink = queryLogSink;
     }
 
     @Override
@@ -32,7 +36,13 @@ public class OntopQueryEngineImpl implements OntopQueryEngine {
 
     @Override
     public void close() throws OntopConnectionException {
-        dbConnector.close();
+        try {
+            dbConnector.close();
+        }
+        finally {
+            // After the last queries, so that their messages are written
+            queryLogSink.close();
+        }
     }
 
     @Override
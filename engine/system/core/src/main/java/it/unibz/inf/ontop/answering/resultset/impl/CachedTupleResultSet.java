@@ -0,0 +1,72 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Rows taken from the ResultSetCache
+ */
+public class CachedTupleResultSet implements TupleResultSet {
+
+    private final ImmutableList<String> signature;
+    private final ImmutableList<OntopBindingSet> rows;
+    private final QueryLogger queryLogger;
+    @Nullable
+    private final OntopConnectionCloseable statementClosingCB;
+    private int index = 0;
+    private boolean isLastResultDeclared = false;
+
+    public CachedTupleResultSet(ImmutableList<String> signature, ImmutableList<OntopBindingSet> rows,
+                                QueryLogger queryLogger, @Nullable OntopConnectionCloseable statementClosingCB) {
+        this.signature = signature;
+        this.rows = rows;
+        this.queryLogger = queryLogger;
+        this.statementClosingCB = statementClosingCB;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return signature.size();
+    }
+
+    @Override
+    public List<String> getSignature() {
+        return signature;
+    }
+
+    @Override
+    public boolean isConnectionAlive() {
+        return false;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (index < rows.size())
+            return true;
+        if (!isLastResultDeclared) {
+            queryLogger.declareLastResultRetrievedAndSerialize(rows.size());
+            isLastResultDeclared = true;
+        }
+        return false;
+    }
+
+    @Override
+    public OntopBindingSet next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        return rows.get(index++);
+    }
+
+    @Override
+    public void close() throws OntopConnectionException {
+        if (statementClosingCB != null)
+            statementClosingCB.close();
+    }
+}
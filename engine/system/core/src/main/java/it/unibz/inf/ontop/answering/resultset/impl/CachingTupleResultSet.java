@@ -0,0 +1,77 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
+import it.unibz.inf.ontop.exception.OntopResultConversionException;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Records the rows while they are consumed.
+ *
+ * Once the result set has been fully consumed, hands them over (e.g. to the ResultSetCache),
+ * unless there were more than maxRows rows or the result set was closed before.
+ */
+public class CachingTupleResultSet implements TupleResultSet {
+
+    private final TupleResultSet resultSet;
+    private final int maxRows;
+    private final Consumer<ImmutableList<OntopBindingSet>> rowConsumer;
+    // Null once the recording has been stopped
+    private ImmutableList.Builder<OntopBindingSet> rowBuilder;
+    private int rowCount = 0;
+
+    public CachingTupleResultSet(TupleResultSet resultSet, int maxRows,
+                                 Consumer<ImmutableList<OntopBindingSet>> rowConsumer) {
+        this.resultSet = resultSet;
+        this.maxRows = maxRows;
+        this.rowConsumer = rowConsumer;
+        this.rowBuilder = ImmutableList.builder();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return resultSet.getColumnCount();
+    }
+
+    @Override
+    public List<String> getSignature() throws OntopConnectionException {
+        return resultSet.getSignature();
+    }
+
+    @Override
+    public boolean isConnectionAlive() throws OntopConnectionException {
+        return resultSet.isConnectionAlive();
+    }
+
+    @Override
+    public boolean hasNext() throws OntopConnectionException, OntopResultConversionException {
+        boolean hasNext = resultSet.hasNext();
+        if (!hasNext && rowBuilder != null) {
+            rowConsumer.accept(rowBuilder.build());
+            rowBuilder = null;
+        }
+        return hasNext;
+    }
+
+    @Override
+    public OntopBindingSet next() throws OntopConnectionException, OntopResultConversionException {
+        OntopBindingSet row = resultSet.next();
+        if (rowBuilder != null) {
+            if (++rowCount > maxRows)
+                rowBuilder = null;
+            else
+                rowBuilder.add(row);
+        }
+        return row;
+    }
+
+    @Override
+    public void close() throws OntopConnectionException {
+        rowBuilder = null;
+        resultSet.close();
+    }
+}
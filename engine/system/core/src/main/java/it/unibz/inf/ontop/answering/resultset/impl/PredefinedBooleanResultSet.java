@@ -1,6 +1,7 @@
 package it.unibz.inf.ontop.answering.resultset.impl;
 
 import it.unibz.inf.ontop.answering.resultset.BooleanResultSet;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
 
 /**
  * Predefined value
@@ -8,9 +9,11 @@ import it.unibz.inf.ontop.answering.resultset.BooleanResultSet;
 public class PredefinedBooleanResultSet implements BooleanResultSet {
 
     private final boolean value;
+    private final OntopConnectionCloseable closingCB;
 
-    public PredefinedBooleanResultSet(boolean value) {
+    public PredefinedBooleanResultSet(boolean value, OntopConnectionCloseable closingCB) {
         this.value = value;
+        this.closingCB = closingCB;
     }
 
     @Override
@@ -19,6 +22,7 @@ public class PredefinedBooleanResultSet implements BooleanResultSet {
     }
 
     @Override
-    public void close() {
+    public void close() throws OntopConnectionException {
+        closingCB.close();
     }
 }
@@ -18,6 +18,69 @@ public interface OntopSystemSettings extends OntopReformulationSettings {
      */
     boolean isPermanentDBConnectionEnabled();
 
+    /**
+     * Queries are executed in virtual threads instead of platform threads.
+     *
+     * Requires Java 21+. Platform threads are used on older JVMs.
+     */
+    boolean isVirtualThreadEnabled();
+
+    /**
+     * Maximum number of queries evaluated concurrently (admission control).
+     *
+     * No limit if negative or equal to 0.
+     */
+    int getMaxConcurrentQueries();
+
+    /**
+     * Maximum number of platform threads evaluating queries when their number is not limited
+     * by the admission control. Beyond, the queries wait for a thread.
+     */
+    int getMaxQueryThreads();
+
+    /**
+     * Maximum number of queries waiting for being admitted.
+     * Beyond, the queries are rejected.
+     */
+    int getMaxQueuedQueries();
+
+    /**
+     * Maximum time (in ms) a query waits for being admitted
+     */
+    long getQueueTimeout();
+
+    /**
+     * Results of deterministic SELECT queries are cached (see ResultSetCache)
+     */
+    boolean isResultCacheEnabled();
+
+    /**
+     * Maximum number of rows kept in the result cache (over all the queries)
+     */
+    long getResultCacheMaxRows();
+
+    /**
+     * Results having more rows are not cached
+     */
+    int getResultCacheMaxRowsPerQuery();
+
+    /**
+     * Time (in ms) after which cached results expire
+     */
+    long getResultCacheTTL();
+
+    /**
+     * Maximum number of reference queries kept for the predefined queries
+     */
+    long getPredefinedQueryCacheMaxSize();
+
+    /**
+     * Time (in ms) after which a reference query of a predefined query is regenerated.
+     *
+     * Never expires if negative or equal to 0.
+     */
+    long getPredefinedQueryCacheTTL();
+
     // HTTP Caching
     Optional<String> getHttpCacheControl();
 
@@ -27,6 +90,17 @@ public interface OntopSystemSettings extends OntopReformulationSettings {
 
     String DEFAULT_QUERY_TIMEOUT = "ontop.query.defaultTimeout";
     String PERMANENT_DB_CONNECTION = "ontop.permanentConnection";
+    String VIRTUAL_THREADS = "ontop.query.virtualThreads";
+    String MAX_CONCURRENT_QUERIES = "ontop.query.maxConcurrent";
+    String MAX_QUERY_THREADS = "ontop.query.maxThreads";
+    String MAX_QUEUED_QUERIES = "ontop.query.maxQueueLength";
+    String QUEUE_TIMEOUT = "ontop.query.queueTimeout";
+    String RESULT_CACHE_ENABLED = "ontop.resultCache.enabled";
+    String RESULT_CACHE_MAX_ROWS = "ontop.resultCache.maxRows";
+    String RESULT_CACHE_MAX_ROWS_PER_QUERY = "ontop.resultCache.maxRowsPerQuery";
+    String RESULT_CACHE_TTL = "ontop.resultCache.ttl";
+    String PREDEFINED_QUERY_CACHE_MAX_SIZE = "ontop.cache.predefinedQuery.size";
+    String PREDEFINED_QUERY_CACHE_TTL = "ontop.cache.predefinedQuery.ttl";
 
     // HTTP caching
     String HTTP_CACHE_CONTROL = "ontop.http.cacheControl";
@@ -36,6 +36,61 @@ public class OntopSystemSettingsImpl extends OntopReformulationSettingsImpl impl
         return getRequiredBoolean(PERMANENT_DB_CONNECTION);
     }
 
+    @Override
+    public boolean isVirtualThreadEnabled() {
+        return getRequiredBoolean(VIRTUAL_THREADS);
+    }
+
+    @Override
+    public int getMaxConcurrentQueries() {
+        return getRequiredInteger(MAX_CONCURRENT_QUERIES);
+    }
+
+    @Override
+    public int getMaxQueryThreads() {
+        return getRequiredInteger(MAX_QUERY_THREADS);
+    }
+
+    @Override
+    public int getMaxQueuedQueries() {
+        return getRequiredInteger(MAX_QUEUED_QUERIES);
+    }
+
+    @Override
+    public long getQueueTimeout() {
+        return getRequiredLong(QUEUE_TIMEOUT);
+    }
+
+    @Override
+    public boolean isResultCacheEnabled() {
+        return getRequiredBoolean(RESULT_CACHE_ENABLED);
+    }
+
+    @Override
+    public long getResultCacheMaxRows() {
+        return getRequiredLong(RESULT_CACHE_MAX_ROWS);
+    }
+
+    @Override
+    public int getResultCacheMaxRowsPerQuery() {
+        return getRequiredInteger(RESULT_CACHE_MAX_ROWS_PER_QUERY);
+    }
+
+    @Override
+    public long getResultCacheTTL() {
+        return getRequiredLong(RESULT_CACHE_TTL);
+    }
+
+    @Override
+    public long getPredefinedQueryCacheMaxSize() {
+        return getRequiredLong(PREDEFINED_QUERY_CACHE_MAX_SIZE);
+    }
+
+    @Override
+    public long getPredefinedQueryCacheTTL() {
+        return getRequiredLong(PREDEFINED_QUERY_CACHE_TTL);
+    }
+
     @Override
     public Optional<String> getHttpCacheControl() {
         String cacheControl = getProperty(HTTP_CACHE_CONTROL)
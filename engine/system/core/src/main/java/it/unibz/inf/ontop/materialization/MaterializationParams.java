@@ -16,6 +16,25 @@ public interface MaterializationParams {
      */
     boolean canMaterializationBeIncomplete();
 
+    /**
+     * Number of classes/properties materialized concurrently,
+     * each worker using its own connection.
+     *
+     * 1 by default (sequential materialization).
+     */
+    int getWorkerCount();
+
+    /**
+     * Number of sub-queries into which the query of a class/property is split,
+     * according to the ranges of an integer key of its source relation.
+     *
+     * Classes/properties for which no such key is found are not partitioned.
+     * Only used when there are several workers.
+     *
+     * 1 by default (no partitioning).
+     */
+    int getPartitionCount();
+
 
     static Builder defaultBuilder() {
         return new MaterializationParamsImpl.DefaultBuilder<>();
@@ -26,6 +45,10 @@ public interface MaterializationParams {
 
         B enableIncompleteMaterialization(boolean enable);
 
+        B workerCount(int workerCount);
+
+        B partitionCount(int partitionCount);
+
         MaterializationParams build();
 
     }
@@ -4,6 +4,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.inject.Injector;
 import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.logging.QueryLogger;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
 import it.unibz.inf.ontop.answering.resultset.MaterializedGraphResultSet;
 import it.unibz.inf.ontop.exception.*;
@@ -40,6 +41,8 @@ public class DefaultOntopRDFMaterializer implements OntopRDFMaterializer {
     private final ImmutableMap<IRI, VocabularyEntry> vocabulary;
     private final TermFactory termFactory;
     private final RDF rdfFactory;
+    private final Optional<KeyRangePartitioner> partitioner;
+    private final QueryLogger.Factory queryLoggerFactory;
 
     public DefaultOntopRDFMaterializer(OntopSystemConfiguration configuration, MaterializationParams materializationParams) throws OBDASpecificationException {
         Injector injector = configuration.getInjector();
@@ -50,19 +53,32 @@ public class DefaultOntopRDFMaterializer implements OntopRDFMaterializer {
         this.inputQueryFactory = injector.getInstance(InputQueryFactory.class);
         this.termFactory = injector.getInstance(TermFactory.class);
         this.rdfFactory = injector.getInstance(RDF.class);
+        this.queryLoggerFactory = injector.getInstance(QueryLogger.Factory.class);
         this.vocabulary = extractVocabulary(specification.getSaturatedMapping());
 
         this.params = materializationParams;
+        this.partitioner = (materializationParams.getPartitionCount() > 1)
+                ? Optional.of(new KeyRangePartitioner(materializationParams.getPartitionCount(),
+                        specification.getSaturatedMapping(), specification.getDBParameters(), injector))
+                : Optional.empty();
     }
 
     @Override
     public MaterializedGraphResultSet materialize() {
-        return new DefaultMaterializedGraphResultSet(vocabulary, params, queryEngine, inputQueryFactory, termFactory, rdfFactory);
+        return createResultSet(vocabulary);
     }
 
     @Override
     public MaterializedGraphResultSet materialize(@Nonnull ImmutableSet<IRI> selectedVocabulary) {
-        return new DefaultMaterializedGraphResultSet(filterVocabularyEntries(selectedVocabulary), params, queryEngine, inputQueryFactory, termFactory, rdfFactory);
+        return createResultSet(filterVocabularyEntries(selectedVocabulary));
+    }
+
+    private MaterializedGraphResultSet createResultSet(ImmutableMap<IRI, VocabularyEntry> selectedVocabulary) {
+        // No need for multiple workers for a single non-partitioned class/property
+        return (params.getWorkerCount() > 1) && ((selectedVocabulary.size() > 1) || partitioner.isPresent())
+                ? new ParallelMaterializedGraphResultSet(selectedVocabulary, params, queryEngine, inputQueryFactory,
+                        termFactory, partitioner, queryLoggerFactory)
+                : new DefaultMaterializedGraphResultSet(selectedVocabulary, params, queryEngine, inputQueryFactory, termFactory, rdfFactory);
     }
 
     private ImmutableMap<IRI, VocabularyEntry> filterVocabularyEntries(ImmutableSet<IRI> selectedVocabulary) {
@@ -0,0 +1,306 @@
+package it.unibz.inf.ontop.materialization.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.inject.Injector;
+import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.reformulation.input.SelectQuery;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
+import it.unibz.inf.ontop.dbschema.DBParameters;
+import it.unibz.inf.ontop.dbschema.UniqueConstraint;
+import it.unibz.inf.ontop.exception.*;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.UnaryIQTree;
+import it.unibz.inf.ontop.iq.node.ConstructionNode;
+import it.unibz.inf.ontop.iq.node.ExtensionalDataNode;
+import it.unibz.inf.ontop.iq.node.NativeNode;
+import it.unibz.inf.ontop.iq.transform.IQTree2NativeNodeGenerator;
+import it.unibz.inf.ontop.model.atom.AtomFactory;
+import it.unibz.inf.ontop.model.atom.QuadPredicate;
+import it.unibz.inf.ontop.model.atom.RDFAtomPredicate;
+import it.unibz.inf.ontop.model.atom.TriplePredicate;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.FunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.InequalityLabel;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.ObjectStringTemplateFunctionSymbol;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.model.type.TypeFactory;
+import it.unibz.inf.ontop.spec.mapping.Mapping;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import it.unibz.inf.ontop.utils.CoreUtilsFactory;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import it.unibz.inf.ontop.utils.VariableGenerator;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Splits the executable query of a class/property into sub-queries over disjoint ranges of an integer key.
+ *
+ * The key is a column of the native query that is used in the IRI template of the subject and that corresponds,
+ * in the mapping, to a single-attribute unique constraint (e.g. a primary key) of a source relation.
+ * The ranges are computed from the minimum and maximum values of this column.
+ *
+ * The first and the last ranges are open, so the partitions are complete even if the data changes
+ * in the meantime.
+ */
+class KeyRangePartitioner {
+
+    private final int partitionCount;
+    private final Mapping mapping;
+    private final DBParameters dbParameters;
+    private final IQTree2NativeNodeGenerator nativeNodeGenerator;
+    private final IntermediateQueryFactory iqFactory;
+    private final TermFactory termFactory;
+    private final TypeFactory typeFactory;
+    private final AtomFactory atomFactory;
+    private final SubstitutionFactory substitutionFactory;
+    private final CoreUtilsFactory coreUtilsFactory;
+    private final QueryLogger.Factory queryLoggerFactory;
+
+    KeyRangePartitioner(int partitionCount, Mapping mapping, DBParameters dbParameters, Injector injector) {
+        this.partitionCount = partitionCount;
+        this.mapping = mapping;
+        this.dbParameters = dbParameters;
+        this.nativeNodeGenerator = injector.getInstance(IQTree2NativeNodeGenerator.class);
+        this.iqFactory = injector.getInstance(IntermediateQueryFactory.class);
+        this.termFactory = injector.getInstance(TermFactory.class);
+        this.typeFactory = injector.getInstance(TypeFactory.class);
+        this.atomFactory = injector.getInstance(AtomFactory.class);
+        this.substitutionFactory = injector.getInstance(SubstitutionFactory.class);
+        this.coreUtilsFactory = injector.getInstance(CoreUtilsFactory.class);
+        this.queryLoggerFactory = injector.getInstance(QueryLogger.Factory.class);
+    }
+
+    /**
+     * Returns the executable queries of the partitions.
+     *
+     * Returns an empty list when no suitable key is found.
+     */
+    ImmutableList<IQ> partition(VocabularyEntry entry, SelectQuery query, OntopConnection connection)
+            throws OntopReformulationException, OntopQueryEvaluationException, OntopConnectionException,
+            OntopResultConversionException {
+        ImmutableSet<Map.Entry<FunctionSymbol, Integer>> keyTemplatePositions = extractKeyTemplatePositions(entry);
+        if (keyTemplatePositions.isEmpty())
+            return ImmutableList.of();
+
+        OntopStatement statement = connection.createStatement();
+        try {
+            IQ executableQuery = statement.getExecutableQuery(query);
+            IQTree tree = executableQuery.getTree();
+            if (!(tree.getRootNode() instanceof ConstructionNode)
+                    || !(((UnaryIQTree) tree).getChild().getRootNode() instanceof NativeNode))
+                return ImmutableList.of();
+
+            ConstructionNode constructionNode = (ConstructionNode) tree.getRootNode();
+            NativeNode nativeNode = (NativeNode) ((UnaryIQTree) tree).getChild().getRootNode();
+            // Nested native queries with parameters are not supported
+            if (!nativeNode.getParameters().isEmpty())
+                return ImmutableList.of();
+
+            Optional<Variable> key = executableQuery.getProjectionAtom().getArguments().stream()
+                    .filter(v -> v.getName().equals("s"))
+                    .findAny()
+                    .filter(constructionNode.getSubstitution()::isDefining)
+                    .flatMap(s -> extractKey(constructionNode.getSubstitution().get(s), nativeNode,
+                            keyTemplatePositions));
+            if (!key.isPresent())
+                return ImmutableList.of();
+
+            // NB: closes the statement
+            Optional<long[]> bounds = computeBounds(key.get(), nativeNode, statement);
+            return bounds
+                    .map(b -> createPartitions(executableQuery, constructionNode, nativeNode, key.get(), b[0], b[1]))
+                    .orElseGet(ImmutableList::of);
+        }
+        finally {
+            statement.close();
+        }
+    }
+
+    /**
+     * Positions in the subject IRI templates of the variables corresponding to single-attribute unique constraints
+     */
+    private ImmutableSet<Map.Entry<FunctionSymbol, Integer>> extractKeyTemplatePositions(VocabularyEntry entry) {
+        return mapping.getRDFAtomPredicates().stream()
+                .filter(p -> p instanceof TriplePredicate || p instanceof QuadPredicate)
+                .flatMap(p -> getDefinition(entry, p)
+                        .map(d -> extractKeyTemplatePositions(d, p))
+                        .orElseGet(Stream::empty))
+                .collect(ImmutableCollectors.toSet());
+    }
+
+    private Optional<IQ> getDefinition(VocabularyEntry entry, RDFAtomPredicate predicate) {
+        return entry.isClass()
+                ? mapping.getRDFClassDefinition(predicate, entry.name)
+                : mapping.getRDFPropertyDefinition(predicate, entry.name);
+    }
+
+    private Stream<Map.Entry<FunctionSymbol, Integer>> extractKeyTemplatePositions(IQ definition,
+                                                                                    RDFAtomPredicate predicate) {
+        IQTree tree = definition.getTree();
+        if (!(tree.getRootNode() instanceof ConstructionNode))
+            return Stream.empty();
+
+        Variable subjectVariable = predicate.getSubject(definition.getProjectionAtom().getArguments());
+        ConstructionNode constructionNode = (ConstructionNode) tree.getRootNode();
+        if (!constructionNode.getSubstitution().isDefining(subjectVariable))
+            return Stream.empty();
+
+        Optional<ImmutableFunctionalTerm> template = extractTemplate(constructionNode.getSubstitution().get(subjectVariable));
+        if (!template.isPresent())
+            return Stream.empty();
+
+        ImmutableSet<Variable> keyVariables = extractKeyVariables(tree).collect(ImmutableCollectors.toSet());
+
+        ImmutableList<? extends ImmutableTerm> arguments = template.get().getTerms();
+        return IntStream.range(0, arguments.size())
+                .filter(i -> keyVariables.contains(arguments.get(i)))
+                .mapToObj(i -> Maps.immutableEntry(template.get().getFunctionSymbol(), i));
+    }
+
+    private Stream<Variable> extractKeyVariables(IQTree tree) {
+        if (tree.getRootNode() instanceof ExtensionalDataNode) {
+            ExtensionalDataNode dataNode = (ExtensionalDataNode) tree.getRootNode();
+            return dataNode.getRelationDefinition().getUniqueConstraints().stream()
+                    .map(UniqueConstraint::getAttributes)
+                    .filter(as -> as.size() == 1)
+                    .map(as -> dataNode.getArgumentMap().get(as.get(0).getIndex() - 1))
+                    .filter(t -> t instanceof Variable)
+                    .map(t -> (Variable) t);
+        }
+        return tree.getChildren().stream()
+                .flatMap(this::extractKeyVariables);
+    }
+
+    private Optional<ImmutableFunctionalTerm> extractTemplate(ImmutableTerm subjectDefinition) {
+        return Optional.of(subjectDefinition)
+                .filter(t -> t instanceof ImmutableFunctionalTerm)
+                .map(t -> ((ImmutableFunctionalTerm) t).getTerm(0))
+                .filter(t -> t instanceof ImmutableFunctionalTerm)
+                .map(t -> (ImmutableFunctionalTerm) t)
+                .filter(t -> t.getFunctionSymbol() instanceof ObjectStringTemplateFunctionSymbol);
+    }
+
+    /**
+     * Non-nullable integer column of the native query
+     */
+    private Optional<Variable> extractKey(ImmutableTerm subjectDefinition, NativeNode nativeNode,
+                                          ImmutableSet<Map.Entry<FunctionSymbol, Integer>> keyTemplatePositions) {
+        Optional<ImmutableFunctionalTerm> template = extractTemplate(subjectDefinition);
+        if (!template.isPresent())
+            return Optional.empty();
+
+        ImmutableList<? extends ImmutableTerm> arguments = template.get().getTerms();
+        return IntStream.range(0, arguments.size())
+                .filter(i -> keyTemplatePositions.contains(Maps.immutableEntry(template.get().getFunctionSymbol(), i)))
+                .mapToObj(arguments::get)
+                .filter(t -> t instanceof Variable)
+                .map(t -> (Variable) t)
+                .filter(v -> nativeNode.getVariables().contains(v))
+                .filter(v -> nativeNode.getTypeMap().get(v).getCategory() == DBTermType.Category.INTEGER)
+                .filter(v -> !nativeNode.getVariableNullability().isPossiblyNullable(v))
+                .findFirst();
+    }
+
+    private Optional<long[]> computeBounds(Variable key, NativeNode nativeNode, OntopStatement statement)
+            throws OntopQueryEvaluationException, OntopConnectionException, OntopResultConversionException {
+        DBTermType keyType = nativeNode.getTypeMap().get(key);
+        VariableGenerator variableGenerator = coreUtilsFactory.createVariableGenerator(nativeNode.getVariables());
+        Variable minVariable = variableGenerator.generateNewVariable("min");
+        Variable maxVariable = variableGenerator.generateNewVariable("max");
+        Variable lowerBound = variableGenerator.generateNewVariable("lower");
+        Variable upperBound = variableGenerator.generateNewVariable("upper");
+
+        IQTree aggregationTree = iqFactory.createUnaryIQTree(
+                iqFactory.createAggregationNode(ImmutableSet.of(), substitutionFactory.getSubstitution(
+                        minVariable, termFactory.getDBMin(key, keyType),
+                        maxVariable, termFactory.getDBMax(key, keyType))),
+                nativeNode);
+        // Empty relation
+        IQTree boundTree = iqFactory.createUnaryIQTree(
+                iqFactory.createFilterNode(termFactory.getDBIsNotNull(minVariable)),
+                aggregationTree);
+
+        NativeNode boundNativeNode = nativeNodeGenerator.generate(boundTree, dbParameters, false);
+
+        RDFTermTypeConstant integerType = termFactory.getRDFTermTypeConstant(typeFactory.getXsdIntegerDatatype());
+        ConstructionNode constructionNode = iqFactory.createConstructionNode(
+                ImmutableSet.of(lowerBound, upperBound),
+                substitutionFactory.getSubstitution(
+                        lowerBound, termFactory.getRDFFunctionalTerm(minVariable, integerType),
+                        upperBound, termFactory.getRDFFunctionalTerm(maxVariable, integerType)));
+
+        IQ boundQuery = iqFactory.createIQ(
+                atomFactory.getDistinctVariableOnlyDataAtom(atomFactory.getRDFAnswerPredicate(2),
+                        ImmutableList.of(lowerBound, upperBound)),
+                iqFactory.createUnaryIQTree(constructionNode, boundNativeNode));
+
+        TupleResultSet resultSet = statement.executeSelectQuery(boundQuery,
+                queryLoggerFactory.create(ImmutableMultimap.of()));
+        try {
+            if (!resultSet.hasNext())
+                return Optional.empty();
+            OntopBindingSet bindingSet = resultSet.next();
+            return Optional.of(new long[] {
+                    Long.parseLong(bindingSet.getConstant(lowerBound.getName()).getValue()),
+                    Long.parseLong(bindingSet.getConstant(upperBound.getName()).getValue()) });
+        }
+        catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+        finally {
+            resultSet.close();
+        }
+    }
+
+    private ImmutableList<IQ> createPartitions(IQ executableQuery, ConstructionNode constructionNode,
+                                               NativeNode nativeNode, Variable key, long min, long max) {
+        // No overflow
+        long rangeSize = Math.max(1, (max / partitionCount) - (min / partitionCount) + 1);
+        DBTermType keyType = nativeNode.getTypeMap().get(key);
+
+        ImmutableList.Builder<IQ> partitionBuilder = ImmutableList.builder();
+        long lowerBound = min;
+        for (int i = 0; i < partitionCount; i++) {
+            boolean isFirst = i == 0;
+            boolean isLast = (i == partitionCount - 1) || (max - lowerBound < rangeSize);
+            long upperBound = lowerBound + rangeSize;
+
+            Optional<ImmutableExpression> lowerCondition = isFirst
+                    ? Optional.empty()
+                    : Optional.of(termFactory.getDBNumericInequality(InequalityLabel.GTE, key,
+                            termFactory.getDBConstant(Long.toString(lowerBound), keyType)));
+            Optional<ImmutableExpression> upperCondition = isLast
+                    ? Optional.empty()
+                    : Optional.of(termFactory.getDBNumericInequality(InequalityLabel.LT, key,
+                            termFactory.getDBConstant(Long.toString(upperBound), keyType)));
+
+            IQTree partitionTree = termFactory.getConjunction(lowerCondition,
+                    upperCondition.map(Stream::of).orElseGet(Stream::empty))
+                    .map(c -> (IQTree) iqFactory.createUnaryIQTree(iqFactory.createFilterNode(c), nativeNode))
+                    .orElse(nativeNode);
+
+            partitionBuilder.add(iqFactory.createIQ(executableQuery.getProjectionAtom(),
+                    iqFactory.createUnaryIQTree(constructionNode,
+                            nativeNodeGenerator.generate(partitionTree, dbParameters, false))));
+
+            if (isLast)
+                break;
+            lowerBound = upperBound;
+        }
+        ImmutableList<IQ> partitions = partitionBuilder.build();
+        return partitions.size() > 1
+                ? partitions
+                : ImmutableList.of();
+    }
+}
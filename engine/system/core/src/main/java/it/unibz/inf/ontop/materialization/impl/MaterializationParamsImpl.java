@@ -5,9 +5,13 @@ import it.unibz.inf.ontop.materialization.MaterializationParams;
 public class MaterializationParamsImpl implements MaterializationParams {
 
     private final boolean enableIncompleteMaterialization;
+    private final int workerCount;
+    private final int partitionCount;
 
-    private MaterializationParamsImpl(boolean enableIncompleteMaterialization) {
+    private MaterializationParamsImpl(boolean enableIncompleteMaterialization, int workerCount, int partitionCount) {
         this.enableIncompleteMaterialization = enableIncompleteMaterialization;
+        this.workerCount = workerCount;
+        this.partitionCount = partitionCount;
     }
 
 
@@ -16,14 +20,28 @@ public class MaterializationParamsImpl implements MaterializationParams {
         return enableIncompleteMaterialization;
     }
 
+    @Override
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    @Override
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
 
     public static class DefaultBuilder<B extends Builder<B>> implements Builder<B> {
 
         private final B builder;
         private boolean canMaterializationBeIncomplete;
+        private int workerCount;
+        private int partitionCount;
 
         public DefaultBuilder() {
             this.canMaterializationBeIncomplete = false;
+            this.workerCount = 1;
+            this.partitionCount = 1;
             this.builder = (B) this;
         }
 
@@ -33,9 +51,25 @@ public class MaterializationParamsImpl implements MaterializationParams {
             return builder;
         }
 
+        @Override
+        public B workerCount(int workerCount) {
+            if (workerCount < 1)
+                throw new IllegalArgumentException("The worker count must be positive");
+            this.workerCount = workerCount;
+            return builder;
+        }
+
+        @Override
+        public B partitionCount(int partitionCount) {
+            if (partitionCount < 1)
+                throw new IllegalArgumentException("The partition count must be positive");
+            this.partitionCount = partitionCount;
+            return builder;
+        }
+
         @Override
         public MaterializationParams build() {
-            return new MaterializationParamsImpl(canMaterializationBeIncomplete);
+            return new MaterializationParamsImpl(canMaterializationBeIncomplete, workerCount, partitionCount);
         }
     }
 
@@ -0,0 +1,382 @@
+package it.unibz.inf.ontop.materialization.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
+import it.unibz.inf.ontop.answering.reformulation.input.SelectQuery;
+import it.unibz.inf.ontop.answering.resultset.MaterializedGraphResultSet;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.answering.resultset.OntopCloseableIterator;
+import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
+import it.unibz.inf.ontop.answering.resultset.impl.RDFFactCloseableIterator;
+import it.unibz.inf.ontop.exception.*;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.materialization.MaterializationParams;
+import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.model.term.ObjectConstant;
+import it.unibz.inf.ontop.model.term.RDFConstant;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.vocabulary.RDF;
+import it.unibz.inf.ontop.spec.ontology.RDFFact;
+import org.apache.commons.rdf.api.IRI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Materializes several classes/properties concurrently.
+ *
+ * Each worker uses its own connection and pushes the facts it produces into a bounded queue,
+ * from which they are consumed by hasNext() and next(). Facts of different classes/properties are therefore interleaved.
+ *
+ * When a partitioner is provided, the query of a class/property may be split into several sub-queries,
+ * which are then evaluated by the workers like the other classes/properties (unordered).
+ *
+ * Like the sequential result set, does not allocate resources before hasNext() is called.
+ *
+ * Only consumed by one thread at a time.
+ */
+class ParallelMaterializedGraphResultSet implements MaterializedGraphResultSet {
+
+    private static final int QUEUE_CAPACITY = 10000;
+    private static final long OFFER_TIMEOUT_MS = 100;
+    private static final long POLL_TIMEOUT_MS = 100;
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelMaterializedGraphResultSet.class);
+
+    private final ImmutableMap<IRI, VocabularyEntry> vocabulary;
+    private final OntopQueryEngine queryEngine;
+    private final InputQueryFactory inputQueryFactory;
+    private final TermFactory termFactory;
+    private final Optional<KeyRangePartitioner> partitioner;
+    private final QueryLogger.Factory queryLoggerFactory;
+    private final boolean canBeIncomplete;
+    private final int workerCount;
+    private final IRIConstant rdfTypeIRI;
+
+    private final BlockingQueue<WorkUnit> remainingUnits;
+    // Units not processed yet (including the ones being processed)
+    private final AtomicInteger pendingUnitCount;
+    private final BlockingQueue<Item> queue;
+    private final List<IRI> possiblyIncompleteClassesAndProperties;
+
+    @Nullable
+    private ExecutorService executor;
+    private int runningWorkers;
+    @Nullable
+    private RDFFact nextFact;
+    private long counter;
+    private volatile boolean isClosed;
+
+    ParallelMaterializedGraphResultSet(ImmutableMap<IRI, VocabularyEntry> vocabulary, MaterializationParams params,
+                                       OntopQueryEngine queryEngine,
+                                       InputQueryFactory inputQueryFactory,
+                                       TermFactory termFactory,
+                                       Optional<KeyRangePartitioner> partitioner,
+                                       QueryLogger.Factory queryLoggerFactory) {
+        this.vocabulary = vocabulary;
+        this.queryEngine = queryEngine;
+        this.inputQueryFactory = inputQueryFactory;
+        this.termFactory = termFactory;
+        this.partitioner = partitioner;
+        this.queryLoggerFactory = queryLoggerFactory;
+        this.canBeIncomplete = params.canMaterializationBeIncomplete();
+        this.workerCount = partitioner.isPresent()
+                ? params.getWorkerCount()
+                : Math.min(params.getWorkerCount(), vocabulary.size());
+        this.rdfTypeIRI = termFactory.getConstantIRI(RDF.TYPE.getIRIString());
+
+        this.remainingUnits = new LinkedBlockingQueue<>();
+        vocabulary.values().forEach(e -> remainingUnits.add(new WorkUnit(e, null)));
+        this.pendingUnitCount = new AtomicInteger(vocabulary.size());
+        this.queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        this.possiblyIncompleteClassesAndProperties = Collections.synchronizedList(new ArrayList<>());
+
+        // Lately initiated
+        executor = null;
+        nextFact = null;
+        counter = 0;
+        isClosed = false;
+    }
+
+    @Override
+    public ImmutableSet<IRI> getSelectedVocabulary() {
+        return vocabulary.keySet();
+    }
+
+    @Override
+    public boolean hasNext() throws OntopQueryAnsweringException, OntopConnectionException {
+        if (nextFact != null)
+            return true;
+
+        if (executor == null)
+            startWorkers();
+
+        while (runningWorkers > 0) {
+            Item item;
+            try {
+                item = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new OntopConnectionException(e);
+            }
+
+            if (item == Item.END)
+                runningWorkers--;
+            else if (item.exception != null) {
+                close();
+                throw rethrow(item.exception);
+            }
+            else {
+                nextFact = item.fact;
+                return true;
+            }
+        }
+        executor.shutdown();
+        return false;
+    }
+
+    @Override
+    public RDFFact next() throws OntopQueryAnsweringException {
+        try {
+            if (!hasNext())
+                throw new NoSuchElementException("No more materialized facts");
+        } catch (OntopConnectionException e) {
+            throw new OntopQueryAnsweringException(e);
+        }
+        RDFFact fact = nextFact;
+        nextFact = null;
+        counter++;
+        return fact;
+    }
+
+    private void startWorkers() {
+        executor = Executors.newFixedThreadPool(workerCount, new ThreadFactoryBuilder()
+                .setNameFormat("ontop-materializer-%d")
+                .setDaemon(true)
+                .build());
+        runningWorkers = workerCount;
+        for (int i = 0; i < workerCount; i++)
+            executor.execute(this::runWorker);
+    }
+
+    private void runWorker() {
+        OntopConnection connection = null;
+        try {
+            while ((!isClosed) && (pendingUnitCount.get() > 0)) {
+                // Other workers may still add partitions
+                WorkUnit unit = remainingUnits.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (unit == null)
+                    continue;
+                try {
+                    if (connection == null)
+                        connection = queryEngine.getConnection();
+                    process(connection, unit);
+                } finally {
+                    pendingUnitCount.decrementAndGet();
+                }
+            }
+        } catch (InterruptedException e) {
+            // Closed
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            send(new Item(null, e));
+        } finally {
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (OntopConnectionException e) {
+                    LOGGER.warn("Non-critical exception while closing the connection: " + e);
+                }
+            }
+            send(Item.END);
+        }
+    }
+
+    private void process(OntopConnection connection, WorkUnit unit)
+            throws OntopQueryAnsweringException, OntopConnectionException {
+        VocabularyEntry entry = unit.entry;
+        SelectQuery query = inputQueryFactory.createSelectQuery(entry.getSelectQuery());
+        IRIConstant predicateIRI = termFactory.getConstantIRI(entry.getIRIString());
+
+        OntopStatement statement = null;
+        try {
+            if ((unit.partitionQuery == null) && partitioner.isPresent()) {
+                ImmutableList<IQ> partitionQueries = partitioner.get().partition(entry, query, connection);
+                if (!partitionQueries.isEmpty()) {
+                    LOGGER.debug("Materializing " + entry + " in " + partitionQueries.size() + " partitions");
+                    pendingUnitCount.addAndGet(partitionQueries.size());
+                    partitionQueries.forEach(q -> remainingUnits.add(new WorkUnit(entry, q)));
+                    return;
+                }
+            }
+
+            statement = connection.createStatement();
+            TupleResultSet resultSet = (unit.partitionQuery == null)
+                    ? statement.execute(query)
+                    : statement.executeSelectQuery(unit.partitionQuery,
+                            queryLoggerFactory.create(ImmutableMultimap.of()));
+            while (resultSet.hasNext()) {
+                if (!send(new Item(toAssertion(resultSet.next(), entry, predicateIRI), null)))
+                    // Closed
+                    return;
+            }
+        } catch (OntopQueryAnsweringException | OntopConnectionException e) {
+            if (canBeIncomplete) {
+                LOGGER.warn("Possibly incomplete class/property " + entry + " (materialization problem).\n"
+                        + "Details: " + e);
+                possiblyIncompleteClassesAndProperties.add(entry.name);
+            } else {
+                LOGGER.error("Problem materializing the class/property " + entry);
+                throw e;
+            }
+        } finally {
+            if (statement != null) {
+                try {
+                    statement.close();
+                } catch (OntopConnectionException e) {
+                    LOGGER.warn("Non-critical exception while closing the statement: " + e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds (named) assertions out of (quad) results
+     */
+    private RDFFact toAssertion(OntopBindingSet tuple, VocabularyEntry entry, IRIConstant predicateIRI)
+            throws OntopResultConversionException {
+        ObjectConstant s = (ObjectConstant) tuple.getConstant("s");
+        IRIConstant p = entry.isClass() ? rdfTypeIRI : predicateIRI;
+        RDFConstant o = entry.isClass() ? predicateIRI : tuple.getConstant("o");
+        ObjectConstant g = (ObjectConstant) tuple.getConstant("g");
+
+        return (g == null)
+                ? RDFFact.createTripleFact(s, p, o)
+                : RDFFact.createQuadFact(s, p, o, g);
+    }
+
+    /**
+     * Blocks while the queue is full.
+     *
+     * Returns false if the result set has been closed in the meantime.
+     */
+    private boolean send(Item item) {
+        try {
+            while (!isClosed) {
+                if (queue.offer(item, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS))
+                    return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    private static OntopQueryAnsweringException rethrow(Exception e) throws OntopConnectionException {
+        if (e instanceof OntopConnectionException)
+            throw (OntopConnectionException) e;
+        if (e instanceof OntopQueryAnsweringException)
+            return (OntopQueryAnsweringException) e;
+        return new OntopQueryAnsweringException(e);
+    }
+
+    /**
+     * View over hasNext() and next(): the facts of all the classes/properties and partitions are consumed
+     * from the same queue. Closing the iterator closes the result set.
+     */
+    @Override
+    public OntopCloseableIterator<RDFFact, OntopConnectionException> iterator() {
+        return new RDFFactCloseableIterator() {
+            @Override
+            public boolean hasNext() throws OntopConnectionException, OntopResultConversionException {
+                try {
+                    return ParallelMaterializedGraphResultSet.this.hasNext();
+                } catch (OntopResultConversionException e) {
+                    throw e;
+                } catch (OntopQueryAnsweringException e) {
+                    throw new OntopConnectionException(e);
+                }
+            }
+
+            @Override
+            public RDFFact next() throws OntopConnectionException {
+                try {
+                    return ParallelMaterializedGraphResultSet.this.next();
+                } catch (OntopQueryAnsweringException e) {
+                    throw new OntopConnectionException(e);
+                }
+            }
+
+            @Override
+            protected void handleClose() {
+                ParallelMaterializedGraphResultSet.this.close();
+            }
+        };
+    }
+
+    /**
+     * Stops the workers, which release their connections
+     */
+    @Override
+    public void close() {
+        isClosed = true;
+        if (executor != null)
+            executor.shutdownNow();
+        queue.clear();
+    }
+
+    @Override
+    public long getTripleCountSoFar() {
+        return counter;
+    }
+
+    @Override
+    public ImmutableList<IRI> getPossiblyIncompleteRDFPropertiesAndClassesSoFar() {
+        synchronized (possiblyIncompleteClassesAndProperties) {
+            return ImmutableList.copyOf(possiblyIncompleteClassesAndProperties);
+        }
+    }
+
+
+    private static final class WorkUnit {
+        private final VocabularyEntry entry;
+        // Null if not partitioned (yet)
+        @Nullable
+        private final IQ partitionQuery;
+
+        private WorkUnit(VocabularyEntry entry, @Nullable IQ partitionQuery) {
+            this.entry = entry;
+            this.partitionQuery = partitionQuery;
+        }
+    }
+
+    private static final class Item {
+        private static final Item END = new Item(null, null);
+
+        @Nullable
+        private final RDFFact fact;
+        @Nullable
+        private final Exception exception;
+
+        private Item(@Nullable RDFFact fact, @Nullable Exception exception) {
+            this.fact = fact;
+            this.exception = exception;
+        }
+    }
+}
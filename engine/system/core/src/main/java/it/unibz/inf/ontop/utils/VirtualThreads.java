@@ -0,0 +1,80 @@
+package it.unibz.inf.ontop.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Optional;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Access to the virtual threads of the JVM (Java 21+).
+ *
+ * Ontop targets Java 8, so the API (Thread.ofVirtual()) is looked up reflectively.
+ * On older JVMs, no factory is returned and the caller is expected to fall back to platform threads.
+ */
+public class VirtualThreads {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreads.class);
+
+    // Thread.ofVirtual()
+    private static final Optional<MethodHandle> OF_VIRTUAL = lookUpOfVirtual();
+    private static final AtomicBoolean FALLBACK_REPORTED = new AtomicBoolean(false);
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return OF_VIRTUAL.isPresent();
+    }
+
+    /**
+     * Returns empty if virtual threads are not supported by the JVM.
+     *
+     * The threads are named with the prefix followed by a counter.
+     */
+    public static Optional<ThreadFactory> getThreadFactory(String namePrefix) {
+        return OF_VIRTUAL
+                .flatMap(ofVirtual -> {
+                    try {
+                        // The builder is mutable: a new one is created for each factory
+                        Object builder = ofVirtual.invoke();
+                        Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+                        Object namedBuilder = builderClass.getMethod("name", String.class, long.class)
+                                .invoke(builder, namePrefix, 0L);
+                        return Optional.of((ThreadFactory) builderClass.getMethod("factory").invoke(namedBuilder));
+                    }
+                    catch (Throwable e) {
+                        LOGGER.warn("Cannot create a virtual thread factory: {}", e.toString());
+                        return Optional.empty();
+                    }
+                });
+    }
+
+    /**
+     * Virtual threads if requested and supported, platform threads otherwise
+     */
+    public static ThreadFactory getThreadFactory(String namePrefix, boolean virtual) {
+        if (virtual) {
+            Optional<ThreadFactory> factory = getThreadFactory(namePrefix);
+            if (factory.isPresent())
+                return factory.get();
+            if (!FALLBACK_REPORTED.getAndSet(true))
+                LOGGER.warn("Virtual threads are not supported by this JVM (Java 21+ required): platform threads are used instead");
+        }
+        return Thread::new;
+    }
+
+    private static Optional<MethodHandle> lookUpOfVirtual() {
+        try {
+            return Optional.of(MethodHandles.publicLookup().findStatic(Thread.class, "ofVirtual",
+                    MethodType.methodType(Class.forName("java.lang.Thread$Builder$OfVirtual"))));
+        }
+        catch (ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import it.unibz.inf.ontop.answering.connection.QueryExecutionScheduler;
+import it.unibz.inf.ontop.answering.metrics.OntopMetrics;
+import it.unibz.inf.ontop.answering.metrics.impl.InMemoryOntopMetrics;
+import it.unibz.inf.ontop.exception.OntopQueryEvaluationException;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class QueryExecutionSchedulerImplTest {
+
+    @Test
+    public void testUnbounded() throws Exception {
+        QueryExecutionSchedulerImpl scheduler = new QueryExecutionSchedulerImpl(0, 0, 0, 64, false, createMetrics());
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++)
+            scheduler.submit(() -> {
+                await(blocker);
+                done.countDown();
+            });
+        blocker.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Without admission control, the queries beyond the maximum number of threads wait for a thread
+     */
+    @Test
+    public void testMaxQueryThreads() throws Exception {
+        QueryExecutionSchedulerImpl scheduler = new QueryExecutionSchedulerImpl(0, 0, 0, 2, false, createMetrics());
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(3);
+        CountDownLatch done = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++)
+            scheduler.submit(() -> {
+                started.countDown();
+                await(blocker);
+                done.countDown();
+            });
+
+        assertFalse(started.await(200, TimeUnit.MILLISECONDS));
+        assertEquals(1, started.getCount());
+
+        blocker.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        scheduler.close();
+    }
+
+    @Test
+    public void testQueueTimeout() throws Exception {
+        OntopMetrics metrics = createMetrics();
+        QueryExecutionSchedulerImpl scheduler = new QueryExecutionSchedulerImpl(1, 10, 50, 64, false, metrics);
+        CountDownLatch blocker = new CountDownLatch(1);
+        scheduler.submit(() -> await(blocker));
+        try {
+            scheduler.submit(() -> { });
+            fail("The second query should not have been admitted");
+        }
+        catch (OntopQueryEvaluationException e) {
+            assertEquals(1L, getCount(metrics, OntopMetrics.QUERY_ADMISSION_TIMEOUT_COUNTER));
+        }
+        finally {
+            blocker.countDown();
+        }
+    }
+
+    @Test
+    public void testQueueFull() throws Exception {
+        OntopMetrics metrics = createMetrics();
+        QueryExecutionSchedulerImpl scheduler = new QueryExecutionSchedulerImpl(1, 0, 10_000, 64, false, metrics);
+        CountDownLatch blocker = new CountDownLatch(1);
+        scheduler.submit(() -> await(blocker));
+        try {
+            scheduler.submit(() -> { });
+            fail("The second query should have been rejected");
+        }
+        catch (OntopQueryEvaluationException e) {
+            assertEquals(1L, getCount(metrics, OntopMetrics.QUERY_ADMISSION_REJECTED_COUNTER));
+        }
+        finally {
+            blocker.countDown();
+        }
+    }
+
+    @Test
+    public void testAdmissionAfterRelease() throws Exception {
+        OntopMetrics metrics = createMetrics();
+        QueryExecutionSchedulerImpl scheduler = new QueryExecutionSchedulerImpl(1, 1, 10_000, 64, false, metrics);
+        CountDownLatch done = new CountDownLatch(1);
+        QueryExecutionScheduler.Admission admission = scheduler.submit(() -> { });
+        new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            admission.release();
+        }).start();
+        scheduler.submit(done::countDown);
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(2L, getCount(metrics, OntopMetrics.QUERY_ADMISSION_ACCEPTED_COUNTER));
+    }
+
+    /**
+     * The permit is not given back when the task completes (the result set may still be consumed),
+     * but when the admission is released
+     */
+    @Test
+    public void testPermitHeldAfterCompletion() throws Exception {
+        OntopMetrics metrics = createMetrics();
+        QueryExecutionSchedulerImpl scheduler = new QueryExecutionSchedulerImpl(1, 1, 50, 64, false, metrics);
+        CountDownLatch done = new CountDownLatch(1);
+        QueryExecutionScheduler.Admission admission = scheduler.submit(done::countDown);
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        try {
+            scheduler.submit(() -> { });
+            fail("The second query should not have been admitted before the release");
+        }
+        catch (OntopQueryEvaluationException e) {
+            assertEquals(1L, getCount(metrics, OntopMetrics.QUERY_ADMISSION_TIMEOUT_COUNTER));
+        }
+
+        // Only the first release has an effect
+        admission.release();
+        admission.release();
+        scheduler.submit(() -> { });
+        try {
+            scheduler.submit(() -> { });
+            fail("A single query should be admitted at a time");
+        }
+        catch (OntopQueryEvaluationException e) {
+            assertEquals(2L, getCount(metrics, OntopMetrics.QUERY_ADMISSION_TIMEOUT_COUNTER));
+        }
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        QueryExecutionSchedulerImpl scheduler = new QueryExecutionSchedulerImpl(2, 0, 0, 64, false, createMetrics());
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        scheduler.submit(() -> {
+            await(blocker);
+            done.countDown();
+        });
+        scheduler.close();
+        try {
+            scheduler.submit(() -> { });
+            fail("No query should be admitted after closing");
+        }
+        catch (OntopQueryEvaluationException e) {
+            // Expected
+        }
+        // The running query is completed
+        blocker.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+    }
+
+    private static OntopMetrics createMetrics() {
+        return new InMemoryOntopMetrics() { };
+    }
+
+    private static long getCount(OntopMetrics metrics, String name) {
+        return metrics.getSnapshot().get(name).get("count").longValue();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
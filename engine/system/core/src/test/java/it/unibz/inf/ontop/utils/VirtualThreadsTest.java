@@ -0,0 +1,34 @@
+package it.unibz.inf.ontop.utils;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class VirtualThreadsTest {
+
+    @Test
+    public void testFactoryAvailability() {
+        assertEquals(VirtualThreads.isSupported(), VirtualThreads.getThreadFactory("test-").isPresent());
+    }
+
+    @Test
+    public void testVirtualOrFallback() throws InterruptedException {
+        runTask(VirtualThreads.getThreadFactory("test-", true));
+    }
+
+    @Test
+    public void testPlatform() throws InterruptedException {
+        runTask(VirtualThreads.getThreadFactory("test-", false));
+    }
+
+    private static void runTask(ThreadFactory threadFactory) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        threadFactory.newThread(latch::countDown).start();
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+    }
+}
@@ -1,6 +1,10 @@
 package it.unibz.inf.ontop.answering.connection;
 
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.model.term.DBConstant;
+
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 
@@ -8,4 +12,16 @@ public interface JDBCStatementInitializer extends JDBCStatementFinalizer {
 
     Statement createAndInitStatement(Connection connection) throws SQLException;
 
+    PreparedStatement createAndInitPreparedStatement(Connection connection, String sqlQuery) throws SQLException;
+
+    /**
+     * Binds the parameters of a native query to the placeholders of the prepared statement.
+     */
+    void bindParameters(PreparedStatement statement, ImmutableList<DBConstant> parameters) throws SQLException;
+
+    /**
+     * Called after the execution of a prepared statement that is kept open for being re-used.
+     */
+    void releasePreparedStatement(PreparedStatement statement) throws SQLException;
+
 }
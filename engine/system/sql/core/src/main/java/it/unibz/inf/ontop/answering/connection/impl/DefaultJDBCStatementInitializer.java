@@ -1,10 +1,15 @@
 package it.unibz.inf.ontop.answering.connection.impl;
 
+import com.google.common.collect.ImmutableList;
 import com.google.inject.Inject;
 import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
+import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
+import it.unibz.inf.ontop.model.term.DBConstant;
 
+import java.math.BigDecimal;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 
@@ -22,15 +27,63 @@ public class DefaultJDBCStatementInitializer implements JDBCStatementInitializer
         return init(create(connection));
     }
 
+    @Override
+    public PreparedStatement createAndInitPreparedStatement(Connection connection, String sqlQuery) throws SQLException {
+        PreparedStatement statement = prepare(connection, sqlQuery);
+        init(statement);
+        return statement;
+    }
+
     @Override
     public void closeStatement(Statement statement) throws SQLException {
         statement.close();
     }
 
+    @Override
+    public void bindParameters(PreparedStatement statement, ImmutableList<DBConstant> parameters) throws SQLException {
+        for (int i = 0; i < parameters.size(); i++)
+            bindParameter(statement, i + 1, parameters.get(i));
+    }
+
+    /**
+     * Only the constants of the categories parameterized by the SQL generator are expected.
+     */
+    protected void bindParameter(PreparedStatement statement, int index, DBConstant parameter) throws SQLException {
+        String value = parameter.getValue();
+        switch (parameter.getType().getCategory()) {
+            case STRING:
+                statement.setString(index, value);
+                break;
+            case INTEGER:
+                try {
+                    statement.setLong(index, Long.parseLong(value));
+                }
+                catch (NumberFormatException e) {
+                    statement.setBigDecimal(index, new BigDecimal(value));
+                }
+                break;
+            case DECIMAL:
+                statement.setBigDecimal(index, new BigDecimal(value));
+                break;
+            default:
+                throw new MinorOntopInternalBugException("Unexpected parameter " + parameter);
+        }
+    }
+
+    @Override
+    public void releasePreparedStatement(PreparedStatement statement) throws SQLException {
+        statement.clearParameters();
+    }
+
     protected Statement create(Connection connection) throws SQLException {
         return connection.createStatement(java.sql.ResultSet.TYPE_FORWARD_ONLY, java.sql.ResultSet.CONCUR_READ_ONLY);
     }
 
+    protected PreparedStatement prepare(Connection connection, String sqlQuery) throws SQLException {
+        return connection.prepareStatement(sqlQuery, java.sql.ResultSet.TYPE_FORWARD_ONLY,
+                java.sql.ResultSet.CONCUR_READ_ONLY);
+    }
+
     protected Statement init(Statement statement) throws SQLException {
         int fetchSize = settings.getFetchSize();
         if (fetchSize > 0)
@@ -5,6 +5,10 @@ import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.answering.connection.DBConnector;
 import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.QueryExecutionScheduler;
+import it.unibz.inf.ontop.answering.cache.ResultSetCache;
+import it.unibz.inf.ontop.answering.metrics.OntopMetrics;
+import it.unibz.inf.ontop.answering.statistics.DBStatistics;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
@@ -18,6 +22,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * For RDBMS having a JDBC driver.
@@ -38,6 +45,13 @@ public class JDBCConnector implements DBConnector {
     private final TermFactory termFactory;
     private final RDF rdfFactory;
     private final JDBCStatementInitializer statementInitializer;
+    private final OntopMetrics metrics;
+    private final OntopMetrics.Timer connectionPoolWaitTimer;
+    private final QueryExecutionScheduler scheduler;
+    private final ResultSetCache resultSetCache;
+    private final DBStatistics dbStatistics;
+    // Indexed by the physical connections of the pool, which outlive the pooled connections
+    private final Map<Connection, PreparedStatementCache> preparedStatementCaches;
 
     @AssistedInject
     private JDBCConnector(@Assisted QueryReformulator queryReformulator,
@@ -46,7 +60,11 @@ public class JDBCConnector implements DBConnector {
                           SubstitutionFactory substitutionFactory,
                           RDF rdfFactory,
                           JDBCStatementInitializer statementInitializer,
-                          OntopSystemSQLSettings settings) {
+                          OntopSystemSQLSettings settings,
+                          OntopMetrics metrics,
+                          QueryExecutionScheduler scheduler,
+                          ResultSetCache resultSetCache,
+                          DBStatistics dbStatistics) {
         this.queryReformulator = queryReformulator;
         this.termFactory = termFactory;
         this.substitutionFactory = substitutionFactory;
@@ -54,6 +72,12 @@ public class JDBCConnector implements DBConnector {
         this.connectionPool = connectionPool;
         this.rdfFactory = rdfFactory;
         this.statementInitializer = statementInitializer;
+        this.metrics = metrics;
+        this.connectionPoolWaitTimer = metrics.timer(OntopMetrics.JDBC_CONNECTION_POOL_WAIT_TIMER);
+        this.scheduler = scheduler;
+        this.resultSetCache = resultSetCache;
+        this.dbStatistics = dbStatistics;
+        this.preparedStatementCaches = new IdentityHashMap<>();
     }
 
     /**
@@ -86,14 +110,66 @@ public class JDBCConnector implements DBConnector {
         } catch (Exception e) {
             log.error(e.getMessage());
         }
+        scheduler.close();
+        clearPreparedStatementCaches();
+        // Before the connection pool, which it uses
+        dbStatistics.close();
         connectionPool.close();
     }
 
     public synchronized Connection getSQLPoolConnection() throws OntopConnectionException {
+        long startTime = System.nanoTime();
         try {
             return connectionPool.getConnection();
         } catch (SQLException e) {
             throw new OntopConnectionException(e);
+        } finally {
+            connectionPoolWaitTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Returns the cache of the physical connection behind the pooled connection, so that the prepared statements
+     * are reused by the next Ontop connections borrowing the same physical connection.
+     *
+     * The caches of the physical connections closed by the pool (e.g. evicted) are dropped,
+     * their statements being closed with them.
+     */
+    public synchronized PreparedStatementCache getPreparedStatementCache(Connection pooledConnection) {
+        preparedStatementCaches.keySet().removeIf(JDBCConnector::isClosed);
+        return preparedStatementCaches.computeIfAbsent(unwrap(pooledConnection),
+                c -> new PreparedStatementCache(statementInitializer, settings.getPreparedStatementCacheSize(), c));
+    }
+
+    private synchronized void clearPreparedStatementCaches() {
+        for (PreparedStatementCache cache : preparedStatementCaches.values()) {
+            try {
+                cache.clear();
+            } catch (SQLException e) {
+                log.error(e.getMessage());
+            }
+        }
+        preparedStatementCaches.clear();
+    }
+
+    /**
+     * Connections that are not wrappers (e.g. not pooled) are returned as such
+     */
+    private static Connection unwrap(Connection pooledConnection) {
+        try {
+            if (pooledConnection.isWrapperFor(Connection.class))
+                return pooledConnection.unwrap(Connection.class);
+        } catch (SQLException e) {
+            // Not a wrapper
+        }
+        return pooledConnection;
+    }
+
+    private static boolean isClosed(Connection connection) {
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            return true;
         }
     }
 
@@ -114,8 +190,10 @@ public class JDBCConnector implements DBConnector {
     @Override
     public OntopConnection getConnection() throws OntopConnectionException {
 
-        return new SQLConnection(this, queryReformulator, getSQLPoolConnection(),
-                termFactory, rdfFactory, substitutionFactory, statementInitializer, settings);
+        Connection connection = getSQLPoolConnection();
+        return new SQLConnection(this, queryReformulator, connection, getPreparedStatementCache(connection),
+                termFactory, rdfFactory, substitutionFactory, statementInitializer, settings, metrics, scheduler,
+                resultSetCache);
     }
 
 
@@ -4,6 +4,7 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 
@@ -28,9 +29,21 @@ public class PostgresJDBCStatementInitializer extends DefaultJDBCStatementInitia
     @Override
     public void closeStatement(Statement statement) throws SQLException {
         if (!statement.isClosed()) {
-            if (settings.getFetchSize() > 0)
-                statement.execute("COMMIT");
+            if (settings.getFetchSize() > 0) {
+                // Query strings cannot be executed on prepared statements
+                if (statement instanceof PreparedStatement)
+                    statement.getConnection().commit();
+                else
+                    statement.execute("COMMIT");
+            }
             statement.close();
         }
     }
+
+    @Override
+    public void releasePreparedStatement(PreparedStatement statement) throws SQLException {
+        super.releasePreparedStatement(statement);
+        if (settings.getFetchSize() > 0)
+            statement.getConnection().commit();
+    }
 }
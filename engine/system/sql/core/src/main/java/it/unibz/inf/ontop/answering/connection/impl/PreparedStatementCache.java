@@ -0,0 +1,108 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
+import it.unibz.inf.ontop.model.term.DBConstant;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Cache of the prepared statements of a physical connection, keyed by their parameterized SQL query string.
+ *
+ * Shared by all the Ontop connections borrowing this physical connection from the pool (see JDBCConnector).
+ * The statements are prepared on the physical connection, so that they are not closed
+ * when the pooled connection is given back.
+ *
+ * A prepared statement is removed from the cache while being used, so that two statements sharing
+ * the same connection never execute the same prepared statement concurrently.
+ *
+ * Least-recently released statements are closed first when the maximum size is exceeded.
+ *
+ * Thread-safe.
+ */
+public class PreparedStatementCache {
+
+    private final JDBCStatementInitializer statementInitializer;
+    private final int maxSize;
+    private final Connection connection;
+    // Insertion order: statements are re-inserted when released
+    private final LinkedHashMap<String, PreparedStatement> statements;
+
+    public PreparedStatementCache(JDBCStatementInitializer statementInitializer, int maxSize, Connection connection) {
+        this.statementInitializer = statementInitializer;
+        this.maxSize = maxSize;
+        this.connection = connection;
+        this.statements = new LinkedHashMap<>();
+    }
+
+    /**
+     * Returns a prepared statement with bound parameters, ready to be executed.
+     *
+     * It must be given back afterwards by calling release(...).
+     */
+    public PreparedStatement prepare(String sqlQuery, ImmutableList<DBConstant> parameters) throws SQLException {
+        PreparedStatement statement = take(sqlQuery);
+        if (statement == null || statement.isClosed())
+            statement = statementInitializer.createAndInitPreparedStatement(connection, sqlQuery);
+
+        statementInitializer.bindParameters(statement, parameters);
+        return statement;
+    }
+
+    private synchronized PreparedStatement take(String sqlQuery) {
+        return statements.remove(sqlQuery);
+    }
+
+    public void release(String sqlQuery, PreparedStatement statement) throws SQLException {
+        if (statement.isClosed())
+            return;
+
+        statementInitializer.releasePreparedStatement(statement);
+
+        PreparedStatement statementToClose;
+        synchronized (this) {
+            if (maxSize <= 0 || statements.containsKey(sqlQuery))
+                statementToClose = statement;
+            else {
+                statements.put(sqlQuery, statement);
+                statementToClose = (statements.size() > maxSize) ? removeEldest() : null;
+            }
+        }
+        if (statementToClose != null)
+            statementInitializer.closeStatement(statementToClose);
+    }
+
+    private PreparedStatement removeEldest() {
+        Iterator<PreparedStatement> iterator = statements.values().iterator();
+        PreparedStatement eldest = iterator.next();
+        iterator.remove();
+        return eldest;
+    }
+
+    /**
+     * Closes all the cached statements
+     */
+    public void clear() throws SQLException {
+        ImmutableList<PreparedStatement> statementsToClose;
+        synchronized (this) {
+            statementsToClose = ImmutableList.copyOf(statements.values());
+            statements.clear();
+        }
+
+        SQLException exception = null;
+        for (PreparedStatement statement : statementsToClose) {
+            try {
+                statementInitializer.closeStatement(statement);
+            } catch (SQLException e) {
+                if (exception == null)
+                    exception = e;
+            }
+        }
+        if (exception != null)
+            throw exception;
+    }
+}
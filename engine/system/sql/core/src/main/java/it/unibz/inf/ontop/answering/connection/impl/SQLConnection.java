@@ -5,6 +5,9 @@ import java.sql.Connection;
 import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
 import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.connection.QueryExecutionScheduler;
+import it.unibz.inf.ontop.answering.cache.ResultSetCache;
+import it.unibz.inf.ontop.answering.metrics.OntopMetrics;
 import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
@@ -37,12 +40,19 @@ public class SQLConnection implements OntopConnection {
 	private boolean isClosed;
 	private final RDF rdfFactory;
 	private final JDBCStatementInitializer statementInitializer;
+	private PreparedStatementCache preparedStatementCache;
+	private final OntopMetrics metrics;
+	private final QueryExecutionScheduler scheduler;
+	private final ResultSetCache resultSetCache;
 
 
 	public SQLConnection(JDBCConnector jdbcConnector, QueryReformulator queryProcessor, Connection connection,
+						 PreparedStatementCache preparedStatementCache,
 						 TermFactory termFactory, RDF rdfFactory, SubstitutionFactory substitutionFactory,
 						 JDBCStatementInitializer statementInitializer,
-						 OntopSystemSQLSettings settings) {
+						 OntopSystemSQLSettings settings, OntopMetrics metrics,
+						 QueryExecutionScheduler scheduler,
+						 ResultSetCache resultSetCache) {
 		this.jdbcConnector = jdbcConnector;
 		this.queryProcessor = queryProcessor;
 		this.conn = connection;
@@ -52,11 +62,16 @@ public class SQLConnection implements OntopConnection {
 		this.settings = settings;
 		this.rdfFactory = rdfFactory;
 		this.isClosed = false;
+		this.metrics = metrics;
+		this.scheduler = scheduler;
+		this.resultSetCache = resultSetCache;
+		this.preparedStatementCache = preparedStatementCache;
 	}
 
 	@Override
 	public void close() throws OntopConnectionException {
 		try {
+			// The prepared statements remain cached for the next borrower of the physical connection
 			conn.close();
 		} catch (Exception e) {
 			throw new OntopConnectionException(e);
@@ -69,12 +84,13 @@ public class SQLConnection implements OntopConnection {
 			if (conn.isClosed()) {
 				// Sometimes it gets dropped, reconnect
 				conn = jdbcConnector.getSQLPoolConnection();
+				preparedStatementCache = jdbcConnector.getPreparedStatementCache(conn);
 			}
 			return new SQLQuestStatement(
 					this.queryProcessor,
 					statementInitializer.createAndInitStatement(conn),
-					statementInitializer,
-					termFactory, rdfFactory, substitutionFactory, settings);
+					statementInitializer, preparedStatementCache,
+					termFactory, rdfFactory, substitutionFactory, settings, metrics, scheduler, resultSetCache);
 		} catch (Exception e) {
 			throw new OntopConnectionException(e);
 		}
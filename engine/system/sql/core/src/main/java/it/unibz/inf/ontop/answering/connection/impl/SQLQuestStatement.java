@@ -2,10 +2,12 @@ package it.unibz.inf.ontop.answering.connection.impl;
 
 import java.util.Optional;
 
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.answering.connection.JDBCStatementFinalizer;
+import it.unibz.inf.ontop.answering.connection.QueryExecutionScheduler;
+import it.unibz.inf.ontop.answering.cache.ResultSetCache;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.metrics.OntopMetrics;
 import it.unibz.inf.ontop.answering.reformulation.input.*;
 import it.unibz.inf.ontop.answering.resultset.GraphResultSet;
 import it.unibz.inf.ontop.answering.resultset.OBDAResultSet;
@@ -23,14 +25,17 @@ import it.unibz.inf.ontop.iq.UnaryIQTree;
 import it.unibz.inf.ontop.iq.exception.EmptyQueryException;
 import it.unibz.inf.ontop.iq.node.ConstructionNode;
 import it.unibz.inf.ontop.iq.node.NativeNode;
+import it.unibz.inf.ontop.iq.node.UnionNode;
+import it.unibz.inf.ontop.model.term.DBConstant;
 import it.unibz.inf.ontop.model.term.TermFactory;
-import it.unibz.inf.ontop.model.term.Variable;
-import it.unibz.inf.ontop.model.type.DBTermType;
 import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.apache.commons.rdf.api.RDF;
 
+import javax.annotation.Nullable;
 import java.sql.*;
 import java.sql.ResultSet;
+import java.util.concurrent.TimeUnit;
 
 /**
  * SQL-specific implementation of OBDAStatement.
@@ -40,22 +45,35 @@ public class SQLQuestStatement extends QuestStatement {
 
     private final Statement sqlStatement;
     private final JDBCStatementFinalizer statementFinalizer;
+    private final PreparedStatementCache preparedStatementCache;
     private final TermFactory termFactory;
     private final RDF rdfFactory;
     private final SubstitutionFactory substitutionFactory;
     private final OntopSystemSQLSettings settings;
+    private final OntopMetrics metrics;
+    private final OntopMetrics.Timer executionTimer;
+
+    // Prepared statement borrowed from the cache (if any)
+    private volatile PreparedStatement preparedStatement;
+    private volatile String preparedSQLQuery;
 
     public SQLQuestStatement(QueryReformulator queryProcessor, Statement sqlStatement,
-                             JDBCStatementFinalizer statementFinalizer, TermFactory termFactory,
+                             JDBCStatementFinalizer statementFinalizer,
+                             PreparedStatementCache preparedStatementCache, TermFactory termFactory,
                              RDF rdfFactory, SubstitutionFactory substitutionFactory,
-                             OntopSystemSQLSettings settings) {
-        super(queryProcessor);
+                             OntopSystemSQLSettings settings, OntopMetrics metrics,
+                             QueryExecutionScheduler scheduler,
+                             ResultSetCache resultSetCache) {
+        super(queryProcessor, scheduler, resultSetCache);
         this.sqlStatement = sqlStatement;
         this.statementFinalizer = statementFinalizer;
+        this.preparedStatementCache = preparedStatementCache;
         this.termFactory = termFactory;
         this.rdfFactory = rdfFactory;
         this.substitutionFactory = substitutionFactory;
         this.settings = settings;
+        this.metrics = metrics;
+        this.executionTimer = metrics.timer(OntopMetrics.JDBC_EXECUTION_TIMER);
     }
 
     @Override
@@ -122,24 +140,25 @@ public class SQLQuestStatement extends QuestStatement {
     public  <R extends OBDAResultSet>  int getTupleCount(InputQuery<R> inputQuery) throws OntopReformulationException, OntopQueryEvaluationException {
         IQ targetQuery = getExecutableQuery(inputQuery);
         try {
-            String sql = extractSQLQuery(targetQuery);
-            String newsql = "SELECT count(*) FROM (" + sql + ") t1";
-            if (!isCanceled()) {
-                try {
-
-                    java.sql.ResultSet set = sqlStatement.executeQuery(newsql);
-                    if (set.next()) {
-                        return set.getInt(1);
-                    } else {
-                        //throw new OBDAException("Tuple count failed due to empty result set.");
-                        return 0;
+            int count = 0;
+            // One count per batch
+            for (NativeNode nativeNode : extractNativeNodes(targetQuery)) {
+                String newsql = "SELECT count(*) FROM (" + extractSQLQuery(nativeNode) + ") t1";
+                if (!isCanceled()) {
+                    try {
+
+                        java.sql.ResultSet set = executeSQLQuery(newsql, extractParameters(nativeNode));
+                        if (set.next()) {
+                            count += set.getInt(1);
+                        }
+                    } catch (SQLException e) {
+                        throw new OntopQueryEvaluationException(e);
                     }
-                } catch (SQLException e) {
-                    throw new OntopQueryEvaluationException(e);
+                } else {
+                    throw new OntopQueryEvaluationException("Action canceled.");
                 }
-            } else {
-                throw new OntopQueryEvaluationException("Action canceled.");
             }
+            return count;
         } catch (EmptyQueryException e) {
             return 0;
         }
@@ -148,16 +167,22 @@ public class SQLQuestStatement extends QuestStatement {
     @Override
     public void close() throws OntopConnectionException {
         try {
+            releasePreparedStatement();
             if (sqlStatement != null)
                 statementFinalizer.closeStatement(sqlStatement);
         } catch (SQLException e) {
             throw new OntopConnectionException(e);
+        } finally {
+            releaseAdmission();
         }
     }
 
     protected void cancelExecution() throws OntopQueryEvaluationException {
         try {
             sqlStatement.cancel();
+            PreparedStatement currentPreparedStatement = preparedStatement;
+            if (currentPreparedStatement != null)
+                currentPreparedStatement.cancel();
         } catch (SQLException e) {
             throw new OntopQueryEvaluationException(e);
         }
@@ -167,9 +192,22 @@ public class SQLQuestStatement extends QuestStatement {
     public BooleanResultSet executeBooleanQuery(IQ executableQuery, QueryLogger queryLogger)
             throws OntopQueryEvaluationException {
         try {
-            String sqlQuery = extractSQLQuery(executableQuery);
+            ImmutableList<NativeNode> nativeNodes = extractNativeNodes(executableQuery);
             try {
-                java.sql.ResultSet set = sqlStatement.executeQuery(sqlQuery);
+                // Stops at the first batch returning a result
+                for (NativeNode nativeNode : nativeNodes.subList(0, nativeNodes.size() - 1)) {
+                    java.sql.ResultSet set = executeSQLQuery(extractSQLQuery(nativeNode), extractParameters(nativeNode));
+                    boolean hasResult = set.next();
+                    set.close();
+                    if (hasResult) {
+                        queryLogger.declareResultSetUnblockedAndSerialize();
+                        queryLogger.declareLastResultRetrievedAndSerialize(1);
+                        return new PredefinedBooleanResultSet(true, this::releaseAdmission);
+                    }
+                }
+                NativeNode lastNativeNode = nativeNodes.get(nativeNodes.size() - 1);
+                java.sql.ResultSet set = executeSQLQuery(extractSQLQuery(lastNativeNode),
+                        extractParameters(lastNativeNode));
                 queryLogger.declareResultSetUnblockedAndSerialize();
                 return new SQLBooleanResultSet(set, queryLogger, this::close);
             } catch (SQLException e) {
@@ -177,7 +215,7 @@ public class SQLQuestStatement extends QuestStatement {
             }
         } catch (EmptyQueryException e) {
             queryLogger.declareResultSetUnblockedAndSerialize();
-            return new PredefinedBooleanResultSet(false);
+            return new PredefinedBooleanResultSet(false, this::releaseAdmission);
         }
     }
 
@@ -186,25 +224,18 @@ public class SQLQuestStatement extends QuestStatement {
                                                 boolean shouldAlsoCloseStatement)
             throws OntopQueryEvaluationException {
         try {
-            String sqlQuery = extractSQLQuery(executableQuery);
-            ConstructionNode constructionNode = extractRootConstructionNode(executableQuery);
-            NativeNode nativeNode = extractNativeNode(executableQuery);
-            ImmutableSortedSet<Variable> signature = nativeNode.getVariables();
-            ImmutableMap<Variable, DBTermType> typeMap = nativeNode.getTypeMap();
-
             OntopConnectionCloseable statementClosingCB = shouldAlsoCloseStatement ? this::close : null;
 
             try {
-                java.sql.ResultSet set = sqlStatement.executeQuery(sqlQuery);
-                queryLogger.declareResultSetUnblockedAndSerialize();
-                return new JDBCTupleResultSet(set, signature, typeMap, constructionNode, executableQuery.getProjectionAtom(),
-                            queryLogger, statementClosingCB, termFactory, substitutionFactory);
-            } catch (SQLException e) {
+                return executeTupleQuery(executableQuery, queryLogger, statementClosingCB);
+            } catch (SQLException | OntopConnectionException e) {
                 throw new OntopQueryEvaluationException(e);
             }
         } catch (EmptyQueryException e) {
             queryLogger.declareResultSetUnblockedAndSerialize();
-            return new EmptyTupleResultSet(executableQuery.getProjectionAtom().getArguments(), queryLogger);
+            // The statement remains usable: only its admission is given back
+            return new EmptyTupleResultSet(executableQuery.getProjectionAtom().getArguments(), queryLogger,
+                    this::releaseAdmission);
         }
     }
 
@@ -217,58 +248,136 @@ public class SQLQuestStatement extends QuestStatement {
             throws OntopQueryEvaluationException, OntopResultConversionException, OntopConnectionException {
         TupleResultSet tuples;
         try {
-            String sqlQuery = extractSQLQuery(executableQuery);
-            ConstructionNode constructionNode = extractRootConstructionNode(executableQuery);
-            NativeNode nativeNode = extractNativeNode(executableQuery);
-            ImmutableSortedSet<Variable> SQLSignature = nativeNode.getVariables();
-            ImmutableMap<Variable, DBTermType> SQLTypeMap = nativeNode.getTypeMap();
-
             OntopConnectionCloseable statementClosingCB = shouldAlsoCloseStatement ? this::close : null;
 
             try {
-                ResultSet rs = sqlStatement.executeQuery(sqlQuery);
-                queryLogger.declareResultSetUnblockedAndSerialize();
-                tuples = new JDBCTupleResultSet(rs, SQLSignature, SQLTypeMap, constructionNode,
-                        executableQuery.getProjectionAtom(), queryLogger, statementClosingCB, termFactory, substitutionFactory);
+                tuples = executeTupleQuery(executableQuery, queryLogger, statementClosingCB);
             } catch (SQLException e) {
                 throw new OntopQueryEvaluationException(e.getMessage());
             }
         } catch (EmptyQueryException e) {
             queryLogger.declareResultSetUnblockedAndSerialize();
-            tuples = new EmptyTupleResultSet(executableQuery.getProjectionAtom().getArguments(), queryLogger);
+            tuples = new EmptyTupleResultSet(executableQuery.getProjectionAtom().getArguments(), queryLogger,
+                    this::releaseAdmission);
         }
         return new DefaultSimpleGraphResultSet(tuples, constructTemplate, termFactory, rdfFactory,
                 settings.areInvalidTriplesExcludedFromResultSet());
     }
 
-    private NativeNode extractNativeNode(IQ executableQuery) throws EmptyQueryException {
+    /**
+     * Queries without parameters are executed by the regular statement.
+     *
+     * Parameterized queries are executed by a prepared statement borrowed from the cache of the physical connection,
+     * which is given back when the next query is executed or when this statement is closed.
+     */
+    private ResultSet executeSQLQuery(String sqlQuery, ImmutableList<DBConstant> parameters) throws SQLException {
+        long startTime = System.nanoTime();
+        try {
+            if (parameters.isEmpty())
+                return sqlStatement.executeQuery(sqlQuery);
+
+            releasePreparedStatement();
+            PreparedStatement statement = preparedStatementCache.prepare(sqlQuery, parameters);
+            preparedSQLQuery = sqlQuery;
+            preparedStatement = statement;
+
+            statement.setMaxRows(sqlStatement.getMaxRows());
+            statement.setQueryTimeout(sqlStatement.getQueryTimeout());
+            return statement.executeQuery();
+        } finally {
+            executionTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * The parameters of query templates are expected to have been bound
+     */
+    private static ImmutableList<DBConstant> extractParameters(NativeNode nativeNode) {
+        return nativeNode.getParameters().stream()
+                .map(p -> Optional.of(p)
+                        .filter(t -> t instanceof DBConstant)
+                        .map(t -> (DBConstant) t)
+                        .orElseThrow(() -> new MinorOntopInternalBugException(
+                                "The parameter " + p + " of the native query has not been bound")))
+                .collect(ImmutableCollectors.toList());
+    }
+
+    private synchronized void releasePreparedStatement() throws SQLException {
+        PreparedStatement statement = preparedStatement;
+        if (statement == null)
+            return;
+        preparedStatement = null;
+        preparedStatementCache.release(preparedSQLQuery, statement);
+    }
+
+    /**
+     * When the query has been split into batches (union of native nodes), the batches are executed
+     * one after the other by the same statement.
+     */
+    private TupleResultSet executeTupleQuery(IQ executableQuery, QueryLogger queryLogger,
+                                             @Nullable OntopConnectionCloseable statementClosingCB)
+            throws EmptyQueryException, SQLException, OntopConnectionException {
+        ConstructionNode constructionNode = extractRootConstructionNode(executableQuery);
+        ImmutableList<NativeNode> nativeNodes = extractNativeNodes(executableQuery);
+
+        if (nativeNodes.size() == 1) {
+            TupleResultSet resultSet = executeNativeNode(nativeNodes.get(0), constructionNode, executableQuery,
+                    queryLogger, statementClosingCB);
+            queryLogger.declareResultSetUnblockedAndSerialize();
+            return resultSet;
+        }
+
+        BatchedTupleResultSet resultSet = new BatchedTupleResultSet(nativeNodes.size(),
+                (i, batchQueryLogger) -> {
+                    try {
+                        return executeNativeNode(nativeNodes.get(i), constructionNode, executableQuery,
+                                batchQueryLogger, null);
+                    } catch (SQLException | EmptyQueryException e) {
+                        batchQueryLogger.declareConnectionException(e);
+                        throw new OntopConnectionException(e);
+                    }
+                },
+                queryLogger, statementClosingCB);
+        queryLogger.declareResultSetUnblockedAndSerialize();
+        return resultSet;
+    }
+
+    private TupleResultSet executeNativeNode(NativeNode nativeNode, ConstructionNode constructionNode,
+                                             IQ executableQuery, QueryLogger queryLogger,
+                                             @Nullable OntopConnectionCloseable statementClosingCB)
+            throws SQLException, EmptyQueryException {
+        ResultSet set = executeSQLQuery(extractSQLQuery(nativeNode), extractParameters(nativeNode));
+        return new JDBCTupleResultSet(set, nativeNode.getVariables(), nativeNode.getTypeMap(), constructionNode,
+                executableQuery.getProjectionAtom(), queryLogger, statementClosingCB, termFactory,
+                substitutionFactory, metrics);
+    }
+
+    /**
+     * Either a single native node or a union of native nodes (batches)
+     */
+    private ImmutableList<NativeNode> extractNativeNodes(IQ executableQuery) throws EmptyQueryException {
         IQTree tree = executableQuery.getTree();
         if (tree.isDeclaredAsEmpty()) {
             throw new EmptyQueryException();
         }
         return Optional.of(tree)
                 .filter(t -> t instanceof UnaryIQTree)
-                .map(t -> ((UnaryIQTree)t).getChild().getRootNode())
-                .filter(n -> n instanceof NativeNode)
-                .map(n -> (NativeNode) n)
+                .map(t -> ((UnaryIQTree)t).getChild())
+                .flatMap(c -> (c.getRootNode() instanceof NativeNode)
+                        ? Optional.of(ImmutableList.of((NativeNode) c.getRootNode()))
+                        : Optional.of(c)
+                                .filter(t -> t.getRootNode() instanceof UnionNode)
+                                .map(IQTree::getChildren)
+                                .filter(cs -> cs.stream().allMatch(t -> t.getRootNode() instanceof NativeNode))
+                                .map(cs -> cs.stream()
+                                        .map(t -> (NativeNode) t.getRootNode())
+                                        .collect(ImmutableCollectors.toList())))
                 .orElseThrow(() -> new MinorOntopInternalBugException("The query does not have the expected structure " +
                         "for an executable query\n" + executableQuery));
     }
 
-    private String extractSQLQuery(IQ executableQuery) throws EmptyQueryException, OntopInternalBugException {
-        IQTree tree = executableQuery.getTree();
-        if  (tree.isDeclaredAsEmpty())
-            throw new EmptyQueryException();
-
-        String queryString = Optional.of(tree)
-                .filter(t -> t instanceof UnaryIQTree)
-                .map(t -> ((UnaryIQTree)t).getChild().getRootNode())
-                .filter(n -> n instanceof NativeNode)
-                .map(n -> (NativeNode) n)
-                .map(NativeNode::getNativeQueryString)
-                .orElseThrow(() -> new MinorOntopInternalBugException("The query does not have the expected structure " +
-                        "of an executable query\n" + executableQuery));
-
+    private String extractSQLQuery(NativeNode nativeNode) throws EmptyQueryException {
+        String queryString = nativeNode.getNativeQueryString();
         if (queryString.equals(""))
             throw new EmptyQueryException();
 
@@ -0,0 +1,163 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
+import it.unibz.inf.ontop.exception.OntopReformulationException;
+import it.unibz.inf.ontop.exception.OntopResultConversionException;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.spec.ontology.InconsistentOntologyException;
+
+import javax.annotation.Nullable;
+import java.util.NoSuchElementException;
+
+/**
+ * Concatenates the results of the batches of a query (see the VALUES batch size),
+ * which are executed one after the other, when the results of the previous batch have been consumed.
+ *
+ * The batches are in charge of neither closing the statement nor declaring the last result to the query logger.
+ */
+public class BatchedTupleResultSet implements TupleResultSet {
+
+    @FunctionalInterface
+    public interface BatchExecutor {
+        TupleResultSet execute(int batchIndex, QueryLogger batchQueryLogger) throws OntopConnectionException;
+    }
+
+    private final int batchCount;
+    private final BatchExecutor batchExecutor;
+    private final QueryLogger queryLogger;
+    private final QueryLogger batchQueryLogger;
+    @Nullable
+    private final OntopConnectionCloseable statementClosingCB;
+
+    private TupleResultSet currentBatch;
+    private int currentBatchIndex;
+    private long rowCount = 0;
+    private boolean isExhausted = false;
+
+    /**
+     * The first batch is executed right away
+     */
+    public BatchedTupleResultSet(int batchCount, BatchExecutor batchExecutor, QueryLogger queryLogger,
+                                 @Nullable OntopConnectionCloseable statementClosingCB) throws OntopConnectionException {
+        this.batchCount = batchCount;
+        this.batchExecutor = batchExecutor;
+        this.queryLogger = queryLogger;
+        this.batchQueryLogger = new BatchQueryLogger(queryLogger);
+        this.statementClosingCB = statementClosingCB;
+        this.currentBatchIndex = 0;
+        this.currentBatch = batchExecutor.execute(0, batchQueryLogger);
+    }
+
+    @Override
+    public int getColumnCount() {
+        return currentBatch.getColumnCount();
+    }
+
+    @Override
+    public ImmutableList<String> getSignature() throws OntopConnectionException {
+        return ImmutableList.copyOf(currentBatch.getSignature());
+    }
+
+    @Override
+    public boolean isConnectionAlive() throws OntopConnectionException {
+        return currentBatch.isConnectionAlive();
+    }
+
+    @Override
+    public boolean hasNext() throws OntopConnectionException, OntopResultConversionException {
+        if (isExhausted)
+            return false;
+
+        while (!currentBatch.hasNext()) {
+            if (++currentBatchIndex >= batchCount) {
+                isExhausted = true;
+                queryLogger.declareLastResultRetrievedAndSerialize(rowCount);
+                close();
+                return false;
+            }
+            currentBatch.close();
+            currentBatch = batchExecutor.execute(currentBatchIndex, batchQueryLogger);
+        }
+        return true;
+    }
+
+    @Override
+    public OntopBindingSet next() throws OntopConnectionException, OntopResultConversionException {
+        if (!hasNext())
+            throw new NoSuchElementException("No next OntopBindingSet in this TupleResultSet");
+        rowCount++;
+        return currentBatch.next();
+    }
+
+    @Override
+    public void close() throws OntopConnectionException {
+        currentBatch.close();
+        if (statementClosingCB != null)
+            statementClosingCB.close();
+    }
+
+    /**
+     * Only the events concerning the whole query are forwarded
+     */
+    private static class BatchQueryLogger implements QueryLogger {
+
+        private final QueryLogger queryLogger;
+
+        BatchQueryLogger(QueryLogger queryLogger) {
+            this.queryLogger = queryLogger;
+        }
+
+        @Override
+        public void declareReformulationFinishedAndSerialize(IQ reformulatedQuery, boolean wasCached) {
+        }
+
+        @Override
+        public void declareResultSetUnblockedAndSerialize() {
+        }
+
+        @Override
+        public void declareLastResultRetrievedAndSerialize(long rowCount) {
+        }
+
+        @Override
+        public void declareReformulationException(OntopReformulationException e) {
+            queryLogger.declareReformulationException(e);
+        }
+
+        @Override
+        public void declareEvaluationException(Exception e) {
+            queryLogger.declareEvaluationException(e);
+        }
+
+        @Override
+        public void declareConnectionException(Exception e) {
+            queryLogger.declareConnectionException(e);
+        }
+
+        @Override
+        public void declareConversionException(InconsistentOntologyException e) {
+            queryLogger.declareConversionException(e);
+        }
+
+        @Override
+        public void setSparqlQuery(String sparqlQuery) {
+        }
+
+        @Override
+        public void setSparqlIQ(IQ sparqlIQ) {
+        }
+
+        @Override
+        public void setPlannedQuery(IQ plannedQuery) {
+        }
+
+        @Override
+        public void setPredefinedQuery(String queryId, ImmutableMap<String, String> bindings) {
+        }
+    }
+}
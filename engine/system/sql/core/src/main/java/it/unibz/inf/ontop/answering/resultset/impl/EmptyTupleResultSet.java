@@ -35,19 +35,22 @@ public class EmptyTupleResultSet implements TupleResultSet {
 
 	private final ImmutableList<String> signature;
 	private final QueryLogger queryLogger;
+	private final OntopConnectionCloseable closingCB;
 	private boolean hasNextCalled = false;
 
 	public EmptyTupleResultSet(ImmutableList<Variable> answerVariables,
-							   QueryLogger queryLogger) {
+							   QueryLogger queryLogger, OntopConnectionCloseable closingCB) {
 		this.signature = answerVariables.stream()
 				.map(Variable::getName)
 				.collect(ImmutableCollectors.toList());
 
 		this.queryLogger = queryLogger;
+		this.closingCB = closingCB;
 	}
 
 	@Override
-	public void close() {
+	public void close() throws OntopConnectionException {
+		closingCB.close();
 	}
 
 	@Override
@@ -0,0 +1,257 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedSet;
+import it.unibz.inf.ontop.answering.resultset.OntopBinding;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.RDFTermFunctionSymbol;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.model.type.RDFTermType;
+import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import javax.annotation.Nullable;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * Converts the rows of a JDBC result set into arrays of bindings.
+ *
+ * The definition of each projected variable is specialized once into a converter:
+ *   - definitions without variables are evaluated once for all;
+ *   - RDF terms whose lexical term is a column are created directly from the column value;
+ *   - RDF terms with a constant type are created from their lexical term, after its simplification;
+ *   - other definitions are instantiated with the values of their columns and simplified.
+ *
+ * Cases that are not handled by the specialized converters (e.g. NULL lexical values)
+ * are delegated to the generic instantiation and simplification.
+ *
+ * Not thread-safe: the column values are read into a buffer re-used for all the rows.
+ */
+class JDBCRowDecoder {
+
+    private final TermFactory termFactory;
+    private final SubstitutionFactory substitutionFactory;
+
+    private final Variable[] sqlVariables;
+    private final DBTermType[] sqlTypes;
+    // JDBC indexes (starting from 0) of the columns needed by at least one converter
+    private final int[] usedColumns;
+    // Re-used for each row
+    private final String[] columnValues;
+
+    private final Variable[] projectedVariables;
+    private final Converter[] converters;
+
+    JDBCRowDecoder(ImmutableList<Variable> signature, ImmutableSortedSet<Variable> sqlSignature,
+                   ImmutableMap<Variable, DBTermType> sqlTypeMap,
+                   ImmutableSubstitution<ImmutableTerm> sparqlVar2Term,
+                   TermFactory termFactory, SubstitutionFactory substitutionFactory) {
+        this.termFactory = termFactory;
+        this.substitutionFactory = substitutionFactory;
+
+        this.sqlVariables = sqlSignature.toArray(new Variable[0]);
+        this.sqlTypes = Arrays.stream(sqlVariables)
+                .map(sqlTypeMap::get)
+                .toArray(DBTermType[]::new);
+        this.columnValues = new String[sqlVariables.length];
+
+        ImmutableMap<Variable, Integer> columnIndexes = IntStream.range(0, sqlVariables.length)
+                .boxed()
+                .collect(ImmutableCollectors.toMap(i -> sqlVariables[i], i -> i));
+
+        this.projectedVariables = signature.toArray(new Variable[0]);
+        this.converters = Arrays.stream(projectedVariables)
+                .map(v -> compile(sparqlVar2Term.isDefining(v) ? sparqlVar2Term.get(v) : v, columnIndexes))
+                .toArray(Converter[]::new);
+
+        this.usedColumns = Arrays.stream(converters)
+                .flatMapToInt(c -> Arrays.stream(c.getColumns()))
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    OntopBinding[] decode(ResultSet rs) throws SQLException {
+        for (int column : usedColumns)
+            columnValues[column] = rs.getString(column + 1);
+
+        OntopBinding[] bindings = new OntopBinding[converters.length];
+        int count = 0;
+        for (int i = 0; i < converters.length; i++) {
+            RDFConstant constant = converters[i].convert();
+            if (constant != null)
+                bindings[count++] = new OntopBindingImpl(projectedVariables[i], constant);
+        }
+        return count == bindings.length
+                ? bindings
+                : Arrays.copyOf(bindings, count);
+    }
+
+    private Converter compile(ImmutableTerm definition, ImmutableMap<Variable, Integer> columnIndexes) {
+        int[] columns = definition.getVariableStream()
+                .filter(columnIndexes::containsKey)
+                .mapToInt(columnIndexes::get)
+                .distinct()
+                .toArray();
+
+        GenericConverter genericConverter = new GenericConverter(definition, columns);
+        if (columns.length == 0)
+            return new PrecomputedConverter(genericConverter.convert());
+
+        if ((definition instanceof ImmutableFunctionalTerm)
+                && ((ImmutableFunctionalTerm) definition).getFunctionSymbol() instanceof RDFTermFunctionSymbol) {
+            ImmutableFunctionalTerm rdfTerm = (ImmutableFunctionalTerm) definition;
+            ImmutableTerm lexicalTerm = rdfTerm.getTerm(0);
+            Optional<RDFTermType> rdfType = Optional.of(rdfTerm.getTerm(1))
+                    .filter(t -> t instanceof RDFTermTypeConstant)
+                    .map(t -> ((RDFTermTypeConstant) t).getRDFTermType())
+                    .filter(t -> !t.isAbstract());
+
+            if (rdfType.isPresent()) {
+                if ((lexicalTerm instanceof Variable) && columnIndexes.containsKey(lexicalTerm))
+                    return new ColumnConverter(columnIndexes.get(lexicalTerm), rdfType.get(), genericConverter);
+                if (lexicalTerm instanceof ImmutableFunctionalTerm)
+                    return new LexicalTermConverter(lexicalTerm, rdfType.get(), genericConverter);
+            }
+        }
+        return genericConverter;
+    }
+
+    private ImmutableSubstitution<Constant> extractSubstitution(int[] columns) {
+        ImmutableMap<Variable, Constant> map = Arrays.stream(columns)
+                .boxed()
+                .collect(ImmutableCollectors.toMap(
+                        i -> sqlVariables[i],
+                        i -> convertToConstant(columnValues[i], sqlTypes[i])));
+        return substitutionFactory.getSubstitution(map);
+    }
+
+    private Constant convertToConstant(@Nullable String jdbcValue, DBTermType termType) {
+        if (jdbcValue == null)
+            return termFactory.getNullConstant();
+        return termFactory.getDBConstant(jdbcValue, termType);
+    }
+
+
+    private interface Converter {
+
+        /**
+         * Returns null when the variable is not bound
+         */
+        @Nullable
+        RDFConstant convert();
+
+        int[] getColumns();
+    }
+
+    private static class PrecomputedConverter implements Converter {
+        @Nullable
+        private final RDFConstant constant;
+
+        private PrecomputedConverter(@Nullable RDFConstant constant) {
+            this.constant = constant;
+        }
+
+        @Override
+        public RDFConstant convert() {
+            return constant;
+        }
+
+        @Override
+        public int[] getColumns() {
+            return new int[0];
+        }
+    }
+
+    private class ColumnConverter implements Converter {
+        private final int column;
+        private final RDFTermType rdfType;
+        private final GenericConverter genericConverter;
+
+        private ColumnConverter(int column, RDFTermType rdfType, GenericConverter genericConverter) {
+            this.column = column;
+            this.rdfType = rdfType;
+            this.genericConverter = genericConverter;
+        }
+
+        @Override
+        public RDFConstant convert() {
+            String value = columnValues[column];
+            return (value == null)
+                    ? genericConverter.convert()
+                    : termFactory.getRDFConstant(value, rdfType);
+        }
+
+        @Override
+        public int[] getColumns() {
+            return genericConverter.getColumns();
+        }
+    }
+
+    private class LexicalTermConverter implements Converter {
+        private final ImmutableTerm lexicalTerm;
+        private final RDFTermType rdfType;
+        private final GenericConverter genericConverter;
+
+        private LexicalTermConverter(ImmutableTerm lexicalTerm, RDFTermType rdfType,
+                                     GenericConverter genericConverter) {
+            this.lexicalTerm = lexicalTerm;
+            this.rdfType = rdfType;
+            this.genericConverter = genericConverter;
+        }
+
+        @Override
+        public RDFConstant convert() {
+            ImmutableTerm lexicalValue = extractSubstitution(genericConverter.getColumns()).apply(lexicalTerm).simplify();
+            return (lexicalValue instanceof DBConstant)
+                    ? termFactory.getRDFConstant(((DBConstant) lexicalValue).getValue(), rdfType)
+                    : genericConverter.convert();
+        }
+
+        @Override
+        public int[] getColumns() {
+            return genericConverter.getColumns();
+        }
+    }
+
+    private class GenericConverter implements Converter {
+        private final ImmutableTerm definition;
+        private final int[] columns;
+
+        private GenericConverter(ImmutableTerm definition, int[] columns) {
+            this.definition = definition;
+            this.columns = columns;
+        }
+
+        @Override
+        public RDFConstant convert() {
+            ImmutableTerm simplifiedTerm = extractSubstitution(columns).apply(definition).simplify();
+            if (simplifiedTerm instanceof Constant) {
+                if (simplifiedTerm instanceof RDFConstant) {
+                    return (RDFConstant) simplifiedTerm;
+                }
+                Constant constant = (Constant) simplifiedTerm;
+                if (constant.isNull()) {
+                    return null;
+                }
+                if (constant instanceof DBConstant) {
+                    throw new SQLOntopBindingSet.InvalidConstantTypeInResultException(
+                            constant + "is a DB constant. But a binding cannot have a DB constant as value");
+                }
+                throw new SQLOntopBindingSet.InvalidConstantTypeInResultException("Unexpected constant type for " + constant);
+            }
+            throw new SQLOntopBindingSet.InvalidTermAsResultException(simplifiedTerm);
+        }
+
+        @Override
+        public int[] getColumns() {
+            return columns;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package it.unibz.inf.ontop.answering.resultset.impl;
 
 import com.google.common.collect.*;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.metrics.OntopMetrics;
 import it.unibz.inf.ontop.answering.resultset.OntopBinding;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.exception.OntopResultConversionException;
@@ -15,8 +16,7 @@ import it.unibz.inf.ontop.substitution.SubstitutionFactory;
 import javax.annotation.Nullable;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Iterator;
-import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 public class JDBCTupleResultSet extends AbstractTupleResultSet {
 
@@ -26,6 +26,17 @@ public class JDBCTupleResultSet extends AbstractTupleResultSet {
     private final SubstitutionFactory substitutionFactory;
     private final TermFactory termFactory;
 
+    @Nullable
+    private JDBCRowDecoder rowDecoder;
+
+    private final OntopMetrics.Timer fetchingTimer;
+    private final OntopMetrics.Counter decodedRowCounter;
+    private final OntopMetrics.DistributionSummary decodedRowsPerSecondSummary;
+    // In nanoseconds
+    private long fetchingTime, decodingTime;
+    private long decodedRowCount;
+    private boolean areMetricsRecorded;
+
     public JDBCTupleResultSet(ResultSet rs,
                               ImmutableSortedSet<Variable> sqlSignature,
                               ImmutableMap<Variable, DBTermType> sqlTypeMap,
@@ -33,78 +44,68 @@ public class JDBCTupleResultSet extends AbstractTupleResultSet {
                               DistinctVariableOnlyDataAtom answerAtom, QueryLogger queryLogger,
                               @Nullable OntopConnectionCloseable statementClosingCB,
                               TermFactory termFactory,
-                              SubstitutionFactory substitutionFactory) {
+                              SubstitutionFactory substitutionFactory,
+                              OntopMetrics metrics) {
         super(rs, answerAtom.getArguments(),queryLogger, statementClosingCB);
         this.sqlSignature = sqlSignature;
         this.sqlTypeMap = sqlTypeMap;
         this.substitutionFactory = substitutionFactory;
         this.termFactory = termFactory;
         this.sparqlVar2Term = constructionNode.getSubstitution();
+        this.fetchingTimer = metrics.timer(OntopMetrics.JDBC_FETCHING_TIMER);
+        this.decodedRowCounter = metrics.counter(OntopMetrics.JDBC_DECODED_ROW_COUNTER);
+        this.decodedRowsPerSecondSummary = metrics.summary(OntopMetrics.JDBC_DECODED_ROWS_PER_SECOND_SUMMARY);
+    }
+
+    @Override
+    protected boolean moveCursor() throws SQLException, OntopConnectionException {
+        long startTime = System.nanoTime();
+        try {
+            return super.moveCursor();
+        } finally {
+            fetchingTime += System.nanoTime() - startTime;
+        }
     }
 
 
     @Override
     protected SQLOntopBindingSet readCurrentRow() throws OntopConnectionException, OntopResultConversionException {
-        //builder (+loop) in order to throw checked exception
-        final ImmutableMap.Builder<Variable, Constant> builder = ImmutableMap.builder();
-        Iterator<Variable> it = sqlSignature.iterator();
+        OntopBinding[] bindings;
+        long startTime = System.nanoTime();
         try {
-            for (int i = 1; i <= sqlSignature.size(); i++) {
-                Variable var = it.next();
-                builder.put(
-                        var,
-                        convertToConstant(
-                            rs.getString(i),
-                            sqlTypeMap.get(var)
-                        ));
-            }
+            // Compiled lazily, so as to be skipped for empty results
+            if (rowDecoder == null)
+                rowDecoder = new JDBCRowDecoder(signature, sqlSignature, sqlTypeMap, sparqlVar2Term, termFactory,
+                        substitutionFactory);
+            bindings = rowDecoder.decode(rs);
         } catch (SQLException e) {
             throw buildConnectionException(e);
-        }
-        try {
-            return new SQLOntopBindingSet(computeBindingMap(substitutionFactory.getSubstitution(builder.build())));
         } catch (Exception e) {
             throw new OntopResultConversionException(e);
+        } finally {
+            decodingTime += System.nanoTime() - startTime;
         }
+        decodedRowCount++;
+        return new SQLOntopBindingSet(bindings);
     }
 
-    private Constant convertToConstant(@Nullable String jdbcValue, DBTermType termType) {
-        if (jdbcValue == null)
-            return termFactory.getNullConstant();
-        return termFactory.getDBConstant(jdbcValue, termType);
-    }
-
-    private OntopBinding[] computeBindingMap(ImmutableSubstitution<Constant> sqlVar2Constant) {
-        ImmutableSubstitution<ImmutableTerm> composition = sqlVar2Constant.composeWith(sparqlVar2Term);
-        //this can be improved and simplified
-        return signature.stream()
-                       .map(v -> getBinding(v,composition))
-                       .filter(Optional::isPresent)
-                       .map(Optional::get)
-                       .toArray(OntopBinding[]::new);
+    @Override
+    public void close() throws OntopConnectionException {
+        recordMetrics();
+        super.close();
     }
 
-    private Optional<OntopBinding> getBinding(Variable v, ImmutableSubstitution<ImmutableTerm> composition) {
-        Optional<RDFConstant> constant = evaluate(composition.applyToVariable(v));
-        return constant.map(rdfConstant -> new OntopBindingImpl(v, rdfConstant));
-    }
+    /**
+     * Once per result set (may be closed several times)
+     */
+    private void recordMetrics() {
+        if (areMetricsRecorded)
+            return;
+        areMetricsRecorded = true;
 
-    private Optional<RDFConstant> evaluate(ImmutableTerm term) {
-        ImmutableTerm simplifiedTerm = term.simplify();
-        if (simplifiedTerm instanceof Constant){
-            if (simplifiedTerm instanceof RDFConstant) {
-                return Optional.of((RDFConstant) simplifiedTerm);
-            }
-            Constant constant = (Constant) simplifiedTerm;
-            if (constant.isNull()) {
-                return Optional.empty();
-            }
-            if(constant instanceof DBConstant){
-                throw new SQLOntopBindingSet.InvalidConstantTypeInResultException(
-                        constant +"is a DB constant. But a binding cannot have a DB constant as value");
-            }
-            throw new SQLOntopBindingSet.InvalidConstantTypeInResultException("Unexpected constant type for "+constant);
-        }
-        throw new SQLOntopBindingSet.InvalidTermAsResultException(simplifiedTerm);
+        fetchingTimer.record(fetchingTime, TimeUnit.NANOSECONDS);
+        decodedRowCounter.increment(decodedRowCount);
+        if (decodingTime > 0)
+            decodedRowsPerSecondSummary.record(decodedRowCount * 1_000_000_000L / decodingTime);
     }
 }
@@ -0,0 +1,25 @@
+package it.unibz.inf.ontop.answering.statistics;
+
+import it.unibz.inf.ontop.dbschema.NamedRelationDefinition;
+
+import java.util.Optional;
+
+/**
+ * Statistics of the relations, as used for query planning.
+ *
+ * Thread-safe
+ */
+public interface DBStatistics extends AutoCloseable {
+
+    /**
+     * Never blocks for long: empty if the statistics are not available (yet)
+     */
+    Optional<RelationStatistics> getStatistics(NamedRelationDefinition relation);
+
+    /**
+     * Stops the background extraction, if any. Called when the query engine is closed.
+     */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,20 @@
+package it.unibz.inf.ontop.answering.statistics;
+
+import it.unibz.inf.ontop.dbschema.NamedRelationDefinition;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Optional;
+
+/**
+ * Reads the statistics maintained by the DB (e.g. by ANALYZE) from its catalog.
+ *
+ * DB-specific (see the -statisticsExtractor keys)
+ */
+public interface DBStatisticsExtractor {
+
+    /**
+     * Empty if the DB has no statistics for this relation
+     */
+    Optional<RelationStatistics> extract(Connection connection, NamedRelationDefinition relation) throws SQLException;
+}
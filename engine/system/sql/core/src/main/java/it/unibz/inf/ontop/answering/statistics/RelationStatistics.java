@@ -0,0 +1,38 @@
+package it.unibz.inf.ontop.answering.statistics;
+
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.dbschema.QuotedID;
+
+import java.util.Optional;
+
+/**
+ * Estimates of the DB for a relation (as reported by the DB catalog, hence possibly outdated)
+ *
+ * Immutable
+ */
+public class RelationStatistics {
+
+    private final long rowCount;
+    private final ImmutableMap<QuotedID, Long> distinctValueCounts;
+
+    public RelationStatistics(long rowCount, ImmutableMap<QuotedID, Long> distinctValueCounts) {
+        this.rowCount = rowCount;
+        this.distinctValueCounts = distinctValueCounts;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Not available for all the attributes
+     */
+    public Optional<Long> getDistinctValueCount(QuotedID attributeId) {
+        return Optional.ofNullable(distinctValueCounts.get(attributeId));
+    }
+
+    @Override
+    public String toString() {
+        return "rows=" + rowCount + ", distinct=" + distinctValueCounts;
+    }
+}
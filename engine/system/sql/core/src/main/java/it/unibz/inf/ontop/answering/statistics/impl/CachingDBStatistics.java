@@ -0,0 +1,107 @@
+package it.unibz.inf.ontop.answering.statistics.impl;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPool;
+import it.unibz.inf.ontop.answering.statistics.DBStatistics;
+import it.unibz.inf.ontop.answering.statistics.DBStatisticsExtractor;
+import it.unibz.inf.ontop.answering.statistics.RelationStatistics;
+import it.unibz.inf.ontop.dbschema.NamedRelationDefinition;
+import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The statistics of a relation are extracted in the background the first time they are requested,
+ * and then refreshed periodically (see OntopSystemSQLSettings.getStatisticsRefreshInterval()).
+ *
+ * Query planning never waits for the DB catalog: until they have been extracted, the statistics are
+ * reported as not available.
+ *
+ * Once closed, the statistics are not refreshed anymore.
+ */
+@Singleton
+public class CachingDBStatistics implements DBStatistics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingDBStatistics.class);
+
+    private final JDBCConnectionPool connectionPool;
+    private final DBStatisticsExtractor extractor;
+    private final long refreshIntervalMillis;
+    private final Map<NamedRelationDefinition, Entry> entries = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+
+    @Inject
+    protected CachingDBStatistics(JDBCConnectionPool connectionPool, DBStatisticsExtractor extractor,
+                                  OntopSystemSQLSettings settings) {
+        this(connectionPool, extractor, TimeUnit.SECONDS.toMillis(settings.getStatisticsRefreshInterval()));
+    }
+
+    CachingDBStatistics(JDBCConnectionPool connectionPool, DBStatisticsExtractor extractor, long refreshIntervalMillis) {
+        this.connectionPool = connectionPool;
+        this.extractor = extractor;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "ontop-db-statistics");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public Optional<RelationStatistics> getStatistics(NamedRelationDefinition relation) {
+        Entry entry = entries.computeIfAbsent(relation, r -> new Entry());
+        if (entry.isOutdated(System.currentTimeMillis()) && entry.loading.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> load(relation, entry));
+            }
+            catch (RejectedExecutionException e) {
+                // Closed
+                entry.loading.set(false);
+            }
+        }
+
+        return entry.statistics;
+    }
+
+    /**
+     * Interrupts the ongoing extraction, if any
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void load(NamedRelationDefinition relation, Entry entry) {
+        try (Connection connection = connectionPool.getConnection()) {
+            entry.statistics = extractor.extract(connection, relation);
+            LOGGER.debug("Statistics of {}: {}", relation.getID(), entry.statistics);
+        }
+        catch (SQLException | RuntimeException e) {
+            LOGGER.warn("Cannot extract the statistics of {}: {}", relation.getID(), e.toString());
+        }
+        finally {
+            entry.lastLoadTime = System.currentTimeMillis();
+            entry.loading.set(false);
+        }
+    }
+
+    private class Entry {
+        private volatile Optional<RelationStatistics> statistics = Optional.empty();
+        // Negative: never loaded
+        private volatile long lastLoadTime = -1;
+        private final AtomicBoolean loading = new AtomicBoolean(false);
+
+        boolean isOutdated(long now) {
+            return lastLoadTime < 0
+                    || (refreshIntervalMillis > 0 && now - lastLoadTime > refreshIntervalMillis);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package it.unibz.inf.ontop.answering.statistics.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.answering.statistics.RelationStatistics;
+import it.unibz.inf.ontop.dbschema.NamedRelationDefinition;
+import it.unibz.inf.ontop.dbschema.QuotedID;
+import it.unibz.inf.ontop.dbschema.RelationID;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * INFORMATION_SCHEMA.TABLES.ROW_COUNT_ESTIMATE. Distinct values are only derived from the unique constraints.
+ */
+@Singleton
+public class H2StatisticsExtractor extends JDBCStatisticsExtractor {
+
+    private static final String ROW_COUNT_QUERY = "SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES " +
+            "WHERE TABLE_SCHEMA = COALESCE(?, SCHEMA()) AND TABLE_NAME = ?";
+
+    @Inject
+    protected H2StatisticsExtractor() {
+    }
+
+    @Override
+    public Optional<RelationStatistics> extract(Connection connection, NamedRelationDefinition relation) throws SQLException {
+        ImmutableList<QuotedID> components = getFullyQualifiedID(relation).getComponents();
+        String table = getComponent(components, RelationID.TABLE_INDEX);
+        String schema = getComponent(components, RelationID.TABLE_INDEX + 1);
+
+        try (PreparedStatement st = connection.prepareStatement(ROW_COUNT_QUERY)) {
+            st.setString(1, schema);
+            st.setString(2, table);
+            try (ResultSet rs = st.executeQuery()) {
+                return rs.next()
+                        ? buildStatistics(relation, OptionalLong.of(rs.getLong(1)), ImmutableMap.of())
+                        : Optional.empty();
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package it.unibz.inf.ontop.answering.statistics.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.answering.statistics.DBStatisticsExtractor;
+import it.unibz.inf.ontop.answering.statistics.RelationStatistics;
+import it.unibz.inf.ontop.dbschema.*;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Relies on DatabaseMetaData.getIndexInfo (with approximate values):
+ *   - the row count is given by the table statistic row (if the driver reports it);
+ *   - the number of distinct values of an attribute is given by the single-attribute indexes.
+ *
+ * Attributes with a single-attribute unique constraint have as many distinct values as rows.
+ */
+@Singleton
+public class JDBCStatisticsExtractor implements DBStatisticsExtractor {
+
+    @Inject
+    protected JDBCStatisticsExtractor() {
+    }
+
+    @Override
+    public Optional<RelationStatistics> extract(Connection connection, NamedRelationDefinition relation) throws SQLException {
+        ImmutableList<QuotedID> components = getFullyQualifiedID(relation).getComponents();
+        String table = getComponent(components, RelationID.TABLE_INDEX);
+        String schema = getComponent(components, RelationID.TABLE_INDEX + 1);
+        String catalog = getComponent(components, RelationID.TABLE_INDEX + 2);
+
+        OptionalLong rowCount = OptionalLong.empty();
+        // Index name -> (column name, cardinality) of its first column
+        Map<String, Map.Entry<String, Long>> firstColumns = new HashMap<>();
+        Set<String> multiAttributeIndexes = new HashSet<>();
+
+        DatabaseMetaData metadata = connection.getMetaData();
+        try (ResultSet rs = metadata.getIndexInfo(catalog, schema, table, false, true)) {
+            while (rs.next()) {
+                if (rs.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) {
+                    long cardinality = rs.getLong("CARDINALITY");
+                    if (!rs.wasNull() && cardinality >= 0)
+                        rowCount = OptionalLong.of(cardinality);
+                    continue;
+                }
+                String indexName = rs.getString("INDEX_NAME");
+                if (rs.getShort("ORDINAL_POSITION") > 1) {
+                    multiAttributeIndexes.add(indexName);
+                    continue;
+                }
+                long cardinality = rs.getLong("CARDINALITY");
+                boolean isCardinalityKnown = !rs.wasNull() && cardinality > 0;
+                String column = rs.getString("COLUMN_NAME");
+                if (isCardinalityKnown && column != null)
+                    firstColumns.put(indexName, Maps.immutableEntry(column, cardinality));
+            }
+        }
+
+        Map<String, Long> distinctValueCounts = new HashMap<>();
+        firstColumns.forEach((index, e) -> {
+            if (!multiAttributeIndexes.contains(index))
+                distinctValueCounts.merge(e.getKey(), e.getValue(), Math::max);
+        });
+
+        return buildStatistics(relation, rowCount, distinctValueCounts);
+    }
+
+    /**
+     * Distinct value counts are indexed by the attribute names as returned by the DB catalog.
+     * Completes them with the unique constraints.
+     */
+    protected Optional<RelationStatistics> buildStatistics(NamedRelationDefinition relation, OptionalLong rowCount,
+                                                           Map<String, Long> distinctValueCounts) {
+        if (!rowCount.isPresent())
+            return Optional.empty();
+
+        long rows = rowCount.getAsLong();
+        Map<QuotedID, Long> counts = new HashMap<>();
+        for (Attribute attribute : relation.getAttributes()) {
+            Long count = distinctValueCounts.get(attribute.getID().getName());
+            if (count != null)
+                counts.put(attribute.getID(), Math.min(count, rows));
+        }
+        relation.getUniqueConstraints().stream()
+                .filter(uc -> uc.getAttributes().size() == 1)
+                .forEach(uc -> counts.put(uc.getAttributes().get(0).getID(), rows));
+
+        return Optional.of(new RelationStatistics(rows, ImmutableMap.copyOf(counts)));
+    }
+
+    /**
+     * The ID with the largest number of components (e.g. including the schema)
+     */
+    protected RelationID getFullyQualifiedID(NamedRelationDefinition relation) {
+        return relation.getAllIDs().stream()
+                .max(Comparator.comparingInt(id -> id.getComponents().size()))
+                .orElseGet(relation::getID);
+    }
+
+    /**
+     * Null if absent (i.e. the default of the connection)
+     */
+    protected static String getComponent(ImmutableList<QuotedID> components, int index) {
+        return index < components.size() ? components.get(index).getName() : null;
+    }
+}
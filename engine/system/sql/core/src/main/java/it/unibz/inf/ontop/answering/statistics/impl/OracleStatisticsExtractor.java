@@ -0,0 +1,72 @@
+package it.unibz.inf.ontop.answering.statistics.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.answering.statistics.RelationStatistics;
+import it.unibz.inf.ontop.dbschema.NamedRelationDefinition;
+import it.unibz.inf.ontop.dbschema.QuotedID;
+import it.unibz.inf.ontop.dbschema.RelationID;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * ALL_TAB_STATISTICS.NUM_ROWS and ALL_TAB_COL_STATISTICS.NUM_DISTINCT
+ */
+@Singleton
+public class OracleStatisticsExtractor extends JDBCStatisticsExtractor {
+
+    private static final String ROW_COUNT_QUERY = "SELECT NUM_ROWS FROM ALL_TAB_STATISTICS " +
+            "WHERE OWNER = COALESCE(?, SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA')) AND TABLE_NAME = ? " +
+            "AND PARTITION_NAME IS NULL";
+    private static final String DISTINCT_QUERY = "SELECT COLUMN_NAME, NUM_DISTINCT FROM ALL_TAB_COL_STATISTICS " +
+            "WHERE OWNER = COALESCE(?, SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA')) AND TABLE_NAME = ?";
+
+    @Inject
+    protected OracleStatisticsExtractor() {
+    }
+
+    @Override
+    public Optional<RelationStatistics> extract(Connection connection, NamedRelationDefinition relation) throws SQLException {
+        ImmutableList<QuotedID> components = getFullyQualifiedID(relation).getComponents();
+        String table = getComponent(components, RelationID.TABLE_INDEX);
+        String schema = getComponent(components, RelationID.TABLE_INDEX + 1);
+
+        OptionalLong rowCount = OptionalLong.empty();
+        try (PreparedStatement st = connection.prepareStatement(ROW_COUNT_QUERY)) {
+            st.setString(1, schema);
+            st.setString(2, table);
+            try (ResultSet rs = st.executeQuery()) {
+                if (rs.next()) {
+                    long numRows = rs.getLong(1);
+                    // NULL if never analyzed
+                    if (!rs.wasNull())
+                        rowCount = OptionalLong.of(numRows);
+                }
+            }
+        }
+        if (!rowCount.isPresent())
+            return Optional.empty();
+
+        Map<String, Long> distinctValueCounts = new HashMap<>();
+        try (PreparedStatement st = connection.prepareStatement(DISTINCT_QUERY)) {
+            st.setString(1, schema);
+            st.setString(2, table);
+            try (ResultSet rs = st.executeQuery()) {
+                while (rs.next()) {
+                    long numDistinct = rs.getLong(2);
+                    if (!rs.wasNull())
+                        distinctValueCounts.put(rs.getString(1), numDistinct);
+                }
+            }
+        }
+        return buildStatistics(relation, rowCount, distinctValueCounts);
+    }
+}
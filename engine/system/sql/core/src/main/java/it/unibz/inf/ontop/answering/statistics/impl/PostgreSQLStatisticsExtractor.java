@@ -0,0 +1,70 @@
+package it.unibz.inf.ontop.answering.statistics.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.answering.statistics.RelationStatistics;
+import it.unibz.inf.ontop.dbschema.NamedRelationDefinition;
+import it.unibz.inf.ontop.dbschema.QuotedID;
+import it.unibz.inf.ontop.dbschema.RelationID;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * pg_class.reltuples and pg_stats.n_distinct (negative values are ratios of the number of rows)
+ */
+@Singleton
+public class PostgreSQLStatisticsExtractor extends JDBCStatisticsExtractor {
+
+    private static final String ROW_COUNT_QUERY = "SELECT c.reltuples FROM pg_catalog.pg_class c " +
+            "JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace " +
+            "WHERE n.nspname = COALESCE(?, current_schema()) AND c.relname = ?";
+    private static final String DISTINCT_QUERY = "SELECT attname, n_distinct FROM pg_catalog.pg_stats " +
+            "WHERE schemaname = COALESCE(?, current_schema()) AND tablename = ?";
+
+    @Inject
+    protected PostgreSQLStatisticsExtractor() {
+    }
+
+    @Override
+    public Optional<RelationStatistics> extract(Connection connection, NamedRelationDefinition relation) throws SQLException {
+        ImmutableList<QuotedID> components = getFullyQualifiedID(relation).getComponents();
+        String table = getComponent(components, RelationID.TABLE_INDEX);
+        String schema = getComponent(components, RelationID.TABLE_INDEX + 1);
+
+        OptionalLong rowCount = OptionalLong.empty();
+        try (PreparedStatement st = connection.prepareStatement(ROW_COUNT_QUERY)) {
+            st.setString(1, schema);
+            st.setString(2, table);
+            try (ResultSet rs = st.executeQuery()) {
+                // Negative (-1 since PostgreSQL 14) if never analyzed
+                if (rs.next() && rs.getDouble(1) >= 0)
+                    rowCount = OptionalLong.of((long) rs.getDouble(1));
+            }
+        }
+        if (!rowCount.isPresent())
+            return Optional.empty();
+
+        long rows = rowCount.getAsLong();
+        Map<String, Long> distinctValueCounts = new HashMap<>();
+        try (PreparedStatement st = connection.prepareStatement(DISTINCT_QUERY)) {
+            st.setString(1, schema);
+            st.setString(2, table);
+            try (ResultSet rs = st.executeQuery()) {
+                while (rs.next()) {
+                    double nDistinct = rs.getDouble(2);
+                    distinctValueCounts.put(rs.getString(1),
+                            (long) Math.ceil(nDistinct >= 0 ? nDistinct : -nDistinct * rows));
+                }
+            }
+        }
+        return buildStatistics(relation, rowCount, distinctValueCounts);
+    }
+}
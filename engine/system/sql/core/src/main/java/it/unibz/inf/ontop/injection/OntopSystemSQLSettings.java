@@ -16,6 +16,18 @@ public interface OntopSystemSQLSettings extends OntopSystemSettings, OntopReform
 
     int getFetchSize();
 
+    /**
+     * Maximum number of prepared statements kept open per physical DB connection.
+     * Only used when query parameterization is enabled.
+     */
+    int getPreparedStatementCacheSize();
+
+    /**
+     * Interval (in seconds) after which the DB statistics of a relation are extracted again.
+     * Only used by statistics-aware components (e.g. the StatisticsAwareQueryPlanner).
+     */
+    int getStatisticsRefreshInterval();
+
     //--------------------------
     // Keys
     //--------------------------
@@ -31,4 +43,14 @@ public interface OntopSystemSQLSettings extends OntopSystemSettings, OntopReform
      * If <= 0, the fetch size is ignored
      */
     String FETCH_SIZE = "jdbc.fetchSize";
+
+    /*
+     * If <= 0, prepared statements are closed after each execution
+     */
+    String PREPARED_STATEMENT_CACHE_SIZE = "jdbc.preparedStatementCacheSize";
+
+    /*
+     * If <= 0, the statistics are extracted only once
+     */
+    String STATISTICS_REFRESH_INTERVAL = "ontop.statistics.refreshInterval";
 }
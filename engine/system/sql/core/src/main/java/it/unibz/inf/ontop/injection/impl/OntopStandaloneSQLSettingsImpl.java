@@ -78,6 +78,31 @@ public class OntopStandaloneSQLSettingsImpl extends OntopMappingSQLAllSettingsIm
         return getRequiredBoolean(QUERY_LOGGING_DECOMPOSITION_AND_MERGING_EXCLUSIVE);
     }
 
+    @Override
+    public int getQueryLogBufferSize() {
+        return getRequiredInteger(QUERY_LOG_BUFFER_SIZE);
+    }
+
+    @Override
+    public boolean isQueryLoggingBlockingWhenBufferFull() {
+        return getRequiredBoolean(QUERY_LOGGING_BLOCK_WHEN_BUFFER_FULL);
+    }
+
+    @Override
+    public Optional<String> getQueryLogFile() {
+        return getProperty(QUERY_LOG_FILE);
+    }
+
+    @Override
+    public long getQueryLogFileMaxSize() {
+        return getRequiredLong(QUERY_LOG_FILE_MAX_SIZE);
+    }
+
+    @Override
+    public int getQueryLogFileMaxBackups() {
+        return getRequiredInteger(QUERY_LOG_FILE_MAX_BACKUPS);
+    }
+
     @Override
     public boolean isFixedObjectIncludedInDescribe() {
         return getRequiredBoolean(INCLUDE_FIXED_OBJECT_POSITION_IN_DESCRIBE);
@@ -88,6 +113,11 @@ public class OntopStandaloneSQLSettingsImpl extends OntopMappingSQLAllSettingsIm
         return getRequiredLong(QUERY_CACHE_MAX_SIZE);
     }
 
+    @Override
+    public boolean isQueryTemplateCacheEnabled() {
+        return getRequiredBoolean(QUERY_TEMPLATE_CACHE);
+    }
+
     @Override
     public String getApplicationName() {
         return getRequiredProperty(APPLICATION_NAME);
@@ -128,6 +158,26 @@ public class OntopStandaloneSQLSettingsImpl extends OntopMappingSQLAllSettingsIm
         return systemSettings.getFetchSize();
     }
 
+    @Override
+    public int getPreparedStatementCacheSize() {
+        return systemSettings.getPreparedStatementCacheSize();
+    }
+
+    @Override
+    public int getStatisticsRefreshInterval() {
+        return systemSettings.getStatisticsRefreshInterval();
+    }
+
+    @Override
+    public boolean isQueryParameterizationEnabled() {
+        return systemSettings.isQueryParameterizationEnabled();
+    }
+
+    @Override
+    public int getValuesBatchSize() {
+        return systemSettings.getValuesBatchSize();
+    }
+
     @Override
     public Optional<Integer> getDefaultQueryTimeout() {
         return getInteger(DEFAULT_QUERY_TIMEOUT);
@@ -138,6 +188,61 @@ public class OntopStandaloneSQLSettingsImpl extends OntopMappingSQLAllSettingsIm
         return systemSettings.isPermanentDBConnectionEnabled();
     }
 
+    @Override
+    public boolean isVirtualThreadEnabled() {
+        return systemSettings.isVirtualThreadEnabled();
+    }
+
+    @Override
+    public int getMaxConcurrentQueries() {
+        return systemSettings.getMaxConcurrentQueries();
+    }
+
+    @Override
+    public int getMaxQueryThreads() {
+        return systemSettings.getMaxQueryThreads();
+    }
+
+    @Override
+    public int getMaxQueuedQueries() {
+        return systemSettings.getMaxQueuedQueries();
+    }
+
+    @Override
+    public long getQueueTimeout() {
+        return systemSettings.getQueueTimeout();
+    }
+
+    @Override
+    public boolean isResultCacheEnabled() {
+        return systemSettings.isResultCacheEnabled();
+    }
+
+    @Override
+    public long getResultCacheMaxRows() {
+        return systemSettings.getResultCacheMaxRows();
+    }
+
+    @Override
+    public int getResultCacheMaxRowsPerQuery() {
+        return systemSettings.getResultCacheMaxRowsPerQuery();
+    }
+
+    @Override
+    public long getResultCacheTTL() {
+        return systemSettings.getResultCacheTTL();
+    }
+
+    @Override
+    public long getPredefinedQueryCacheMaxSize() {
+        return systemSettings.getPredefinedQueryCacheMaxSize();
+    }
+
+    @Override
+    public long getPredefinedQueryCacheTTL() {
+        return systemSettings.getPredefinedQueryCacheTTL();
+    }
+
     @Override
     public Optional<String> getHttpCacheControl() {
         return systemSettings.getHttpCacheControl();
@@ -1,6 +1,8 @@
 package it.unibz.inf.ontop.injection.impl;
 
 import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
+import it.unibz.inf.ontop.answering.statistics.DBStatistics;
+import it.unibz.inf.ontop.answering.statistics.DBStatisticsExtractor;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPool;
 
@@ -19,5 +21,7 @@ public class OntopSystemSQLModule extends OntopAbstractModule {
         bind(OntopSystemSQLSettings.class).toInstance(settings);
         bindFromSettings(JDBCConnectionPool.class);
         bindFromSettings(JDBCStatementInitializer.class);
+        bindFromSettings(DBStatisticsExtractor.class);
+        bindFromSettings(DBStatistics.class);
     }
 }
@@ -1,6 +1,7 @@
 package it.unibz.inf.ontop.injection.impl;
 
 import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
+import it.unibz.inf.ontop.answering.statistics.DBStatisticsExtractor;
 import it.unibz.inf.ontop.injection.OntopSQLCredentialSettings;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 import it.unibz.inf.ontop.injection.OntopSystemSettings;
@@ -15,6 +16,7 @@ public class OntopSystemSQLSettingsImpl extends OntopReformulationSQLSettingsImp
 
     private static final String DEFAULT_FILE = "system-sql-default.properties";
     private static final String STATEMENT_INITIALIZER_SUFFIX = "-statementInitializer";
+    private static final String STATISTICS_EXTRACTOR_SUFFIX = "-statisticsExtractor";
     private final OntopSystemSettings systemSettings;
     private final OntopSQLCredentialSettings sqlCredentialSettings;
 
@@ -40,6 +42,16 @@ public class OntopSystemSQLSettingsImpl extends OntopReformulationSQLSettingsImp
                 .filter(v -> !userProperties.containsKey(initializerName))
                 .ifPresent(v -> properties.setProperty(initializerName, v));
 
+        /*
+         * Statistics extractor
+         */
+        String statisticsExtractorKey = jdbcDriver + STATISTICS_EXTRACTOR_SUFFIX;
+        String statisticsExtractorName = DBStatisticsExtractor.class.getCanonicalName();
+        Optional.ofNullable(properties.getProperty(statisticsExtractorKey))
+                // Must NOT override user properties
+                .filter(v -> !userProperties.containsKey(statisticsExtractorName))
+                .ifPresent(v -> properties.setProperty(statisticsExtractorName, v));
+
         return properties;
     }
 
@@ -79,6 +91,16 @@ public class OntopSystemSQLSettingsImpl extends OntopReformulationSQLSettingsImp
         return getRequiredInteger(FETCH_SIZE);
     }
 
+    @Override
+    public int getPreparedStatementCacheSize() {
+        return getRequiredInteger(PREPARED_STATEMENT_CACHE_SIZE);
+    }
+
+    @Override
+    public int getStatisticsRefreshInterval() {
+        return getRequiredInteger(STATISTICS_REFRESH_INTERVAL);
+    }
+
     @Override
     public Optional<Integer> getDefaultQueryTimeout() {
         return getInteger(DEFAULT_QUERY_TIMEOUT);
@@ -89,6 +111,61 @@ public class OntopSystemSQLSettingsImpl extends OntopReformulationSQLSettingsImp
         return systemSettings.isPermanentDBConnectionEnabled();
     }
 
+    @Override
+    public boolean isVirtualThreadEnabled() {
+        return systemSettings.isVirtualThreadEnabled();
+    }
+
+    @Override
+    public int getMaxConcurrentQueries() {
+        return systemSettings.getMaxConcurrentQueries();
+    }
+
+    @Override
+    public int getMaxQueryThreads() {
+        return systemSettings.getMaxQueryThreads();
+    }
+
+    @Override
+    public int getMaxQueuedQueries() {
+        return systemSettings.getMaxQueuedQueries();
+    }
+
+    @Override
+    public long getQueueTimeout() {
+        return systemSettings.getQueueTimeout();
+    }
+
+    @Override
+    public boolean isResultCacheEnabled() {
+        return systemSettings.isResultCacheEnabled();
+    }
+
+    @Override
+    public long getResultCacheMaxRows() {
+        return systemSettings.getResultCacheMaxRows();
+    }
+
+    @Override
+    public int getResultCacheMaxRowsPerQuery() {
+        return systemSettings.getResultCacheMaxRowsPerQuery();
+    }
+
+    @Override
+    public long getResultCacheTTL() {
+        return systemSettings.getResultCacheTTL();
+    }
+
+    @Override
+    public long getPredefinedQueryCacheMaxSize() {
+        return systemSettings.getPredefinedQueryCacheMaxSize();
+    }
+
+    @Override
+    public long getPredefinedQueryCacheTTL() {
+        return systemSettings.getPredefinedQueryCacheTTL();
+    }
+
     @Override
     public Optional<String> getHttpCacheControl() {
         return systemSettings.getHttpCacheControl();
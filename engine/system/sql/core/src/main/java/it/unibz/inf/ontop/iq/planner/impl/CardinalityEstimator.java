@@ -0,0 +1,215 @@
+package it.unibz.inf.ontop.iq.planner.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import it.unibz.inf.ontop.answering.statistics.DBStatistics;
+import it.unibz.inf.ontop.answering.statistics.RelationStatistics;
+import it.unibz.inf.ontop.dbschema.NamedRelationDefinition;
+import it.unibz.inf.ontop.dbschema.QuotedID;
+import it.unibz.inf.ontop.dbschema.RelationDefinition;
+import it.unibz.inf.ontop.iq.BinaryNonCommutativeIQTree;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.term.VariableOrGroundTerm;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Rough estimation of the number of rows of an IQ tree from the DB statistics,
+ * under the usual independence and uniformity assumptions.
+ *
+ * The estimation is not available as soon as the statistics of one of the relations are unknown
+ * or when the tree contains a node that is not supported.
+ */
+class CardinalityEstimator {
+
+    /**
+     * Selectivity of a filter or join condition
+     */
+    private static final double CONDITION_SELECTIVITY = 0.3;
+    /**
+     * Selectivity of an equality with a constant when the number of distinct values is unknown
+     */
+    private static final double DEFAULT_EQUALITY_SELECTIVITY = 0.1;
+
+    private final DBStatistics statistics;
+
+    CardinalityEstimator(DBStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    Optional<Estimate> estimate(IQTree tree) {
+        QueryNode node = tree.getRootNode();
+
+        if (node instanceof ExtensionalDataNode)
+            return estimateExtensional((ExtensionalDataNode) node);
+        if (node instanceof ValuesNode)
+            return Optional.of(new Estimate(((ValuesNode) node).getValues().size(), ImmutableMap.of()));
+        if (node instanceof TrueNode)
+            return Optional.of(new Estimate(1, ImmutableMap.of()));
+        if (node instanceof EmptyNode)
+            return Optional.of(new Estimate(0, ImmutableMap.of()));
+
+        if (node instanceof ConstructionNode || node instanceof DistinctNode || node instanceof OrderByNode)
+            return estimate(tree.getChildren().get(0));
+        if (node instanceof FilterNode)
+            return estimate(tree.getChildren().get(0))
+                    .map(e -> e.scale(CONDITION_SELECTIVITY));
+        if (node instanceof SliceNode) {
+            SliceNode sliceNode = (SliceNode) node;
+            return estimate(tree.getChildren().get(0))
+                    .map(e -> sliceNode.getLimit()
+                            .map(l -> e.cap(l))
+                            .orElse(e));
+        }
+        if (node instanceof AggregationNode) {
+            ImmutableList<Variable> groupingVariables = ((AggregationNode) node).getGroupingVariables().asList();
+            return estimate(tree.getChildren().get(0))
+                    .map(e -> e.cap(groupingVariables.stream()
+                            .mapToDouble(e::getDistinctValueCount)
+                            .reduce(1, (a, b) -> a * b)));
+        }
+        if (node instanceof InnerJoinNode) {
+            Optional<Estimate> estimate = Optional.of(new Estimate(1, ImmutableMap.of()));
+            Set<Variable> variables = new HashSet<>();
+            for (IQTree child : tree.getChildren()) {
+                Optional<Estimate> childEstimate = estimate(child);
+                ImmutableSet<Variable> sharedVariables = Sets.intersection(variables, child.getVariables()).immutableCopy();
+                estimate = estimate.flatMap(e -> childEstimate.map(c -> e.join(c, sharedVariables)));
+                variables.addAll(child.getVariables());
+            }
+            return ((InnerJoinNode) node).getOptionalFilterCondition().isPresent()
+                    ? estimate.map(e -> e.scale(CONDITION_SELECTIVITY))
+                    : estimate;
+        }
+        if (node instanceof LeftJoinNode) {
+            BinaryNonCommutativeIQTree leftJoinTree = (BinaryNonCommutativeIQTree) tree;
+            Optional<Estimate> left = estimate(leftJoinTree.getLeftChild());
+            Optional<Estimate> right = estimate(leftJoinTree.getRightChild());
+            // At least one row per row of the left child
+            ImmutableSet<Variable> sharedVariables = Sets.intersection(
+                    leftJoinTree.getLeftChild().getVariables(), leftJoinTree.getRightChild().getVariables())
+                    .immutableCopy();
+            return left.flatMap(l -> right.map(r -> {
+                Estimate join = l.join(r, sharedVariables);
+                return join.rows >= l.rows ? join : l;
+            }));
+        }
+        if (node instanceof UnionNode) {
+            Optional<Estimate> estimate = Optional.of(new Estimate(0, ImmutableMap.of()));
+            for (IQTree child : tree.getChildren()) {
+                Optional<Estimate> childEstimate = estimate(child);
+                estimate = estimate.flatMap(e -> childEstimate.map(e::union));
+            }
+            return estimate;
+        }
+        return Optional.empty();
+    }
+
+    private Optional<Estimate> estimateExtensional(ExtensionalDataNode node) {
+        RelationDefinition relation = node.getRelationDefinition();
+        if (!(relation instanceof NamedRelationDefinition))
+            return Optional.empty();
+
+        return statistics.getStatistics((NamedRelationDefinition) relation)
+                .map(s -> estimateExtensional(node, s));
+    }
+
+    private Estimate estimateExtensional(ExtensionalDataNode node, RelationStatistics relationStatistics) {
+        double rows = relationStatistics.getRowCount();
+        double selectivity = 1;
+        Map<Variable, Double> distinctValueCounts = new HashMap<>();
+
+        for (Map.Entry<Integer, ? extends VariableOrGroundTerm> e : node.getArgumentMap().entrySet()) {
+            QuotedID attributeID = node.getRelationDefinition().getAttributes().get(e.getKey()).getID();
+            Optional<Double> distinctValueCount = relationStatistics.getDistinctValueCount(attributeID)
+                    .map(Long::doubleValue);
+
+            VariableOrGroundTerm argument = e.getValue();
+            if (argument instanceof Variable) {
+                double count = distinctValueCount.orElse(rows);
+                Double previousCount = distinctValueCounts.get(argument);
+                // Repeated variable: equality between two attributes
+                if (previousCount != null) {
+                    selectivity /= Math.max(1, Math.max(previousCount, count));
+                    count = Math.min(previousCount, count);
+                }
+                distinctValueCounts.put((Variable) argument, count);
+            }
+            else
+                selectivity *= distinctValueCount
+                        .map(c -> 1 / Math.max(1, c))
+                        .orElse(DEFAULT_EQUALITY_SELECTIVITY);
+        }
+        return new Estimate(rows, ImmutableMap.copyOf(distinctValueCounts)).scale(selectivity);
+    }
+
+
+    /**
+     * Number of rows and number of distinct values per variable (when known)
+     */
+    static class Estimate {
+        final double rows;
+        private final ImmutableMap<Variable, Double> distinctValueCounts;
+
+        Estimate(double rows, ImmutableMap<Variable, Double> distinctValueCounts) {
+            this.rows = rows;
+            this.distinctValueCounts = distinctValueCounts;
+        }
+
+        /**
+         * Bounded by the number of rows
+         */
+        double getDistinctValueCount(Variable variable) {
+            return Math.min(rows, distinctValueCounts.getOrDefault(variable, rows));
+        }
+
+        Estimate scale(double selectivity) {
+            return cap(rows * selectivity);
+        }
+
+        Estimate cap(double maxRows) {
+            if (maxRows >= rows)
+                return this;
+            ImmutableMap.Builder<Variable, Double> builder = ImmutableMap.builder();
+            distinctValueCounts.forEach((v, c) -> builder.put(v, Math.min(c, maxRows)));
+            return new Estimate(maxRows, builder.build());
+        }
+
+        /**
+         * Natural join: divides the cross product by the largest number of distinct values
+         * of each shared variable
+         */
+        Estimate join(Estimate other, ImmutableSet<Variable> sharedVariables) {
+            double newRows = rows * other.rows;
+            Map<Variable, Double> newCounts = new HashMap<>(other.distinctValueCounts);
+            newCounts.putAll(distinctValueCounts);
+            for (Variable variable : sharedVariables) {
+                double count = getDistinctValueCount(variable);
+                double otherCount = other.getDistinctValueCount(variable);
+                newRows /= Math.max(1, Math.max(count, otherCount));
+                newCounts.put(variable, Math.min(count, otherCount));
+            }
+            return new Estimate(newRows, ImmutableMap.copyOf(newCounts));
+        }
+
+        Estimate union(Estimate other) {
+            Map<Variable, Double> newCounts = new HashMap<>();
+            for (Variable variable : Sets.union(distinctValueCounts.keySet(), other.distinctValueCounts.keySet()))
+                newCounts.put(variable, getDistinctValueCount(variable) + other.getDistinctValueCount(variable));
+            return new Estimate(rows + other.rows, ImmutableMap.copyOf(newCounts));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.0f rows", rows);
+        }
+    }
+}
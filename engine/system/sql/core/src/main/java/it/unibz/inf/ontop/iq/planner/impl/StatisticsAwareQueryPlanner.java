@@ -0,0 +1,108 @@
+package it.unibz.inf.ontop.iq.planner.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import it.unibz.inf.ontop.answering.statistics.DBStatistics;
+import it.unibz.inf.ontop.dbschema.RelationDefinition;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.NaryIQTree;
+import it.unibz.inf.ontop.iq.node.ExtensionalDataNode;
+import it.unibz.inf.ontop.iq.optimizer.GeneralStructuralAndSemanticIQOptimizer;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Variant of AvoidJoinAboveUnionPlanner that only pushes a sibling under a union when it is expected
+ * to be worth it according to the DB statistics (see DBStatistics).
+ * <p>
+ * Pushing a sibling S under a union U with k children makes the DB evaluate k joins with S instead of one.
+ * S is kept above the union when these k-1 additional joins are expected to cost more
+ * than joining once with the whole union, i.e. when (k-1) * |S| > |U|.
+ * <p>
+ * S is always pushed when:
+ *   - it is not an extensional node (e.g. small VALUES);
+ *   - its relation also appears in the union (the join may then be eliminated by self-join elimination);
+ *   - the statistics are not available (yet).
+ * <p>
+ * Not enabled by default. To enable it:
+ * <pre>
+ *   it.unibz.inf.ontop.iq.planner.QueryPlanner = it.unibz.inf.ontop.iq.planner.impl.StatisticsAwareQueryPlanner
+ * </pre>
+ */
+@Singleton
+public class StatisticsAwareQueryPlanner extends AvoidJoinAboveUnionPlanner {
+
+    @Inject
+    protected StatisticsAwareQueryPlanner(GeneralStructuralAndSemanticIQOptimizer generalOptimizer,
+                                          StatisticsAwareTransformer transformer,
+                                          IntermediateQueryFactory iqFactory) {
+        super(generalOptimizer, transformer, iqFactory);
+    }
+
+    @Singleton
+    protected static class StatisticsAwareTransformer extends AvoidJoinAboveUnionTransformer {
+
+        private static final Logger LOGGER = LoggerFactory.getLogger(StatisticsAwareTransformer.class);
+
+        private final CardinalityEstimator estimator;
+
+        @Inject
+        protected StatisticsAwareTransformer(IntermediateQueryFactory iqFactory, DBStatistics statistics) {
+            super(iqFactory);
+            this.estimator = new CardinalityEstimator(statistics);
+        }
+
+        @Override
+        protected Optional<Map.Entry<NaryIQTree, ImmutableList<Integer>>> extractPushableSiblings(NaryIQTree unionTree,
+                                                                                             ImmutableList<IQTree> children) {
+            return super.extractPushableSiblings(unionTree, children)
+                    .map(e -> e.getValue().stream()
+                            .filter(i -> isWorthPushing(children.get(i), unionTree))
+                            .collect(ImmutableCollectors.toList()))
+                    .filter(l -> !l.isEmpty())
+                    .map(l -> Maps.immutableEntry(unionTree, l));
+        }
+
+        protected boolean isWorthPushing(IQTree sibling, NaryIQTree unionTree) {
+            if (!(sibling.getRootNode() instanceof ExtensionalDataNode))
+                return true;
+
+            RelationDefinition relation = ((ExtensionalDataNode) sibling.getRootNode()).getRelationDefinition();
+            if (extractRelations(unionTree).contains(relation))
+                return true;
+
+            Optional<CardinalityEstimator.Estimate> siblingEstimate = estimator.estimate(sibling);
+            Optional<CardinalityEstimator.Estimate> unionEstimate = estimator.estimate(unionTree);
+            if (!siblingEstimate.isPresent() || !unionEstimate.isPresent())
+                return true;
+
+            int additionalJoins = unionTree.getChildren().size() - 1;
+            boolean isWorthPushing = additionalJoins * siblingEstimate.get().rows <= unionEstimate.get().rows;
+            LOGGER.debug("{} ({}) {} under the union ({}, {} children)",
+                    sibling.getRootNode(), siblingEstimate.get(), isWorthPushing ? "pushed" : "kept above",
+                    unionEstimate.get(), unionTree.getChildren().size());
+            return isWorthPushing;
+        }
+
+        private static ImmutableSet<RelationDefinition> extractRelations(IQTree tree) {
+            return Stream.concat(
+                    Optional.of(tree.getRootNode())
+                            .filter(n -> n instanceof ExtensionalDataNode)
+                            .map(n -> ((ExtensionalDataNode) n).getRelationDefinition())
+                            .map(Stream::of)
+                            .orElseGet(Stream::empty),
+                    tree.getChildren().stream()
+                            .flatMap(c -> extractRelations(c).stream()))
+                    .collect(ImmutableCollectors.toSet());
+        }
+    }
+}
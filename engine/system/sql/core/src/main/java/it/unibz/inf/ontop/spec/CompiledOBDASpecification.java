@@ -0,0 +1,217 @@
+package it.unibz.inf.ontop.spec;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import it.unibz.inf.ontop.exception.InvalidOntopConfigurationException;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import it.unibz.inf.ontop.utils.VersionInfo;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Artifact produced by "ontop compile", from which the OBDA specification is loaded
+ * without parsing the input files, resolving the ontology imports or querying the DB catalog.
+ *
+ * Contains:
+ *   - the SQL-PP mapping, in the native Ontop syntax (R2RML mappings are converted);
+ *   - the ontology, its imports being merged in (OWL functional syntax);
+ *   - the DB metadata of the relations used by the mapping, together with the DB parameters
+ *     (in the format of the DB metadata files);
+ *   - the checksums of the input files (mapping, ontology, properties, etc.) and a hash of all of them.
+ *
+ * An artifact produced by another version of Ontop, or from input files that have changed since, is rejected.
+ *
+ * The IQs of the saturated mapping and the classified TBox are not stored: they have no serialized form.
+ * Saturation and classification are therefore run when the specification is loaded.
+ */
+public class CompiledOBDASpecification {
+
+    public static final int FORMAT_VERSION = 2;
+
+    public static final String MAPPING_INPUT = "mapping";
+    public static final String ONTOLOGY_INPUT = "ontology";
+    public static final String PROPERTIES_INPUT = "properties";
+    public static final String CONSTRAINT_INPUT = "constraint";
+    public static final String ONTOP_VIEWS_INPUT = "ontop-views";
+    public static final String XML_CATALOG_INPUT = "xml-catalog";
+
+    private static final String FORMAT_VERSION_KEY = "formatVersion";
+    private static final String ONTOP_VERSION_KEY = "ontopVersion";
+    private static final String INPUTS_KEY = "inputs";
+    private static final String INPUTS_HASH_KEY = "inputsHash";
+    private static final String MAPPING_KEY = "mapping";
+    private static final String ONTOLOGY_KEY = "ontology";
+    private static final String DB_METADATA_KEY = "dbMetadata";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final String ontopVersion;
+    private final ImmutableMap<String, String> inputChecksums;
+    private final String mapping;
+    private final Optional<String> ontology;
+    private final JsonNode dbMetadata;
+
+    private CompiledOBDASpecification(String ontopVersion, ImmutableMap<String, String> inputChecksums,
+                                      String mapping, Optional<String> ontology, JsonNode dbMetadata) {
+        this.ontopVersion = ontopVersion;
+        this.inputChecksums = inputChecksums;
+        this.mapping = mapping;
+        this.ontology = ontology;
+        this.dbMetadata = dbMetadata;
+    }
+
+    /**
+     * The DB metadata is read from a DB metadata file or a metadata snapshot
+     */
+    public static CompiledOBDASpecification create(ImmutableMap<String, File> inputFiles, String mapping,
+                                                   Optional<String> ontology, Reader dbMetadataReader)
+            throws IOException {
+        return new CompiledOBDASpecification(getCurrentOntopVersion(), computeChecksums(inputFiles), mapping,
+                ontology, OBJECT_MAPPER.readTree(dbMetadataReader));
+    }
+
+    /**
+     * Throws an InvalidOntopConfigurationException if the artifact has not been produced by this version of Ontop,
+     * or if it has been modified since
+     */
+    public static CompiledOBDASpecification load(File file) throws IOException {
+        JsonNode root = OBJECT_MAPPER.readTree(file);
+
+        int formatVersion = root.path(FORMAT_VERSION_KEY).asInt(-1);
+        if (formatVersion != FORMAT_VERSION)
+            throw new InvalidOntopConfigurationException(String.format(
+                    "Unsupported format version of the compiled specification %s: %d (expected: %d)",
+                    file, formatVersion, FORMAT_VERSION));
+
+        String ontopVersion = root.path(ONTOP_VERSION_KEY).asText();
+        if (!ontopVersion.equals(getCurrentOntopVersion()))
+            throw new InvalidOntopConfigurationException(String.format(
+                    "The compiled specification %s has been produced by Ontop %s. Please compile it again.",
+                    file, ontopVersion));
+
+        ImmutableMap.Builder<String, String> checksumBuilder = ImmutableMap.builder();
+        Iterator<Map.Entry<String, JsonNode>> inputs = root.path(INPUTS_KEY).fields();
+        while (inputs.hasNext()) {
+            Map.Entry<String, JsonNode> input = inputs.next();
+            checksumBuilder.put(input.getKey(), input.getValue().asText());
+        }
+        ImmutableMap<String, String> inputChecksums = checksumBuilder.build();
+
+        if (!computeInputsHash(inputChecksums).equals(root.path(INPUTS_HASH_KEY).asText()))
+            throw new InvalidOntopConfigurationException(
+                    "The checksums of the inputs of the compiled specification " + file + " do not match their hash");
+
+        JsonNode mapping = root.get(MAPPING_KEY);
+        if (mapping == null)
+            throw new InvalidOntopConfigurationException("No mapping in the compiled specification " + file);
+
+        JsonNode dbMetadata = root.get(DB_METADATA_KEY);
+        if (dbMetadata == null)
+            throw new InvalidOntopConfigurationException("No DB metadata in the compiled specification " + file);
+
+        return new CompiledOBDASpecification(ontopVersion, inputChecksums, mapping.asText(),
+                Optional.ofNullable(root.get(ONTOLOGY_KEY)).map(JsonNode::asText), dbMetadata);
+    }
+
+    public void write(File file) throws IOException {
+        ObjectNode root = OBJECT_MAPPER.createObjectNode();
+        root.put(FORMAT_VERSION_KEY, FORMAT_VERSION);
+        root.put(ONTOP_VERSION_KEY, ontopVersion);
+        ObjectNode inputs = root.putObject(INPUTS_KEY);
+        inputChecksums.forEach(inputs::put);
+        root.put(INPUTS_HASH_KEY, computeInputsHash(inputChecksums));
+        root.put(MAPPING_KEY, mapping);
+        ontology.ifPresent(o -> root.put(ONTOLOGY_KEY, o));
+        root.set(DB_METADATA_KEY, dbMetadata);
+
+        OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(file, root);
+    }
+
+    /**
+     * Throws an InvalidOntopConfigurationException if the input files are not the ones the artifact
+     * has been compiled from (e.g. a file has been modified, added or removed).
+     */
+    public void checkInputs(ImmutableMap<String, File> inputFiles) throws IOException {
+        ImmutableMap<String, String> checksums = computeChecksums(inputFiles);
+        if (computeInputsHash(checksums).equals(computeInputsHash(inputChecksums)))
+            return;
+
+        ImmutableSet<String> staleInputs = Sets.union(checksums.keySet(), inputChecksums.keySet()).stream()
+                .filter(k -> !Objects.equals(checksums.get(k), inputChecksums.get(k)))
+                .collect(ImmutableCollectors.toSet());
+
+        throw new InvalidOntopConfigurationException(
+                "The compiled specification is stale, please compile it again. Changed inputs: "
+                        + staleInputs.stream().sorted().collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * In the native Ontop syntax
+     */
+    public Reader getMappingReader() {
+        return new StringReader(mapping);
+    }
+
+    /**
+     * In the OWL functional syntax, without imports
+     */
+    public Optional<Reader> getOntologyReader() {
+        return ontology.map(StringReader::new);
+    }
+
+    public Reader getDBMetadataReader() {
+        return new StringReader(dbMetadata.toString());
+    }
+
+    public ImmutableMap<String, String> getInputChecksums() {
+        return inputChecksums;
+    }
+
+    /**
+     * Null and empty paths are ignored
+     */
+    public static ImmutableMap<String, File> toInputFiles(Map<String, String> inputPaths) {
+        return inputPaths.entrySet().stream()
+                .filter(e -> e.getValue() != null && !e.getValue().isEmpty())
+                .collect(ImmutableCollectors.toMap(Map.Entry::getKey, e -> new File(e.getValue())));
+    }
+
+    private static ImmutableMap<String, String> computeChecksums(ImmutableMap<String, File> inputFiles)
+            throws IOException {
+        ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
+        for (Map.Entry<String, File> input : inputFiles.entrySet())
+            builder.put(input.getKey(), Files.asByteSource(input.getValue()).hash(Hashing.sha256()).toString());
+        return builder.build();
+    }
+
+    /**
+     * Independent of the order of the inputs
+     */
+    private static String computeInputsHash(ImmutableMap<String, String> checksums) {
+        return Hashing.sha256().hashString(
+                checksums.entrySet().stream()
+                        .sorted(Map.Entry.comparingByKey())
+                        .map(e -> e.getKey() + "=" + e.getValue())
+                        .collect(Collectors.joining("\n")),
+                StandardCharsets.UTF_8).toString();
+    }
+
+    private static String getCurrentOntopVersion() {
+        return String.valueOf(VersionInfo.getVersionInfo().getVersion());
+    }
+}
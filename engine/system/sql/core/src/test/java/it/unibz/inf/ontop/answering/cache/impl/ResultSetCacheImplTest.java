@@ -0,0 +1,120 @@
+package it.unibz.inf.ontop.answering.cache.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Injector;
+import it.unibz.inf.ontop.answering.metrics.OntopMetrics;
+import it.unibz.inf.ontop.answering.metrics.impl.InMemoryOntopMetrics;
+import it.unibz.inf.ontop.answering.resultset.OntopBinding;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.answering.resultset.impl.SQLOntopBindingSet;
+import it.unibz.inf.ontop.injection.CoreSingletons;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.injection.OntopSQLCoreConfiguration;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.model.atom.AtomFactory;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class ResultSetCacheImplTest {
+
+    private static IQ query1, query2;
+
+    @BeforeClass
+    public static void setUp() {
+        Injector injector = OntopSQLCoreConfiguration.defaultBuilder()
+                .jdbcUrl("jdbc:h2:mem:result_cache")
+                .jdbcDriver("org.h2.Driver")
+                .build()
+                .getInjector();
+        IntermediateQueryFactory iqFactory = injector.getInstance(IntermediateQueryFactory.class);
+        CoreSingletons coreSingletons = injector.getInstance(CoreSingletons.class);
+        AtomFactory atomFactory = coreSingletons.getAtomFactory();
+
+        Variable x = coreSingletons.getTermFactory().getVariable("x");
+        Variable y = coreSingletons.getTermFactory().getVariable("y");
+        query1 = iqFactory.createIQ(
+                atomFactory.getDistinctVariableOnlyDataAtom(atomFactory.getRDFAnswerPredicate(1), ImmutableList.of(x)),
+                iqFactory.createEmptyNode(ImmutableSet.of(x)));
+        query2 = iqFactory.createIQ(
+                atomFactory.getDistinctVariableOnlyDataAtom(atomFactory.getRDFAnswerPredicate(1), ImmutableList.of(y)),
+                iqFactory.createEmptyNode(ImmutableSet.of(y)));
+    }
+
+    @Test
+    public void testHitAndMiss() {
+        OntopMetrics metrics = createMetrics();
+        ResultSetCacheImpl cache = new ResultSetCacheImpl(true, 100, 10, 60_000, metrics);
+        assertFalse(cache.get(query1).isPresent());
+
+        ImmutableList<OntopBindingSet> rows = createRows(3);
+        cache.put(query1, ImmutableSet.of("T1"), rows);
+        assertEquals(rows, cache.get(query1).get());
+        assertFalse(cache.get(query2).isPresent());
+
+        assertEquals(1L, getCount(metrics, OntopMetrics.RESULT_CACHE_HIT_COUNTER));
+        assertEquals(2L, getCount(metrics, OntopMetrics.RESULT_CACHE_MISS_COUNTER));
+    }
+
+    @Test
+    public void testTooManyRows() {
+        ResultSetCacheImpl cache = new ResultSetCacheImpl(true, 100, 2, 60_000, createMetrics());
+        cache.put(query1, ImmutableSet.of("T1"), createRows(3));
+        assertFalse(cache.get(query1).isPresent());
+    }
+
+    @Test
+    public void testInvalidation() {
+        OntopMetrics metrics = createMetrics();
+        ResultSetCacheImpl cache = new ResultSetCacheImpl(true, 100, 10, 60_000, metrics);
+        cache.put(query1, ImmutableSet.of("T1", "T2"), createRows(1));
+        cache.put(query2, ImmutableSet.of("T3"), createRows(1));
+
+        cache.invalidate("T2");
+        assertFalse(cache.get(query1).isPresent());
+        assertTrue(cache.get(query2).isPresent());
+        assertEquals(1L, getCount(metrics, OntopMetrics.RESULT_CACHE_INVALIDATION_COUNTER));
+
+        cache.invalidateAll();
+        assertFalse(cache.get(query2).isPresent());
+    }
+
+    @Test
+    public void testEvictionByRowCount() {
+        OntopMetrics metrics = createMetrics();
+        ResultSetCacheImpl cache = new ResultSetCacheImpl(true, 3, 10, 60_000, metrics);
+        cache.put(query1, ImmutableSet.of("T1"), createRows(2));
+        cache.put(query2, ImmutableSet.of("T1"), createRows(2));
+
+        assertFalse(cache.get(query1).isPresent());
+        assertTrue(cache.get(query2).isPresent());
+        assertEquals(1L, getCount(metrics, OntopMetrics.RESULT_CACHE_EVICTION_COUNTER));
+    }
+
+    @Test
+    public void testDisabled() {
+        ResultSetCacheImpl cache = new ResultSetCacheImpl(false, 100, 10, 60_000, createMetrics());
+        cache.put(query1, ImmutableSet.of("T1"), createRows(1));
+        assertFalse(cache.get(query1).isPresent());
+    }
+
+    private static ImmutableList<OntopBindingSet> createRows(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new SQLOntopBindingSet(new OntopBinding[0]))
+                .collect(ImmutableCollectors.toList());
+    }
+
+    private static OntopMetrics createMetrics() {
+        return new InMemoryOntopMetrics() { };
+    }
+
+    private static long getCount(OntopMetrics metrics, String name) {
+        return metrics.getSnapshot().get(name).get("count").longValue();
+    }
+}
@@ -0,0 +1,146 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
+import it.unibz.inf.ontop.model.term.DBConstant;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PreparedStatementCacheTest {
+
+    private static final String QUERY_1 = "SELECT 1 WHERE 1 = ?";
+    private static final String QUERY_2 = "SELECT 2 WHERE 2 = ?";
+
+    private Connection connection;
+    private TestStatementInitializer statementInitializer;
+
+    @Before
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:prepared_statement_cache", "sa", "");
+        statementInitializer = new TestStatementInitializer();
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    public void testHit() throws SQLException {
+        PreparedStatementCache cache = new PreparedStatementCache(statementInitializer, 10, connection);
+
+        PreparedStatement statement1 = cache.prepare(QUERY_1, ImmutableList.of());
+        cache.release(QUERY_1, statement1);
+        PreparedStatement statement2 = cache.prepare(QUERY_1, ImmutableList.of());
+
+        assertSame(statement1, statement2);
+        assertFalse(statement2.isClosed());
+        assertEquals(1, statementInitializer.createdCount.get());
+        assertEquals(1, statementInitializer.releasedCount.get());
+    }
+
+    @Test
+    public void testEviction() throws SQLException {
+        PreparedStatementCache cache = new PreparedStatementCache(statementInitializer, 1, connection);
+
+        PreparedStatement statement1 = cache.prepare(QUERY_1, ImmutableList.of());
+        cache.release(QUERY_1, statement1);
+        PreparedStatement statement2 = cache.prepare(QUERY_2, ImmutableList.of());
+        cache.release(QUERY_2, statement2);
+
+        // Least-recently released
+        assertTrue(statement1.isClosed());
+        assertFalse(statement2.isClosed());
+        assertEquals(1, statementInitializer.closedCount.get());
+
+        PreparedStatement statement3 = cache.prepare(QUERY_1, ImmutableList.of());
+        assertNotSame(statement1, statement3);
+        assertSame(statement2, cache.prepare(QUERY_2, ImmutableList.of()));
+    }
+
+    /**
+     * A statement in use is not shared: the duplicate is closed when released
+     */
+    @Test
+    public void testConcurrentUse() throws SQLException {
+        PreparedStatementCache cache = new PreparedStatementCache(statementInitializer, 10, connection);
+
+        PreparedStatement statement1 = cache.prepare(QUERY_1, ImmutableList.of());
+        PreparedStatement statement2 = cache.prepare(QUERY_1, ImmutableList.of());
+        assertNotSame(statement1, statement2);
+
+        cache.release(QUERY_1, statement1);
+        cache.release(QUERY_1, statement2);
+        assertFalse(statement1.isClosed());
+        assertTrue(statement2.isClosed());
+    }
+
+    @Test
+    public void testDisabled() throws SQLException {
+        PreparedStatementCache cache = new PreparedStatementCache(statementInitializer, 0, connection);
+
+        PreparedStatement statement = cache.prepare(QUERY_1, ImmutableList.of());
+        cache.release(QUERY_1, statement);
+        assertTrue(statement.isClosed());
+    }
+
+    @Test
+    public void testClear() throws SQLException {
+        PreparedStatementCache cache = new PreparedStatementCache(statementInitializer, 10, connection);
+
+        PreparedStatement statement1 = cache.prepare(QUERY_1, ImmutableList.of());
+        PreparedStatement statement2 = cache.prepare(QUERY_2, ImmutableList.of());
+        cache.release(QUERY_1, statement1);
+        cache.release(QUERY_2, statement2);
+
+        cache.clear();
+        assertTrue(statement1.isClosed());
+        assertTrue(statement2.isClosed());
+        assertNotSame(statement1, cache.prepare(QUERY_1, ImmutableList.of()));
+    }
+
+
+    private static class TestStatementInitializer implements JDBCStatementInitializer {
+        private final AtomicInteger createdCount = new AtomicInteger(0);
+        private final AtomicInteger releasedCount = new AtomicInteger(0);
+        private final AtomicInteger closedCount = new AtomicInteger(0);
+
+        @Override
+        public Statement createAndInitStatement(Connection connection) throws SQLException {
+            return connection.createStatement();
+        }
+
+        @Override
+        public PreparedStatement createAndInitPreparedStatement(Connection connection, String sqlQuery)
+                throws SQLException {
+            createdCount.incrementAndGet();
+            return connection.prepareStatement(sqlQuery);
+        }
+
+        @Override
+        public void bindParameters(PreparedStatement statement, ImmutableList<DBConstant> parameters) {
+        }
+
+        @Override
+        public void releasePreparedStatement(PreparedStatement statement) throws SQLException {
+            releasedCount.incrementAndGet();
+            statement.clearParameters();
+        }
+
+        @Override
+        public void closeStatement(Statement statement) throws SQLException {
+            closedCount.incrementAndGet();
+            statement.close();
+        }
+    }
+}
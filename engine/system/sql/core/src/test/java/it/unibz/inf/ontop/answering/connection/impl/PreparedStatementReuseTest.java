@@ -0,0 +1,147 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Inject;
+import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
+import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.reformulation.input.SelectQuery;
+import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
+import it.unibz.inf.ontop.injection.OntopMappingSQLAllConfiguration;
+import it.unibz.inf.ontop.injection.OntopReformulationSQLSettings;
+import it.unibz.inf.ontop.injection.OntopSystemSQLConfiguration;
+import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
+import it.unibz.inf.ontop.spec.OBDASpecification;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.stream.Collectors.joining;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The prepared statements are reused by the Ontop connections borrowing the same physical connection from the pool
+ */
+public class PreparedStatementReuseTest {
+
+    private static final String OBDA_FILE = "src/test/resources/marriage/marriage.obda";
+    private static final String CREATE_DB_FILE = "src/test/resources/marriage/create-db.sql";
+    private static final String JDBC_URL = "jdbc:h2:mem:prepared_statement_reuse";
+    private static final String JDBC_USER = "sa";
+    private static final String JDBC_PASSWORD = "";
+    private static final String QUERY_STRING = "PREFIX : <http://example.org/marriage/voc#>\n" +
+            "SELECT ?x WHERE {\n" +
+            "  ?x :firstName \"%s\" .\n" +
+            "}";
+
+    /*
+     * DB connection (keeps it alive)
+     */
+    private static Connection CONN;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        CONN = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD);
+
+        try (Statement st = CONN.createStatement()) {
+            st.executeUpdate(Files.lines(Paths.get(CREATE_DB_FILE)).collect(joining()));
+            CONN.commit();
+        }
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        CONN.close();
+    }
+
+    @Test
+    public void testTwoConnections() throws Exception {
+        try (OntopQueryEngine queryEngine = createQueryEngine()) {
+            queryEngine.connect();
+            int preparedCount = CountingStatementInitializer.PREPARED_COUNT.get();
+
+            assertEquals(ImmutableSet.of("http://example.com/person/1"), runQuery(queryEngine, "Mary"));
+            assertEquals(ImmutableSet.of("http://example.com/person/2"), runQuery(queryEngine, "John"));
+
+            // Prepared by the first Ontop connection only
+            assertEquals(preparedCount + 1, CountingStatementInitializer.PREPARED_COUNT.get());
+        }
+    }
+
+    /**
+     * In its own Ontop connection
+     */
+    private static ImmutableSet<String> runQuery(OntopQueryEngine queryEngine, String firstName) throws Exception {
+        try (OntopConnection connection = queryEngine.getConnection();
+             OntopStatement statement = connection.createStatement()) {
+            SelectQuery query = connection.getInputQueryFactory().createSelectQuery(
+                    String.format(QUERY_STRING, firstName));
+            TupleResultSet resultSet = statement.execute(query);
+
+            ImmutableSet.Builder<String> answerBuilder = ImmutableSet.builder();
+            while (resultSet.hasNext())
+                answerBuilder.add(resultSet.next().getBinding("x").getValue().getValue());
+            resultSet.close();
+            return answerBuilder.build();
+        }
+    }
+
+    /**
+     * A single physical connection in the pool
+     */
+    private static OntopQueryEngine createQueryEngine() throws Exception {
+        OBDASpecification obdaSpecification = OntopMappingSQLAllConfiguration.defaultBuilder()
+                .nativeOntopMappingFile(OBDA_FILE)
+                .jdbcUser(JDBC_USER)
+                .jdbcPassword(JDBC_PASSWORD)
+                .jdbcUrl(JDBC_URL)
+                .enableTestMode()
+                .build()
+                .loadSpecification();
+
+        Properties properties = new Properties();
+        properties.setProperty(OntopReformulationSQLSettings.QUERY_PARAMETERIZATION, "true");
+        properties.setProperty(OntopSystemSQLSettings.MAX_POOL_SIZE, "1");
+        properties.setProperty(OntopSystemSQLSettings.INIT_POOL_SIZE, "1");
+        properties.setProperty(JDBCStatementInitializer.class.getCanonicalName(),
+                CountingStatementInitializer.class.getName());
+
+        return OntopSystemSQLConfiguration.defaultBuilder()
+                .obdaSpecification(obdaSpecification)
+                .jdbcUser(JDBC_USER)
+                .jdbcPassword(JDBC_PASSWORD)
+                .jdbcUrl(JDBC_URL)
+                .properties(properties)
+                .enableTestMode()
+                .build()
+                .loadQueryEngine();
+    }
+
+
+    public static class CountingStatementInitializer extends DefaultJDBCStatementInitializer {
+
+        private static final AtomicInteger PREPARED_COUNT = new AtomicInteger(0);
+
+        @Inject
+        protected CountingStatementInitializer(OntopSystemSQLSettings settings) {
+            super(settings);
+        }
+
+        @Override
+        protected PreparedStatement prepare(Connection connection, String sqlQuery) throws SQLException {
+            PREPARED_COUNT.incrementAndGet();
+            return super.prepare(connection, sqlQuery);
+        }
+    }
+}
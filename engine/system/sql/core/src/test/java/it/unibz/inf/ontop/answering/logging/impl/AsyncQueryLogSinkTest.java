@@ -0,0 +1,183 @@
+package it.unibz.inf.ontop.answering.logging.impl;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.logging.QueryLogAppender;
+import it.unibz.inf.ontop.answering.logging.QueryLogEvent;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class AsyncQueryLogSinkTest {
+
+    private static final String WRITER_THREAD_NAME = "ontop-query-logger";
+
+    @Test
+    public void testOrdering() {
+        CollectingAppender appender = new CollectingAppender();
+        AsyncQueryLogSink sink = new AsyncQueryLogSink(appender, 100, true);
+
+        List<String> messages = IntStream.range(0, 1000)
+                .mapToObj(i -> "message " + i)
+                .collect(Collectors.toList());
+        messages.forEach(m -> sink.submit(new TestEvent(m)));
+        sink.close();
+
+        assertEquals(messages, appender.getMessages());
+        assertEquals(0, sink.getDroppedMessageCount());
+    }
+
+    /**
+     * The pending messages are written before the background thread stops
+     */
+    @Test
+    public void testDrainOnClose() throws InterruptedException {
+        CountDownLatch unblocked = new CountDownLatch(1);
+        BlockingAppender appender = new BlockingAppender(unblocked);
+        AsyncQueryLogSink sink = new AsyncQueryLogSink(appender, 100, false);
+
+        sink.submit(new TestEvent("first"));
+        assertTrue(appender.awaitFirstBatch());
+        for (int i = 0; i < 50; i++) {
+            sink.submit(new TestEvent("message " + i));
+        }
+
+        Thread closingThread = new Thread(sink::close);
+        closingThread.start();
+        unblocked.countDown();
+        closingThread.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(closingThread.isAlive());
+
+        assertEquals(51, appender.getMessages().size());
+        assertEquals("message 49", appender.getMessages().get(50));
+        assertTrue(appender.isClosed());
+        assertFalse(isWriterThreadAlive());
+
+        sink.submit(new TestEvent("too late"));
+        assertEquals(51, appender.getMessages().size());
+        assertEquals(1, sink.getDroppedMessageCount());
+    }
+
+    @Test
+    public void testOverflow() throws InterruptedException {
+        CountDownLatch unblocked = new CountDownLatch(1);
+        BlockingAppender appender = new BlockingAppender(unblocked);
+        AsyncQueryLogSink sink = new AsyncQueryLogSink(appender, 2, false);
+
+        sink.submit(new TestEvent("first"));
+        // The background thread is now blocked with an empty buffer
+        assertTrue(appender.awaitFirstBatch());
+        for (int i = 0; i < 5; i++) {
+            sink.submit(new TestEvent("message " + i));
+        }
+        assertEquals(3, sink.getDroppedMessageCount());
+
+        unblocked.countDown();
+        sink.close();
+        assertEquals(ImmutableList.of("first", "message 0", "message 1"), appender.getMessages());
+    }
+
+    /**
+     * The events are serialized by the background thread, not by the query thread
+     */
+    @Test
+    public void testSerializationThread() {
+        CollectingAppender appender = new CollectingAppender();
+        AsyncQueryLogSink sink = new AsyncQueryLogSink(appender, 10, true);
+
+        sink.submit(new QueryLogEvent() {
+            @Override
+            public String serialize() {
+                return Thread.currentThread().getName();
+            }
+        });
+        sink.close();
+
+        assertEquals(ImmutableList.of(WRITER_THREAD_NAME), appender.getMessages());
+    }
+
+    @Test
+    public void testCloseWithoutMessage() {
+        CollectingAppender appender = new CollectingAppender();
+        AsyncQueryLogSink sink = new AsyncQueryLogSink(appender, 10, false);
+        sink.close();
+        assertTrue(appender.getMessages().isEmpty());
+        assertTrue(appender.isClosed());
+    }
+
+    private static boolean isWriterThreadAlive() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(t -> t.getName().equals(WRITER_THREAD_NAME));
+    }
+
+
+    private static class TestEvent implements QueryLogEvent {
+        private final String message;
+
+        TestEvent(String message) {
+            this.message = message;
+        }
+
+        @Override
+        public String serialize() {
+            return message;
+        }
+    }
+
+    private static class CollectingAppender implements QueryLogAppender {
+        private final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean closed = false;
+
+        @Override
+        public void append(ImmutableList<String> messages) {
+            this.messages.addAll(messages);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        List<String> getMessages() {
+            return ImmutableList.copyOf(messages);
+        }
+
+        boolean isClosed() {
+            return closed;
+        }
+    }
+
+    /**
+     * Blocks the background thread on the first batch until being unblocked
+     */
+    private static class BlockingAppender extends CollectingAppender {
+        private final CountDownLatch firstBatch = new CountDownLatch(1);
+        private final CountDownLatch unblocked;
+
+        BlockingAppender(CountDownLatch unblocked) {
+            this.unblocked = unblocked;
+        }
+
+        @Override
+        public void append(ImmutableList<String> messages) {
+            super.append(messages);
+            firstBatch.countDown();
+            try {
+                unblocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        boolean awaitFirstBatch() throws InterruptedException {
+            return firstBatch.await(10, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package it.unibz.inf.ontop.answering.resultset.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Maps;
+import com.google.inject.Injector;
+import it.unibz.inf.ontop.answering.resultset.OntopBinding;
+import it.unibz.inf.ontop.exception.OntopInternalBugException;
+import it.unibz.inf.ontop.injection.CoreSingletons;
+import it.unibz.inf.ontop.injection.OntopSQLCoreConfiguration;
+import it.unibz.inf.ontop.model.template.Template;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.model.type.DBTypeFactory;
+import it.unibz.inf.ontop.model.type.TypeFactory;
+import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Each row is decoded as by the generic evaluation of the definitions (the decoding preceding the converters):
+ * the column values are substituted in the definitions, which are then simplified.
+ */
+public class JDBCRowDecoderTest {
+
+    private static TermFactory termFactory;
+    private static SubstitutionFactory substitutionFactory;
+    private static TypeFactory typeFactory;
+    private static DBTypeFactory dbTypeFactory;
+
+    private static Variable x, y, a, b;
+
+    @BeforeClass
+    public static void setUp() {
+        Injector injector = OntopSQLCoreConfiguration.defaultBuilder()
+                .jdbcUrl("jdbc:h2:mem:row_decoder")
+                .jdbcDriver("org.h2.Driver")
+                .build()
+                .getInjector();
+        CoreSingletons coreSingletons = injector.getInstance(CoreSingletons.class);
+        termFactory = coreSingletons.getTermFactory();
+        substitutionFactory = coreSingletons.getSubstitutionFactory();
+        typeFactory = coreSingletons.getTypeFactory();
+        dbTypeFactory = typeFactory.getDBTypeFactory();
+
+        x = termFactory.getVariable("x");
+        y = termFactory.getVariable("y");
+        a = termFactory.getVariable("a");
+        b = termFactory.getVariable("b");
+    }
+
+    /**
+     * Ground definition
+     */
+    @Test
+    public void testPrecomputed() throws Exception {
+        ImmutableTerm definition = termFactory.getRDFFunctionalTerm(termFactory.getDBStringConstant("constant"),
+                termFactory.getRDFTermTypeConstant(typeFactory.getXsdStringDatatype()));
+
+        checkRows(definition, dbTypeFactory.getDBStringType(), new String[]{"v"}, new String[]{null});
+    }
+
+    /**
+     * The lexical value is a column
+     */
+    @Test
+    public void testColumn() throws Exception {
+        ImmutableTerm definition = termFactory.getRDFFunctionalTerm(a,
+                termFactory.getRDFTermTypeConstant(typeFactory.getXsdStringDatatype()));
+
+        // As before, a NULL lexical value is rejected when the type is constant
+        assertEquals(ImmutableList.of(
+                        ImmutableMap.of("x", termFactory.getRDFLiteralConstant("v", typeFactory.getXsdStringDatatype())),
+                        ImmutableMap.of("x", termFactory.getRDFLiteralConstant("", typeFactory.getXsdStringDatatype())),
+                        SQLOntopBindingSet.InvalidTermAsResultException.class),
+                checkRows(definition, dbTypeFactory.getDBStringType(), new String[]{"v"}, new String[]{""},
+                        new String[]{null}));
+    }
+
+    /**
+     * The type is NULL when the column is: the variable is then unbound
+     */
+    @Test
+    public void testNullableColumn() throws Exception {
+        ImmutableTerm definition = termFactory.getRDFFunctionalTerm(a,
+                termFactory.getIfElseNull(termFactory.getDBIsNotNull(a),
+                        termFactory.getRDFTermTypeConstant(typeFactory.getXsdStringDatatype())));
+
+        assertEquals(ImmutableList.of(
+                        ImmutableMap.of("x", termFactory.getRDFLiteralConstant("v", typeFactory.getXsdStringDatatype())),
+                        ImmutableMap.of()),
+                checkRows(definition, dbTypeFactory.getDBStringType(), new String[]{"v"}, new String[]{null}));
+    }
+
+    @Test
+    public void testColumnLanguageTag() throws Exception {
+        ImmutableTerm definition = termFactory.getRDFFunctionalTerm(a,
+                termFactory.getRDFTermTypeConstant(typeFactory.getLangTermType("en")));
+
+        checkRows(definition, dbTypeFactory.getDBStringType(), new String[]{"hello"}, new String[]{null});
+    }
+
+    /**
+     * The lexical value is normalized from the DB value (e.g. the booleans of H2)
+     */
+    @Test
+    public void testLexicalTermTypedLiteral() throws Exception {
+        DBTermType booleanType = dbTypeFactory.getDBBooleanType();
+        ImmutableTerm definition = termFactory.getRDFFunctionalTerm(
+                termFactory.getConversion2RDFLexical(booleanType, a, typeFactory.getXsdBooleanDatatype()),
+                termFactory.getRDFTermTypeConstant(typeFactory.getXsdBooleanDatatype()));
+
+        assertEquals(ImmutableMap.of("x", termFactory.getRDFLiteralConstant("true", typeFactory.getXsdBooleanDatatype())),
+                checkRows(definition, booleanType, new String[]{"TRUE"}, new String[]{"FALSE"}, new String[]{null})
+                        .get(0));
+    }
+
+    @Test
+    public void testLexicalTermInteger() throws Exception {
+        DBTermType integerType = dbTypeFactory.getDBLargeIntegerType();
+        ImmutableTerm definition = termFactory.getRDFFunctionalTerm(
+                termFactory.getConversion2RDFLexical(integerType, a, typeFactory.getXsdIntegerDatatype()),
+                termFactory.getRDFTermTypeConstant(typeFactory.getXsdIntegerDatatype()));
+
+        checkRows(definition, integerType, new String[]{"42", "-7", "0"}, new String[]{null});
+    }
+
+    /**
+     * The column values are percent-encoded
+     */
+    @Test
+    public void testLexicalTermIRITemplate() throws Exception {
+        ImmutableTerm definition = termFactory.getIRIFunctionalTerm(
+                Template.builder().addSeparator("http://example.org/person/").addColumn().build(),
+                ImmutableList.of(a));
+
+        assertEquals(ImmutableMap.of("x", termFactory.getConstantIRI("http://example.org/person/with%20space")),
+                checkRows(definition, dbTypeFactory.getDBStringType(), new String[]{"with space"}, new String[]{"a/b"},
+                        new String[]{"1"}, new String[]{null})
+                        .get(0));
+    }
+
+    @Test
+    public void testLexicalTermIRITemplateTwoColumns() throws Exception {
+        ImmutableTerm definition = termFactory.getIRIFunctionalTerm(
+                Template.builder().addSeparator("http://example.org/").addColumn().addSeparator("/").addColumn().build(),
+                ImmutableList.of(a, b));
+
+        checkRows(definition, dbTypeFactory.getDBStringType(), new String[]{"x", "y"}, new String[]{"x", null},
+                new String[]{null, "y"}, new String[]{null, null});
+    }
+
+    /**
+     * The RDF type is not constant
+     */
+    @Test
+    public void testGeneric() throws Exception {
+        ImmutableTerm definition = termFactory.getRDFFunctionalTerm(a,
+                termFactory.getIfElseNull(termFactory.getDBIsNotNull(b),
+                        termFactory.getRDFTermTypeConstant(typeFactory.getXsdStringDatatype())));
+
+        checkRows(definition, dbTypeFactory.getDBStringType(), new String[]{"v", "w"}, new String[]{"v", null},
+                new String[]{null, "w"}, new String[]{null, null});
+    }
+
+    /**
+     * Two projected variables sharing a column, one of them being defined by a constant
+     */
+    @Test
+    public void testSeveralVariables() throws Exception {
+        ImmutableTerm xDefinition = termFactory.getRDFFunctionalTerm(a,
+                termFactory.getRDFTermTypeConstant(typeFactory.getXsdStringDatatype()));
+        ImmutableTerm yDefinition = termFactory.getIRIFunctionalTerm(
+                Template.builder().addSeparator("http://example.org/").addColumn().build(),
+                ImmutableList.of(a));
+        ImmutableSubstitution<ImmutableTerm> substitution = substitutionFactory.getSubstitution(
+                ImmutableMap.of(x, xDefinition, y, yDefinition));
+
+        checkRows(ImmutableList.of(x, y), ImmutableSortedSet.of(a), ImmutableMap.of(a, dbTypeFactory.getDBStringType()),
+                substitution, new String[]{"v"}, new String[]{null});
+    }
+
+    /**
+     * Defines x, over the columns a and b (in this order, the unused ones being ignored)
+     */
+    private static ImmutableList<Object> checkRows(ImmutableTerm definition, DBTermType columnType, String[]... rows)
+            throws Exception {
+        return checkRows(ImmutableList.of(x), ImmutableSortedSet.of(a, b), ImmutableMap.of(a, columnType, b, columnType),
+                substitutionFactory.getSubstitution(x, definition), rows);
+    }
+
+    /**
+     * Returns the outcome of the decoding of each row: the bindings (by name) or the class of the exception thrown
+     */
+    private static ImmutableList<Object> checkRows(ImmutableList<Variable> signature,
+                                                   ImmutableSortedSet<Variable> sqlSignature,
+                                                   ImmutableMap<Variable, DBTermType> sqlTypeMap,
+                                                   ImmutableSubstitution<ImmutableTerm> substitution,
+                                                   String[]... rows) throws Exception {
+        JDBCRowDecoder decoder = new JDBCRowDecoder(signature, sqlSignature, sqlTypeMap, substitution, termFactory,
+                substitutionFactory);
+
+        // The decoder is re-used for all the rows
+        ImmutableList.Builder<Object> outcomes = ImmutableList.builder();
+        for (String[] row : rows) {
+            String[] columnValues = Arrays.copyOf(row, sqlSignature.size());
+            ResultSet resultSet = createResultSet(columnValues);
+            Object outcome = getOutcome(() -> toMap(decoder.decode(resultSet)));
+            assertEquals("Row " + Arrays.toString(row),
+                    getOutcome(() -> decodeGenerically(signature, sqlSignature, sqlTypeMap, substitution, columnValues)),
+                    outcome);
+            outcomes.add(outcome);
+        }
+        return outcomes.build();
+    }
+
+    private static Object getOutcome(Callable<ImmutableMap<String, RDFConstant>> decoding) throws Exception {
+        try {
+            return decoding.call();
+        }
+        catch (OntopInternalBugException e) {
+            return e.getClass();
+        }
+    }
+
+    /**
+     * The decoding preceding the converters
+     */
+    private static ImmutableMap<String, RDFConstant> decodeGenerically(
+            ImmutableList<Variable> signature, ImmutableSortedSet<Variable> sqlSignature,
+            ImmutableMap<Variable, DBTermType> sqlTypeMap, ImmutableSubstitution<ImmutableTerm> substitution,
+            String[] columnValues) {
+        ImmutableList<Variable> columns = sqlSignature.asList();
+        ImmutableSubstitution<Constant> sqlVar2Constant = substitutionFactory.getSubstitution(
+                IntStream.range(0, columns.size())
+                        .boxed()
+                        .collect(ImmutableCollectors.toMap(
+                                columns::get,
+                                i -> columnValues[i] == null
+                                        ? termFactory.getNullConstant()
+                                        : termFactory.getDBConstant(columnValues[i],
+                                                sqlTypeMap.get(columns.get(i))))));
+        ImmutableSubstitution<ImmutableTerm> composition = sqlVar2Constant.composeWith(substitution);
+
+        return signature.stream()
+                .map(v -> evaluate(composition.applyToVariable(v))
+                        .map(c -> Maps.immutableEntry(v.getName(), c)))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(ImmutableCollectors.toMap());
+    }
+
+    private static Optional<RDFConstant> evaluate(ImmutableTerm term) {
+        ImmutableTerm simplifiedTerm = term.simplify();
+        if (simplifiedTerm instanceof RDFConstant)
+            return Optional.of((RDFConstant) simplifiedTerm);
+        if ((simplifiedTerm instanceof Constant) && ((Constant) simplifiedTerm).isNull())
+            return Optional.empty();
+        if (simplifiedTerm instanceof Constant)
+            throw new SQLOntopBindingSet.InvalidConstantTypeInResultException("Unexpected constant " + simplifiedTerm);
+        throw new SQLOntopBindingSet.InvalidTermAsResultException(simplifiedTerm);
+    }
+
+    private static ImmutableMap<String, RDFConstant> toMap(OntopBinding[] bindings) {
+        return Arrays.stream(bindings)
+                .collect(ImmutableCollectors.toMap(OntopBinding::getName, OntopBinding::getValue));
+    }
+
+    /**
+     * Positioned on a row. Only getString(int) is supported.
+     */
+    private static ResultSet createResultSet(@Nullable String[] columnValues) {
+        return (ResultSet) Proxy.newProxyInstance(JDBCRowDecoderTest.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getString") && (args[0] instanceof Integer))
+                        return columnValues[(Integer) args[0] - 1];
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,100 @@
+package it.unibz.inf.ontop.answering.statistics.impl;
+
+import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPool;
+import it.unibz.inf.ontop.answering.statistics.RelationStatistics;
+import it.unibz.inf.ontop.dbschema.NamedRelationDefinition;
+import it.unibz.inf.ontop.dbschema.impl.OfflineMetadataProviderBuilder;
+import it.unibz.inf.ontop.injection.CoreSingletons;
+import it.unibz.inf.ontop.injection.OntopSQLCoreConfiguration;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class CachingDBStatisticsTest {
+
+    private static final String URL = "jdbc:h2:mem:caching_statistics";
+    private static final String THREAD_NAME = "ontop-db-statistics";
+
+    private static Connection sqlConnection;
+    private static NamedRelationDefinition table;
+
+    @BeforeClass
+    public static void setUp() throws SQLException {
+        sqlConnection = DriverManager.getConnection(URL, "sa", "");
+        try (Statement st = sqlConnection.createStatement()) {
+            st.execute("CREATE TABLE T (ID INT PRIMARY KEY);" +
+                    "INSERT INTO T SELECT X FROM SYSTEM_RANGE(1, 100)");
+        }
+
+        CoreSingletons coreSingletons = OntopSQLCoreConfiguration.defaultBuilder()
+                .jdbcUrl(URL)
+                .jdbcDriver("org.h2.Driver")
+                .build()
+                .getInjector()
+                .getInstance(CoreSingletons.class);
+        OfflineMetadataProviderBuilder builder = new OfflineMetadataProviderBuilder(coreSingletons);
+        DBTermType integerType = builder.getDBTypeFactory().getDBLargeIntegerType();
+        table = builder.createDatabaseRelation("T", "ID", integerType, false);
+    }
+
+    @AfterClass
+    public static void tearDown() throws SQLException {
+        try (Statement st = sqlConnection.createStatement()) {
+            st.execute("DROP ALL OBJECTS DELETE FILES");
+        }
+        finally {
+            sqlConnection.close();
+        }
+    }
+
+    @Test
+    public void testExtractedInTheBackgroundAndClosed() throws InterruptedException {
+        CachingDBStatistics statistics = new CachingDBStatistics(new TestConnectionPool(),
+                new H2StatisticsExtractor() {}, 0);
+
+        Optional<RelationStatistics> relationStatistics = statistics.getStatistics(table);
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (!relationStatistics.isPresent() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            relationStatistics = statistics.getStatistics(table);
+        }
+        assertTrue(relationStatistics.isPresent());
+        assertEquals(100, relationStatistics.get().getRowCount());
+        assertTrue(isThreadAlive());
+
+        statistics.close();
+        deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (isThreadAlive() && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+        assertFalse(isThreadAlive());
+
+        // Still available, but not refreshed anymore
+        assertEquals(relationStatistics, statistics.getStatistics(table));
+    }
+
+    private static boolean isThreadAlive() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(t -> t.getName().equals(THREAD_NAME));
+    }
+
+    private static class TestConnectionPool implements JDBCConnectionPool {
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return DriverManager.getConnection(URL, "sa", "");
+        }
+    }
+}
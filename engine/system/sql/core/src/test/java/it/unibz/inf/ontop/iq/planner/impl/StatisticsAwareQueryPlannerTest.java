@@ -0,0 +1,155 @@
+package it.unibz.inf.ontop.iq.planner.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Injector;
+import it.unibz.inf.ontop.answering.statistics.DBStatistics;
+import it.unibz.inf.ontop.answering.statistics.RelationStatistics;
+import it.unibz.inf.ontop.answering.statistics.impl.H2StatisticsExtractor;
+import it.unibz.inf.ontop.dbschema.NamedRelationDefinition;
+import it.unibz.inf.ontop.dbschema.UniqueConstraint;
+import it.unibz.inf.ontop.dbschema.impl.OfflineMetadataProviderBuilder;
+import it.unibz.inf.ontop.injection.CoreSingletons;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.injection.OntopSQLCoreConfiguration;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.ExtensionalDataNode;
+import it.unibz.inf.ontop.iq.node.UnionNode;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class StatisticsAwareQueryPlannerTest {
+
+    private static final String URL = "jdbc:h2:mem:statistics_planner";
+
+    private static Connection sqlConnection;
+    private static IntermediateQueryFactory iqFactory;
+    private static TermFactory termFactory;
+    private static NamedRelationDefinition table1, table2, small, big;
+
+    @BeforeClass
+    public static void setUp() throws SQLException {
+        sqlConnection = DriverManager.getConnection(URL, "sa", "");
+        try (Statement st = sqlConnection.createStatement()) {
+            for (String table : ImmutableList.of("T1", "T2"))
+                st.execute("CREATE TABLE " + table + " (ID INT PRIMARY KEY, A INT);" +
+                        "INSERT INTO " + table + " SELECT X, MOD(X, 10) FROM SYSTEM_RANGE(1, 100)");
+            st.execute("CREATE TABLE SMALL (ID INT PRIMARY KEY, B INT);" +
+                    "INSERT INTO SMALL SELECT X, X FROM SYSTEM_RANGE(1, 5)");
+            st.execute("CREATE TABLE BIG (ID INT PRIMARY KEY, B INT);" +
+                    "INSERT INTO BIG SELECT X, X FROM SYSTEM_RANGE(1, 1000)");
+        }
+
+        Injector injector = OntopSQLCoreConfiguration.defaultBuilder()
+                .jdbcUrl(URL)
+                .jdbcDriver("org.h2.Driver")
+                .build()
+                .getInjector();
+        iqFactory = injector.getInstance(IntermediateQueryFactory.class);
+        CoreSingletons coreSingletons = injector.getInstance(CoreSingletons.class);
+        termFactory = coreSingletons.getTermFactory();
+
+        OfflineMetadataProviderBuilder builder = new OfflineMetadataProviderBuilder(coreSingletons);
+        DBTermType integerType = builder.getDBTypeFactory().getDBLargeIntegerType();
+        table1 = createTable(builder, "T1", "A", integerType);
+        table2 = createTable(builder, "T2", "A", integerType);
+        small = createTable(builder, "SMALL", "B", integerType);
+        big = createTable(builder, "BIG", "B", integerType);
+    }
+
+    private static NamedRelationDefinition createTable(OfflineMetadataProviderBuilder builder, String name,
+                                                       String attribute, DBTermType type) {
+        NamedRelationDefinition table = builder.createDatabaseRelation(name, "ID", type, false,
+                attribute, type, true);
+        UniqueConstraint.primaryKeyOf(table.getAttribute(1));
+        return table;
+    }
+
+    @AfterClass
+    public static void tearDown() throws SQLException {
+        try (Statement st = sqlConnection.createStatement()) {
+            st.execute("DROP ALL OBJECTS DELETE FILES");
+        }
+        finally {
+            sqlConnection.close();
+        }
+    }
+
+    @Test
+    public void testH2Statistics() throws SQLException {
+        Optional<RelationStatistics> statistics = new H2StatisticsExtractor() {}.extract(sqlConnection, big);
+        assertTrue(statistics.isPresent());
+        assertEquals(1000, statistics.get().getRowCount());
+        assertEquals(Optional.of(1000L), statistics.get().getDistinctValueCount(big.getAttribute(1).getID()));
+    }
+
+    @Test
+    public void testSmallSiblingPushed() {
+        IQTree newTree = createTransformer(extractStatistics()).transform(createJoinWithUnion(small));
+        assertTrue(newTree.getRootNode() instanceof UnionNode);
+    }
+
+    @Test
+    public void testBigSiblingKeptAboveUnion() {
+        IQTree tree = createJoinWithUnion(big);
+        assertEquals(tree, createTransformer(extractStatistics()).transform(tree));
+    }
+
+    @Test
+    public void testUnknownStatistics() {
+        IQTree newTree = createTransformer(r -> Optional.empty()).transform(createJoinWithUnion(big));
+        assertTrue(newTree.getRootNode() instanceof UnionNode);
+    }
+
+    /**
+     * Synchronous extraction
+     */
+    private static DBStatistics extractStatistics() {
+        H2StatisticsExtractor extractor = new H2StatisticsExtractor() {};
+        return r -> {
+            try {
+                return extractor.extract(sqlConnection, r);
+            }
+            catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+
+    private static StatisticsAwareQueryPlanner.StatisticsAwareTransformer createTransformer(DBStatistics statistics) {
+        return new StatisticsAwareQueryPlanner.StatisticsAwareTransformer(iqFactory, statistics);
+    }
+
+    /**
+     * JOIN(UNION(T1(x, y), T2(x, y)), sibling(x, z))
+     */
+    private static IQTree createJoinWithUnion(NamedRelationDefinition sibling) {
+        Variable x = termFactory.getVariable("x");
+        Variable y = termFactory.getVariable("y");
+        Variable z = termFactory.getVariable("z");
+
+        IQTree unionTree = iqFactory.createNaryIQTree(
+                iqFactory.createUnionNode(ImmutableSet.of(x, y)),
+                ImmutableList.of(createExtensionalNode(table1, x, y), createExtensionalNode(table2, x, y)));
+
+        return iqFactory.createNaryIQTree(iqFactory.createInnerJoinNode(),
+                ImmutableList.of(unionTree, createExtensionalNode(sibling, x, z)));
+    }
+
+    private static ExtensionalDataNode createExtensionalNode(NamedRelationDefinition relation, Variable v1, Variable v2) {
+        return iqFactory.createExtensionalDataNode(relation, ImmutableMap.of(0, v1, 1, v2));
+    }
+}
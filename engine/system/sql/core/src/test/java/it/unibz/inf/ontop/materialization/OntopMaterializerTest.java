@@ -5,6 +5,8 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.inject.Injector;
 import it.unibz.inf.ontop.answering.resultset.MaterializedGraphResultSet;
+import it.unibz.inf.ontop.answering.resultset.OntopCloseableIterator;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.exception.InvalidOntopConfigurationException;
 import it.unibz.inf.ontop.injection.OntopModelConfiguration;
 import it.unibz.inf.ontop.injection.OntopStandaloneSQLConfiguration;
@@ -37,12 +39,19 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.joining;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class OntopMaterializerTest {
 
@@ -192,6 +201,128 @@ public class OntopMaterializerTest {
 		// conn.close();
 	}
 
+	@Test
+	public void testOneSourceTripleWithWorkers() throws Exception {
+
+		SQLPPMapping ppMapping = createMapping();
+
+		OntopStandaloneSQLConfiguration configuration = createAndInitConfiguration()
+				.ppMapping(ppMapping)
+				.build();
+
+		ImmutableSet<IRI> vocabulary = Stream.of(fnIRI, lnIRI, ageIRI, hasschoolIRI, schoolIRI)
+				.collect(ImmutableCollectors.toSet());
+
+		OntopRDFMaterializer materializer = OntopRDFMaterializer.defaultMaterializer(configuration,
+				MaterializationParams.defaultBuilder()
+						.workerCount(3)
+						.build());
+
+		try (MaterializedGraphResultSet materializationResultSet = materializer.materialize(vocabulary)) {
+
+			ImmutableSet.Builder<RDFFact> rdfGraphBuilder = ImmutableSet.builder();
+			while (materializationResultSet.hasNext()) {
+				rdfGraphBuilder.add(materializationResultSet.next());
+			}
+			ImmutableSet<RDFFact> assertions = rdfGraphBuilder.build();
+
+			assertEquals(15, assertions.size());
+			assertEquals(15, materializationResultSet.getTripleCountSoFar());
+		}
+	}
+
+	@Test
+	public void testIteratorWithWorkers() throws Exception {
+
+		OntopStandaloneSQLConfiguration configuration = createAndInitConfiguration()
+				.ppMapping(createMapping())
+				.build();
+
+		ImmutableSet<IRI> vocabulary = Stream.of(fnIRI, lnIRI, ageIRI, hasschoolIRI, schoolIRI)
+				.collect(ImmutableCollectors.toSet());
+
+		OntopRDFMaterializer materializer = OntopRDFMaterializer.defaultMaterializer(configuration,
+				MaterializationParams.defaultBuilder()
+						.workerCount(3)
+						.build());
+
+		try (MaterializedGraphResultSet materializationResultSet = materializer.materialize(vocabulary);
+			 OntopCloseableIterator<RDFFact, OntopConnectionException> iterator = materializationResultSet.iterator()) {
+
+			ImmutableSet.Builder<RDFFact> rdfGraphBuilder = ImmutableSet.builder();
+			while (iterator.hasNext()) {
+				rdfGraphBuilder.add(iterator.next());
+			}
+			assertEquals(15, rdfGraphBuilder.build().size());
+			assertEquals(15, materializationResultSet.getTripleCountSoFar());
+		}
+	}
+
+	@Test
+	public void testPartitionedProperty() throws Exception {
+
+		OntopStandaloneSQLConfiguration configuration = createAndInitConfiguration()
+				.ppMapping(createMeasurementMapping())
+				.build();
+
+		OntopRDFMaterializer materializer = OntopRDFMaterializer.defaultMaterializer(configuration,
+				MaterializationParams.defaultBuilder()
+						.workerCount(2)
+						.partitionCount(3)
+						.build());
+
+		// Records the SQL queries executed by H2
+		try (Statement st = conn.createStatement()) {
+			st.execute("SET QUERY_STATISTICS TRUE");
+		}
+		try (MaterializedGraphResultSet materializationResultSet = materializer.materialize(ImmutableSet.of(fnIRI))) {
+
+			ImmutableSet.Builder<RDFFact> rdfGraphBuilder = ImmutableSet.builder();
+			while (materializationResultSet.hasNext()) {
+				rdfGraphBuilder.add(materializationResultSet.next());
+			}
+			assertEquals(7, rdfGraphBuilder.build().size());
+			assertEquals(7, materializationResultSet.getTripleCountSoFar());
+		}
+
+		// Sorted by lower bound, the range queries must cover all the keys, without gap nor overlap
+		List<long[]> ranges = extractExecutedRanges("\"measurement\"");
+		assertTrue(ranges.size() > 1);
+		ranges.sort(Comparator.comparingLong(r -> r[0]));
+		assertEquals(Long.MIN_VALUE, ranges.get(0)[0]);
+		for (int i = 1; i < ranges.size(); i++)
+			assertEquals(ranges.get(i - 1)[1], ranges.get(i)[0]);
+		assertEquals(Long.MAX_VALUE, ranges.get(ranges.size() - 1)[1]);
+	}
+
+	/**
+	 * Bounds of the key ranges of the partition queries executed on the relation ([lower, upper[)
+	 */
+	private static List<long[]> extractExecutedRanges(String relationName) throws SQLException {
+		Pattern lowerPattern = Pattern.compile(">= (\\d+)");
+		Pattern upperPattern = Pattern.compile("< (\\d+)");
+		List<long[]> ranges = new ArrayList<>();
+		try (Statement st = conn.createStatement();
+			 ResultSet rs = st.executeQuery("SELECT SQL_STATEMENT FROM INFORMATION_SCHEMA.QUERY_STATISTICS")) {
+			while (rs.next()) {
+				String sql = rs.getString(1);
+				if (!sql.contains(relationName) || sql.contains("MAX("))
+					continue;
+				Matcher lowerMatcher = lowerPattern.matcher(sql);
+				Matcher upperMatcher = upperPattern.matcher(sql);
+				ranges.add(new long[] {
+						lowerMatcher.find() ? Long.parseLong(lowerMatcher.group(1)) : Long.MIN_VALUE,
+						upperMatcher.find() ? Long.parseLong(upperMatcher.group(1)) : Long.MAX_VALUE });
+			}
+		}
+		finally {
+			try (Statement st = conn.createStatement()) {
+				st.execute("SET QUERY_STATISTICS FALSE");
+			}
+		}
+		return ranges;
+	}
+
 	@Test
 	public void testOneSourceQuad() throws Exception {
 
@@ -263,6 +394,23 @@ public class OntopMaterializerTest {
 		return ppMappingFactory.createSQLPreProcessedMapping(ImmutableList.of(map1), prefixManager);
 	}
 
+	private SQLPPMapping createMeasurementMapping()  {
+
+		String sql = "SELECT \"id\", \"val\" FROM \"measurement\"";
+
+		ImmutableFunctionalTerm measurementTemplate = termFactory.getIRIFunctionalTerm(
+				Template.builder().addSeparator("http://example.com/measurement/").addColumn().build(),
+				ImmutableList.of(termFactory.getVariable("id")));
+
+		ImmutableList<TargetAtom> body =  ImmutableList.of(
+				targetAtomFactory.getTripleTargetAtom(measurementTemplate, fn, termFactory.getRDFLiteralFunctionalTerm(termFactory.getVariable("val"), xsdStringDt)));
+
+		SQLPPTriplesMap map1 = new OntopNativeSQLPPTriplesMap(IDGenerator.getNextUniqueID("MAPID-"), sourceQueryFactory.createSourceQuery(sql), body);
+
+		PrefixManager prefixManager = specificationFactory.createPrefixManager(ImmutableMap.of());
+		return ppMappingFactory.createSQLPreProcessedMapping(ImmutableList.of(map1), prefixManager);
+	}
+
 	private SQLPPMapping createQuadMapping()  {
 
 		String sql = "SELECT \"fn\", \"ln\", \"age\", \"schooluri\" FROM \"data\"";
@@ -0,0 +1,106 @@
+package it.unibz.inf.ontop.spec;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.CharStreams;
+import it.unibz.inf.ontop.exception.InvalidOntopConfigurationException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CompiledOBDASpecificationTest {
+
+    private static final String DB_METADATA = "{\"relations\":[],\"metadata\":{\"dbmsProductName\":\"H2\"}}";
+    private static final String MAPPING = "[MappingDeclaration] @collection [[\n]]\n";
+    private static final String ONTOLOGY = "Ontology(<http://example.org/>)";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File mappingFile, ontologyFile, artifactFile;
+
+    @Before
+    public void setUp() throws IOException {
+        mappingFile = folder.newFile("mapping.obda");
+        ontologyFile = folder.newFile("ontology.owl");
+        artifactFile = new File(folder.getRoot(), "spec.json");
+        Files.write(mappingFile.toPath(), "mapping".getBytes(StandardCharsets.UTF_8));
+        Files.write(ontologyFile.toPath(), "ontology".getBytes(StandardCharsets.UTF_8));
+
+        CompiledOBDASpecification.create(getInputFiles(), MAPPING, Optional.of(ONTOLOGY),
+                        new StringReader(DB_METADATA))
+                .write(artifactFile);
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        CompiledOBDASpecification specification = CompiledOBDASpecification.load(artifactFile);
+        specification.checkInputs(getInputFiles());
+
+        assertEquals(2, specification.getInputChecksums().size());
+        try (Reader reader = specification.getDBMetadataReader()) {
+            assertEquals(DB_METADATA, CharStreams.toString(reader));
+        }
+        try (Reader reader = specification.getMappingReader()) {
+            assertEquals(MAPPING, CharStreams.toString(reader));
+        }
+        try (Reader reader = specification.getOntologyReader().get()) {
+            assertEquals(ONTOLOGY, CharStreams.toString(reader));
+        }
+    }
+
+    @Test(expected = InvalidOntopConfigurationException.class)
+    public void testModifiedInput() throws IOException {
+        Files.write(mappingFile.toPath(), "modified mapping".getBytes(StandardCharsets.UTF_8));
+        CompiledOBDASpecification.load(artifactFile).checkInputs(getInputFiles());
+    }
+
+    @Test
+    public void testRemovedInput() throws IOException {
+        try {
+            CompiledOBDASpecification.load(artifactFile).checkInputs(
+                    ImmutableMap.of(CompiledOBDASpecification.MAPPING_INPUT, mappingFile));
+        }
+        catch (InvalidOntopConfigurationException e) {
+            assertTrue(e.getMessage().endsWith(CompiledOBDASpecification.ONTOLOGY_INPUT));
+            return;
+        }
+        throw new AssertionError("The removal of the ontology should have been detected");
+    }
+
+    @Test(expected = InvalidOntopConfigurationException.class)
+    public void testOtherFormatVersion() throws IOException {
+        String content = new String(Files.readAllBytes(artifactFile.toPath()), StandardCharsets.UTF_8);
+        Files.write(artifactFile.toPath(), content.replace("\"formatVersion\" : 2", "\"formatVersion\" : 1")
+                .getBytes(StandardCharsets.UTF_8));
+        CompiledOBDASpecification.load(artifactFile);
+    }
+
+    @Test(expected = InvalidOntopConfigurationException.class)
+    public void testModifiedChecksum() throws IOException {
+        String content = new String(Files.readAllBytes(artifactFile.toPath()), StandardCharsets.UTF_8);
+        String checksum = CompiledOBDASpecification.load(artifactFile).getInputChecksums()
+                .get(CompiledOBDASpecification.MAPPING_INPUT);
+        String modifiedChecksum = (checksum.charAt(0) == '0' ? "1" : "0") + checksum.substring(1);
+        Files.write(artifactFile.toPath(), content.replace(checksum, modifiedChecksum)
+                .getBytes(StandardCharsets.UTF_8));
+        CompiledOBDASpecification.load(artifactFile);
+    }
+
+    private ImmutableMap<String, File> getInputFiles() {
+        return ImmutableMap.of(
+                CompiledOBDASpecification.MAPPING_INPUT, mappingFile,
+                CompiledOBDASpecification.ONTOLOGY_INPUT, ontologyFile);
+    }
+}
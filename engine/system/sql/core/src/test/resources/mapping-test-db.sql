@@ -5,3 +5,12 @@ INSERT INTO "data" VALUES ('mariano','rodriguez',30,'http://schools.com/fub');
 INSERT INTO "data" VALUES ('alexandra','eckert',26,'http://schools.com/tnt');
 INSERT INTO "data" VALUES ('vlad','rhyzikov',27,'http://schools.com/fub');
 
+
+CREATE TABLE "measurement" ("id" INTEGER PRIMARY KEY, "val" VARCHAR);
+INSERT INTO "measurement" VALUES (1,'a');
+INSERT INTO "measurement" VALUES (2,'b');
+INSERT INTO "measurement" VALUES (3,'c');
+INSERT INTO "measurement" VALUES (5,'d');
+INSERT INTO "measurement" VALUES (8,'e');
+INSERT INTO "measurement" VALUES (13,'f');
+INSERT INTO "measurement" VALUES (21,'g');
@@ -30,6 +30,7 @@ public class OntopMappingModule extends OntopAbstractModule {
         bind(OntopMappingSettings.class).toInstance(configuration.getSettings());
         bindFromSettings(MappingVariableNameNormalizer.class);
         bindFromSettings(MappingSaturator.class);
+        bindFromSettings(IncrementalMappingSaturator.class);
         bindFromSettings(MappingCanonicalTransformer.class);
         bindFromSettings(FactIntoMappingConverter.class);
         bindFromSettings(MappingDatatypeFiller.class);
@@ -0,0 +1,63 @@
+package it.unibz.inf.ontop.spec.mapping;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Sets;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import java.util.Map;
+
+/**
+ * Change of a mapping: for each changed index, the new mapping assertions of this index
+ * (empty if all its mapping assertions have been removed).
+ */
+public class MappingDelta {
+
+    private final ImmutableMap<MappingAssertionIndex, ImmutableList<MappingAssertion>> changes;
+
+    private MappingDelta(ImmutableMap<MappingAssertionIndex, ImmutableList<MappingAssertion>> changes) {
+        this.changes = changes;
+    }
+
+    public static MappingDelta of(ImmutableMap<MappingAssertionIndex, ImmutableList<MappingAssertion>> changes) {
+        for (Map.Entry<MappingAssertionIndex, ImmutableList<MappingAssertion>> e : changes.entrySet()) {
+            if (e.getValue().stream().anyMatch(a -> !a.getIndex().equals(e.getKey())))
+                throw new IllegalArgumentException("Mapping assertions not matching the index " + e.getKey());
+        }
+        return new MappingDelta(changes);
+    }
+
+    /**
+     * The mapping assertions of an index are compared on their queries
+     */
+    public static MappingDelta between(ImmutableList<MappingAssertion> previousMapping,
+                                       ImmutableList<MappingAssertion> newMapping) {
+        ImmutableMultimap<MappingAssertionIndex, MappingAssertion> previousAssertions = previousMapping.stream()
+                .collect(ImmutableCollectors.toMultimap(MappingAssertion::getIndex, a -> a));
+        ImmutableMultimap<MappingAssertionIndex, MappingAssertion> newAssertions = newMapping.stream()
+                .collect(ImmutableCollectors.toMultimap(MappingAssertion::getIndex, a -> a));
+
+        return new MappingDelta(Sets.union(previousAssertions.keySet(), newAssertions.keySet()).stream()
+                .filter(i -> !getQueries(previousAssertions, i).equals(getQueries(newAssertions, i)))
+                .collect(ImmutableCollectors.toMap(
+                        i -> i,
+                        i -> ImmutableList.copyOf(newAssertions.get(i)))));
+    }
+
+    private static ImmutableList<IQ> getQueries(ImmutableMultimap<MappingAssertionIndex, MappingAssertion> assertions,
+                                               MappingAssertionIndex index) {
+        return assertions.get(index).stream()
+                .map(MappingAssertion::getQuery)
+                .collect(ImmutableCollectors.toList());
+    }
+
+    public ImmutableMap<MappingAssertionIndex, ImmutableList<MappingAssertion>> getChanges() {
+        return changes;
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+}
@@ -0,0 +1,34 @@
+package it.unibz.inf.ontop.spec.mapping.transformer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.spec.mapping.MappingAssertion;
+import it.unibz.inf.ontop.spec.mapping.MappingAssertionIndex;
+import it.unibz.inf.ontop.spec.mapping.MappingDelta;
+import it.unibz.inf.ontop.spec.ontology.ClassifiedTBox;
+
+/**
+ * Saturation that can be updated after a change of the mapping (e.g. while editing the mapping):
+ * only the saturated entries depending on the changed mapping assertions are computed again.
+ */
+public interface IncrementalMappingSaturator extends MappingSaturator {
+
+    SaturatedMapping saturateIncrementally(ImmutableList<MappingAssertion> mapping, ClassifiedTBox saturatedTBox);
+
+
+    interface SaturatedMapping {
+
+        ImmutableList<MappingAssertion> getMappingAssertions();
+
+        /**
+         * Indexes of the saturated entries computed by the saturation
+         * or by the update that produced it (including the entries that became empty)
+         */
+        ImmutableSet<MappingAssertionIndex> getRecomputedIndexes();
+
+        /**
+         * Saturation of the changed mapping, with respect to the same TBox
+         */
+        SaturatedMapping update(MappingDelta delta);
+    }
+}
@@ -39,9 +39,10 @@ import it.unibz.inf.ontop.model.term.TermFactory;
 import it.unibz.inf.ontop.model.vocabulary.RDF;
 import it.unibz.inf.ontop.spec.mapping.MappingAssertion;
 import it.unibz.inf.ontop.spec.mapping.MappingAssertionIndex;
+import it.unibz.inf.ontop.spec.mapping.MappingDelta;
 import it.unibz.inf.ontop.spec.mapping.TMappingExclusionConfig;
 import it.unibz.inf.ontop.spec.mapping.transformer.MappingCQCOptimizer;
-import it.unibz.inf.ontop.spec.mapping.transformer.MappingSaturator;
+import it.unibz.inf.ontop.spec.mapping.transformer.IncrementalMappingSaturator;
 import it.unibz.inf.ontop.spec.mapping.transformer.QueryUnionSplitter;
 import it.unibz.inf.ontop.spec.ontology.*;
 import it.unibz.inf.ontop.utils.CoreUtilsFactory;
@@ -52,7 +53,7 @@ import java.util.function.Function;
 import java.util.stream.Stream;
 
 @Singleton
-public class TMappingSaturatorImpl implements MappingSaturator  {
+public class TMappingSaturatorImpl implements IncrementalMappingSaturator {
 
 	// TODO: the implementation of EXCLUDE ignores equivalent classes / properties
 
@@ -86,61 +87,66 @@ public class TMappingSaturatorImpl implements MappingSaturator  {
 
     @Override
     public ImmutableList<MappingAssertion> saturate(ImmutableList<MappingAssertion> mapping, ClassifiedTBox reasoner) {
+        return saturateIncrementally(mapping, reasoner).getMappingAssertions();
+    }
 
+    @Override
+    public SaturatedMapping saturateIncrementally(ImmutableList<MappingAssertion> mapping, ClassifiedTBox reasoner) {
         ImmutableCQContainmentCheckUnderLIDs<RelationPredicate> cqc =
                 new ImmutableCQContainmentCheckUnderLIDs<>(
                         new DBLinearInclusionDependenciesImpl(coreUtilsFactory, atomFactory));
 
+        return new TMappingSaturation(reasoner, cqc, toRules(mapping, cqc));
+    }
+
+    private ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> toRules(Collection<MappingAssertion> mapping,
+                                                                                   ImmutableCQContainmentCheckUnderLIDs<RelationPredicate> cqc) {
 	    // index mapping assertions by the predicate type
         //     same IRI can be a class name and a property name
         //     but the same IRI cannot be an object and a data or annotation property name at the same time
         // see https://www.w3.org/TR/owl2-new-features/#F12:_Punning
 
-        ImmutableMap<MappingAssertionIndex, Collection<TMappingRule>> original = mapping.stream()
+        return mapping.stream()
                 .flatMap(a -> unionSplitter.splitUnion(unionNormalizer.optimize(a.getQuery()))
                         .map(IQ::normalizeForOptimization) // replaces join equalities
                         .map(q -> mappingCqcOptimizer.optimize(cqc, q))
                         .map(q -> Maps.immutableEntry(a.getIndex(), new TMappingRule(q, coreSingletons))))
-                .collect(ImmutableCollectors.toMultimap()).asMap();
+                .collect(ImmutableCollectors.toMultimap()).asMap().entrySet().stream()
+                .collect(ImmutableCollectors.toMap(Map.Entry::getKey, e -> ImmutableList.copyOf(e.getValue())));
+    }
 
-        ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> saturated = original.keySet().stream()
-                .map(MappingAssertionIndex::getPredicate)
-                .distinct()
+    /**
+     * One unit per DAG node (and RDF atom predicate) to saturate
+     */
+    private ImmutableList<SaturationUnit<?>> createUnits(ImmutableSet<RDFAtomPredicate> rdfAtomPredicates, ClassifiedTBox reasoner) {
+        return rdfAtomPredicates.stream()
                 .map(rdfAtomPredicate -> new TMappingRuleHeadConstructorProvider(rdfAtomPredicate, termFactory))
-                .flatMap(provider -> Stream.concat(Stream.concat(
+                .flatMap(provider -> Stream.<SaturationUnit<?>>concat(Stream.concat(
                     reasoner.objectPropertiesDAG().stream()
                         .filter(node -> !node.getRepresentative().isInverse() && !tMappingExclusionConfig.contains(node.getRepresentative()))
-                        .flatMap(node -> node.getMembers().stream()
-                                .filter(d -> !d.isInverse() || d.getInverse() != node.getRepresentative())
-                                .map(saturator(node, reasoner.objectPropertiesDAG(), original, provider::constructor, cqc))),
+                        .map(node -> new SaturationUnit<>(node, node.getMembers().stream()
+                                .filter(d -> !d.isInverse() || d.getInverse() != node.getRepresentative()),
+                                reasoner.objectPropertiesDAG(), provider::constructor)),
 
                     reasoner.dataPropertiesDAG().stream()
                         .filter(node -> !tMappingExclusionConfig.contains(node.getRepresentative()))
-                        .flatMap(node -> node.getMembers().stream()
-                                .map(saturator(node, reasoner.dataPropertiesDAG(), original, provider::constructor, cqc)))),
+                        .map(node -> new SaturationUnit<>(node, node.getMembers().stream(),
+                                reasoner.dataPropertiesDAG(), provider::constructor))),
 
                     reasoner.classesDAG().stream()
                         .filter(node -> (node.getRepresentative() instanceof OClass) && !tMappingExclusionConfig.contains((OClass)node.getRepresentative()))
-                        .flatMap(node -> node.getMembers().stream()
-                                .filter(d -> d instanceof OClass)
-                                .map(saturator(node, reasoner.classesDAG(), original, provider::constructor, cqc)))))
-
-                .filter(e -> !e.getValue().isEmpty())
-                .collect(ImmutableCollectors.toMap());
-
-        ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> combined = Stream.concat(
-                saturated.entrySet().stream(),
-                original.entrySet().stream()
-                        .filter(e -> !saturated.containsKey(e.getKey()))
-                        .map(e -> Maps.immutableEntry(e.getKey(), e.getValue().stream()
-                                        .collect(TMappingEntry.toTMappingEntry(cqc, coreSingletons)))))
-                .collect(ImmutableCollectors.toMap());
-
-        return combined.entrySet().stream()
-                .map(e -> new MappingAssertion(e.getKey(), toIQ(e.getValue()), null))
+                        .map(node -> new SaturationUnit<>(node, node.getMembers().stream()
+                                .filter(d -> d instanceof OClass),
+                                reasoner.classesDAG(), provider::constructor))))
                 .collect(ImmutableCollectors.toList());
     }
 
+    private static ImmutableSet<RDFAtomPredicate> getRDFAtomPredicates(ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> original) {
+        return original.keySet().stream()
+                .map(MappingAssertionIndex::getPredicate)
+                .collect(ImmutableCollectors.toSet());
+    }
+
     private IQ toIQ(Collection<TMappingRule> rules) {
         return queryMerger.mergeDefinitions(rules.stream()
                         .map(r -> r.asIQ(coreSingletons))
@@ -148,27 +154,186 @@ public class TMappingSaturatorImpl implements MappingSaturator  {
                 .normalizeForOptimization();
     }
 
-    private <T> Function<T, Map.Entry<MappingAssertionIndex, ImmutableList<TMappingRule>>> saturator(Equivalences<T> node,
-                                                     EquivalencesDAG<T> dag,
-                                                     ImmutableMap<MappingAssertionIndex, Collection<TMappingRule>> original,
-                                                     Function<T, TMappingRuleHeadConstructor> constructor,
-                                                     ImmutableCQContainmentCheckUnderLIDs<RelationPredicate> cqc) {
-
-	    IRIConstant iri = constructor.apply(node.getRepresentative()).getIri();
-
-        ImmutableList<TMappingRule> saturatedRepresentative = dag.getSub(node).stream()
-                .flatMap(subnode -> subnode.getMembers().stream())
-                .map(constructor)
-                .flatMap(t -> original.getOrDefault(t.indexOf(), ImmutableList.of()).stream()
-                        .map(m -> new TMappingRule(t.getArguments(m.getHeadTerms(), iri), m)))
-                .collect(TMappingEntry.toTMappingEntry(cqc, coreSingletons));
-
-        return constructor.andThen(
-                t -> Maps.immutableEntry(
-                        t.indexOf(),
-                        saturatedRepresentative.stream()
-                            .map(m -> new TMappingRule(t.getArguments(m.getHeadTerms(), t.getIri()), m))
-                            .collect(ImmutableCollectors.toList())));
+
+    /**
+     * Keeps track of the saturated entries depending on each original entry
+     * (through the sub-node relation of the DAGs), so that a change of the mapping only
+     * re-saturates the affected entries.
+     */
+    private class TMappingSaturation implements SaturatedMapping {
+
+        private final ClassifiedTBox reasoner;
+        private final ImmutableCQContainmentCheckUnderLIDs<RelationPredicate> cqc;
+        private final ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> original;
+        private final ImmutableMultimap<MappingAssertionIndex, SaturationUnit<?>> unitsByDependency;
+        private final ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> saturated;
+        private final ImmutableMap<MappingAssertionIndex, MappingAssertion> assertions;
+        private final ImmutableSet<MappingAssertionIndex> recomputedIndexes;
+
+        TMappingSaturation(ClassifiedTBox reasoner, ImmutableCQContainmentCheckUnderLIDs<RelationPredicate> cqc,
+                           ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> original) {
+            this.reasoner = reasoner;
+            this.cqc = cqc;
+            this.original = original;
+
+            ImmutableList<SaturationUnit<?>> units = createUnits(getRDFAtomPredicates(original), reasoner);
+            this.unitsByDependency = units.stream()
+                    .flatMap(u -> u.getDependencies().stream()
+                            .map(i -> Maps.<MappingAssertionIndex, SaturationUnit<?>>immutableEntry(i, u)))
+                    .collect(ImmutableCollectors.toMultimap());
+
+            ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> all = units.stream()
+                    .flatMap(u -> u.saturate(original, cqc))
+                    .collect(ImmutableCollectors.toMap());
+
+            this.saturated = all.entrySet().stream()
+                    .filter(e -> !e.getValue().isEmpty())
+                    .collect(ImmutableCollectors.toMap());
+            this.recomputedIndexes = all.keySet();
+
+            this.assertions = Sets.union(saturated.keySet(), original.keySet()).stream()
+                    .collect(ImmutableCollectors.toMap(i -> i, i -> toAssertion(i, saturated, original)));
+        }
+
+        private TMappingSaturation(ClassifiedTBox reasoner, ImmutableCQContainmentCheckUnderLIDs<RelationPredicate> cqc,
+                                   ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> original,
+                                   ImmutableMultimap<MappingAssertionIndex, SaturationUnit<?>> unitsByDependency,
+                                   ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> saturated,
+                                   ImmutableMap<MappingAssertionIndex, MappingAssertion> assertions,
+                                   ImmutableSet<MappingAssertionIndex> recomputedIndexes) {
+            this.reasoner = reasoner;
+            this.cqc = cqc;
+            this.original = original;
+            this.unitsByDependency = unitsByDependency;
+            this.saturated = saturated;
+            this.assertions = assertions;
+            this.recomputedIndexes = recomputedIndexes;
+        }
+
+        @Override
+        public ImmutableList<MappingAssertion> getMappingAssertions() {
+            return assertions.values().asList();
+        }
+
+        @Override
+        public ImmutableSet<MappingAssertionIndex> getRecomputedIndexes() {
+            return recomputedIndexes;
+        }
+
+        @Override
+        public SaturatedMapping update(MappingDelta delta) {
+            if (delta.isEmpty())
+                return this;
+
+            ImmutableSet<MappingAssertionIndex> changedIndexes = delta.getChanges().keySet();
+            ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> changedRules = toRules(
+                    delta.getChanges().values().stream()
+                            .flatMap(Collection::stream)
+                            .collect(ImmutableCollectors.toList()),
+                    cqc);
+
+            ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> newOriginal = Stream.concat(
+                    original.entrySet().stream()
+                            .filter(e -> !changedIndexes.contains(e.getKey())),
+                    changedRules.entrySet().stream())
+                    .collect(ImmutableCollectors.toMap());
+
+            // The units depend on the RDF atom predicates (triples, quads)
+            if (!getRDFAtomPredicates(newOriginal).equals(getRDFAtomPredicates(original)))
+                return new TMappingSaturation(reasoner, cqc, newOriginal);
+
+            ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> resaturated = changedIndexes.stream()
+                    .flatMap(i -> unitsByDependency.get(i).stream())
+                    .distinct()
+                    .flatMap(u -> u.saturate(newOriginal, cqc))
+                    .collect(ImmutableCollectors.toMap());
+
+            ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> newSaturated = Stream.concat(
+                    saturated.entrySet().stream()
+                            .filter(e -> !resaturated.containsKey(e.getKey())),
+                    resaturated.entrySet().stream()
+                            .filter(e -> !e.getValue().isEmpty()))
+                    .collect(ImmutableCollectors.toMap());
+
+            ImmutableSet<MappingAssertionIndex> affectedIndexes = Sets.union(changedIndexes, resaturated.keySet())
+                    .immutableCopy();
+
+            ImmutableMap<MappingAssertionIndex, MappingAssertion> newAssertions = Stream.concat(
+                    assertions.entrySet().stream()
+                            .filter(e -> !affectedIndexes.contains(e.getKey())),
+                    affectedIndexes.stream()
+                            .filter(i -> newSaturated.containsKey(i) || newOriginal.containsKey(i))
+                            .map(i -> Maps.immutableEntry(i, toAssertion(i, newSaturated, newOriginal))))
+                    .collect(ImmutableCollectors.toMap());
+
+            return new TMappingSaturation(reasoner, cqc, newOriginal, unitsByDependency, newSaturated, newAssertions,
+                    resaturated.keySet());
+        }
+
+        private MappingAssertion toAssertion(MappingAssertionIndex index,
+                                             ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> saturated,
+                                             ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> original) {
+            ImmutableList<TMappingRule> rules = saturated.containsKey(index)
+                    ? saturated.get(index)
+                    : original.get(index).stream()
+                        .collect(TMappingEntry.toTMappingEntry(cqc, coreSingletons));
+            return new MappingAssertion(index, toIQ(rules), null);
+        }
+    }
+
+    /**
+     * Saturation of the members of a DAG node: the entries of the members of its sub-nodes are merged into
+     * the entry of the representative, which is then copied to the other members.
+     */
+    private class SaturationUnit<T> {
+        private final T representative;
+        private final ImmutableList<T> members;
+        private final ImmutableList<T> subNodeMembers;
+        private final Function<T, TMappingRuleHeadConstructor> constructor;
+
+        SaturationUnit(Equivalences<T> node, Stream<T> members, EquivalencesDAG<T> dag,
+                       Function<T, TMappingRuleHeadConstructor> constructor) {
+            this.representative = node.getRepresentative();
+            this.members = members.collect(ImmutableCollectors.toList());
+            this.subNodeMembers = dag.getSub(node).stream()
+                    .flatMap(subnode -> subnode.getMembers().stream())
+                    .collect(ImmutableCollectors.toList());
+            this.constructor = constructor;
+        }
+
+        /**
+         * Indexes of the original entries used by the saturation
+         */
+        ImmutableSet<MappingAssertionIndex> getDependencies() {
+            return subNodeMembers.stream()
+                    .map(constructor)
+                    .map(TMappingRuleHeadConstructor::indexOf)
+                    .collect(ImmutableCollectors.toSet());
+        }
+
+        /**
+         * Including the empty entries
+         */
+        Stream<Map.Entry<MappingAssertionIndex, ImmutableList<TMappingRule>>> saturate(
+                ImmutableMap<MappingAssertionIndex, ImmutableList<TMappingRule>> original,
+                ImmutableCQContainmentCheckUnderLIDs<RelationPredicate> cqc) {
+
+            IRIConstant iri = constructor.apply(representative).getIri();
+
+            ImmutableList<TMappingRule> saturatedRepresentative = subNodeMembers.stream()
+                    .map(constructor)
+                    .flatMap(t -> original.getOrDefault(t.indexOf(), ImmutableList.of()).stream()
+                            .map(m -> new TMappingRule(t.getArguments(m.getHeadTerms(), iri), m)))
+                    .collect(TMappingEntry.toTMappingEntry(cqc, coreSingletons));
+
+            return members.stream()
+                    .map(constructor)
+                    .map(t -> Maps.immutableEntry(
+                            t.indexOf(),
+                            saturatedRepresentative.stream()
+                                    .map(m -> new TMappingRule(t.getArguments(m.getHeadTerms(), t.getIri()), m))
+                                    .collect(ImmutableCollectors.toList())));
+        }
     }
 
     private static abstract class TMappingRuleHeadConstructor {
@@ -12,6 +12,7 @@ import it.unibz.inf.ontop.model.atom.RDFAtomPredicate;
 import it.unibz.inf.ontop.model.template.Template;
 import it.unibz.inf.ontop.model.term.*;
 import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.spec.mapping.transformer.IncrementalMappingSaturator;
 import it.unibz.inf.ontop.spec.ontology.*;
 import it.unibz.inf.ontop.spec.ontology.impl.OntologyBuilderImpl;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
@@ -136,6 +137,116 @@ public class MappingSaturationTest {
         System.out.println(PROP_TEACHES + ":\n" + saturatedMapping.get(MappingAssertionIndex.ofProperty(tp, PROP_TEACHES)) + "\nvs\n" + maTeaches);
     }
 
+    @Test
+    public void testIncrementalMappingSaturation() throws InconsistentOntologyException {
+        OntologyBuilder builder = OntologyBuilderImpl.builder(RDF_FACTORY, TERM_FACTORY);
+        ObjectPropertyExpression givesLecture = builder.declareObjectProperty(PROP_GIVES_LECTURE);
+        ObjectPropertyExpression teaches = builder.declareObjectProperty(PROP_TEACHES);
+        ObjectPropertyExpression givesLab = builder.declareObjectProperty(PROP_GIVES_LAB);
+        ObjectPropertyExpression isTaughtBy = builder.declareObjectProperty(PROP_IS_TAUGHT_BY);
+        builder.addSubPropertyOfAxiom(givesLab, teaches);
+        builder.addSubPropertyOfAxiom(givesLecture, teaches);
+        builder.addSubPropertyOfAxiom(isTaughtBy, teaches.getInverse());
+        builder.addSubPropertyOfAxiom(teaches.getInverse(), isTaughtBy);
+        ClassifiedTBox classifiedTBox = builder.build().tbox();
+
+        MappingAssertion maTeaches = createPropertyAssertion(PROP_TEACHES, URI_TEMPLATE_COURSE1);
+        MappingAssertion maGivesLab = createPropertyAssertion(PROP_GIVES_LAB, URI_TEMPLATE_COURSE2);
+        MappingAssertion maGivesLecture = createPropertyAssertion(PROP_GIVES_LECTURE, URI_TEMPLATE_COURSE2);
+
+        ImmutableList<MappingAssertion> initialMapping = ImmutableList.of(maTeaches, maGivesLab);
+        ImmutableList<MappingAssertion> extendedMapping = ImmutableList.of(maTeaches, maGivesLab, maGivesLecture);
+
+        IncrementalMappingSaturator.SaturatedMapping initial = INCREMENTAL_MAPPING_SATURATOR
+                .saturateIncrementally(initialMapping, classifiedTBox);
+
+        // Addition
+        IncrementalMappingSaturator.SaturatedMapping extended = initial.update(
+                MappingDelta.between(initialMapping, extendedMapping));
+        assertEquals(toMap(MAPPING_SATURATOR.saturate(extendedMapping, classifiedTBox)),
+                toMap(extended.getMappingAssertions()));
+
+        // Removal
+        IncrementalMappingSaturator.SaturatedMapping reduced = extended.update(
+                MappingDelta.between(extendedMapping, initialMapping));
+        assertEquals(toMap(initial.getMappingAssertions()), toMap(reduced.getMappingAssertions()));
+
+        assertTrue(MappingDelta.between(extendedMapping, extendedMapping).isEmpty());
+    }
+
+    @Test
+    public void testIncrementalMappingSaturationRecomputedUnits() throws InconsistentOntologyException {
+        OntologyBuilder builder = OntologyBuilderImpl.builder(RDF_FACTORY, TERM_FACTORY);
+        ObjectPropertyExpression givesLecture = builder.declareObjectProperty(PROP_GIVES_LECTURE);
+        ObjectPropertyExpression teaches = builder.declareObjectProperty(PROP_TEACHES);
+        ObjectPropertyExpression givesLab = builder.declareObjectProperty(PROP_GIVES_LAB);
+        ObjectPropertyExpression isTaughtBy = builder.declareObjectProperty(PROP_IS_TAUGHT_BY);
+        builder.addSubPropertyOfAxiom(givesLab, teaches);
+        builder.addSubPropertyOfAxiom(givesLecture, teaches);
+        builder.addSubPropertyOfAxiom(isTaughtBy, teaches.getInverse());
+        builder.addSubPropertyOfAxiom(teaches.getInverse(), isTaughtBy);
+        ClassifiedTBox classifiedTBox = builder.build().tbox();
+
+        MappingAssertion maTeaches = createPropertyAssertion(PROP_TEACHES, URI_TEMPLATE_COURSE1);
+        MappingAssertion maGivesLab = createPropertyAssertion(PROP_GIVES_LAB, URI_TEMPLATE_COURSE2);
+        MappingAssertion maGivesLecture = createPropertyAssertion(PROP_GIVES_LECTURE, URI_TEMPLATE_COURSE2);
+
+        ImmutableList<MappingAssertion> initialMapping = ImmutableList.of(maTeaches, maGivesLab);
+        ImmutableList<MappingAssertion> extendedMapping = ImmutableList.of(maTeaches, maGivesLab, maGivesLecture);
+
+        RDFAtomPredicate tp = (RDFAtomPredicate) ATOM_FACTORY.getDistinctTripleAtom(S, P, O).getPredicate();
+        MappingAssertionIndex teachesIndex = MappingAssertionIndex.ofProperty(tp, PROP_TEACHES);
+        MappingAssertionIndex isTaughtByIndex = MappingAssertionIndex.ofProperty(tp, PROP_IS_TAUGHT_BY);
+        MappingAssertionIndex givesLabIndex = MappingAssertionIndex.ofProperty(tp, PROP_GIVES_LAB);
+        MappingAssertionIndex givesLectureIndex = MappingAssertionIndex.ofProperty(tp, PROP_GIVES_LECTURE);
+
+        // 3 units: teaches (with isTaughtBy), givesLab and givesLecture
+        IncrementalMappingSaturator.SaturatedMapping initial = INCREMENTAL_MAPPING_SATURATOR
+                .saturateIncrementally(initialMapping, classifiedTBox);
+        assertEquals(ImmutableSet.of(teachesIndex, isTaughtByIndex, givesLabIndex, givesLectureIndex),
+                initial.getRecomputedIndexes());
+
+        // 2 units depend on givesLecture: givesLecture and teaches (with isTaughtBy), but not givesLab
+        IncrementalMappingSaturator.SaturatedMapping extended = initial.update(
+                MappingDelta.between(initialMapping, extendedMapping));
+        assertEquals(ImmutableSet.of(givesLectureIndex, teachesIndex, isTaughtByIndex),
+                extended.getRecomputedIndexes());
+        assertEquals(toMap(MAPPING_SATURATOR.saturate(extendedMapping, classifiedTBox)),
+                toMap(extended.getMappingAssertions()));
+
+        // 2 units depend on givesLab: givesLab and teaches (with isTaughtBy), but not givesLecture
+        ImmutableList<MappingAssertion> reducedMapping = ImmutableList.of(maTeaches, maGivesLecture);
+        IncrementalMappingSaturator.SaturatedMapping reduced = extended.update(
+                MappingDelta.between(extendedMapping, reducedMapping));
+        assertEquals(ImmutableSet.of(givesLabIndex, teachesIndex, isTaughtByIndex),
+                reduced.getRecomputedIndexes());
+        assertEquals(toMap(MAPPING_SATURATOR.saturate(reducedMapping, classifiedTBox)),
+                toMap(reduced.getMappingAssertions()));
+    }
+
+    private MappingAssertion createPropertyAssertion(IRI property, ImmutableList<Template.Component> objectTemplate) {
+        DistinctVariableOnlyDataAtom spoAtom = ATOM_FACTORY.getDistinctTripleAtom(S, P, O);
+        ConstructionNode mappingRootNode = IQ_FACTORY.createConstructionNode(
+                ImmutableSet.of(S, P, O),
+                SUBSTITUTION_FACTORY.getSubstitution(
+                        S, TERM_FACTORY.getIRIFunctionalTerm(URI_TEMPLATE_PERSON, ImmutableList.of(A)),
+                        P, getConstantIRI(property),
+                        O, TERM_FACTORY.getIRIFunctionalTerm(objectTemplate, ImmutableList.of(B))));
+
+        ExtensionalDataNode extensionalDataNode = IQ_FACTORY.createExtensionalDataNode(
+                P1, ImmutableMap.of(0, A, 1, B));
+
+        return new MappingAssertion(
+                MappingAssertionIndex.ofProperty((RDFAtomPredicate) spoAtom.getPredicate(), property),
+                IQ_FACTORY.createIQ(spoAtom, IQ_FACTORY.createUnaryIQTree(mappingRootNode, extensionalDataNode)),
+                null);
+    }
+
+    private static ImmutableMap<MappingAssertionIndex, IQ> toMap(ImmutableList<MappingAssertion> mapping) {
+        return mapping.stream()
+                .collect(ImmutableCollectors.toMap(MappingAssertion::getIndex, MappingAssertion::getQuery));
+    }
+
     private ImmutableTerm getConstantIRI(IRI iri) {
         return TERM_FACTORY.getConstantIRI(iri);
     }
@@ -41,6 +41,7 @@ public class MappingTestingTools {
     public static final OntopMappingSettings ONTOP_MAPPING_SETTINGS;
     public static final MappingSameAsInverseRewriter SAME_AS_INVERSE_REWRITER;
     public static final MappingSaturator MAPPING_SATURATOR;
+    public static final IncrementalMappingSaturator INCREMENTAL_MAPPING_SATURATOR;
 
     public static final PrefixManager EMPTY_PREFIX_MANAGER;
     public static final UnionFlattener UNION_FLATTENER;
@@ -73,6 +74,7 @@ public class MappingTestingTools {
         ONTOP_MAPPING_SETTINGS = injector.getInstance(OntopMappingSettings.class);
         SAME_AS_INVERSE_REWRITER = injector.getInstance(MappingSameAsInverseRewriter.class);
         MAPPING_SATURATOR = injector.getInstance(MappingSaturator.class);
+        INCREMENTAL_MAPPING_SATURATOR = injector.getInstance(IncrementalMappingSaturator.class);
         UNION_FLATTENER = injector.getInstance(UnionFlattener.class);
         SPECIFICATION_FACTORY = injector.getInstance(SpecificationFactory.class);
         RDF_FACTORY = injector.getInstance(RDF.class);
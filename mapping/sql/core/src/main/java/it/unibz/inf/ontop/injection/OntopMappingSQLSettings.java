@@ -1,6 +1,56 @@
 package it.unibz.inf.ontop.injection;
 
 
+import java.util.Optional;
+
 public interface OntopMappingSQLSettings extends OntopMappingSettings, OntopSQLCredentialSettings {
 
+    /**
+     * Local file where the DB metadata needed by the mapping is saved after its extraction,
+     * and from which it is loaded at the next start (instead of querying the DB catalog).
+     *
+     * Ignored when DB metadata is explicitly provided.
+     */
+    Optional<String> getMetadataSnapshotFile();
+
+    /**
+     * If true, after loading the metadata snapshot, the DB catalog is queried in the background
+     * and the snapshot is refreshed for the next start if the DB schema has changed.
+     */
+    boolean isMetadataSnapshotValidatedInBackground();
+
+    /**
+     * Number of threads transforming the mapping assertions (after their conversion from the source mapping).
+     * 1 means sequential processing.
+     */
+    int getMappingProcessingParallelism();
+
+    /**
+     * Number of JDBC connections used concurrently for running the queries of the meta-mapping expansion.
+     * 1 means sequential expansion (single connection).
+     */
+    int getMetaMappingExpansionParallelism();
+
+    /**
+     * Local file where the results of the meta-mapping expansion queries are saved,
+     * and from which they are loaded at the next start (instead of querying the DB).
+     */
+    Optional<String> getMetaMappingExpansionCacheFile();
+
+    /**
+     * Time-to-live (in seconds) of the results of the meta-mapping expansion cache.
+     * If absent, they do not expire.
+     */
+    Optional<Long> getMetaMappingExpansionCacheTTL();
+
+    //--------------------------
+    // Keys
+    //--------------------------
+
+    String METADATA_SNAPSHOT_FILE = "ontop.metadataSnapshot.file";
+    String METADATA_SNAPSHOT_BACKGROUND_VALIDATION = "ontop.metadataSnapshot.backgroundValidation";
+    String MAPPING_PROCESSING_PARALLELISM = "ontop.mappingProcessing.parallelism";
+    String META_MAPPING_EXPANSION_PARALLELISM = "ontop.metaMappingExpansion.parallelism";
+    String META_MAPPING_EXPANSION_CACHE_FILE = "ontop.metaMappingExpansion.cacheFile";
+    String META_MAPPING_EXPANSION_CACHE_TTL = "ontop.metaMappingExpansion.cacheTTL";
 }
@@ -5,11 +5,13 @@ import it.unibz.inf.ontop.injection.OntopMappingSQLConfiguration;
 import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
 import it.unibz.inf.ontop.injection.SQLPPMappingFactory;
 import it.unibz.inf.ontop.spec.dbschema.ImplicitDBConstraintsProviderFactory;
+import it.unibz.inf.ontop.spec.dbschema.MetadataSnapshotCache;
 import it.unibz.inf.ontop.spec.mapping.MappingExtractor;
 import it.unibz.inf.ontop.spec.mapping.SQLPPSourceQueryFactory;
 import it.unibz.inf.ontop.spec.mapping.parser.SQLMappingParser;
 import it.unibz.inf.ontop.spec.mapping.pp.SQLPPMappingConverter;
 import it.unibz.inf.ontop.spec.mapping.pp.impl.MetaMappingExpander;
+import it.unibz.inf.ontop.spec.mapping.pp.impl.MetaMappingExpansionCache;
 
 public class OntopMappingSQLModule extends OntopAbstractModule {
 
@@ -31,5 +33,7 @@ public class OntopMappingSQLModule extends OntopAbstractModule {
         bindFromSettings(MappingExtractor.class);
         bindFromSettings(MetaMappingExpander.class);
         bindFromSettings(SQLPPSourceQueryFactory.class);
+        bindFromSettings(MetadataSnapshotCache.class);
+        bindFromSettings(MetaMappingExpansionCache.class);
     }
 }
@@ -49,4 +49,34 @@ public class OntopMappingSQLSettingsImpl extends OntopMappingSettingsImpl implem
     public String getJdbcDriver() {
         return sqlSettings.getJdbcDriver();
     }
+
+    @Override
+    public Optional<String> getMetadataSnapshotFile() {
+        return getProperty(METADATA_SNAPSHOT_FILE);
+    }
+
+    @Override
+    public boolean isMetadataSnapshotValidatedInBackground() {
+        return getRequiredBoolean(METADATA_SNAPSHOT_BACKGROUND_VALIDATION);
+    }
+
+    @Override
+    public int getMappingProcessingParallelism() {
+        return getRequiredInteger(MAPPING_PROCESSING_PARALLELISM);
+    }
+
+    @Override
+    public int getMetaMappingExpansionParallelism() {
+        return getRequiredInteger(META_MAPPING_EXPANSION_PARALLELISM);
+    }
+
+    @Override
+    public Optional<String> getMetaMappingExpansionCacheFile() {
+        return getProperty(META_MAPPING_EXPANSION_CACHE_FILE);
+    }
+
+    @Override
+    public Optional<Long> getMetaMappingExpansionCacheTTL() {
+        return getLong(META_MAPPING_EXPANSION_CACHE_TTL);
+    }
 }
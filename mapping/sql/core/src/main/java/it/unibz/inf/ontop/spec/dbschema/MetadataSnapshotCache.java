@@ -0,0 +1,36 @@
+package it.unibz.inf.ontop.spec.dbschema;
+
+import it.unibz.inf.ontop.dbschema.impl.json.JsonMetadata;
+
+import java.io.Reader;
+import java.util.Optional;
+
+/**
+ * Local snapshot of the DB metadata needed by the mapping, re-used at the next start
+ * instead of querying the DB catalog.
+ *
+ * See OntopMappingSQLSettings.getMetadataSnapshotFile()
+ */
+public interface MetadataSnapshotCache {
+
+    boolean isEnabled();
+
+    /**
+     * Returns the serialized metadata if the snapshot exists, has been taken from the same DB
+     * and has not been altered (checksum).
+     */
+    Optional<Reader> load();
+
+    /**
+     * Returns true if the snapshot has been written, i.e. if it differs from the stored one.
+     *
+     * Failures are logged but not propagated: the snapshot is only a cache.
+     */
+    boolean save(JsonMetadata metadata);
+
+    /**
+     * Extracts again from the DB catalog, in the background, the metadata of the relations of the snapshot.
+     * The snapshot is replaced if the DB schema has changed, or deleted if some relations do not exist anymore.
+     */
+    void validateInBackground(JsonMetadata snapshot);
+}
@@ -0,0 +1,201 @@
+package it.unibz.inf.ontop.spec.dbschema.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.hash.Hashing;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.dbschema.DBMetadataProvider;
+import it.unibz.inf.ontop.dbschema.impl.CachingMetadataLookup;
+import it.unibz.inf.ontop.dbschema.impl.JDBCMetadataProviderFactory;
+import it.unibz.inf.ontop.dbschema.impl.SnapshotRecordingMetadataProvider;
+import it.unibz.inf.ontop.dbschema.impl.json.JsonDatabaseTable;
+import it.unibz.inf.ontop.dbschema.impl.json.JsonMetadata;
+import it.unibz.inf.ontop.exception.MetadataExtractionException;
+import it.unibz.inf.ontop.exception.RelationNotFoundInMetadataException;
+import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
+import it.unibz.inf.ontop.spec.dbschema.MetadataSnapshotCache;
+import it.unibz.inf.ontop.utils.LocalJDBCConnectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Optional;
+
+/**
+ * Stores the snapshot in the JSON format of the DB metadata files (see JsonSerializedMetadataProvider),
+ * with two additional properties:
+ *   - a fingerprint of the JDBC URL and user, so that a snapshot is not re-used for another DB;
+ *   - a checksum of the relations.
+ *
+ * The file is replaced atomically.
+ */
+@Singleton
+public class JsonMetadataSnapshotCache implements MetadataSnapshotCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JsonMetadataSnapshotCache.class);
+
+    private static final String RELATIONS_KEY = "relations";
+    private static final String SOURCE_KEY = "snapshotSource";
+    private static final String CHECKSUM_KEY = "snapshotChecksum";
+
+    private final OntopMappingSQLSettings settings;
+    private final JDBCMetadataProviderFactory metadataProviderFactory;
+    private final Optional<Path> file;
+    private final ObjectMapper objectMapper;
+
+    @Inject
+    protected JsonMetadataSnapshotCache(OntopMappingSQLSettings settings,
+                                        JDBCMetadataProviderFactory metadataProviderFactory) {
+        this.settings = settings;
+        this.metadataProviderFactory = metadataProviderFactory;
+        this.file = settings.getMetadataSnapshotFile()
+                .map(Paths::get);
+        this.objectMapper = new ObjectMapper();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return file.isPresent();
+    }
+
+    @Override
+    public Optional<Reader> load() {
+        if (!file.isPresent() || !Files.exists(file.get()))
+            return Optional.empty();
+
+        try {
+            String content = new String(Files.readAllBytes(file.get()), StandardCharsets.UTF_8);
+            JsonNode root = objectMapper.readTree(content);
+
+            if (!getSource().equals(root.path(SOURCE_KEY).asText())) {
+                LOGGER.info("The metadata snapshot {} has been taken from another DB: ignored", file.get());
+                return Optional.empty();
+            }
+            if (!computeChecksum(root.path(RELATIONS_KEY)).equals(root.path(CHECKSUM_KEY).asText())) {
+                LOGGER.warn("Invalid checksum for the metadata snapshot {}: ignored", file.get());
+                return Optional.empty();
+            }
+            LOGGER.info("DB metadata loaded from the snapshot {}", file.get());
+            return Optional.of(new StringReader(content));
+        }
+        catch (IOException e) {
+            LOGGER.warn("Cannot read the metadata snapshot {}: {}", file.get(), e.toString());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public boolean save(JsonMetadata metadata) {
+        if (!file.isPresent())
+            return false;
+
+        Path path = file.get().toAbsolutePath();
+        try {
+            ObjectNode root = objectMapper.valueToTree(metadata);
+            String checksum = computeChecksum(root.path(RELATIONS_KEY));
+            if (getStoredChecksum(path).filter(checksum::equals).isPresent())
+                return false;
+
+            root.put(SOURCE_KEY, getSource());
+            root.put(CHECKSUM_KEY, checksum);
+
+            Path directory = path.getParent();
+            if (directory != null)
+                Files.createDirectories(directory);
+            Path tmpFile = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try {
+                objectMapper.writerWithDefaultPrettyPrinter().writeValue(tmpFile.toFile(), root);
+                Files.move(tmpFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            finally {
+                Files.deleteIfExists(tmpFile);
+            }
+            LOGGER.debug("DB metadata snapshot saved to {}", path);
+            return true;
+        }
+        catch (IOException e) {
+            LOGGER.warn("Cannot save the metadata snapshot {}: {}", path, e.toString());
+            return false;
+        }
+    }
+
+    private Optional<String> getStoredChecksum(Path path) {
+        if (!Files.exists(path))
+            return Optional.empty();
+        try {
+            JsonNode root = objectMapper.readTree(path.toFile());
+            String checksum = root.path(CHECKSUM_KEY).asText();
+            return getSource().equals(root.path(SOURCE_KEY).asText())
+                    && computeChecksum(root.path(RELATIONS_KEY)).equals(checksum)
+                    ? Optional.of(checksum)
+                    : Optional.empty();
+        }
+        catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void validateInBackground(JsonMetadata snapshot) {
+        if (!file.isPresent() || !settings.isMetadataSnapshotValidatedInBackground())
+            return;
+
+        Thread thread = new Thread(() -> validate(snapshot), "ontop-metadata-snapshot-validation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Synchronous, for testing purposes
+     */
+    protected void validate(JsonMetadata snapshot) {
+        try (Connection connection = LocalJDBCConnectionUtils.createConnection(settings)) {
+            DBMetadataProvider dbMetadataProvider = metadataProviderFactory.getMetadataProvider(connection);
+            SnapshotRecordingMetadataProvider recordingProvider = new SnapshotRecordingMetadataProvider(dbMetadataProvider);
+            CachingMetadataLookup lookup = new CachingMetadataLookup(recordingProvider);
+            for (JsonDatabaseTable relation : snapshot.relations)
+                lookup.getRelation(JsonMetadata.deserializeRelationID(dbMetadataProvider.getQuotedIDFactory(), relation.name));
+            lookup.extractImmutableMetadata();
+
+            if (!save(recordingProvider.getSnapshot())) {
+                LOGGER.debug("The metadata snapshot {} is up to date", file.get());
+                return;
+            }
+            LOGGER.warn("The DB schema has changed since the metadata snapshot {} was taken. " +
+                    "It has been refreshed and will be used at the next start.", file.get());
+        }
+        catch (RelationNotFoundInMetadataException e) {
+            invalidate(e);
+        }
+        catch (MetadataExtractionException | SQLException | RuntimeException e) {
+            LOGGER.warn("Cannot validate the metadata snapshot {}: {}", file.get(), e.toString());
+        }
+    }
+
+    private void invalidate(Exception cause) {
+        try {
+            Files.deleteIfExists(file.get());
+            LOGGER.warn("The metadata snapshot {} is outdated and has been deleted: {}", file.get(), cause.getMessage());
+        }
+        catch (IOException e) {
+            LOGGER.warn("Cannot delete the outdated metadata snapshot {}: {}", file.get(), e.toString());
+        }
+    }
+
+    private static String computeChecksum(JsonNode relations) {
+        return Hashing.sha256().hashString(relations.toString(), StandardCharsets.UTF_8).toString();
+    }
+
+    private String getSource() {
+        return Hashing.sha256().hashString(settings.getJdbcUrl() + "\n" + settings.getJdbcUser().orElse(""),
+                StandardCharsets.UTF_8).toString();
+    }
+}
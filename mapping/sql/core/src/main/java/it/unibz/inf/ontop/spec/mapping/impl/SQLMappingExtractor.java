@@ -1,10 +1,14 @@
 package it.unibz.inf.ontop.spec.mapping.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.google.inject.Inject;
 import it.unibz.inf.ontop.dbschema.*;
 import it.unibz.inf.ontop.dbschema.impl.CachingMetadataLookup;
 import it.unibz.inf.ontop.dbschema.impl.JDBCMetadataProviderFactory;
+import it.unibz.inf.ontop.dbschema.impl.ParallelDBMetadataProvider;
+import it.unibz.inf.ontop.dbschema.impl.SnapshotRecordingMetadataProvider;
 import it.unibz.inf.ontop.dbschema.SerializedMetadataProvider;
 import it.unibz.inf.ontop.exception.*;
 import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
@@ -13,6 +17,7 @@ import it.unibz.inf.ontop.iq.IQTree;
 import it.unibz.inf.ontop.iq.transform.NoNullValueEnforcer;
 import it.unibz.inf.ontop.spec.OBDASpecInput;
 import it.unibz.inf.ontop.spec.dbschema.ImplicitDBConstraintsProviderFactory;
+import it.unibz.inf.ontop.spec.dbschema.MetadataSnapshotCache;
 import it.unibz.inf.ontop.spec.mapping.MappingAssertion;
 import it.unibz.inf.ontop.spec.mapping.pp.*;
 import it.unibz.inf.ontop.spec.mapping.pp.impl.MetaMappingExpander;
@@ -32,7 +37,13 @@ import javax.annotation.Nonnull;
 import java.io.*;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 
 
@@ -63,6 +74,7 @@ public class SQLMappingExtractor implements MappingExtractor {
      */
     private final ImplicitDBConstraintsProviderFactory implicitDBConstraintExtractor;
     private final SerializedMetadataProvider.Factory serializedMetadataProviderFactory;
+    private final MetadataSnapshotCache metadataSnapshotCache;
 
     @Inject
     private SQLMappingExtractor(SQLMappingParser mappingParser,
@@ -79,7 +91,8 @@ public class SQLMappingExtractor implements MappingExtractor {
                                 ImplicitDBConstraintsProviderFactory implicitDBConstraintExtractor,
                                 JDBCMetadataProviderFactory metadataProviderFactory,
                                 SerializedMetadataProvider.Factory serializedMetadataProviderFactory,
-                                OntopViewMetadataProvider.Factory viewMetadataProviderFactory) {
+                                OntopViewMetadataProvider.Factory viewMetadataProviderFactory,
+                                MetadataSnapshotCache metadataSnapshotCache) {
 
         this.ontologyComplianceValidator = ontologyComplianceValidator;
         this.mappingParser = mappingParser;
@@ -96,6 +109,7 @@ public class SQLMappingExtractor implements MappingExtractor {
         this.metadataProviderFactory = metadataProviderFactory;
         this.implicitDBConstraintExtractor = implicitDBConstraintExtractor;
         this.serializedMetadataProviderFactory = serializedMetadataProviderFactory;
+        this.metadataSnapshotCache = metadataSnapshotCache;
     }
 
     @Override
@@ -152,23 +166,7 @@ public class SQLMappingExtractor implements MappingExtractor {
 
         ImmutableList<MappingAssertion> expMapping = metamappingExpander.transform(mm.getMapping(), mm.getDBParameters());
 
-        ImmutableList.Builder<MappingAssertion> builder = ImmutableList.builder();
-        // no streams because of exception handling
-        for (MappingAssertion assertion : expMapping) {
-            IQTree tree = assertion.getQuery().getTree();
-            IQTree equalityTransformedTree = mappingEqualityTransformer.transform(tree);
-            IQTree normalizedTree = equalityTransformedTree.normalizeForOptimization(assertion.getQuery().getVariableGenerator());
-            IQTree noNullTree = noNullValueEnforcer.transform(normalizedTree);
-            if (noNullTree.isDeclaredAsEmpty())
-                continue;
-
-            MappingAssertion noNullAssertion = assertion.copyOf(noNullTree, iqFactory);
-            MappingAssertion filledProvAssertion = mappingDatatypeFiller.transform(noNullAssertion);
-            MappingAssertion castAssertion = mappingCaster.transform(filledProvAssertion);
-            builder.add(castAssertion);
-        }
-
-        ImmutableList<MappingAssertion> castMapping = builder.build();
+        ImmutableList<MappingAssertion> castMapping = transformAssertions(expMapping);
         ImmutableList<MappingAssertion> canonizedMapping = canonicalTransformer.transform(castMapping);
 
         // Validation: Mismatch between the ontology and the mapping
@@ -179,6 +177,72 @@ public class SQLMappingExtractor implements MappingExtractor {
         return new MappingAndDBParametersImpl(canonizedMapping, mm.getDBParameters());
     }
 
+    /**
+     * The mapping assertions are transformed independently of each other: concurrently, in a thread pool,
+     * when the mapping processing parallelism is greater than 1.
+     *
+     * The order of the assertions is preserved. If several assertions fail, the exception of the first one
+     * (in the mapping order) is thrown.
+     */
+    private ImmutableList<MappingAssertion> transformAssertions(ImmutableList<MappingAssertion> mapping)
+            throws UnknownDatatypeException {
+
+        int parallelism = Math.min(Math.max(1, settings.getMappingProcessingParallelism()), mapping.size());
+
+        ImmutableList.Builder<MappingAssertion> builder = ImmutableList.builder();
+        if (parallelism <= 1) {
+            // no streams because of exception handling
+            for (MappingAssertion assertion : mapping)
+                transformAssertion(assertion).ifPresent(builder::add);
+            return builder.build();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism,
+                new ThreadFactoryBuilder()
+                        .setNameFormat("ontop-mapping-processing-%d")
+                        .setDaemon(true)
+                        .build());
+        try {
+            List<Future<Optional<MappingAssertion>>> futures = new ArrayList<>(mapping.size());
+            for (MappingAssertion assertion : mapping)
+                futures.add(executor.submit(() -> transformAssertion(assertion)));
+
+            for (Future<Optional<MappingAssertion>> future : futures)
+                Uninterruptibles.getUninterruptibly(future).ifPresent(builder::add);
+
+            return builder.build();
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UnknownDatatypeException)
+                throw (UnknownDatatypeException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new MinorOntopInternalBugException("Unexpected exception: " + cause);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Empty if the assertion cannot produce any non-null value
+     */
+    private Optional<MappingAssertion> transformAssertion(MappingAssertion assertion) throws UnknownDatatypeException {
+        IQTree tree = assertion.getQuery().getTree();
+        IQTree equalityTransformedTree = mappingEqualityTransformer.transform(tree);
+        IQTree normalizedTree = equalityTransformedTree.normalizeForOptimization(assertion.getQuery().getVariableGenerator());
+        IQTree noNullTree = noNullValueEnforcer.transform(normalizedTree);
+        if (noNullTree.isDeclaredAsEmpty())
+            return Optional.empty();
+
+        MappingAssertion noNullAssertion = assertion.copyOf(noNullTree, iqFactory);
+        MappingAssertion filledProvAssertion = mappingDatatypeFiller.transform(noNullAssertion);
+        return Optional.of(mappingCaster.transform(filledProvAssertion));
+    }
+
     private MappingAndDBParameters convert(SQLPPMapping ppMapping, OBDASpecInput specInput)
             throws MetaMappingExpansionException, MetadataExtractionException, InvalidMappingSourceQueriesException {
         try {
@@ -203,28 +267,99 @@ public class SQLMappingExtractor implements MappingExtractor {
 
                             return convert(mapping, constraintFile, ontopViewReader,
                                     serializedMetadataProviderFactory.getMetadataProvider(
-                                            dbMetadataReader, () -> metadataProviderFactory.getMetadataProvider(connection)));
+                                            dbMetadataReader, () -> metadataProviderFactory.getMetadataProvider(connection)),
+                                    1);
                         }
                     }
                     else
                         return convert(mapping, constraintFile, ontopViewReader,
-                                serializedMetadataProviderFactory.getMetadataProvider(dbMetadataReader));
+                                serializedMetadataProviderFactory.getMetadataProvider(dbMetadataReader), 1);
                 }
             }
-            else {
-                try (Connection connection = LocalJDBCConnectionUtils.createConnection(settings)) {
-                    return convert(mapping, constraintFile, ontopViewReader,
-                            metadataProviderFactory.getMetadataProvider(connection));
+            else if (metadataSnapshotCache.isEnabled()) {
+                Optional<Reader> optionalSnapshotReader = metadataSnapshotCache.load();
+                if (optionalSnapshotReader.isPresent()) {
+                    try (Reader snapshotReader = optionalSnapshotReader.get();
+                         Connection connection = LocalJDBCConnectionUtils.createLazyConnection(settings)) {
+                        // Relations missing from the snapshot are extracted from the DB
+                        SnapshotRecordingMetadataProvider recordingProvider = new SnapshotRecordingMetadataProvider(
+                                serializedMetadataProviderFactory.getMetadataProvider(
+                                        snapshotReader, () -> metadataProviderFactory.getMetadataProvider(connection)));
+
+                        MappingAndDBParameters result = convert(mapping, constraintFile, ontopViewReader, recordingProvider, 1);
+                        metadataSnapshotCache.save(recordingProvider.getSnapshot());
+                        metadataSnapshotCache.validateInBackground(recordingProvider.getSnapshot());
+                        return result;
+                    }
                 }
+                return convertFromDB(mapping, constraintFile, ontopViewReader, true);
             }
+            else
+                return convertFromDB(mapping, constraintFile, ontopViewReader, false);
         }
         catch (IOException | SQLException e) {
             throw new MetadataExtractionException(e);
         }
     }
 
+    private MappingAndDBParameters convertFromDB(ImmutableList<SQLPPTriplesMap> mapping,
+                                                 Optional<File> constraintFile,
+                                                 Optional<Reader> ontopViewReader,
+                                                 boolean takeSnapshot) throws MetadataExtractionException, InvalidMappingSourceQueriesException, SQLException {
+        // The Ontop view metadata provider does not support concurrent lookups
+        int parallelism = ontopViewReader.isPresent()
+                ? 1
+                : Math.max(1, settings.getMetadataExtractionParallelism());
+
+        List<Connection> connections = new ArrayList<>(parallelism);
+        try {
+            ImmutableList.Builder<DBMetadataProvider> builder = ImmutableList.builder();
+            for (int i = 0; i < parallelism; i++) {
+                Connection connection = LocalJDBCConnectionUtils.createConnection(settings);
+                connections.add(connection);
+                builder.add(metadataProviderFactory.getMetadataProvider(connection));
+            }
+            ImmutableList<DBMetadataProvider> providers = builder.build();
+            DBMetadataProvider dbMetadataProvider = (parallelism == 1)
+                    ? providers.get(0)
+                    : new ParallelDBMetadataProvider(providers);
+
+            if (!takeSnapshot)
+                return convert(mapping, constraintFile, ontopViewReader, dbMetadataProvider, parallelism);
+
+            SnapshotRecordingMetadataProvider recordingProvider = new SnapshotRecordingMetadataProvider(dbMetadataProvider);
+            MappingAndDBParameters result = convert(mapping, constraintFile, ontopViewReader, recordingProvider, parallelism);
+            metadataSnapshotCache.save(recordingProvider.getSnapshot());
+            return result;
+        }
+        finally {
+            closeConnections(connections);
+        }
+    }
+
+    private static void closeConnections(List<Connection> connections) throws SQLException {
+        SQLException exception = null;
+        for (Connection connection : connections) {
+            try {
+                connection.close();
+            }
+            catch (SQLException e) {
+                if (exception == null)
+                    exception = e;
+            }
+        }
+        if (exception != null)
+            throw exception;
+    }
+
+    /**
+     * The parallelism is the number of threads used for converting the mapping assertions (and therefore
+     * for retrieving the relations they use) and for inserting the integrity constraints:
+     * the DB metadata provider must be thread-safe when it is greater than 1.
+     */
     private MappingAndDBParameters convert(ImmutableList<SQLPPTriplesMap> mapping, Optional<File> constraintFile, 
-                                           Optional<Reader> ontopViewReader, MetadataProvider dbMetadataProvider) throws MetadataExtractionException, InvalidMappingSourceQueriesException {
+                                           Optional<Reader> ontopViewReader, MetadataProvider dbMetadataProvider,
+                                           int parallelism) throws MetadataExtractionException, InvalidMappingSourceQueriesException {
         
         MetadataProvider metadataProvider;
         if (ontopViewReader.isPresent()) {
@@ -241,14 +376,59 @@ public class SQLMappingExtractor implements MappingExtractor {
         MetadataProvider withImplicitConstraintsMetadataProvider =
                 implicitDBConstraintExtractor.extract(constraintFile, metadataProvider);
 
-        CachingMetadataLookup metadataLookup = new CachingMetadataLookup(withImplicitConstraintsMetadataProvider);
-        ImmutableList<MappingAssertion> provMapping = ppMappingConverter.convert(mapping, metadataLookup);
+        CachingMetadataLookup metadataLookup = new CachingMetadataLookup(withImplicitConstraintsMetadataProvider, parallelism);
+        ImmutableList<MappingAssertion> provMapping = convertConcurrently(mapping, metadataLookup, parallelism);
 
         metadataLookup.extractImmutableMetadata(); // inserts integrity constraints
 
         return new MappingAndDBParametersImpl(provMapping, metadataProvider.getDBParameters());
     }
 
+    /**
+     * The triples maps are converted independently of each other, their relations being retrieved
+     * by the shared metadata lookup. The order of the triples maps is preserved. If several of them fail,
+     * the exception of the first one (in the mapping order) is thrown.
+     */
+    private ImmutableList<MappingAssertion> convertConcurrently(ImmutableList<SQLPPTriplesMap> mapping,
+                                                                CachingMetadataLookup metadataLookup,
+                                                                int parallelism)
+            throws MetadataExtractionException, InvalidMappingSourceQueriesException {
+        if (parallelism <= 1 || mapping.size() <= 1)
+            return ppMappingConverter.convert(mapping, metadataLookup);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, mapping.size()),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("ontop-mapping-conversion-%d")
+                        .setDaemon(true)
+                        .build());
+        try {
+            List<Future<ImmutableList<MappingAssertion>>> futures = new ArrayList<>(mapping.size());
+            for (SQLPPTriplesMap triplesMap : mapping)
+                futures.add(executor.submit(() -> ppMappingConverter.convert(ImmutableList.of(triplesMap),
+                        metadataLookup)));
+
+            ImmutableList.Builder<MappingAssertion> builder = ImmutableList.builder();
+            for (Future<ImmutableList<MappingAssertion>> future : futures)
+                builder.addAll(Uninterruptibles.getUninterruptibly(future));
+            return builder.build();
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof MetadataExtractionException)
+                throw (MetadataExtractionException) cause;
+            if (cause instanceof InvalidMappingSourceQueriesException)
+                throw (InvalidMappingSourceQueriesException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new MinorOntopInternalBugException("Unexpected exception: " + cause);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
     private static class MappingAndDBParametersImpl implements MappingAndDBParameters {
         private final ImmutableList<MappingAssertion> mapping;
         private final DBParameters dbParameters;
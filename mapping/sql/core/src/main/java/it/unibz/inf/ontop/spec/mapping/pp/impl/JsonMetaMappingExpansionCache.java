@@ -0,0 +1,142 @@
+package it.unibz.inf.ontop.spec.mapping.pp.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stores the results in a JSON file, together with a fingerprint of the JDBC URL and user,
+ * so that they are not re-used for another DB.
+ *
+ * The file is replaced atomically.
+ */
+@Singleton
+public class JsonMetaMappingExpansionCache implements MetaMappingExpansionCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JsonMetaMappingExpansionCache.class);
+
+    private static final String SOURCE_KEY = "source";
+    private static final String QUERIES_KEY = "queries";
+    private static final String QUERY_KEY = "query";
+    private static final String RETRIEVAL_TIME_KEY = "retrievalTime";
+    private static final String ROWS_KEY = "rows";
+
+    private final OntopMappingSQLSettings settings;
+    private final Optional<Path> file;
+    private final ObjectMapper objectMapper;
+
+    @Inject
+    protected JsonMetaMappingExpansionCache(OntopMappingSQLSettings settings) {
+        this.settings = settings;
+        this.file = settings.getMetaMappingExpansionCacheFile()
+                .map(Paths::get);
+        this.objectMapper = new ObjectMapper();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return file.isPresent();
+    }
+
+    @Override
+    public ImmutableMap<String, QueryResult> load() {
+        if (!file.isPresent() || !Files.exists(file.get()))
+            return ImmutableMap.of();
+
+        try {
+            JsonNode root = objectMapper.readTree(file.get().toFile());
+            if (!getSource().equals(root.path(SOURCE_KEY).asText())) {
+                LOGGER.info("The meta-mapping expansion cache {} has been filled from another DB: ignored", file.get());
+                return ImmutableMap.of();
+            }
+
+            Optional<Long> minRetrievalTime = settings.getMetaMappingExpansionCacheTTL()
+                    .map(ttl -> System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(ttl));
+
+            ImmutableMap.Builder<String, QueryResult> builder = ImmutableMap.builder();
+            for (JsonNode entry : root.path(QUERIES_KEY)) {
+                long retrievalTime = entry.path(RETRIEVAL_TIME_KEY).asLong();
+                if (minRetrievalTime.isPresent() && retrievalTime < minRetrievalTime.get())
+                    continue;
+
+                ImmutableList.Builder<ImmutableMap<String, String>> rowBuilder = ImmutableList.builder();
+                for (JsonNode row : entry.path(ROWS_KEY)) {
+                    ImmutableMap.Builder<String, String> columnBuilder = ImmutableMap.builder();
+                    Iterator<Map.Entry<String, JsonNode>> columns = row.fields();
+                    while (columns.hasNext()) {
+                        Map.Entry<String, JsonNode> column = columns.next();
+                        columnBuilder.put(column.getKey(), column.getValue().asText());
+                    }
+                    rowBuilder.add(columnBuilder.build());
+                }
+                builder.put(entry.path(QUERY_KEY).asText(), new QueryResult(rowBuilder.build(), retrievalTime));
+            }
+            return builder.build();
+        }
+        catch (IOException | RuntimeException e) {
+            LOGGER.warn("Cannot read the meta-mapping expansion cache {}: {}", file.get(), e.toString());
+            return ImmutableMap.of();
+        }
+    }
+
+    @Override
+    public void save(ImmutableMap<String, QueryResult> results) {
+        if (!file.isPresent())
+            return;
+
+        Path path = file.get().toAbsolutePath();
+        try {
+            ObjectNode root = objectMapper.createObjectNode();
+            root.put(SOURCE_KEY, getSource());
+            ArrayNode queries = root.putArray(QUERIES_KEY);
+            results.forEach((query, result) -> {
+                ObjectNode entry = queries.addObject();
+                entry.put(QUERY_KEY, query);
+                entry.put(RETRIEVAL_TIME_KEY, result.getRetrievalTime());
+                ArrayNode rows = entry.putArray(ROWS_KEY);
+                for (ImmutableMap<String, String> row : result.getRows()) {
+                    ObjectNode rowNode = rows.addObject();
+                    row.forEach(rowNode::put);
+                }
+            });
+
+            Path directory = path.getParent();
+            if (directory != null)
+                Files.createDirectories(directory);
+            Path tmpFile = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try {
+                objectMapper.writerWithDefaultPrettyPrinter().writeValue(tmpFile.toFile(), root);
+                Files.move(tmpFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            finally {
+                Files.deleteIfExists(tmpFile);
+            }
+            LOGGER.debug("Meta-mapping expansion cache saved to {}", path);
+        }
+        catch (IOException e) {
+            LOGGER.warn("Cannot save the meta-mapping expansion cache {}: {}", path, e.toString());
+        }
+    }
+
+    private String getSource() {
+        return Hashing.sha256().hashString(settings.getJdbcUrl() + "\n" + settings.getJdbcUser().orElse(""),
+                StandardCharsets.UTF_8).toString();
+    }
+}
@@ -1,39 +1,54 @@
 package it.unibz.inf.ontop.spec.mapping.pp.impl;
 
 import com.google.common.collect.*;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import it.unibz.inf.ontop.dbschema.DBParameters;
 import it.unibz.inf.ontop.exception.MetaMappingExpansionException;
 import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
 import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
-import it.unibz.inf.ontop.injection.OntopSQLCredentialSettings;
+import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
 import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.ConstructionNode;
 import it.unibz.inf.ontop.iq.node.NativeNode;
 import it.unibz.inf.ontop.iq.transform.IQTree2NativeNodeGenerator;
 import it.unibz.inf.ontop.model.atom.RDFAtomPredicate;
 import it.unibz.inf.ontop.model.term.*;
 import it.unibz.inf.ontop.model.vocabulary.RDF;
 import it.unibz.inf.ontop.spec.mapping.MappingAssertion;
+import it.unibz.inf.ontop.spec.mapping.pp.impl.MetaMappingExpansionCache.QueryResult;
 import it.unibz.inf.ontop.iq.type.NotYetTypedEqualityTransformer;
 import it.unibz.inf.ontop.substitution.ImmutableSubstitution;
 import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import it.unibz.inf.ontop.utils.CoreUtilsFactory;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import it.unibz.inf.ontop.utils.LocalJDBCConnectionUtils;
+import it.unibz.inf.ontop.utils.VariableGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
 
 public class MetaMappingExpanderImpl implements MetaMappingExpander {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetaMappingExpanderImpl.class);
+
+    private static final String NON_NULL_FLAG = "1";
+
     private final SubstitutionFactory substitutionFactory;
     private final IntermediateQueryFactory iqFactory;
     private final TermFactory termFactory;
     private final NotYetTypedEqualityTransformer mappingEqualityTransformer;
     private final IQTree2NativeNodeGenerator nativeNodeGenerator;
-    private final OntopSQLCredentialSettings settings;
+    private final OntopMappingSQLSettings settings;
+    private final MetaMappingExpansionCache expansionCache;
+    private final CoreUtilsFactory coreUtilsFactory;
 
     @Inject
     private MetaMappingExpanderImpl(SubstitutionFactory substitutionFactory,
@@ -41,13 +56,17 @@ public class MetaMappingExpanderImpl implements MetaMappingExpander {
                                     TermFactory termFactory,
                                     NotYetTypedEqualityTransformer mappingEqualityTransformer,
                                     IQTree2NativeNodeGenerator nativeNodeGenerator,
-                                    OntopSQLCredentialSettings settings) {
+                                    OntopMappingSQLSettings settings,
+                                    MetaMappingExpansionCache expansionCache,
+                                    CoreUtilsFactory coreUtilsFactory) {
         this.substitutionFactory = substitutionFactory;
         this.iqFactory = iqFactory;
         this.termFactory = termFactory;
         this.mappingEqualityTransformer = mappingEqualityTransformer;
         this.nativeNodeGenerator = nativeNodeGenerator;
         this.settings = settings;
+        this.expansionCache = expansionCache;
+        this.coreUtilsFactory = coreUtilsFactory;
     }
 
     @Override
@@ -68,28 +87,287 @@ public class MetaMappingExpanderImpl implements MetaMappingExpander {
         if (positions.isEmpty())
             return mapping;
 
-        try (Connection connection = LocalJDBCConnectionUtils.createConnection(settings)) {
-            for (ExpansionPosition position : positions) {
-                NativeNode nativeNode = position.getDatabaseQuery(dbParameters);
-                try (Statement st = connection.createStatement(); ResultSet rs = st.executeQuery(nativeNode.getNativeQueryString())) {
-                    while (rs.next()) {
-                        ImmutableMap.Builder<Variable, ImmutableTerm> builder = ImmutableMap.builder();
-                        for (Variable variable : nativeNode.getVariables()) { // exceptions, no streams
-                            String column = nativeNode.getColumnNames().get(variable).getName();
-                            builder.put(variable,
-                                    termFactory.getDBConstant(rs.getString(column),
-                                            nativeNode.getTypeMap().get(variable)));
-                        }
-                        resultBuilder.add(position.createExpansion(builder.build()));
-                    }
-                }
+        // The positions sharing the same source are expanded by a single query
+        ImmutableList<ExpansionGroup> groups = positions.stream()
+                .collect(Collectors.groupingBy(ExpansionPosition::getSource, LinkedHashMap::new,
+                        ImmutableCollectors.toList()))
+                .entrySet().stream()
+                .map(e -> new ExpansionGroup(e.getKey(), e.getValue(), dbParameters))
+                .collect(ImmutableCollectors.toList());
+
+        ImmutableMap<String, NativeNode> queries = groups.stream()
+                .map(g -> g.nativeNode)
+                .collect(ImmutableCollectors.toMap(NativeNode::getNativeQueryString, n -> n, (n1, n2) -> n1));
+
+        ImmutableMap<String, QueryResult> results = getResults(queries);
+
+        Map<ExpansionPosition, ImmutableList<MappingAssertion>> expansions = new HashMap<>();
+        for (ExpansionGroup group : groups)
+            expansions.putAll(group.createExpansions(results.get(group.nativeNode.getNativeQueryString())));
+
+        for (ExpansionPosition position : positions)
+            resultBuilder.addAll(expansions.get(position));
+
+        return resultBuilder.build();
+    }
+
+    /**
+     * The results of the queries are taken from the cache when possible
+     */
+    private ImmutableMap<String, QueryResult> getResults(ImmutableMap<String, NativeNode> queries)
+            throws MetaMappingExpansionException {
+        ImmutableMap<String, QueryResult> cachedResults = expansionCache.load();
+
+        ImmutableMap<String, NativeNode> queriesToRun = queries.entrySet().stream()
+                .filter(e -> !cachedResults.containsKey(e.getKey()))
+                .collect(ImmutableCollectors.toMap());
+        if (queriesToRun.size() < queries.size())
+            LOGGER.info("Meta-mapping expansion: {} of {} queries answered from the cache",
+                    queries.size() - queriesToRun.size(), queries.size());
+
+        ImmutableMap<String, QueryResult> newResults = runQueries(queriesToRun);
+
+        ImmutableMap<String, QueryResult> results = queries.keySet().stream()
+                .collect(ImmutableCollectors.toMap(
+                        q -> q,
+                        q -> newResults.containsKey(q) ? newResults.get(q) : cachedResults.get(q)));
+
+        if (expansionCache.isEnabled() && !queriesToRun.isEmpty())
+            expansionCache.save(results);
+
+        return results;
+    }
+
+    /**
+     * Over several connections when the expansion parallelism is greater than 1
+     */
+    private ImmutableMap<String, QueryResult> runQueries(ImmutableMap<String, NativeNode> queries)
+            throws MetaMappingExpansionException {
+        if (queries.isEmpty())
+            return ImmutableMap.of();
+
+        int parallelism = Math.min(Math.max(1, settings.getMetaMappingExpansionParallelism()), queries.size());
+
+        List<Connection> connections = new ArrayList<>(parallelism);
+        try {
+            for (int i = 0; i < parallelism; i++)
+                connections.add(LocalJDBCConnectionUtils.createConnection(settings));
+
+            if (parallelism == 1) {
+                ImmutableMap.Builder<String, QueryResult> builder = ImmutableMap.builder();
+                for (NativeNode nativeNode : queries.values())
+                    builder.put(nativeNode.getNativeQueryString(), runQuery(connections.get(0), nativeNode));
+                return builder.build();
             }
+            return runQueriesConcurrently(queries, connections);
         }
         catch (SQLException e) {
             throw new MetaMappingExpansionException(e);
         }
+        finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                }
+                catch (SQLException e) {
+                    LOGGER.warn("Cannot close a connection of the meta-mapping expansion: {}", e.toString());
+                }
+            }
+        }
+    }
 
-        return resultBuilder.build();
+    /**
+     * Each connection is used by one thread at a time
+     */
+    private ImmutableMap<String, QueryResult> runQueriesConcurrently(ImmutableMap<String, NativeNode> queries,
+                                                                    List<Connection> connections)
+            throws MetaMappingExpansionException {
+        BlockingQueue<Connection> availableConnections = new ArrayBlockingQueue<>(connections.size(), false, connections);
+        ExecutorService executor = Executors.newFixedThreadPool(connections.size(),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("ontop-meta-mapping-expansion-%d")
+                        .setDaemon(true)
+                        .build());
+        try {
+            Map<String, Future<QueryResult>> futures = new LinkedHashMap<>();
+            for (NativeNode nativeNode : queries.values())
+                futures.put(nativeNode.getNativeQueryString(), executor.submit(() -> {
+                    Connection connection = availableConnections.take();
+                    try {
+                        return runQuery(connection, nativeNode);
+                    }
+                    finally {
+                        availableConnections.add(connection);
+                    }
+                }));
+
+            ImmutableMap.Builder<String, QueryResult> builder = ImmutableMap.builder();
+            for (Map.Entry<String, Future<QueryResult>> future : futures.entrySet())
+                builder.put(future.getKey(), future.getValue().get());
+            return builder.build();
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new MetaMappingExpansionException((Exception) cause);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MetaMappingExpansionException("Interrupted during the meta-mapping expansion");
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private QueryResult runQuery(Connection connection, NativeNode nativeNode) throws SQLException {
+        long retrievalTime = System.currentTimeMillis();
+        ImmutableList.Builder<ImmutableMap<String, String>> rowBuilder = ImmutableList.builder();
+        try (Statement st = connection.createStatement(); ResultSet rs = st.executeQuery(nativeNode.getNativeQueryString())) {
+            while (rs.next()) {
+                ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
+                for (Variable variable : nativeNode.getVariables()) { // exceptions, no streams
+                    String column = nativeNode.getColumnNames().get(variable).getName();
+                    String value = rs.getString(column);
+                    if (value != null) // NULL flags are omitted
+                        builder.put(column, value);
+                }
+                rowBuilder.add(builder.build());
+            }
+        }
+        return new QueryResult(rowBuilder.build(), retrievalTime);
+    }
+
+    /**
+     * Positions having the same source: their values are retrieved by a single query,
+     * projecting the variables of all their templates.
+     *
+     * A position only applies to the rows where none of the variables of its top child is NULL.
+     * When these variables differ between the positions, the query also projects a flag for each set of them,
+     * which is NULL when one of the variables is.
+     */
+    private final class ExpansionGroup {
+        private final ImmutableList<ExpansionPosition> positions;
+        // empty when all the positions have the same top child variables
+        private final ImmutableMap<ExpansionPosition, Variable> flags;
+        private final NativeNode nativeNode;
+
+        ExpansionGroup(IQTree source, ImmutableList<ExpansionPosition> positions, DBParameters dbParameters) {
+            this.positions = positions;
+
+            ImmutableSet<Variable> templateVariables = positions.stream()
+                    .flatMap(p -> p.getTemplate().getVariableStream())
+                    .collect(ImmutableCollectors.toSet());
+
+            ImmutableSet<ImmutableSet<Variable>> nonNullVariableSets = positions.stream()
+                    .map(p -> p.assertion.getTopChild().getVariables())
+                    .collect(ImmutableCollectors.toSet());
+
+            if (nonNullVariableSets.size() == 1) {
+                this.flags = ImmutableMap.of();
+                this.nativeNode = getDatabaseQuery(positions.get(0).assertion.getTopChild(), templateVariables,
+                        dbParameters);
+            }
+            else {
+                VariableGenerator variableGenerator = coreUtilsFactory.createVariableGenerator(source.getKnownVariables());
+                ImmutableMap<ImmutableSet<Variable>, Variable> flagVariables = nonNullVariableSets.stream()
+                        .collect(ImmutableCollectors.toMap(
+                                vs -> vs,
+                                vs -> variableGenerator.generateNewVariable("nonNull")));
+                this.flags = positions.stream()
+                        .collect(ImmutableCollectors.toMap(
+                                p -> p,
+                                p -> flagVariables.get(p.assertion.getTopChild().getVariables())));
+                this.nativeNode = getDatabaseQuery(source, templateVariables, flagVariables, dbParameters);
+            }
+        }
+
+        ImmutableMap<ExpansionPosition, ImmutableList<MappingAssertion>> createExpansions(QueryResult result) {
+            return positions.stream()
+                    .collect(ImmutableCollectors.toMap(
+                            p -> p,
+                            p -> result.getRows().stream()
+                                    .filter(r -> !flags.containsKey(p) || r.containsKey(getColumn(flags.get(p))))
+                                    .map(r -> p.getTemplateVariables().stream()
+                                            .collect(ImmutableCollectors.toMap(
+                                                    v -> v,
+                                                    v -> (ImmutableTerm) termFactory.getDBConstant(
+                                                            r.get(getColumn(v)), nativeNode.getTypeMap().get(v)))))
+                                    .distinct()
+                                    .map(p::createExpansion)
+                                    .collect(ImmutableCollectors.toList())));
+        }
+
+        private String getColumn(Variable variable) {
+            return nativeNode.getColumnNames().get(variable).getName();
+        }
+    }
+
+    private NativeNode getDatabaseQuery(IQTree topChild, ImmutableSet<Variable> templateVariables,
+                                        DBParameters dbParameters) {
+
+        IQTree topChildNotNull = termFactory.getDBIsNotNull(topChild.getVariables().stream())
+                .map(iqFactory::createFilterNode)
+                .map(n -> (IQTree)iqFactory.createUnaryIQTree(n, topChild))
+                .orElse(topChild);
+
+        IQTree constructionTree = iqFactory.createUnaryIQTree(iqFactory.createConstructionNode(
+                templateVariables,
+                substitutionFactory.getSubstitution()),
+                topChildNotNull);
+
+        return getDistinctDatabaseQuery(constructionTree, dbParameters);
+    }
+
+    /**
+     * The rows of the source are kept when one of the sets of variables has no NULL
+     */
+    private NativeNode getDatabaseQuery(IQTree source, ImmutableSet<Variable> templateVariables,
+                                        ImmutableMap<ImmutableSet<Variable>, Variable> flagVariables,
+                                        DBParameters dbParameters) {
+
+        ImmutableMap<Variable, ImmutableExpression> conditions = flagVariables.entrySet().stream()
+                .collect(ImmutableCollectors.toMap(
+                        Map.Entry::getValue,
+                        e -> termFactory.getDBIsNotNull(e.getKey().stream())
+                                .orElseThrow(() -> new MinorOntopInternalBugException(
+                                        "The top child of a meta-mapping assertion projects no variable"))));
+
+        // Same shape as for a single set of variables: the filter is above a projection of the source
+        IQTree projectedSource = iqFactory.createUnaryIQTree(iqFactory.createConstructionNode(
+                flagVariables.keySet().stream()
+                        .flatMap(Collection::stream)
+                        .collect(ImmutableCollectors.toSet()),
+                substitutionFactory.getSubstitution()),
+                source);
+
+        IQTree filterTree = iqFactory.createUnaryIQTree(
+                iqFactory.createFilterNode(termFactory.getDisjunction(ImmutableList.copyOf(conditions.values()))),
+                projectedSource);
+
+        ImmutableSubstitution<ImmutableTerm> flagSubstitution = substitutionFactory.getSubstitution(
+                conditions.entrySet().stream()
+                        .collect(ImmutableCollectors.toMap(
+                                Map.Entry::getKey,
+                                e -> (ImmutableTerm) termFactory.getIfElseNull(e.getValue(),
+                                        termFactory.getDBStringConstant(NON_NULL_FLAG)))));
+
+        IQTree constructionTree = iqFactory.createUnaryIQTree(iqFactory.createConstructionNode(
+                Sets.union(templateVariables, flagSubstitution.getDomain()).immutableCopy(),
+                flagSubstitution),
+                filterTree);
+
+        return getDistinctDatabaseQuery(constructionTree, dbParameters);
+    }
+
+    private NativeNode getDistinctDatabaseQuery(IQTree constructionTree, DBParameters dbParameters) {
+        IQTree tree = iqFactory.createUnaryIQTree(iqFactory.createDistinctNode(), constructionTree);
+
+        IQTree transformedTree = mappingEqualityTransformer.transform(tree);
+        return nativeNodeGenerator.generate(transformedTree, dbParameters, true);
     }
 
     private final class ExpansionPosition {
@@ -101,26 +379,24 @@ public class MetaMappingExpanderImpl implements MetaMappingExpander {
             this.topVariable = topVariable;
         }
 
+        /**
+         * Below the projection of the variables used by the assertion
+         */
+        IQTree getSource() {
+            IQTree topChild = assertion.getTopChild();
+            return (topChild.getRootNode() instanceof ConstructionNode)
+                    && ((ConstructionNode) topChild.getRootNode()).getSubstitution().isEmpty()
+                    ? topChild.getChildren().get(0)
+                    : topChild;
+        }
+
         ImmutableTerm getTemplate() {
             return assertion.getTopSubstitution().get(topVariable);
         }
 
-        NativeNode getDatabaseQuery(DBParameters dbParameters) {
-
-            IQTree topChildNotNull = termFactory.getDBIsNotNull(assertion.getTopChild().getVariables().stream())
-                    .map(iqFactory::createFilterNode)
-                    .map(n -> (IQTree)iqFactory.createUnaryIQTree(n, assertion.getTopChild()))
-                    .orElse(assertion.getTopChild());
-
-            IQTree constructionTree = iqFactory.createUnaryIQTree(iqFactory.createConstructionNode(
-                    getTemplate().getVariableStream().collect(ImmutableCollectors.toSet()),
-                    substitutionFactory.getSubstitution()),
-                    topChildNotNull);
-
-            IQTree tree = iqFactory.createUnaryIQTree(iqFactory.createDistinctNode(), constructionTree);
-
-            IQTree transformedTree = mappingEqualityTransformer.transform(tree);
-            return nativeNodeGenerator.generate(transformedTree, dbParameters, true);
+        ImmutableSet<Variable> getTemplateVariables() {
+            return getTemplate().getVariableStream()
+                    .collect(ImmutableCollectors.toSet());
         }
 
         MappingAssertion createExpansion(ImmutableMap<Variable, ImmutableTerm> values) {
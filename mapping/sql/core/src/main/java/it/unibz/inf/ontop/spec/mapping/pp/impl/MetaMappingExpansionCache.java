@@ -0,0 +1,51 @@
+package it.unibz.inf.ontop.spec.mapping.pp.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Results of the queries of the meta-mapping expansion, re-used at the next start instead of querying the DB.
+ *
+ * See OntopMappingSQLSettings.getMetaMappingExpansionCacheFile()
+ */
+public interface MetaMappingExpansionCache {
+
+    boolean isEnabled();
+
+    /**
+     * Results indexed by query, taken from the same DB and not expired (see the TTL)
+     */
+    ImmutableMap<String, QueryResult> load();
+
+    /**
+     * Replaces all the cached results.
+     *
+     * Failures are logged but not propagated: the results are only cached.
+     */
+    void save(ImmutableMap<String, QueryResult> results);
+
+
+    class QueryResult {
+        private final ImmutableList<ImmutableMap<String, String>> rows;
+        private final long retrievalTime;
+
+        /**
+         * Each row maps the column names to their values
+         */
+        public QueryResult(ImmutableList<ImmutableMap<String, String>> rows, long retrievalTime) {
+            this.rows = rows;
+            this.retrievalTime = retrievalTime;
+        }
+
+        public ImmutableList<ImmutableMap<String, String>> getRows() {
+            return rows;
+        }
+
+        /**
+         * In milliseconds since the epoch
+         */
+        public long getRetrievalTime() {
+            return retrievalTime;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package it.unibz.inf.ontop.benchmark;
+
+import com.google.inject.Injector;
+import it.unibz.inf.ontop.answering.reformulation.generation.NativeQueryGenerator;
+import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
+import it.unibz.inf.ontop.answering.reformulation.input.SelectQuery;
+import it.unibz.inf.ontop.answering.reformulation.input.translation.InputQueryTranslator;
+import it.unibz.inf.ontop.answering.reformulation.rewriting.QueryRewriter;
+import it.unibz.inf.ontop.answering.reformulation.unfolding.QueryUnfolder;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.injection.TranslationFactory;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.optimizer.GeneralStructuralAndSemanticIQOptimizer;
+import it.unibz.inf.ontop.iq.planner.QueryPlanner;
+import it.unibz.inf.ontop.spec.OBDASpecification;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks each phase of the reformulation of a SPARQL query into SQL, in isolation.
+ *
+ * The input of each phase is computed once during the set-up, the same way QuestQueryProcessor does.
+ * No query cache is involved.
+ *
+ * Query shapes:
+ *   - HIERARCHY: instances of the root of the class hierarchy (union over all the triples maps);
+ *   - JOIN: instances of the deepest class joined with two data properties;
+ *   - EXISTENTIAL: ?x :r ?y . ?y a :C0, for which the deepest class yields a tree witness.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReformulationBenchmark {
+
+    public enum QueryShape {
+        HIERARCHY, JOIN, EXISTENTIAL
+    }
+
+    @Param({"100", "1000"})
+    private int mappingSize;
+
+    @Param({"10"})
+    private int hierarchyDepth;
+
+    @Param({"HIERARCHY", "JOIN", "EXISTENTIAL"})
+    private QueryShape queryShape;
+
+    private SyntheticFixture fixture;
+
+    private InputQueryFactory inputQueryFactory;
+    private InputQueryTranslator inputQueryTranslator;
+    private QueryRewriter rewriter;
+    private QueryUnfolder unfolder;
+    private GeneralStructuralAndSemanticIQOptimizer optimizer;
+    private QueryPlanner planner;
+    private NativeQueryGenerator nativeQueryGenerator;
+
+    private SelectQuery inputQuery;
+    private IQ translatedQuery;
+    private IQ rewrittenQuery;
+    private IQ unfoldedQuery;
+    private IQ plannedQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // A few rows are enough: only the metadata matters
+        fixture = new SyntheticFixture(mappingSize, hierarchyDepth, mappingSize);
+        OntopSQLOWLAPIConfiguration configuration = fixture.createConfiguration(true);
+        OBDASpecification specification = configuration.loadSpecification();
+        Injector injector = configuration.getInjector();
+
+        inputQueryFactory = injector.getInstance(InputQueryFactory.class);
+        inputQueryTranslator = injector.getInstance(InputQueryTranslator.class);
+        rewriter = injector.getInstance(QueryRewriter.class);
+        rewriter.setTBox(specification.getSaturatedTBox());
+        TranslationFactory translationFactory = injector.getInstance(TranslationFactory.class);
+        unfolder = translationFactory.create(specification.getSaturatedMapping());
+        nativeQueryGenerator = translationFactory.create(specification.getDBParameters());
+        optimizer = injector.getInstance(GeneralStructuralAndSemanticIQOptimizer.class);
+        planner = injector.getInstance(QueryPlanner.class);
+
+        inputQuery = inputQueryFactory.createSelectQuery(createQueryString());
+        translatedQuery = inputQuery.translate(inputQueryTranslator);
+        rewrittenQuery = rewriter.rewrite(translatedQuery);
+        unfoldedQuery = unfolder.optimize(rewrittenQuery);
+        plannedQuery = planner.optimize(optimizer.optimize(unfoldedQuery));
+    }
+
+    private String createQueryString() {
+        int deepestClass = fixture.getHierarchyDepth() - 1;
+        switch (queryShape) {
+            case HIERARCHY:
+                return SyntheticFixture.PREFIXES + "SELECT ?x WHERE { ?x a :C0 }";
+            case JOIN:
+                return SyntheticFixture.PREFIXES + "SELECT ?x ?v ?c WHERE { ?x a :C" + deepestClass
+                        + " ; :p" + (mappingSize - 1) + " ?v ; :category ?c }";
+            case EXISTENTIAL:
+                return SyntheticFixture.PREFIXES + "SELECT ?x WHERE { ?x :r ?y . ?y a :C0 }";
+            default:
+                throw new IllegalStateException("Unexpected query shape: " + queryShape);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        fixture.close();
+    }
+
+    @Benchmark
+    public IQ translate() throws Exception {
+        return inputQueryFactory.createSelectQuery(inputQuery.getInputString())
+                .translate(inputQueryTranslator);
+    }
+
+    @Benchmark
+    public IQ rewrite() throws Exception {
+        return rewriter.rewrite(translatedQuery);
+    }
+
+    @Benchmark
+    public IQ unfold() {
+        return unfolder.optimize(rewrittenQuery);
+    }
+
+    @Benchmark
+    public IQ optimize() {
+        return optimizer.optimize(unfoldedQuery);
+    }
+
+    @Benchmark
+    public IQ generateSQL() {
+        return nativeQueryGenerator.generateSourceQuery(plannedQuery);
+    }
+}
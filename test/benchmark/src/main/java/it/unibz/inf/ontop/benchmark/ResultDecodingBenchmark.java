@@ -0,0 +1,88 @@
+package it.unibz.inf.ontop.benchmark;
+
+import com.google.common.collect.ImmutableMultimap;
+import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.reformulation.input.InputQueryFactory;
+import it.unibz.inf.ontop.answering.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.answering.resultset.TupleResultSet;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.iq.IQ;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the conversion of the rows of a JDBC result set into bindings (JDBCTupleResultSet).
+ *
+ * The executable query is reformulated once during the set-up. Each invocation executes it
+ * with a new statement (closed together with the result set, as by the RDF4J binding)
+ * against the in-memory H2 database and decodes all its rows: an IRI built from a template,
+ * a plain literal and a typed literal per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultDecodingBenchmark {
+
+    private static final String QUERY = SyntheticFixture.PREFIXES + "SELECT ?x ?v ?c WHERE { ?x :p0 ?v ; :category ?c }";
+
+    @Param({"10000"})
+    private int rowCount;
+
+    private SyntheticFixture fixture;
+    private OntopQueryEngine queryEngine;
+    private OntopConnection connection;
+    private QueryLogger.Factory queryLoggerFactory;
+    private IQ executableQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // All the rows are mapped by the same triples map
+        fixture = new SyntheticFixture(1, 1, rowCount);
+        OntopSQLOWLAPIConfiguration configuration = fixture.createConfiguration(false);
+        queryEngine = configuration.loadQueryEngine();
+        queryEngine.connect();
+        connection = queryEngine.getConnection();
+        queryLoggerFactory = configuration.getInjector().getInstance(QueryLogger.Factory.class);
+
+        InputQueryFactory inputQueryFactory = configuration.getInjector().getInstance(InputQueryFactory.class);
+        try (OntopStatement statement = connection.createStatement()) {
+            executableQuery = statement.getExecutableQuery(inputQueryFactory.createSelectQuery(QUERY));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        connection.close();
+        queryEngine.close();
+        fixture.close();
+    }
+
+    @Benchmark
+    public int decode(Blackhole blackhole) throws Exception {
+        int count = 0;
+        OntopStatement statement = connection.createStatement();
+        TupleResultSet resultSet = statement.executeSelectQuery(executableQuery,
+                queryLoggerFactory.create(ImmutableMultimap.of()));
+        try {
+            while (resultSet.hasNext()) {
+                OntopBindingSet bindingSet = resultSet.next();
+                blackhole.consume(bindingSet.getBindings());
+                count++;
+            }
+        }
+        finally {
+            resultSet.close();
+        }
+        if (count != rowCount)
+            throw new IllegalStateException("Unexpected number of results: " + count);
+        return count;
+    }
+}
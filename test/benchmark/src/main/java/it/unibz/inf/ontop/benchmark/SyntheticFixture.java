@@ -0,0 +1,141 @@
+package it.unibz.inf.ontop.benchmark;
+
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Synthetic OBDA specification over an in-memory H2 database.
+ *
+ * Table entity(id, category, ref, val) where the category of a row is id % mappingSize.
+ *
+ * Triples map i (0 <= i < mappingSize):
+ *   :e/{id} a :C{i % hierarchyDepth} ; :p{i} {val} ; :category {category}^^xsd:integer .
+ * with the source query "SELECT ... FROM entity WHERE category = i".
+ * The first triples map also maps the object property :r.
+ *
+ * Ontology: chain of classes :C{d} rdfs:subClassOf :C{d-1}, the deepest class having
+ * an existential restriction on :r (exercised by the tree-witness rewriter).
+ *
+ * The database lives as long as the fixture is not closed.
+ */
+class SyntheticFixture implements AutoCloseable {
+
+    static final String NAMESPACE = "http://example.org/benchmark#";
+    static final String PREFIXES = "PREFIX : <" + NAMESPACE + ">\n";
+
+    private static final String USER = "sa";
+    private static final String PASSWORD = "";
+    private static final AtomicInteger DB_COUNTER = new AtomicInteger();
+
+    private final int mappingSize;
+    private final int hierarchyDepth;
+    private final String jdbcUrl;
+    // Keeps the in-memory database alive
+    private final Connection connection;
+
+    SyntheticFixture(int mappingSize, int hierarchyDepth, int rowCount) throws SQLException {
+        if (mappingSize < 1 || hierarchyDepth < 1)
+            throw new IllegalArgumentException("The mapping size and the hierarchy depth must be positive");
+
+        this.mappingSize = mappingSize;
+        this.hierarchyDepth = hierarchyDepth;
+        this.jdbcUrl = "jdbc:h2:mem:benchmark" + DB_COUNTER.incrementAndGet();
+        this.connection = DriverManager.getConnection(jdbcUrl, USER, PASSWORD);
+        populate(rowCount);
+    }
+
+    private void populate(int rowCount) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE entity (id INT PRIMARY KEY, category INT NOT NULL, " +
+                    "ref INT, val VARCHAR(100))");
+            statement.execute("CREATE INDEX entity_category ON entity(category)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO entity VALUES (?, ?, ?, ?)")) {
+            for (int id = 0; id < rowCount; id++) {
+                insert.setInt(1, id);
+                insert.setInt(2, id % mappingSize);
+                insert.setInt(3, (id + 1) % rowCount);
+                insert.setString(4, "value " + id);
+                insert.addBatch();
+                if (id % 1000 == 999)
+                    insert.executeBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    OntopSQLOWLAPIConfiguration createConfiguration(boolean existentialReasoning) {
+        Properties properties = new Properties();
+        properties.setProperty("ontop.existentialReasoning", String.valueOf(existentialReasoning));
+
+        return OntopSQLOWLAPIConfiguration.defaultBuilder()
+                .nativeOntopMappingReader(new StringReader(generateMapping()))
+                .ontologyReader(new StringReader(generateOntology()))
+                .jdbcUrl(jdbcUrl)
+                .jdbcUser(USER)
+                .jdbcPassword(PASSWORD)
+                .properties(properties)
+                .enableTestMode()
+                .build();
+    }
+
+    private String generateMapping() {
+        StringBuilder sb = new StringBuilder()
+                .append("[PrefixDeclaration]\n")
+                .append(":\t").append(NAMESPACE).append("\n")
+                .append("xsd:\thttp://www.w3.org/2001/XMLSchema#\n\n")
+                .append("[MappingDeclaration] @collection [[\n");
+
+        for (int i = 0; i < mappingSize; i++) {
+            sb.append("mappingId\tentity-").append(i).append("\n")
+                    .append("target\t\t:e/{id} a :C").append(i % hierarchyDepth)
+                    .append(" ; :p").append(i).append(" {val}")
+                    .append(" ; :category {category}^^xsd:integer");
+            if (i == 0)
+                sb.append(" ; :r :e/{ref}");
+            sb.append(" .\n")
+                    .append("source\t\tSELECT id, category, ref, val FROM entity WHERE category = ").append(i)
+                    .append("\n\n");
+        }
+        return sb.append("]]\n").toString();
+    }
+
+    private String generateOntology() {
+        StringBuilder sb = new StringBuilder()
+                .append("@prefix : <").append(NAMESPACE).append("> .\n")
+                .append("@prefix owl: <http://www.w3.org/2002/07/owl#> .\n")
+                .append("@prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .\n\n")
+                .append("<").append(NAMESPACE).append("> a owl:Ontology .\n")
+                .append(":r a owl:ObjectProperty .\n")
+                .append(":category a owl:DatatypeProperty .\n")
+                .append(":C0 a owl:Class .\n");
+
+        for (int d = 1; d < hierarchyDepth; d++)
+            sb.append(":C").append(d).append(" a owl:Class ; rdfs:subClassOf :C").append(d - 1).append(" .\n");
+
+        sb.append(":C").append(hierarchyDepth - 1).append(" rdfs:subClassOf [ a owl:Restriction ; ")
+                .append("owl:onProperty :r ; owl:someValuesFrom :C0 ] .\n");
+
+        for (int i = 0; i < mappingSize; i++)
+            sb.append(":p").append(i).append(" a owl:DatatypeProperty .\n");
+
+        return sb.toString();
+    }
+
+    int getHierarchyDepth() {
+        return hierarchyDepth;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        connection.close();
+    }
+}
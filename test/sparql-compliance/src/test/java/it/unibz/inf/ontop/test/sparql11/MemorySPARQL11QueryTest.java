@@ -118,7 +118,7 @@ public class MemorySPARQL11QueryTest extends MemoryOntopTestCase {
 			existsManifest + "exists05",
 
 			/* PROPERTY PATH*/
-			// Not supported: ArbitraryLengthPath
+			// Not supported: union of the zero-length path (constant) with SI IRIs (not computed in SQL)
 			propertyPathManifest + "pp02",
 
 			//wrong result, unexpected binding
@@ -127,21 +127,18 @@ public class MemorySPARQL11QueryTest extends MemoryOntopTestCase {
 			// Quads are not yet supported by the SI
 			propertyPathManifest + "pp07",
 
-			// Not supported: ArbitraryLengthPath
-			propertyPathManifest + "pp12",
+			// Not supported: ORDER BY over SI IRIs (not computed in SQL)
 			propertyPathManifest + "pp14",
 			propertyPathManifest + "pp16",
-			propertyPathManifest + "pp21",
-			propertyPathManifest + "pp23",
-			propertyPathManifest + "pp25",
 
-			//Not supported: ZeroLengthPath
+			// Not supported: union of the zero-length path (constant) with SI IRIs (not computed in SQL)
 			propertyPathManifest + "pp28a",
 
-			// Not supported: ArbitraryLengthPath
+			// Not supported: ArbitraryLengthPath over named graphs
 			propertyPathManifest + "pp34",
 			propertyPathManifest + "pp35",
-			propertyPathManifest + "pp36",
+
+			// Not supported: ORDER BY over SI IRIs (not computed in SQL)
 			propertyPathManifest + "pp37",
 
 			/* SERVICE